@@ -7,7 +7,22 @@
  *
  * @author jerimiahtongco
  */
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.furever.crud.AdopterCRUD;
+import com.furever.crud.ArchiveLog;
+import com.furever.crud.AsyncAdoptionRequestCRUD;
+import com.furever.crud.AsyncCRUD;
+import com.furever.crud.AsyncPetCRUD;
+import com.furever.crud.AsyncUserCRUD;
+import com.furever.crud.ChangeFeed;
 import com.furever.crud.PetOwnerCRUD;
+import com.furever.crud.PetRecommender;
+import com.furever.crud.SearchIndexes;
+import com.furever.crud.StatementCatalog;
 import com.furever.crud.UserCRUD;
 import com.furever.dashboard.AdminArchiveDashboard;
 import com.furever.dashboard.AdopterDashboard;
@@ -16,6 +31,8 @@ import com.furever.dashboard.PetDashboard;
 import com.furever.dashboard.PetOwnerDashboard;
 import com.furever.dashboard.UserDashboard;
 import com.furever.database.DbConnection;
+import com.furever.database.SchemaMigrator;
+import com.furever.models.Adopter;
 import com.furever.models.PetOwner;
 import com.furever.models.User;
 import com.furever.utils.InputValidator;
@@ -66,6 +83,21 @@ public class MainMenu {
                 return;
             }
             
+            // Bring the schema up to date (indexes added after the furever.sql baseline)
+            if (new SchemaMigrator().migrate() < 0) {
+                InputValidator.displayWarning("Schema migrations could not be applied; some queries may be slow.");
+            }
+            
+            // Warm the in-memory name search indexes so the first search is fast
+            if (!SearchIndexes.getInstance().warm()) {
+                InputValidator.displayWarning("Search indexes could not be loaded; searches will query the database directly.");
+            }
+            
+            // Warm the pet feature index used for adopter recommendations
+            if (!PetRecommender.getInstance().warm()) {
+                InputValidator.displayWarning("Pet recommendations could not be loaded; they will not be shown.");
+            }
+            
             InputValidator.displayHeader("WELCOME TO FUREVER PET ADOPTION SYSTEM");
             System.out.println("System initialized successfully!");
             
@@ -75,7 +107,8 @@ public class MainMenu {
         } catch (Exception e) {
             InputValidator.displayError("Failed to start application: " + e.getMessage());
         } finally {
-            // Close database connection
+            // Write out queued audit log entries, then close database connection
+            ArchiveLog.getInstance().shutdown();
             DbConnection.closeConnection();
             System.out.println("Thank you for using Furever Pet Adoption System!");
         }
@@ -306,45 +339,53 @@ public class MainMenu {
      * Displays the main menu for authenticated adopter users
      */
     private void showAdopterMenu() {
-        while (true) {
-            InputValidator.displayHeader("FUREVER PET ADOPTION SYSTEM - ADOPTER MENU");
-            System.out.println("Logged in as: " + currentUser.getUsername() + " (Adopter)");
-            System.out.println();
-            System.out.println("1. View Available Pets");
-            System.out.println("2. Submit Adoption Request");
-            System.out.println("3. View My Adoption Requests");
-            System.out.println("4. Update My Profile");
-            System.out.println("5. View Pet Statistics");
-            System.out.println("6. Logout");
-            System.out.println("-".repeat(60));
-            
-            int choice = InputValidator.getIntInput("Enter your choice (1-6): ", 1, 6);
-            
-            switch (choice) {
-                case 1:
-                    showAvailablePets();
-                    break;
-                case 2:
-                    submitAdoptionRequest();
-                    break;
-                case 3:
-                    viewMyAdoptionRequests();
-                    break;
-                case 4:
-                    updateMyProfile();
-                    break;
-                case 5:
-                    showGuestPetStatistics();
-                    break;
-                case 6:
-                    currentUser = null;
-                    InputValidator.displaySuccess("Logged out successfully.");
-                    return;
-                default:
-                    InputValidator.displayError("Invalid choice. Please try again.");
+        ChangeFeed.Subscription updates = subscribeToAdopterUpdates();
+        try {
+            while (true) {
+                InputValidator.displayHeader("FUREVER PET ADOPTION SYSTEM - ADOPTER MENU");
+                System.out.println("Logged in as: " + currentUser.getUsername() + " (Adopter)");
+                showChangeUpdates(updates);
+                System.out.println();
+                System.out.println("1. View Available Pets");
+                System.out.println("2. Submit Adoption Request");
+                System.out.println("3. View My Adoption Requests");
+                System.out.println("4. Update My Profile");
+                System.out.println("5. View Pet Statistics");
+                System.out.println("6. Logout");
+                System.out.println("-".repeat(60));
+                
+                int choice = InputValidator.getIntInput("Enter your choice (1-6): ", 1, 6);
+                
+                switch (choice) {
+                    case 1:
+                        showAvailablePets();
+                        break;
+                    case 2:
+                        submitAdoptionRequest();
+                        break;
+                    case 3:
+                        viewMyAdoptionRequests();
+                        break;
+                    case 4:
+                        updateMyProfile();
+                        break;
+                    case 5:
+                        showGuestPetStatistics();
+                        break;
+                    case 6:
+                        currentUser = null;
+                        InputValidator.displaySuccess("Logged out successfully.");
+                        return;
+                    default:
+                        InputValidator.displayError("Invalid choice. Please try again.");
+                }
+                
+                InputValidator.waitForEnter();
+            }
+        } finally {
+            if (updates != null) {
+                updates.close();
             }
-            
-            InputValidator.waitForEnter();
         }
     }
     
@@ -352,45 +393,115 @@ public class MainMenu {
      * Displays the main menu for authenticated pet owner users
      */
     private void showPetOwnerMenu() {
-        while (true) {
-            InputValidator.displayHeader("FUREVER PET ADOPTION SYSTEM - PET OWNER MENU");
-            System.out.println("Logged in as: " + currentUser.getUsername() + " (Pet Owner)");
-            System.out.println();
-            System.out.println("1. Manage My Pets");
-            System.out.println("2. Register New Pet");
-            System.out.println("3. View Adoption Requests for My Pets");
-            System.out.println("4. Update My Profile");
-            System.out.println("5. View Pet Statistics");
-            System.out.println("6. Logout");
-            System.out.println("-".repeat(60));
-            
-            int choice = InputValidator.getIntInput("Enter your choice (1-6): ", 1, 6);
-            
-            switch (choice) {
-                case 1:
-                    manageMyPets();
-                    break;
-                case 2:
-                    registerNewPet();
-                    break;
-                case 3:
-                    viewAdoptionRequestsForMyPets();
-                    break;
-                case 4:
-                    updateMyPetOwnerProfile();
-                    break;
-                case 5:
-                    showGuestPetStatistics();
-                    break;
-                case 6:
-                    currentUser = null;
-                    InputValidator.displaySuccess("Logged out successfully.");
-                    return;
-                default:
-                    InputValidator.displayError("Invalid choice. Please try again.");
+        Set<Integer> myPetIds = ConcurrentHashMap.newKeySet();
+        ChangeFeed.Subscription updates = subscribeToPetOwnerUpdates(myPetIds);
+        try {
+            while (true) {
+                InputValidator.displayHeader("FUREVER PET ADOPTION SYSTEM - PET OWNER MENU");
+                System.out.println("Logged in as: " + currentUser.getUsername() + " (Pet Owner)");
+                showChangeUpdates(updates);
+                System.out.println();
+                System.out.println("1. Manage My Pets");
+                System.out.println("2. Register New Pet");
+                System.out.println("3. View Adoption Requests for My Pets");
+                System.out.println("4. Update My Profile");
+                System.out.println("5. View Pet Statistics");
+                System.out.println("6. Logout");
+                System.out.println("-".repeat(60));
+                
+                int choice = InputValidator.getIntInput("Enter your choice (1-6): ", 1, 6);
+                
+                switch (choice) {
+                    case 1:
+                        manageMyPets();
+                        break;
+                    case 2:
+                        registerNewPet();
+                        loadMyPetIds(myPetIds);
+                        break;
+                    case 3:
+                        viewAdoptionRequestsForMyPets();
+                        break;
+                    case 4:
+                        updateMyPetOwnerProfile();
+                        break;
+                    case 5:
+                        showGuestPetStatistics();
+                        break;
+                    case 6:
+                        currentUser = null;
+                        InputValidator.displaySuccess("Logged out successfully.");
+                        return;
+                    default:
+                        InputValidator.displayError("Invalid choice. Please try again.");
+                }
+                
+                InputValidator.waitForEnter();
+            }
+        } finally {
+            if (updates != null) {
+                updates.close();
+            }
+        }
+    }
+    
+    /**
+     * Follows status changes of the logged-in adopter's requests
+     * Pending events are left out, since those are the adopter's own new requests
+     * @return subscription, or null if the user has no adopter profile yet
+     */
+    private ChangeFeed.Subscription subscribeToAdopterUpdates() {
+        Adopter adopter = new AdopterCRUD().getAdopterByUsername(currentUser.getUsername());
+        if (adopter == null) {
+            return null;
+        }
+        int adopterId = adopter.getAdopterId();
+        return ChangeFeed.getInstance().subscribe("adopter " + currentUser.getUsername(), ChangeFeed.DEFAULT_QUEUE_CAPACITY,
+                event -> event.getType() == ChangeFeed.Type.REQUEST_STATUS
+                        && event.getAdopterId() == adopterId
+                        && !"Pending".equals(event.getStatus()));
+    }
+    
+    /**
+     * Follows adoption requests made for the logged-in owner's pets
+     * @param myPetIds Set filled with the owner's pet IDs, refreshed after registering a pet
+     * @return subscription
+     */
+    private ChangeFeed.Subscription subscribeToPetOwnerUpdates(Set<Integer> myPetIds) {
+        loadMyPetIds(myPetIds);
+        return ChangeFeed.getInstance().subscribe("owner " + currentUser.getUsername(), ChangeFeed.DEFAULT_QUEUE_CAPACITY,
+                event -> event.getType() == ChangeFeed.Type.REQUEST_STATUS && myPetIds.contains(event.getPetId()));
+    }
+    
+    private void loadMyPetIds(Set<Integer> myPetIds) {
+        PetOwner petOwner = petOwnerCRUD.getPetOwnerByUsername(currentUser.getUsername());
+        if (petOwner != null) {
+            for (var pet : new com.furever.crud.PetCRUD().getPetsByOwner(petOwner.getPetOwnerId())) {
+                myPetIds.add(pet.getPetId());
             }
-            
-            InputValidator.waitForEnter();
+        }
+    }
+    
+    /**
+     * Prints the changes received since the menu was last shown
+     * @param updates Subscription of the logged-in user, may be null
+     */
+    private void showChangeUpdates(ChangeFeed.Subscription updates) {
+        if (updates == null) {
+            return;
+        }
+        boolean overflowed = updates.checkOverflow();
+        List<ChangeFeed.Event> events = updates.drain();
+        if (events.isEmpty() && !overflowed) {
+            return;
+        }
+        System.out.println();
+        System.out.println("Updates since you last looked:");
+        for (ChangeFeed.Event event : events) {
+            System.out.println("  - " + event);
+        }
+        if (overflowed) {
+            System.out.println("  - More changes happened than can be listed; open your lists to see the current state.");
         }
     }
     
@@ -573,11 +684,16 @@ public class MainMenu {
         InputValidator.displayHeader("PET ADOPTION STATISTICS");
         
         try {
-            var petCRUD = new com.furever.crud.PetCRUD();
+            var petCRUD = new AsyncPetCRUD();
+            
+            CompletableFuture<Integer> total = petCRUD.getPetCount();
+            CompletableFuture<Integer> available = petCRUD.getPetCountByStatus("Available");
+            CompletableFuture<Integer> adopted = petCRUD.getPetCountByStatus("Adopted");
+            AsyncCRUD.awaitAll(total, available, adopted);
             
-            int totalPets = petCRUD.getPetCount();
-            int availablePets = petCRUD.getPetCountByStatus("Available");
-            int adoptedPets = petCRUD.getPetCountByStatus("Adopted");
+            int totalPets = total.join();
+            int availablePets = available.join();
+            int adoptedPets = adopted.join();
             
             System.out.println("Total Pets in System: " + totalPets);
             System.out.println("Available for Adoption: " + availablePets);
@@ -710,27 +826,41 @@ public class MainMenu {
         InputValidator.displayHeader("SYSTEM STATISTICS");
         
         try {
-            var petCRUD = new com.furever.crud.PetCRUD();
-            var adopterCRUD = new com.furever.crud.AdopterCRUD();
-            var requestCRUD = new com.furever.crud.AdoptionRequestCRUD();
+            var petCRUD = new AsyncPetCRUD();
+            var adopterCRUD = new AdopterCRUD();
+            var requestCRUD = new AsyncAdoptionRequestCRUD();
+            
+            // Start every count at once; the screen takes as long as the slowest one
+            CompletableFuture<Integer> totalPets = petCRUD.getPetCount();
+            CompletableFuture<Integer> availablePets = petCRUD.getPetCountByStatus("Available");
+            CompletableFuture<Integer> pendingPets = petCRUD.getPetCountByStatus("Pending");
+            CompletableFuture<Integer> adoptedPets = petCRUD.getPetCountByStatus("Adopted");
+            CompletableFuture<Integer> totalAdopters = AsyncCRUD.supply(adopterCRUD::getAdopterCount);
+            CompletableFuture<Integer> totalUsers = new AsyncUserCRUD(userCRUD, AsyncCRUD.DEFAULT_TIMEOUT_MS).getUserCount();
+            CompletableFuture<Integer> totalRequests = requestCRUD.getAdoptionRequestCount();
+            CompletableFuture<Integer> pendingRequests = requestCRUD.getAdoptionRequestCountByStatus("Pending");
+            CompletableFuture<Integer> approvedRequests = requestCRUD.getAdoptionRequestCountByStatus("Approved");
+            CompletableFuture<Integer> rejectedRequests = requestCRUD.getAdoptionRequestCountByStatus("Rejected");
+            AsyncCRUD.awaitAll(totalPets, availablePets, pendingPets, adoptedPets, totalAdopters, totalUsers,
+                    totalRequests, pendingRequests, approvedRequests, rejectedRequests);
             
             System.out.println("=== PETS ===");
-            System.out.println("Total Pets: " + petCRUD.getPetCount());
-            System.out.println("Available: " + petCRUD.getPetCountByStatus("Available"));
-            System.out.println("Pending: " + petCRUD.getPetCountByStatus("Pending"));
-            System.out.println("Adopted: " + petCRUD.getPetCountByStatus("Adopted"));
+            System.out.println("Total Pets: " + totalPets.join());
+            System.out.println("Available: " + availablePets.join());
+            System.out.println("Pending: " + pendingPets.join());
+            System.out.println("Adopted: " + adoptedPets.join());
             
             System.out.println("\n=== ADOPTERS ===");
-            System.out.println("Total Adopters: " + adopterCRUD.getAdopterCount());
+            System.out.println("Total Adopters: " + totalAdopters.join());
             
             System.out.println("\n=== USERS ===");
-            System.out.println("Total Users: " + userCRUD.getUserCount());
+            System.out.println("Total Users: " + totalUsers.join());
             
             System.out.println("\n=== ADOPTION REQUESTS ===");
-            System.out.println("Total Requests: " + requestCRUD.getAdoptionRequestCount());
-            System.out.println("Pending: " + requestCRUD.getAdoptionRequestCountByStatus("Pending"));
-            System.out.println("Approved: " + requestCRUD.getAdoptionRequestCountByStatus("Approved"));
-            System.out.println("Rejected: " + requestCRUD.getAdoptionRequestCountByStatus("Rejected"));
+            System.out.println("Total Requests: " + totalRequests.join());
+            System.out.println("Pending: " + pendingRequests.join());
+            System.out.println("Approved: " + approvedRequests.join());
+            System.out.println("Rejected: " + rejectedRequests.join());
             
         } catch (Exception e) {
             InputValidator.displayError("Error retrieving system statistics: " + e.getMessage());
@@ -750,6 +880,33 @@ public class MainMenu {
                 InputValidator.displaySuccess("Database connection is active.");
                 System.out.println("Database URL: " + DbConnection.getDatabaseUrl());
                 System.out.println("Database User: " + DbConnection.getDatabaseUsername());
+
+                var pool = DbConnection.getPool();
+                System.out.println("Connection Pool: " + pool.getActiveCount() + " in use, "
+                        + pool.getIdleCount() + " idle, " + pool.getTotalCount() + " open (max " + pool.getMaxSize() + ")");
+                if (pool.isReplicated()) {
+                    System.out.println("Read Routing: " + pool.getReplicaBorrowCount() + " replica, "
+                            + pool.getSourceBorrowCount() + " source borrow(s)");
+                }
+
+                System.out.println("\nEntity Caches:");
+                for (String line : com.furever.utils.EntityCache.describeRegisteredCaches()) {
+                    System.out.println("  " + line);
+                }
+
+                System.out.println("\nArchive Log: " + ArchiveLog.getInstance().describe());
+
+                List<StatementCatalog.StatementStats> statements = StatementCatalog.getStatistics();
+                System.out.println("\nStatements: " + statements.size() + " distinct, "
+                        + StatementCatalog.getHotStatementCount() + " hot statements warmed on "
+                        + StatementCatalog.getWarmedConnectionCount() + " connection(s)");
+                if (!statements.isEmpty()) {
+                    System.out.printf("  %-45s %10s %10s %10s %10s%n", "Statement", "Prepares", "Executions", "Avg (us)", "Max (us)");
+                    for (StatementCatalog.StatementStats stats : statements.subList(0, Math.min(10, statements.size()))) {
+                        System.out.printf("  %-45s %10d %10d %10d %10d%n", stats.getLabel(45), stats.getPrepares(),
+                                stats.getExecutions(), stats.getAverageMicros(), stats.getMaxMicros());
+                    }
+                }
             } else {
                 InputValidator.displayError("Database connection failed.");
             }
@@ -788,6 +945,14 @@ public class MainMenu {
                 return;
             }
             
+            // Best matches for this adopter's request history, when the recommender is loaded
+            var recommendedPets = petCRUD.getRecommendedPets(adopter.getAdopterId(), PetRecommender.DEFAULT_LIMIT);
+            if (!recommendedPets.isEmpty()) {
+                System.out.println("Recommended for You:");
+                petCRUD.displayPetsTable(recommendedPets);
+                System.out.println();
+            }
+            
             System.out.println("Available Pets for Adoption:");
             System.out.println("Please review the complete pet information below to make your selection:");
             // Use the enhanced display method for comprehensive pet information
@@ -868,10 +1033,11 @@ public class MainMenu {
                 return;
             }
             
+            // Pet names come with the listing query rather than a lookup per request
             var requestCRUD = new com.furever.crud.AdoptionRequestCRUD();
-            var requests = requestCRUD.getAdoptionRequestsByAdopter(adopter.getAdopterId());
+            var listings = requestCRUD.getRequestListingsByAdopter(adopter.getAdopterId());
             
-            if (requests.isEmpty()) {
+            if (listings.isEmpty()) {
                 System.out.println("You have no adoption requests yet.");
                 return;
             }
@@ -880,19 +1046,9 @@ public class MainMenu {
                 "ID", "Pet Name", "Date", "Status", "Approval");
             System.out.println("-".repeat(65));
             
-            var petCRUD = new com.furever.crud.PetCRUD();
-            
-            for (var request : requests) {
-                // Get pet name for better display
-                String petName = "Unknown";
-                try {
-                    var pet = petCRUD.getPetById(request.getPetId());
-                    if (pet != null) {
-                        petName = pet.getPetName();
-                    }
-                } catch (Exception e) {
-                    // Keep default "Unknown" if error occurs
-                }
+            for (var listing : listings) {
+                var request = listing.getRequest();
+                String petName = listing.getPetName() != null ? listing.getPetName() : "Unknown";
                 
                 System.out.printf("%-5d %-20s %-12s %-10s %-12s%n",
                     request.getAdoptionRequestId(),
@@ -1303,16 +1459,35 @@ public class MainMenu {
         }
     }
     
+    /**
+     * Helper method to load the full record of a pet from the owner's list
+     * The list comes from the summary query, which shortens the description and leaves out
+     * the documents, so anything shown in full or written back must be read again
+     */
+    private com.furever.models.Pet findOwnedPet(java.util.List<com.furever.models.Pet> pets, int petId) {
+        var listedPet = pets.stream()
+            .filter(pet -> pet.getPetId() == petId)
+            .findFirst()
+            .orElse(null);
+        
+        if (listedPet == null) {
+            return null;
+        }
+        
+        var pet = new com.furever.crud.PetCRUD().getPetById(petId);
+        if (pet == null || pet.getPetOwnerId() != listedPet.getPetOwnerId()) {
+            return null;
+        }
+        return pet;
+    }
+    
     /**
      * Helper method to view detailed pet information
      */
     private void viewPetDetails(java.util.List<com.furever.models.Pet> pets) {
         int petId = InputValidator.getIntInput("Enter Pet ID to view details: ", 1, Integer.MAX_VALUE);
         
-        var selectedPet = pets.stream()
-            .filter(pet -> pet.getPetId() == petId)
-            .findFirst()
-            .orElse(null);
+        var selectedPet = findOwnedPet(pets, petId);
         
         if (selectedPet == null) {
             InputValidator.displayError("Pet not found or you don't own this pet.");
@@ -1336,10 +1511,7 @@ public class MainMenu {
     private void updatePetInformation(java.util.List<com.furever.models.Pet> pets) {
         int petId = InputValidator.getIntInput("Enter Pet ID to update: ", 1, Integer.MAX_VALUE);
         
-        var selectedPet = pets.stream()
-            .filter(pet -> pet.getPetId() == petId)
-            .findFirst()
-            .orElse(null);
+        var selectedPet = findOwnedPet(pets, petId);
         
         if (selectedPet == null) {
             InputValidator.displayError("Pet not found or you don't own this pet.");
@@ -1404,10 +1576,7 @@ public class MainMenu {
     private void changeAdoptionStatus(java.util.List<com.furever.models.Pet> pets) {
         int petId = InputValidator.getIntInput("Enter Pet ID to change status: ", 1, Integer.MAX_VALUE);
         
-        var selectedPet = pets.stream()
-            .filter(pet -> pet.getPetId() == petId)
-            .findFirst()
-            .orElse(null);
+        var selectedPet = findOwnedPet(pets, petId);
         
         if (selectedPet == null) {
             InputValidator.displayError("Pet not found or you don't own this pet.");
@@ -1543,15 +1712,9 @@ public class MainMenu {
             if (success) {
                 InputValidator.displaySuccess("Request " + newStatus.toLowerCase() + " successfully!");
                 
-                // If approved, update pet status
+                // Approval already marked the pet adopted in the same transaction
                 if ("Approved".equals(newStatus)) {
-                    var petCRUD = new com.furever.crud.PetCRUD();
-                    var pet = petCRUD.getPetById(request.getPetId());
-                    if (pet != null) {
-                        pet.setAdoptionStatus("Adopted");
-                        petCRUD.updatePet(pet);
-                        System.out.println("Pet status updated to 'Adopted'.");
-                    }
+                    System.out.println("Pet status updated to 'Adopted'.");
                 }
             } else {
                 InputValidator.displayError("Failed to update request.");
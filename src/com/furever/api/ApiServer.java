@@ -0,0 +1,884 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.furever.api;
+
+/**
+ *
+ * @author jerimiahtongco
+ */
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import com.furever.crud.AdopterCRUD;
+import com.furever.crud.AdoptionApprovalCRUD;
+import com.furever.crud.AdoptionRequestCRUD;
+import com.furever.crud.ArchiveLog;
+import com.furever.crud.ChangeFeed;
+import com.furever.crud.Page;
+import com.furever.crud.PageCursor;
+import com.furever.crud.PetCRUD;
+import com.furever.crud.UserCRUD;
+import com.furever.database.ConnectionPool;
+import com.furever.database.DbConnection;
+import com.furever.models.Adopter;
+import com.furever.models.AdoptionRequest;
+import com.furever.models.Pet;
+import com.furever.models.User;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Embedded HTTP/JSON API in front of the CRUD layer
+ * Every request runs on its own virtual thread, so thousands of concurrent clients cost
+ * little more than their sockets. Three limits keep the server responsive under load:
+ * - admission: at most maxInFlight requests are handled at once; the rest get 503 with Retry-After
+ *   instead of queueing without bound
+ * - database: all requests share the bounded connection pool of DbConnection
+ * - deadline: a request not answered within the timeout gets 504 and its virtual thread is
+ *   interrupted, which also abandons any wait for a pooled connection
+ * GET requests may be served by database replicas; a session's own writes are read back
+ * from the source for the replica lag window (see DbConnection).
+ *
+ *   java com.furever.api.ApiServer [port=8080] [maxInFlight=2000] [timeoutMs=5000]
+ */
+public class ApiServer {
+
+    private static final int DEFAULT_PORT = 8080;
+    private static final int DEFAULT_MAX_IN_FLIGHT = 2000;
+    private static final long DEFAULT_TIMEOUT_MILLIS = 5000;
+    private static final int SOCKET_BACKLOG = 1024;
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_BODY_BYTES = 16 * 1024;
+    private static final long SESSION_TTL_MILLIS = 30 * 60 * 1000;
+    /** Time kept between the end of a change long poll and the request deadline */
+    private static final long LONG_POLL_MARGIN_MILLIS = 500;
+
+    private final HttpServer server;
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+    private final int maxInFlight;
+    private final Semaphore admission;
+    private final long timeoutMillis;
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+
+    private final PetCRUD petCRUD = new PetCRUD();
+    private final AdoptionRequestCRUD adoptionRequestCRUD = new AdoptionRequestCRUD();
+    private final AdoptionApprovalCRUD adoptionApprovalCRUD = new AdoptionApprovalCRUD();
+    private final AdopterCRUD adopterCRUD = new AdopterCRUD();
+    private final UserCRUD userCRUD = new UserCRUD();
+
+    private final AtomicLong servedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong timedOutCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+
+    /**
+     * Handles one API call
+     */
+    @FunctionalInterface
+    interface Route {
+        Response handle(ApiRequest request) throws Exception;
+    }
+
+    /**
+     * Creates the server without starting it
+     * @param port TCP port to listen on
+     * @param maxInFlight Maximum number of requests handled at the same time
+     * @param timeoutMillis Deadline of a single request in milliseconds
+     * @throws IOException if the port cannot be bound
+     */
+    public ApiServer(int port, int maxInFlight, long timeoutMillis) throws IOException {
+        this.maxInFlight = maxInFlight;
+        this.admission = new Semaphore(maxInFlight);
+        this.timeoutMillis = timeoutMillis;
+        this.server = HttpServer.create(new InetSocketAddress(port), SOCKET_BACKLOG);
+        this.server.setExecutor(workers);
+
+        server.createContext("/api/health", guarded(this::health));
+        server.createContext("/api/login", guarded(this::login));
+        server.createContext("/api/logout", guarded(this::logout));
+        server.createContext("/api/me", guarded(this::me));
+        server.createContext("/api/pets", guarded(this::pets));
+        server.createContext("/api/adoption-requests", guarded(this::adoptionRequests));
+        server.createContext("/api/users", guarded(this::users));
+        server.createContext("/api/changes", guarded(this::changes));
+    }
+
+    public static void main(String[] args) {
+        int port = intArg(args, "port", DEFAULT_PORT);
+        int maxInFlight = intArg(args, "maxInFlight", DEFAULT_MAX_IN_FLIGHT);
+        long timeoutMillis = intArg(args, "timeoutMs", (int) DEFAULT_TIMEOUT_MILLIS);
+
+        if (!DbConnection.testConnection()) {
+            System.err.println("Cannot start the API server without a database connection.");
+            return;
+        }
+
+        try {
+            ApiServer apiServer = new ApiServer(port, maxInFlight, timeoutMillis);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                apiServer.stop(2);
+                ArchiveLog.getInstance().shutdown();
+                DbConnection.closeConnection();
+            }, "furever-api-shutdown"));
+            apiServer.start();
+            System.out.println("Furever API listening on port " + port + " (max " + maxInFlight
+                    + " requests in flight, " + timeoutMillis + " ms timeout)");
+        } catch (IOException e) {
+            System.err.println("Error starting API server: " + e.getMessage());
+            DbConnection.closeConnection();
+        }
+    }
+
+    /**
+     * Starts accepting requests
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops accepting requests and waits for running ones to finish
+     * @param delaySeconds Maximum time to wait for running requests
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        workers.shutdown();
+    }
+
+    // ==================== REQUEST HANDLING ====================
+
+    /**
+     * Wraps a route with admission control, the request deadline and error mapping
+     */
+    private HttpHandler guarded(Route route) {
+        return exchange -> {
+            if (!admission.tryAcquire()) {
+                rejectedCount.incrementAndGet();
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                send(exchange, Response.error(503, "Server is busy, please retry."));
+                return;
+            }
+            try {
+                send(exchange, handleWithDeadline(route, exchange));
+            } finally {
+                admission.release();
+            }
+        };
+    }
+
+    private Response handleWithDeadline(Route route, HttpExchange exchange) {
+        ApiRequest request;
+        try {
+            request = ApiRequest.read(exchange, this::findSession);
+        } catch (ApiException e) {
+            return Response.error(e.status, e.getMessage());
+        } catch (IOException e) {
+            return Response.error(400, "Could not read request body.");
+        }
+
+        Future<Response> future = workers.submit(() -> handleWithReadConsistency(route, request));
+        try {
+            Response response = future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            servedCount.incrementAndGet();
+            return response;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timedOutCount.incrementAndGet();
+            return Response.error(504, "Request timed out after " + timeoutMillis + " ms.");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            return Response.error(503, "Server is shutting down.");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ApiException) {
+                servedCount.incrementAndGet();
+                return Response.error(((ApiException) cause).status, cause.getMessage());
+            }
+            if (cause instanceof IllegalArgumentException) {
+                servedCount.incrementAndGet();
+                return Response.error(400, cause.getMessage());
+            }
+            failedCount.incrementAndGet();
+            System.err.println("Error handling " + request.method + " " + request.path + ": " + cause);
+            return Response.error(500, "Internal server error.");
+        }
+    }
+
+    /**
+     * Runs a route with the read consistency of its session: writes and reads shortly after a
+     * session's own write go to the source, all other reads may be served by a replica
+     */
+    private Response handleWithReadConsistency(Route route, ApiRequest request) throws Exception {
+        boolean write = !"GET".equals(request.method);
+        DbConnection.ReadConsistency consistency = write ? DbConnection.ReadConsistency.PRIMARY
+                : DbConnection.consistencyAfterWrite(request.session != null ? request.session.lastWriteMillis : 0);
+        try {
+            return DbConnection.withReadConsistency(consistency, () -> route.handle(request));
+        } finally {
+            if (write && request.session != null) {
+                request.session.lastWriteMillis = System.currentTimeMillis();
+            }
+        }
+    }
+
+    private static void send(HttpExchange exchange, Response response) throws IOException {
+        byte[] body = response.body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(response.status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    // ==================== ROUTES ====================
+
+    /**
+     * GET /api/health
+     */
+    private Response health(ApiRequest request) throws SQLException {
+        request.requireMethod("GET");
+        ConnectionPool pool = DbConnection.getPool();
+        return Response.ok(Json.object()
+                .put("status", "UP")
+                .put("inFlight", maxInFlight - admission.availablePermits())
+                .put("maxInFlight", maxInFlight)
+                .put("served", servedCount.get())
+                .put("rejected", rejectedCount.get())
+                .put("timedOut", timedOutCount.get())
+                .put("failed", failedCount.get())
+                .put("sessions", sessions.size())
+                .put("changeSubscribers", ChangeFeed.getInstance().getSubscriberCount())
+                .raw("pool", Json.object()
+                        .put("active", pool.getActiveCount())
+                        .put("idle", pool.getIdleCount())
+                        .put("waiting", pool.getWaitingCount())
+                        .put("max", pool.getMaxSize())
+                        .put("replicated", pool.isReplicated())
+                        .put("replicaBorrows", pool.getReplicaBorrowCount())
+                        .put("sourceBorrows", pool.getSourceBorrowCount())
+                        .toString())
+                .toString());
+    }
+
+    /**
+     * POST /api/login {"username", "password"}
+     */
+    private Response login(ApiRequest request) {
+        request.requireMethod("POST");
+        Map<String, Object> body = request.jsonBody();
+        User user = userCRUD.authenticateUser(stringField(body, "username"), stringField(body, "password"));
+        if (user == null) {
+            throw new ApiException(401, "Invalid username or password.");
+        }
+
+        long now = System.currentTimeMillis();
+        sessions.values().removeIf(session -> {
+            if (session.expiresAt < now) {
+                session.close();
+                return true;
+            }
+            return false;
+        });
+        byte[] bytes = new byte[24];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        sessions.put(token, new Session(user, now + SESSION_TTL_MILLIS));
+
+        return Response.ok(Json.object()
+                .put("token", token)
+                .raw("user", userJson(user))
+                .toString());
+    }
+
+    /**
+     * POST /api/logout
+     */
+    private Response logout(ApiRequest request) {
+        request.requireMethod("POST");
+        if (request.token != null) {
+            Session session = sessions.remove(request.token);
+            if (session != null) {
+                session.close();
+            }
+        }
+        return Response.ok(Json.object().put("loggedOut", true).toString());
+    }
+
+    /**
+     * GET /api/me
+     */
+    private Response me(ApiRequest request) {
+        request.requireMethod("GET");
+        return Response.ok(userJson(request.requireUser()));
+    }
+
+    /**
+     * GET /api/pets?status=&after=&limit=, GET /api/pets?q=, GET /api/pets/{id}
+     */
+    private Response pets(ApiRequest request) {
+        request.requireMethod("GET");
+        if (request.segments.length == 1) {
+            Pet pet = petCRUD.getPetById(parseId(request.segments[0]));
+            if (pet == null) {
+                throw new ApiException(404, "Pet not found.");
+            }
+            return Response.ok(petJson(pet));
+        }
+        if (request.segments.length > 1) {
+            throw new ApiException(404, "Not found.");
+        }
+
+        String searchTerm = request.query.get("q");
+        if (searchTerm != null) {
+            List<Pet> pets = petCRUD.searchPetsByName(searchTerm);
+            List<Pet> limited = pets.subList(0, Math.min(pets.size(), MAX_PAGE_SIZE));
+            return Response.ok(Json.object().raw("items", Json.array(limited, ApiServer::petJson)).toString());
+        }
+
+        int limit = request.pageSize();
+        String after = request.query.get("after");
+        PageCursor cursor = after != null ? PageCursor.afterId(parseId(after)) : PageCursor.FIRST;
+        String status = request.query.get("status");
+        Page<Pet> page = status != null
+                ? petCRUD.getPetsByAdoptionStatusPage(status, cursor, limit)
+                : petCRUD.getPetsPage(cursor, limit);
+
+        return Response.ok(Json.object()
+                .raw("items", Json.array(page.getItems(), ApiServer::petJson))
+                .put("hasMore", page.hasMore())
+                .put("next", page.hasMore() ? String.valueOf(page.getNextCursor().getLastId()) : null)
+                .toString());
+    }
+
+    /**
+     * GET /api/adoption-requests[?after=&limit=], GET /api/adoption-requests/{id},
+     * POST /api/adoption-requests {"petId"}, POST /api/adoption-requests/{id}/approve|reject {"remarks"}
+     */
+    private Response adoptionRequests(ApiRequest request) {
+        User user = request.requireUser();
+        String[] segments = request.segments;
+
+        if (segments.length == 0 && "GET".equals(request.method)) {
+            return listAdoptionRequests(request, user);
+        }
+        if (segments.length == 0 && "POST".equals(request.method)) {
+            return createAdoptionRequest(request, user);
+        }
+        if (segments.length == 1) {
+            request.requireMethod("GET");
+            AdoptionRequest adoptionRequest = findAdoptionRequest(segments[0]);
+            if (!"admin".equals(user.getRole())) {
+                Adopter adopter = requireAdopter(user);
+                if (adoptionRequest.getAdopterId() != adopter.getAdopterId()) {
+                    throw new ApiException(404, "Adoption request not found.");
+                }
+            }
+            return Response.ok(adoptionRequestJson(adoptionRequest));
+        }
+        if (segments.length == 2) {
+            request.requireMethod("POST");
+            request.requireRole(user, "admin");
+            if ("approve".equals(segments[1])) {
+                return approveAdoptionRequest(request, user, parseId(segments[0]));
+            }
+            if ("reject".equals(segments[1])) {
+                return rejectAdoptionRequest(request, parseId(segments[0]));
+            }
+        }
+        throw new ApiException(404, "Not found.");
+    }
+
+    private Response listAdoptionRequests(ApiRequest request, User user) {
+        if ("admin".equals(user.getRole())) {
+            int limit = request.pageSize();
+            Page<AdoptionRequest> page = adoptionRequestCRUD.getAdoptionRequestsPage(parseRequestCursor(request.query.get("after")), limit);
+            String next = null;
+            if (page.hasMore()) {
+                PageCursor cursor = page.getNextCursor();
+                next = (cursor.getLastDate() != null ? String.valueOf(cursor.getLastDate().getTime()) : "-") + ":" + cursor.getLastId();
+            }
+            return Response.ok(Json.object()
+                    .raw("items", Json.array(page.getItems(), ApiServer::adoptionRequestJson))
+                    .put("hasMore", page.hasMore())
+                    .put("next", next)
+                    .toString());
+        }
+
+        Adopter adopter = requireAdopter(user);
+        List<AdoptionRequest> requests = adoptionRequestCRUD.getAdoptionRequestsByAdopter(adopter.getAdopterId());
+        return Response.ok(Json.object()
+                .raw("items", Json.array(requests, ApiServer::adoptionRequestJson))
+                .put("hasMore", false)
+                .put("next", (String) null)
+                .toString());
+    }
+
+    private Response createAdoptionRequest(ApiRequest request, User user) {
+        request.requireRole(user, "adopter");
+        Adopter adopter = requireAdopter(user);
+        int petId = intField(request.jsonBody(), "petId");
+
+        Pet pet = petCRUD.getPetById(petId);
+        if (pet == null) {
+            throw new ApiException(404, "Pet not found.");
+        }
+        if (!"Available".equals(pet.getAdoptionStatus())) {
+            throw new ApiException(409, "Pet is not available for adoption.");
+        }
+
+        AdoptionRequest adoptionRequest = new AdoptionRequest();
+        adoptionRequest.setAdopterId(adopter.getAdopterId());
+        adoptionRequest.setPetId(petId);
+        adoptionRequest.setStatus("Pending");
+        adoptionRequest.setRequestDate(new Date(System.currentTimeMillis()));
+
+        if (!adoptionRequestCRUD.createAdoptionRequest(adoptionRequest)) {
+            throw new ApiException(409, "Adoption request could not be created; you may already have a pending request for this pet.");
+        }
+        return new Response(201, adoptionRequestJson(adoptionRequest));
+    }
+
+    private Response approveAdoptionRequest(ApiRequest request, User user, int requestId) {
+        String remarks = request.body.isEmpty() ? null : optionalStringField(request.jsonBody(), "remarks");
+        AdoptionApprovalCRUD.ApprovalResult result =
+                adoptionApprovalCRUD.approve(requestId, new Date(System.currentTimeMillis()), remarks, user.getId());
+
+        int status;
+        switch (result.getOutcome()) {
+            case APPROVED: status = 200; break;
+            case REQUEST_NOT_FOUND: status = 404; break;
+            case PET_BUSY: status = 503; break;
+            case FAILED: status = 500; break;
+            default: status = 409; break;
+        }
+        return new Response(status, Json.object()
+                .put("outcome", result.getOutcome().name())
+                .put("message", result.getMessage())
+                .put("petId", result.getPetId())
+                .put("rejectedSiblings", result.getRejectedSiblings())
+                .put("archivedSiblings", result.getArchivedSiblings())
+                .toString());
+    }
+
+    private Response rejectAdoptionRequest(ApiRequest request, int requestId) {
+        String remarks = request.body.isEmpty() ? null : optionalStringField(request.jsonBody(), "remarks");
+        AdoptionRequest adoptionRequest = adoptionRequestCRUD.getAdoptionRequestById(requestId);
+        if (adoptionRequest == null) {
+            throw new ApiException(404, "Adoption request not found.");
+        }
+        if (!"Pending".equals(adoptionRequest.getStatus())) {
+            throw new ApiException(409, "Only pending requests can be rejected.");
+        }
+        if (!adoptionRequestCRUD.rejectAdoptionRequest(requestId, remarks)) {
+            throw new ApiException(500, "Adoption request could not be rejected.");
+        }
+        return Response.ok(adoptionRequestJson(adoptionRequestCRUD.getAdoptionRequestById(requestId)));
+    }
+
+    /**
+     * GET /api/users/{id} (admin only)
+     */
+    private Response users(ApiRequest request) {
+        request.requireMethod("GET");
+        request.requireRole(request.requireUser(), "admin");
+        if (request.segments.length != 1) {
+            throw new ApiException(404, "Not found.");
+        }
+        User user = userCRUD.getUserById(parseId(request.segments[0]));
+        if (user == null) {
+            throw new ApiException(404, "User not found.");
+        }
+        return Response.ok(userJson(user));
+    }
+
+    /**
+     * GET /api/changes[?waitMs=] - long poll for pet availability and request status changes
+     * The first call starts following changes for the session; every call returns what changed
+     * since the previous one, waiting up to waitMs (capped below the request deadline) for a change.
+     * "overflowed" means changes were dropped and the client should reload its lists.
+     */
+    private Response changes(ApiRequest request) throws InterruptedException {
+        request.requireMethod("GET");
+        User user = request.requireUser();
+        ChangeFeed.Subscription subscription = followChanges(request.session, user);
+
+        long maxWait = Math.max(0, timeoutMillis - LONG_POLL_MARGIN_MILLIS);
+        String waitMs = request.query.get("waitMs");
+        long wait = waitMs != null ? Math.min(parseId(waitMs), maxWait) : maxWait;
+
+        List<ChangeFeed.Event> events = subscription.poll(wait);
+        return Response.ok(Json.object()
+                .raw("events", Json.array(events, ApiServer::changeJson))
+                .put("overflowed", subscription.checkOverflow())
+                .toString());
+    }
+
+    // ==================== HELPERS ====================
+
+    private Session findSession(String token) {
+        Session session = sessions.get(token);
+        if (session == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        if (session.expiresAt < now) {
+            sessions.remove(token);
+            session.close();
+            return null;
+        }
+        session.expiresAt = now + SESSION_TTL_MILLIS;
+        return session;
+    }
+
+    private AdoptionRequest findAdoptionRequest(String id) {
+        AdoptionRequest adoptionRequest = adoptionRequestCRUD.getAdoptionRequestById(parseId(id));
+        if (adoptionRequest == null) {
+            throw new ApiException(404, "Adoption request not found.");
+        }
+        return adoptionRequest;
+    }
+
+    private Adopter requireAdopter(User user) {
+        Adopter adopter = adopterCRUD.getAdopterByUsername(user.getUsername());
+        if (adopter == null) {
+            throw new ApiException(403, "No adopter profile found for this account.");
+        }
+        return adopter;
+    }
+
+    /**
+     * Gets the change subscription of a session, starting it on first use
+     * Admins follow every change; other users follow pet availability and their own requests
+     */
+    private ChangeFeed.Subscription followChanges(Session session, User user) {
+        ChangeFeed.Subscription current = session.changes;
+        if (current != null) {
+            return current;
+        }
+
+        Predicate<ChangeFeed.Event> filter;
+        if ("admin".equals(user.getRole())) {
+            filter = event -> true;
+        } else {
+            Adopter adopter = adopterCRUD.getAdopterByUsername(user.getUsername());
+            int adopterId = adopter != null ? adopter.getAdopterId() : -1;
+            filter = event -> event.getType() == ChangeFeed.Type.PET_STATUS || event.getAdopterId() == adopterId;
+        }
+
+        ChangeFeed.Subscription created = ChangeFeed.getInstance().subscribe("api " + user.getUsername(),
+                ChangeFeed.DEFAULT_QUEUE_CAPACITY, filter);
+        synchronized (session) {
+            if (session.changes == null) {
+                session.changes = created;
+                return created;
+            }
+        }
+        // Another request of the same session got there first
+        created.close();
+        return session.changes;
+    }
+
+    private static PageCursor parseRequestCursor(String after) {
+        if (after == null) {
+            return PageCursor.FIRST;
+        }
+        int separator = after.indexOf(':');
+        if (separator < 0) {
+            throw new ApiException(400, "Invalid cursor.");
+        }
+        String date = after.substring(0, separator);
+        int lastId = parseId(after.substring(separator + 1));
+        try {
+            return PageCursor.afterDateAndId("-".equals(date) ? null : new Timestamp(Long.parseLong(date)), lastId);
+        } catch (NumberFormatException e) {
+            throw new ApiException(400, "Invalid cursor.");
+        }
+    }
+
+    private static int parseId(String value) {
+        try {
+            int id = Integer.parseInt(value);
+            if (id < 0) {
+                throw new NumberFormatException();
+            }
+            return id;
+        } catch (NumberFormatException e) {
+            throw new ApiException(400, "Invalid ID: " + value);
+        }
+    }
+
+    private static String stringField(Map<String, Object> body, String name) {
+        String value = optionalStringField(body, name);
+        if (value == null) {
+            throw new ApiException(400, "Missing field: " + name);
+        }
+        return value;
+    }
+
+    private static String optionalStringField(Map<String, Object> body, String name) {
+        Object value = body.get(name);
+        if (value != null && !(value instanceof String)) {
+            throw new ApiException(400, "Field " + name + " must be a string.");
+        }
+        return (String) value;
+    }
+
+    private static int intField(Map<String, Object> body, String name) {
+        Object value = body.get(name);
+        if (!(value instanceof Double) || (Double) value != Math.rint((Double) value)) {
+            throw new ApiException(400, "Field " + name + " must be a whole number.");
+        }
+        return ((Double) value).intValue();
+    }
+
+    private static String changeJson(ChangeFeed.Event event) {
+        return Json.object()
+                .put("sequence", event.getSequence())
+                .put("type", event.getType().name())
+                .put("id", event.getEntityId())
+                .put("petId", event.getPetId())
+                .put("adopterId", event.getAdopterId() > 0 ? event.getAdopterId() : null)
+                .put("status", event.getStatus())
+                .put("occurredAt", event.getOccurredAt())
+                .toString();
+    }
+
+    private static String petJson(Pet pet) {
+        return Json.object()
+                .put("petId", pet.getPetId())
+                .put("petOwnerId", pet.getPetOwnerId())
+                .put("petName", pet.getPetName())
+                .put("petTypeId", pet.getPetTypeId())
+                .put("description", pet.getDescription())
+                .put("age", pet.getAge())
+                .put("gender", pet.getGender())
+                .put("healthStatus", pet.getHealthStatus())
+                .put("vaccinationStatus", pet.getVaccinationStatus())
+                .put("adoptionStatus", pet.getAdoptionStatus())
+                .put("dateRegistered", pet.getDateRegistered())
+                .toString();
+    }
+
+    private static String adoptionRequestJson(AdoptionRequest request) {
+        return Json.object()
+                .put("adoptionRequestId", request.getAdoptionRequestId())
+                .put("petId", request.getPetId())
+                .put("adopterId", request.getAdopterId())
+                .put("requestDate", request.getRequestDate())
+                .put("status", request.getStatus())
+                .put("approvalDate", request.getApprovalDate())
+                .put("remarks", request.getRemarks())
+                .put("userId", request.getUserId())
+                .toString();
+    }
+
+    // Never includes the password
+    private static String userJson(User user) {
+        return Json.object()
+                .put("id", user.getId())
+                .put("username", user.getUsername())
+                .put("email", user.getEmail())
+                .put("role", user.getRole())
+                .put("createdAt", user.getCreatedAt())
+                .toString();
+    }
+
+    private static int intArg(String[] args, String name, int defaultValue) {
+        for (String arg : args) {
+            if (arg.startsWith(name + "=")) {
+                try {
+                    return Integer.parseInt(arg.substring(name.length() + 1));
+                } catch (NumberFormatException e) {
+                    System.err.println("Ignoring invalid value for " + name + ": " + arg);
+                }
+            }
+        }
+        return defaultValue;
+    }
+
+    // ==================== REQUEST / RESPONSE TYPES ====================
+
+    /**
+     * A parsed request: method, path below the route, query parameters, body and session
+     */
+    static class ApiRequest {
+        private final String method;
+        private final String path;
+        private final String[] segments;
+        private final Map<String, String> query;
+        private final String body;
+        private final String token;
+        private final Session session;
+
+        private ApiRequest(String method, String path, String[] segments, Map<String, String> query,
+                           String body, String token, Session session) {
+            this.method = method;
+            this.path = path;
+            this.segments = segments;
+            this.query = query;
+            this.body = body;
+            this.token = token;
+            this.session = session;
+        }
+
+        static ApiRequest read(HttpExchange exchange, Function<String, Session> sessions) throws IOException {
+            String path = exchange.getRequestURI().getPath();
+            String below = path.substring(Math.min(path.length(), exchange.getHttpContext().getPath().length()));
+            String trimmed = below.replaceAll("^/+|/+$", "");
+            String[] segments = trimmed.isEmpty() ? new String[0] : trimmed.split("/+");
+
+            Map<String, String> query = new HashMap<>();
+            String rawQuery = exchange.getRequestURI().getRawQuery();
+            if (rawQuery != null) {
+                for (String pair : rawQuery.split("&")) {
+                    int equals = pair.indexOf('=');
+                    if (equals > 0) {
+                        query.put(URLDecoder.decode(pair.substring(0, equals), StandardCharsets.UTF_8),
+                                  URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8));
+                    }
+                }
+            }
+
+            String body;
+            try (InputStream in = exchange.getRequestBody()) {
+                byte[] bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+                if (bytes.length > MAX_BODY_BYTES) {
+                    throw new ApiException(413, "Request body exceeds " + MAX_BODY_BYTES + " bytes.");
+                }
+                body = new String(bytes, StandardCharsets.UTF_8).trim();
+            }
+
+            String token = null;
+            String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+            if (authorization != null && authorization.startsWith("Bearer ")) {
+                token = authorization.substring(7).trim();
+            }
+
+            return new ApiRequest(exchange.getRequestMethod(), path, segments, query, body, token,
+                    token != null ? sessions.apply(token) : null);
+        }
+
+        void requireMethod(String expected) {
+            if (!expected.equals(method)) {
+                throw new ApiException(405, "Method " + method + " is not allowed here.");
+            }
+        }
+
+        User requireUser() {
+            if (session == null) {
+                throw new ApiException(401, "Login required.");
+            }
+            return session.user;
+        }
+
+        void requireRole(User user, String role) {
+            if (!role.equals(user.getRole())) {
+                throw new ApiException(403, "This operation requires the " + role + " role.");
+            }
+        }
+
+        Map<String, Object> jsonBody() {
+            if (body.isEmpty()) {
+                throw new ApiException(400, "A JSON body is required.");
+            }
+            return Json.parseObject(body);
+        }
+
+        int pageSize() {
+            String limit = query.get("limit");
+            if (limit == null) {
+                return DEFAULT_PAGE_SIZE;
+            }
+            return Math.max(1, Math.min(MAX_PAGE_SIZE, parseId(limit)));
+        }
+    }
+
+    /**
+     * Status code and JSON body of a response
+     */
+    static class Response {
+        private final int status;
+        private final String body;
+
+        Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        static Response ok(String body) {
+            return new Response(200, body);
+        }
+
+        static Response error(int status, String message) {
+            return new Response(status, Json.object().put("error", message).toString());
+        }
+    }
+
+    /**
+     * Ends a request with an HTTP error status
+     */
+    static class ApiException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        ApiException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    /**
+     * A logged-in user; the expiry slides forward on every use
+     */
+    private static class Session {
+        private final User user;
+        private volatile long expiresAt;
+        private volatile long lastWriteMillis;
+        private volatile ChangeFeed.Subscription changes;
+
+        Session(User user, long expiresAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+
+        void close() {
+            ChangeFeed.Subscription subscription = changes;
+            if (subscription != null) {
+                subscription.close();
+            }
+        }
+    }
+}
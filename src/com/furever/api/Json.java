@@ -0,0 +1,283 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.furever.api;
+
+/**
+ *
+ * @author jerimiahtongco
+ */
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Minimal JSON support for the API server
+ * Responses are built with an object builder; request bodies are parsed as flat
+ * objects of strings, numbers, booleans and nulls, which is all the API accepts.
+ */
+public final class Json {
+
+    private Json() {}
+
+    /**
+     * Starts a JSON object
+     * @return empty object builder
+     */
+    public static ObjectBuilder object() {
+        return new ObjectBuilder();
+    }
+
+    /**
+     * Renders a list as a JSON array
+     * @param <T> element type
+     * @param items Elements to render
+     * @param renderer Renders one element as JSON
+     * @return JSON array text
+     */
+    public static <T> String array(List<T> items, Function<T, String> renderer) {
+        StringBuilder json = new StringBuilder(items.size() * 128 + 2).append('[');
+        for (int i = 0; i < items.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(renderer.apply(items.get(i)));
+        }
+        return json.append(']').toString();
+    }
+
+    /**
+     * Quotes and escapes a string
+     * @param value String to quote, may be null
+     * @return JSON string literal, or null
+     */
+    public static String quote(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder json = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': json.append("\\\""); break;
+                case '\\': json.append("\\\\"); break;
+                case '\n': json.append("\\n"); break;
+                case '\r': json.append("\\r"); break;
+                case '\t': json.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        return json.append('"').toString();
+    }
+
+    /**
+     * Parses a flat JSON object
+     * @param text JSON text
+     * @return field values: String, Double, Boolean or null
+     * @throws IllegalArgumentException if the text is not a flat JSON object
+     */
+    public static Map<String, Object> parseObject(String text) {
+        Parser parser = new Parser(text);
+        Map<String, Object> fields = parser.parseObject();
+        parser.skipWhitespace();
+        if (parser.pos != text.length()) {
+            throw new IllegalArgumentException("Unexpected content after JSON object at position " + parser.pos);
+        }
+        return fields;
+    }
+
+    /**
+     * Builds a JSON object field by field
+     */
+    public static class ObjectBuilder {
+        private final StringBuilder json = new StringBuilder(256).append('{');
+        private boolean empty = true;
+
+        public ObjectBuilder put(String name, String value) {
+            return raw(name, quote(value));
+        }
+
+        public ObjectBuilder put(String name, long value) {
+            return raw(name, Long.toString(value));
+        }
+
+        public ObjectBuilder put(String name, double value) {
+            return raw(name, Double.isFinite(value) ? Double.toString(value) : "null");
+        }
+
+        public ObjectBuilder put(String name, boolean value) {
+            return raw(name, Boolean.toString(value));
+        }
+
+        public ObjectBuilder put(String name, Integer value) {
+            return raw(name, value != null ? value.toString() : "null");
+        }
+
+        public ObjectBuilder put(String name, Object value) {
+            return put(name, value != null ? value.toString() : null);
+        }
+
+        /**
+         * Adds a field whose value is already JSON text
+         * @param name Field name
+         * @param json JSON value
+         * @return this builder
+         */
+        public ObjectBuilder raw(String name, String json) {
+            if (!empty) {
+                this.json.append(',');
+            }
+            this.json.append(quote(name)).append(':').append(json);
+            empty = false;
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return json.toString() + '}';
+        }
+    }
+
+    /**
+     * Recursive-descent parser for flat objects
+     */
+    private static class Parser {
+        private final String text;
+        private int pos = 0;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        Map<String, Object> parseObject() {
+            Map<String, Object> fields = new LinkedHashMap<>();
+            skipWhitespace();
+            expect('{');
+            skipWhitespace();
+            if (peek() == '}') {
+                pos++;
+                return fields;
+            }
+            while (true) {
+                skipWhitespace();
+                String name = parseString();
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+                fields.put(name, parseValue());
+                skipWhitespace();
+                char c = next();
+                if (c == '}') {
+                    return fields;
+                }
+                if (c != ',') {
+                    throw error("Expected ',' or '}'");
+                }
+            }
+        }
+
+        private Object parseValue() {
+            char c = peek();
+            if (c == '"') {
+                return parseString();
+            }
+            if (text.startsWith("true", pos)) {
+                pos += 4;
+                return Boolean.TRUE;
+            }
+            if (text.startsWith("false", pos)) {
+                pos += 5;
+                return Boolean.FALSE;
+            }
+            if (text.startsWith("null", pos)) {
+                pos += 4;
+                return null;
+            }
+            if (c == '-' || (c >= '0' && c <= '9')) {
+                int start = pos;
+                while (pos < text.length() && "+-.eE0123456789".indexOf(text.charAt(pos)) >= 0) {
+                    pos++;
+                }
+                try {
+                    return Double.valueOf(text.substring(start, pos));
+                } catch (NumberFormatException e) {
+                    throw error("Invalid number");
+                }
+            }
+            throw error("Only strings, numbers, booleans and null are accepted");
+        }
+
+        private String parseString() {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while (true) {
+                char c = next();
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                char escaped = next();
+                switch (escaped) {
+                    case '"': case '\\': case '/': value.append(escaped); break;
+                    case 'b': value.append('\b'); break;
+                    case 'f': value.append('\f'); break;
+                    case 'n': value.append('\n'); break;
+                    case 'r': value.append('\r'); break;
+                    case 't': value.append('\t'); break;
+                    case 'u':
+                        if (pos + 4 > text.length()) {
+                            throw error("Truncated unicode escape");
+                        }
+                        try {
+                            value.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw error("Invalid unicode escape");
+                        }
+                        pos += 4;
+                        break;
+                    default:
+                        throw error("Invalid escape");
+                }
+            }
+        }
+
+        void skipWhitespace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private char peek() {
+            if (pos >= text.length()) {
+                throw error("Unexpected end of JSON");
+            }
+            return text.charAt(pos);
+        }
+
+        private char next() {
+            char c = peek();
+            pos++;
+            return c;
+        }
+
+        private void expect(char expected) {
+            if (next() != expected) {
+                throw error("Expected '" + expected + "'");
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at position " + pos);
+        }
+    }
+}
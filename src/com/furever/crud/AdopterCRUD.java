@@ -13,17 +13,32 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.List;
 
 import com.furever.database.DbConnection;
 import com.furever.models.Adopter;
+import com.furever.utils.EntityCache;
 
 /**
  * CRUD operations for Adopter entity
+ * List and search methods return the summary projection; single-adopter reads return the full record
  */
 public class AdopterCRUD {
     
+    /** Columns shown by adopter tables; the profile text and legacy password are left out */
+    static final RowMapper<Adopter> ADOPTER_SUMMARY = adopterColumns(new RowMapper<>(Adopter::new));
+    
+    /** Every adopter column, used for single-adopter reads */
+    static final RowMapper<Adopter> ADOPTER_DETAIL = adopterColumns(new RowMapper<>(Adopter::new))
+            .column("adopter_profile", (a, rs, i) -> a.setAdopterProfile(rs.getString(i)))
+            .column("adopter_password", (a, rs, i) -> a.setAdopterPassword(rs.getString(i)));
+    
+    // Shared by every AdopterCRUD instance; entries are dropped on each write to the adopter
+    private static final EntityCache<Integer, Adopter> ADOPTER_CACHE =
+            EntityCache.create("Adopters by ID", 1000, 5 * 60 * 1000L, Adopter::new);
+    
     /**
      * Creates a new adopter in the database
      * @param adopter Adopter object to create
@@ -33,7 +48,7 @@ public class AdopterCRUD {
         String sql = "INSERT INTO tbl_adopter (adopter_name, adopter_contact, adopter_email, adopter_address, adopter_profile, adopter_username, adopter_password) VALUES (?, ?, ?, ?, ?, ?, ?)";
         
         try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql, Statement.RETURN_GENERATED_KEYS)) {
             
             pstmt.setString(1, adopter.getAdopterName());
             pstmt.setString(2, adopter.getAdopterContact());
@@ -52,6 +67,8 @@ public class AdopterCRUD {
                     }
                 }
                 System.out.println("Adopter created successfully with ID: " + adopter.getAdopterId());
+                StatisticsSnapshot.getInstance().adjust(StatisticsSnapshot.Counter.ADOPTERS_TOTAL, 1);
+                SearchIndexes.getInstance().indexAdopter(adopter.getAdopterId(), adopter.getAdopterName(), adopter.getAdopterUsername());
                 return true;
             }
             
@@ -68,16 +85,25 @@ public class AdopterCRUD {
      * @return Adopter object if found, null otherwise
      */
     public Adopter getAdopterById(int adopterId) {
-        String sql = "SELECT * FROM tbl_adopter WHERE adopter_id = ?";
+        return ADOPTER_CACHE.get(adopterId, this::loadAdopterById);
+    }
+    
+    /**
+     * Reads an adopter from the database, bypassing the cache
+     * @param adopterId Adopter ID to search for
+     * @return Adopter object if found, null otherwise
+     */
+    private Adopter loadAdopterById(int adopterId) {
+        String sql = StatementCatalog.ADOPTER_BY_ID;
         
         try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             
             pstmt.setInt(1, adopterId);
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return extractAdopterFromResultSet(rs);
+                    return ADOPTER_DETAIL.map(rs);
                 }
             }
             
@@ -94,16 +120,16 @@ public class AdopterCRUD {
      * @return Adopter object if found, null otherwise
      */
     public Adopter getAdopterByUsername(String username) {
-        String sql = "SELECT * FROM tbl_adopter WHERE adopter_username = ?";
+        String sql = StatementCatalog.ADOPTER_BY_USERNAME;
         
         try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             
             pstmt.setString(1, username);
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return extractAdopterFromResultSet(rs);
+                    return ADOPTER_DETAIL.map(rs);
                 }
             }
             
@@ -117,23 +143,30 @@ public class AdopterCRUD {
     
     
     /**
-     * Searches adopters by username using LIKE pattern matching
-     * @param usernamePattern Username pattern to search for (supports wildcards)
+     * Searches adopters by username using the in-memory trigram index
+     * Matches substrings, prefixes and near misses, best match first
+     * @param usernamePattern Username text to search for
      * @return List of adopters matching the pattern
      */
     public List<Adopter> searchAdoptersByUsername(String usernamePattern) {
+        SearchIndexes searchIndexes = SearchIndexes.getInstance();
+        if (searchIndexes.isReady()) {
+            return getAdoptersByRankedIds(searchIndexes.searchAdopterIdsByUsername(usernamePattern));
+        }
+        
+        // Fallback when the in-memory index could not be loaded
         List<Adopter> adopters = new ArrayList<>();
-        String sql = "SELECT * FROM tbl_adopter WHERE adopter_username LIKE ? ORDER BY adopter_username";
+        String sql = "SELECT " + ADOPTER_SUMMARY.columns() + " FROM tbl_adopter WHERE adopter_username LIKE ? ORDER BY adopter_username";
         
-        try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DbConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             
             // Add wildcards for partial matching
             pstmt.setString(1, "%" + usernamePattern + "%");
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    adopters.add(extractAdopterFromResultSet(rs));
+                    adopters.add(ADOPTER_SUMMARY.map(rs));
                 }
             }
             
@@ -151,14 +184,14 @@ public class AdopterCRUD {
      */
     public List<Adopter> getAllAdopters() {
         List<Adopter> adopters = new ArrayList<>();
-        String sql = "SELECT * FROM tbl_adopter ORDER BY adopter_id";
+        String sql = "SELECT " + ADOPTER_SUMMARY.columns() + " FROM tbl_adopter ORDER BY adopter_id";
         
-        try (Connection conn = DbConnection.getConnection();
+        try (Connection conn = DbConnection.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
             while (rs.next()) {
-                adopters.add(extractAdopterFromResultSet(rs));
+                adopters.add(ADOPTER_SUMMARY.map(rs));
             }
             
         } catch (SQLException e) {
@@ -177,7 +210,7 @@ public class AdopterCRUD {
         String sql = "UPDATE tbl_adopter SET adopter_name = ?, adopter_contact = ?, adopter_email = ?, adopter_address = ?, adopter_profile = ?, adopter_username = ?, adopter_password = ? WHERE adopter_id = ?";
         
         try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             
             pstmt.setString(1, adopter.getAdopterName());
             pstmt.setString(2, adopter.getAdopterContact());
@@ -191,7 +224,9 @@ public class AdopterCRUD {
             int rowsAffected = pstmt.executeUpdate();
             
             if (rowsAffected > 0) {
+                ADOPTER_CACHE.invalidate(adopter.getAdopterId());
                 System.out.println("Adopter updated successfully.");
+                SearchIndexes.getInstance().indexAdopter(adopter.getAdopterId(), adopter.getAdopterName(), adopter.getAdopterUsername());
                 return true;
             } else {
                 System.out.println("No adopter found with ID: " + adopter.getAdopterId());
@@ -214,22 +249,29 @@ public class AdopterCRUD {
     }
     
     /**
-     * Searches adopters by name
+     * Searches adopters by name using the in-memory trigram index
+     * Matches substrings, prefixes and near misses, best match first
      * @param searchTerm Search term to match against adopter names
      * @return List of adopters matching the search term
      */
     public List<Adopter> searchAdoptersByName(String searchTerm) {
+        SearchIndexes searchIndexes = SearchIndexes.getInstance();
+        if (searchIndexes.isReady()) {
+            return getAdoptersByRankedIds(searchIndexes.searchAdopterIdsByName(searchTerm));
+        }
+        
+        // Fallback when the in-memory index could not be loaded
         List<Adopter> adopters = new ArrayList<>();
-        String sql = "SELECT * FROM tbl_adopter WHERE adopter_name LIKE ? ORDER BY adopter_name";
+        String sql = "SELECT " + ADOPTER_SUMMARY.columns() + " FROM tbl_adopter WHERE adopter_name LIKE ? ORDER BY adopter_name";
         
-        try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DbConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             
             pstmt.setString(1, "%" + searchTerm + "%");
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    adopters.add(extractAdopterFromResultSet(rs));
+                    adopters.add(ADOPTER_SUMMARY.map(rs));
                 }
             }
             
@@ -241,44 +283,58 @@ public class AdopterCRUD {
     }
     
     /**
-     * Counts total number of adopters
-     * @return Total count of adopters
+     * Loads adopters for IDs ranked by the search index, keeping the ranking order
+     * @param ids Ranked IDs
+     * @return List of adopters in ranking order
      */
-    public int getAdopterCount() {
-        String sql = "SELECT COUNT(*) FROM tbl_adopter";
+    private List<Adopter> getAdoptersByRankedIds(List<Integer> ids) {
+        List<Adopter> results = new ArrayList<>();
+        if (ids.isEmpty()) {
+            return results;
+        }
         
-        try (Connection conn = DbConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        String sql = "SELECT " + ADOPTER_SUMMARY.columns() + " FROM tbl_adopter WHERE " + SearchIndexes.rankedIdClause("adopter_id", ids);
+        
+        try (Connection conn = DbConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
+            
+            SearchIndexes.bindRankedIds(pstmt, ids);
             
-            if (rs.next()) {
-                return rs.getInt(1);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    results.add(ADOPTER_SUMMARY.map(rs));
+                }
             }
             
         } catch (SQLException e) {
-            System.err.println("Error counting adopters: " + e.getMessage());
+            System.err.println("Error searching adopters: " + e.getMessage());
         }
         
-        return 0;
+        return results;
     }
     
     /**
-     * Extracts Adopter object from ResultSet
-     * @param rs ResultSet containing adopter data
-     * @return Adopter object
-     * @throws SQLException if database access error occurs
+     * Counts total number of adopters
+     * Served from the shared statistics snapshot
+     * @return Total count of adopters
      */
-    private Adopter extractAdopterFromResultSet(ResultSet rs) throws SQLException {
-        Adopter adopter = new Adopter();
-        adopter.setAdopterId(rs.getInt("adopter_id"));
-        adopter.setAdopterName(rs.getString("adopter_name"));
-        adopter.setAdopterContact(rs.getString("adopter_contact"));
-        adopter.setAdopterEmail(rs.getString("adopter_email"));
-        adopter.setAdopterAddress(rs.getString("adopter_address"));
-        adopter.setAdopterProfile(rs.getString("adopter_profile"));
-        adopter.setAdopterUsername(rs.getString("adopter_username"));
-        adopter.setAdopterPassword(rs.getString("adopter_password"));
-        return adopter;
+    public int getAdopterCount() {
+        return StatisticsSnapshot.getInstance().getCount(StatisticsSnapshot.Counter.ADOPTERS_TOTAL);
+    }
+    
+    /**
+     * Adds the adopter columns shared by the summary and detail projections
+     * @param mapper Mapper to add the columns to
+     * @return the same mapper
+     */
+    private static RowMapper<Adopter> adopterColumns(RowMapper<Adopter> mapper) {
+        return mapper
+                .column("adopter_id", (a, rs, i) -> a.setAdopterId(rs.getInt(i)))
+                .column("adopter_name", (a, rs, i) -> a.setAdopterName(rs.getString(i)))
+                .column("adopter_contact", (a, rs, i) -> a.setAdopterContact(rs.getString(i)))
+                .column("adopter_email", (a, rs, i) -> a.setAdopterEmail(rs.getString(i)))
+                .column("adopter_address", (a, rs, i) -> a.setAdopterAddress(rs.getString(i)))
+                .column("adopter_username", (a, rs, i) -> a.setAdopterUsername(rs.getString(i)));
     }
     
     /**
@@ -294,7 +350,7 @@ public class AdopterCRUD {
         String sql = "INSERT INTO tbl_adopter (username, adopter_name, adopter_contact, adopter_email, adopter_address, adopter_username, adopter_password) VALUES (?, ?, ?, ?, ?, ?, ?)";
         
         try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql, Statement.RETURN_GENERATED_KEYS)) {
             
             pstmt.setString(1, username);      // Link to users.username
             pstmt.setString(2, name);          // Display name
@@ -308,6 +364,9 @@ public class AdopterCRUD {
             
             if (rowsAffected > 0) {
                 System.out.println("Adopter profile created successfully for user: " + username);
+                StatisticsSnapshot.getInstance().adjust(StatisticsSnapshot.Counter.ADOPTERS_TOTAL, 1);
+                SearchIndexes.getInstance().reindexProfilesForUsername(username);
+                invalidateAdopterCache();
                 return true;
             }
             
@@ -318,22 +377,30 @@ public class AdopterCRUD {
         return false;
     }
     
+    /**
+     * Drops every cached adopter
+     * Used by user writes that change adopter profiles by username inside their own transaction
+     */
+    static void invalidateAdopterCache() {
+        ADOPTER_CACHE.invalidateAll();
+    }
+    
     /**
      * Gets adopter by linked username (from users table)
      * @param username Username from users table
      * @return Adopter object if found, null otherwise
      */
     public Adopter getAdopterByLinkedUsername(String username) {
-        String sql = "SELECT * FROM tbl_adopter WHERE username = ?";
+        String sql = StatementCatalog.ADOPTER_BY_LINKED_USERNAME;
         
         try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             
             pstmt.setString(1, username);
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return extractAdopterFromResultSet(rs);
+                    return ADOPTER_DETAIL.map(rs);
                 }
             }
             
@@ -355,7 +422,6 @@ public class AdopterCRUD {
         String selectAdopterSql = "SELECT * FROM tbl_adopter WHERE adopter_id = ?";
         String insertArchiveSql = "INSERT INTO tbl_adopter_archive (adopter_id, username, adopter_name, adopter_contact, adopter_email, adopter_address, adopter_profile, adopter_username, adopter_password, archived, archived_date, archived_by_user_id, archive_reason) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
         String deleteAdopterSql = "DELETE FROM tbl_adopter WHERE adopter_id = ?";
-        String logSql = "INSERT INTO tbl_archive_log (table_name, record_id, operation, performed_by_user_id, reason) VALUES (?, ?, ?, ?, ?)";
         
         try (Connection conn = DbConnection.getConnection()) {
             conn.setAutoCommit(false);
@@ -363,7 +429,7 @@ public class AdopterCRUD {
             // Get the adopter record to archive
             Adopter adopter = null;
             String linkedUsername = null;
-            try (PreparedStatement selectStmt = conn.prepareStatement(selectAdopterSql)) {
+            try (PreparedStatement selectStmt = StatementCatalog.prepare(conn, selectAdopterSql)) {
                 selectStmt.setInt(1, adopterId);
                 try (ResultSet rs = selectStmt.executeQuery()) {
                     if (rs.next()) {
@@ -385,7 +451,7 @@ public class AdopterCRUD {
             }
             
             // Insert into archive table
-            try (PreparedStatement insertStmt = conn.prepareStatement(insertArchiveSql)) {
+            try (PreparedStatement insertStmt = StatementCatalog.prepare(conn, insertArchiveSql)) {
                 insertStmt.setInt(1, adopter.getAdopterId());
                 insertStmt.setString(2, linkedUsername);
                 insertStmt.setString(3, adopter.getAdopterName());
@@ -408,27 +474,21 @@ public class AdopterCRUD {
             }
             
             // Delete from main table
-            try (PreparedStatement deleteStmt = conn.prepareStatement(deleteAdopterSql)) {
+            try (PreparedStatement deleteStmt = StatementCatalog.prepare(conn, deleteAdopterSql)) {
                 deleteStmt.setInt(1, adopterId);
                 deleteStmt.executeUpdate();
             }
             
             // Log the operation
-            try (PreparedStatement logStmt = conn.prepareStatement(logSql)) {
-                logStmt.setString(1, "tbl_adopter");
-                logStmt.setInt(2, adopterId);
-                logStmt.setString(3, "ARCHIVE");
-                if (archivedByUserId != null) {
-                    logStmt.setInt(4, archivedByUserId);
-                } else {
-                    logStmt.setNull(4, java.sql.Types.INTEGER);
-                }
-                logStmt.setString(5, reason);
-                
-                logStmt.executeUpdate();
-            }
+            ArchiveLog.Entry logEntry = new ArchiveLog.Entry("tbl_adopter", adopterId, "ARCHIVE", archivedByUserId, reason);
+            ArchiveLog.getInstance().record(conn, logEntry);
             
             conn.commit();
+            ArchiveLog.getInstance().committed(logEntry);
+            StatisticsSnapshot.getInstance().recordArchived(StatisticsSnapshot.Counter.ADOPTERS_TOTAL,
+                    null, StatisticsSnapshot.Counter.ARCHIVED_ADOPTERS);
+            SearchIndexes.getInstance().removeAdopter(adopterId);
+            ADOPTER_CACHE.invalidate(adopterId);
             return true;
             
         } catch (SQLException e) {
@@ -448,7 +508,8 @@ public class AdopterCRUD {
         String selectArchiveSql = "SELECT * FROM tbl_adopter_archive WHERE adopter_id = ?";
         String insertMainSql = "INSERT INTO tbl_adopter (adopter_id, username, adopter_name, adopter_contact, adopter_email, adopter_address, adopter_profile, adopter_username, adopter_password, archived, archived_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
         String deleteArchiveSql = "DELETE FROM tbl_adopter_archive WHERE adopter_id = ?";
-        String logSql = "INSERT INTO tbl_archive_log (table_name, record_id, operation, performed_by_user_id, reason) VALUES (?, ?, ?, ?, ?)";
+        
+        ArchiveColdStorage.getInstance().rehydrate("tbl_adopter_archive", adopterId);
         
         try (Connection conn = DbConnection.getConnection()) {
             conn.setAutoCommit(false);
@@ -456,7 +517,7 @@ public class AdopterCRUD {
             // Get the adopter record from archive
             Adopter adopter = null;
             String linkedUsername = null;
-            try (PreparedStatement selectStmt = conn.prepareStatement(selectArchiveSql)) {
+            try (PreparedStatement selectStmt = StatementCatalog.prepare(conn, selectArchiveSql)) {
                 selectStmt.setInt(1, adopterId);
                 try (ResultSet rs = selectStmt.executeQuery()) {
                     if (rs.next()) {
@@ -478,7 +539,7 @@ public class AdopterCRUD {
             }
             
             // Insert adopter back into main table
-            try (PreparedStatement insertStmt = conn.prepareStatement(insertMainSql)) {
+            try (PreparedStatement insertStmt = StatementCatalog.prepare(conn, insertMainSql)) {
                 insertStmt.setInt(1, adopter.getAdopterId());
                 insertStmt.setString(2, linkedUsername);
                 insertStmt.setString(3, adopter.getAdopterName());
@@ -495,27 +556,21 @@ public class AdopterCRUD {
             }
             
             // Delete from archive table
-            try (PreparedStatement deleteStmt = conn.prepareStatement(deleteArchiveSql)) {
+            try (PreparedStatement deleteStmt = StatementCatalog.prepare(conn, deleteArchiveSql)) {
                 deleteStmt.setInt(1, adopterId);
                 deleteStmt.executeUpdate();
             }
             
             // Log the operation
-            try (PreparedStatement logStmt = conn.prepareStatement(logSql)) {
-                logStmt.setString(1, "tbl_adopter");
-                logStmt.setInt(2, adopterId);
-                logStmt.setString(3, "RESTORE");
-                if (restoredByUserId != null) {
-                    logStmt.setInt(4, restoredByUserId);
-                } else {
-                    logStmt.setNull(4, java.sql.Types.INTEGER);
-                }
-                logStmt.setString(5, reason);
-                
-                logStmt.executeUpdate();
-            }
+            ArchiveLog.Entry logEntry = new ArchiveLog.Entry("tbl_adopter", adopterId, "RESTORE", restoredByUserId, reason);
+            ArchiveLog.getInstance().record(conn, logEntry);
             
             conn.commit();
+            ArchiveLog.getInstance().committed(logEntry);
+            StatisticsSnapshot.getInstance().recordRestored(StatisticsSnapshot.Counter.ADOPTERS_TOTAL,
+                    null, StatisticsSnapshot.Counter.ARCHIVED_ADOPTERS);
+            SearchIndexes.getInstance().indexAdopter(adopter.getAdopterId(), adopter.getAdopterName(), adopter.getAdopterUsername());
+            ADOPTER_CACHE.invalidate(adopterId);
             return true;
             
         } catch (SQLException e) {
@@ -533,13 +588,14 @@ public class AdopterCRUD {
      */
     public boolean permanentDeleteAdopter(int adopterId, Integer deletedByUserId, String reason) {
         String deleteAdopterSql = "DELETE FROM tbl_adopter_archive WHERE adopter_id = ?";
-        String logSql = "INSERT INTO tbl_archive_log (table_name, record_id, operation, performed_by_user_id, reason) VALUES (?, ?, ?, ?, ?)";
+        
+        ArchiveColdStorage.getInstance().rehydrate("tbl_adopter_archive", adopterId);
         
         try (Connection conn = DbConnection.getConnection()) {
             conn.setAutoCommit(false);
             
             // Delete adopter from archive table
-            try (PreparedStatement deleteStmt = conn.prepareStatement(deleteAdopterSql)) {
+            try (PreparedStatement deleteStmt = StatementCatalog.prepare(conn, deleteAdopterSql)) {
                 deleteStmt.setInt(1, adopterId);
                 int rowsAffected = deleteStmt.executeUpdate();
                 
@@ -550,21 +606,13 @@ public class AdopterCRUD {
             }
             
             // Log the operation
-            try (PreparedStatement logStmt = conn.prepareStatement(logSql)) {
-                logStmt.setString(1, "tbl_adopter");
-                logStmt.setInt(2, adopterId);
-                logStmt.setString(3, "PERMANENT_DELETE");
-                if (deletedByUserId != null) {
-                    logStmt.setInt(4, deletedByUserId);
-                } else {
-                    logStmt.setNull(4, java.sql.Types.INTEGER);
-                }
-                logStmt.setString(5, reason);
-                
-                logStmt.executeUpdate();
-            }
+            ArchiveLog.Entry logEntry = new ArchiveLog.Entry("tbl_adopter", adopterId, "PERMANENT_DELETE", deletedByUserId, reason);
+            ArchiveLog.getInstance().record(conn, logEntry);
             
             conn.commit();
+            ArchiveLog.getInstance().committed(logEntry);
+            StatisticsSnapshot.getInstance().adjust(StatisticsSnapshot.Counter.ARCHIVED_ADOPTERS, -1);
+            ADOPTER_CACHE.invalidate(adopterId);
             return true;
             
         } catch (SQLException e) {
@@ -579,30 +627,37 @@ public class AdopterCRUD {
      */
     public List<Adopter> getAllArchivedAdopters() {
         List<Adopter> adopters = new ArrayList<>();
-        String sql = "SELECT * FROM tbl_adopter_archive ORDER BY archived_date DESC";
+        List<Timestamp> archivedDates = new ArrayList<>();
+        String sql = "SELECT " + ADOPTER_SUMMARY.columns() + ", archived_date FROM tbl_adopter_archive ORDER BY archived_date DESC, adopter_id DESC";
         
-        try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql);
+        try (Connection conn = DbConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql);
              ResultSet rs = pstmt.executeQuery()) {
             
             while (rs.next()) {
-                Adopter adopter = new Adopter();
-                adopter.setAdopterId(rs.getInt("adopter_id"));
-                // Note: username field stored separately in archive table
-                adopter.setAdopterName(rs.getString("adopter_name"));
-                adopter.setAdopterContact(rs.getString("adopter_contact"));
-                adopter.setAdopterEmail(rs.getString("adopter_email"));
-                adopter.setAdopterAddress(rs.getString("adopter_address"));
-                adopter.setAdopterProfile(rs.getString("adopter_profile"));
-                adopter.setAdopterUsername(rs.getString("adopter_username"));
-                adopter.setAdopterPassword(rs.getString("adopter_password"));
-                adopters.add(adopter);
+                archivedDates.add(rs.getTimestamp(ADOPTER_SUMMARY.width() + 1));
+                adopters.add(ADOPTER_SUMMARY.map(rs));
             }
             
         } catch (SQLException e) {
             System.err.println("Error retrieving archived adopters: " + e.getMessage());
         }
         
-        return adopters;
+        return ArchiveColdStorage.mergeArchiveList(adopters, archivedDates, Adopter::getAdopterId,
+                ArchiveColdStorage.getInstance().readAll("tbl_adopter_archive"), AdopterCRUD::adopterFromColdRow);
+    }
+    
+    /**
+     * Maps a cold storage row to the same fields as ADOPTER_SUMMARY
+     */
+    private static Adopter adopterFromColdRow(ArchiveColdStorage.ColdRow row) {
+        Adopter adopter = new Adopter();
+        adopter.setAdopterId(row.getInt("adopter_id"));
+        adopter.setAdopterName(row.getString("adopter_name"));
+        adopter.setAdopterContact(row.getString("adopter_contact"));
+        adopter.setAdopterEmail(row.getString("adopter_email"));
+        adopter.setAdopterAddress(row.getString("adopter_address"));
+        adopter.setAdopterUsername(row.getString("adopter_username"));
+        return adopter;
     }
 }
\ No newline at end of file
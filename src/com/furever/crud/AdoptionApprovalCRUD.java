@@ -0,0 +1,427 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.furever.crud;
+
+/**
+ *
+ * @author jerimiahtongco
+ */
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.furever.database.DbConnection;
+
+/**
+ * Concurrency-safe adoption approval
+ * Approving a request, rejecting the other pending requests for the pet, marking
+ * the pet adopted and recording the adoption all happen in one short transaction
+ * that holds the pet row lock. A pending request whose adopter already has a
+ * rejected request for the pet cannot be rejected again (uk_adopter_pet_request),
+ * so it is archived instead. Competing approvals for the same pet serialize on
+ * that lock instead of overwriting each other; deadlocks are retried with backoff.
+ */
+public class AdoptionApprovalCRUD {
+
+    public static final int MAX_ATTEMPTS = 5;
+    public static final long BASE_BACKOFF_MILLIS = 20;
+
+    private static final String SIBLING_REJECTION_REMARKS = "Automatically rejected - pet adopted by another adopter";
+    private static final String SIBLING_ARCHIVE_REASON = "Auto-archived: pet adopted by another adopter, earlier request already rejected";
+
+    // MySQL error codes for a deadlock victim and an expired lock wait
+    private static final int ER_LOCK_DEADLOCK = 1213;
+    private static final int ER_LOCK_WAIT_TIMEOUT = 1205;
+    private static final int ER_DUP_ENTRY = 1062;
+
+    // Shared by every instance so the stress tool and the dashboards report the same numbers
+    private static final AtomicLong approvedCount = new AtomicLong();
+    private static final AtomicLong conflictCount = new AtomicLong();
+    private static final AtomicLong busyCount = new AtomicLong();
+    private static final AtomicLong retryCount = new AtomicLong();
+    private static final AtomicLong failedCount = new AtomicLong();
+
+    /**
+     * Result of an approval attempt
+     */
+    public enum Outcome {
+        APPROVED,
+        REQUEST_NOT_FOUND,
+        REQUEST_NOT_PENDING,
+        PET_NOT_AVAILABLE,
+        PET_BUSY,
+        DUPLICATE,
+        FAILED
+    }
+
+    /**
+     * Approves a request, waiting for the pet lock if another approval holds it
+     * @param requestId Adoption request ID to approve
+     * @param approvalDate Date of approval
+     * @param remarks Approval remarks
+     * @param approvedByUserId ID of the user approving, or null
+     * @return result of the approval
+     */
+    public ApprovalResult approve(int requestId, Date approvalDate, String remarks, Integer approvedByUserId) {
+        return approve(requestId, approvalDate, remarks, approvedByUserId, false);
+    }
+
+    /**
+     * Approves a request unless another session is already approving a request for the same pet
+     * Uses SKIP LOCKED so a busy pet is reported immediately instead of queueing behind the lock
+     * @param requestId Adoption request ID to approve
+     * @param approvalDate Date of approval
+     * @param remarks Approval remarks
+     * @param approvedByUserId ID of the user approving, or null
+     * @return result of the approval; PET_BUSY if the pet row was locked
+     */
+    public ApprovalResult tryApprove(int requestId, Date approvalDate, String remarks, Integer approvedByUserId) {
+        return approve(requestId, approvalDate, remarks, approvedByUserId, true);
+    }
+
+    private ApprovalResult approve(int requestId, Date approvalDate, String remarks, Integer approvedByUserId, boolean skipLocked) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                ApprovalResult result = approveOnce(requestId, approvalDate, remarks, approvedByUserId, skipLocked);
+                result.attempts = attempt;
+                record(result.getOutcome());
+                return result;
+
+            } catch (SQLException e) {
+                if (isRetryable(e) && attempt < MAX_ATTEMPTS) {
+                    retryCount.incrementAndGet();
+                    backoff(attempt);
+                    continue;
+                }
+                System.err.println("Error approving adoption request " + requestId + ": " + e.getMessage());
+                failedCount.incrementAndGet();
+                ApprovalResult result = new ApprovalResult(Outcome.FAILED, e.getMessage());
+                result.attempts = attempt;
+                return result;
+            }
+        }
+    }
+
+    /**
+     * Runs one approval transaction
+     * Locks are always taken pet first, then requests, so two approvals cannot lock in opposite orders
+     */
+    private ApprovalResult approveOnce(int requestId, Date approvalDate, String remarks, Integer approvedByUserId,
+                                       boolean skipLocked) throws SQLException {
+        try (Connection conn = DbConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            int previousIsolation = conn.getTransactionIsolation();
+            // Read committed avoids gap locks on the request range scans below
+            conn.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+
+            try {
+                // Find the pet without locking; the request is re-checked under the pet lock
+                Integer petId = selectRequestPetId(conn, requestId);
+                if (petId == null) {
+                    conn.rollback();
+                    return new ApprovalResult(Outcome.REQUEST_NOT_FOUND, "Adoption request not found.");
+                }
+
+                String petStatus = lockPet(conn, petId, skipLocked);
+                if (petStatus == null) {
+                    conn.rollback();
+                    if (skipLocked && petExists(conn, petId)) {
+                        return new ApprovalResult(Outcome.PET_BUSY, "Another approval for this pet is in progress.");
+                    }
+                    return new ApprovalResult(Outcome.PET_NOT_AVAILABLE, "Pet not found or archived.");
+                }
+                if ("Adopted".equals(petStatus)) {
+                    conn.rollback();
+                    return new ApprovalResult(Outcome.PET_NOT_AVAILABLE, "Pet has already been adopted.");
+                }
+
+                int adopterId;
+                String requestSql = "SELECT adopter_id, status, pet_id FROM tbl_adoption_request WHERE adoption_request_id = ? FOR UPDATE";
+                try (PreparedStatement pstmt = StatementCatalog.prepare(conn, requestSql)) {
+                    pstmt.setInt(1, requestId);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        if (!rs.next()) {
+                            conn.rollback();
+                            return new ApprovalResult(Outcome.REQUEST_NOT_FOUND, "Adoption request not found.");
+                        }
+                        if (!"Pending".equals(rs.getString("status")) || rs.getInt("pet_id") != petId) {
+                            conn.rollback();
+                            return new ApprovalResult(Outcome.REQUEST_NOT_PENDING, "Request is no longer pending.");
+                        }
+                        adopterId = rs.getInt("adopter_id");
+                    }
+                }
+
+                String approveSql = "UPDATE tbl_adoption_request SET status = 'Approved', approval_date = ?, remarks = ? WHERE adoption_request_id = ?";
+                try (PreparedStatement pstmt = StatementCatalog.prepare(conn, approveSql)) {
+                    pstmt.setDate(1, approvalDate);
+                    pstmt.setString(2, remarks);
+                    pstmt.setInt(3, requestId);
+                    pstmt.executeUpdate();
+                }
+
+                // Sibling requests are only listed when the change feed has someone to tell
+                ChangeFeed changeFeed = ChangeFeed.getInstance();
+                Map<Integer, Integer> siblings = changeFeed.isActive() ? selectPendingSiblings(conn, petId, requestId) : Map.of();
+                
+                // uk_adopter_pet_request allows one rejected request per adopter and pet, so
+                // siblings whose adopter was already rejected for this pet are archived instead
+                Map<Integer, Integer> archivedSiblings = selectRejectedAgainSiblings(conn, petId, requestId);
+                List<ArchiveLog.Entry> logEntries = archiveSiblings(conn, archivedSiblings.keySet(), approvedByUserId);
+                
+                int rejected;
+                String rejectSql = "UPDATE tbl_adoption_request SET status = 'Rejected', remarks = ? " +
+                                   "WHERE pet_id = ? AND status = 'Pending' AND adoption_request_id <> ?";
+                try (PreparedStatement pstmt = StatementCatalog.prepare(conn, rejectSql)) {
+                    pstmt.setString(1, SIBLING_REJECTION_REMARKS);
+                    pstmt.setInt(2, petId);
+                    pstmt.setInt(3, requestId);
+                    rejected = pstmt.executeUpdate();
+                }
+
+                String petSql = "UPDATE tbl_pet SET adoption_status = 'Adopted' WHERE pet_id = ?";
+                try (PreparedStatement pstmt = StatementCatalog.prepare(conn, petSql)) {
+                    pstmt.setInt(1, petId);
+                    pstmt.executeUpdate();
+                }
+
+                String adoptionSql = "INSERT INTO tbl_adoption (pet_id, adopter_id, adoption_date, remarks, user_id) VALUES (?, ?, ?, ?, ?)";
+                try (PreparedStatement pstmt = StatementCatalog.prepare(conn, adoptionSql)) {
+                    pstmt.setInt(1, petId);
+                    pstmt.setInt(2, adopterId);
+                    pstmt.setDate(3, approvalDate);
+                    pstmt.setString(4, remarks);
+                    if (approvedByUserId != null) {
+                        pstmt.setInt(5, approvedByUserId);
+                    } else {
+                        pstmt.setNull(5, Types.INTEGER);
+                    }
+                    pstmt.executeUpdate();
+                }
+
+                List<ChangeFeed.Event> events = new ArrayList<>();
+                events.add(ChangeFeed.requestStatus(requestId, petId, adopterId, "Approved"));
+                events.add(ChangeFeed.petStatus(petId, "Adopted"));
+                for (Map.Entry<Integer, Integer> sibling : siblings.entrySet()) {
+                    // An archived request has left tbl_adoption_request, like any other archived request
+                    String siblingStatus = archivedSiblings.containsKey(sibling.getKey()) ? ChangeFeed.REMOVED : "Rejected";
+                    events.add(ChangeFeed.requestStatus(sibling.getKey(), petId, sibling.getValue(), siblingStatus));
+                }
+                changeFeed.record(conn, events);
+
+                conn.commit();
+                for (ArchiveLog.Entry logEntry : logEntries) {
+                    ArchiveLog.getInstance().committed(logEntry);
+                }
+                changeFeed.publish(events);
+
+                StatisticsSnapshot statistics = StatisticsSnapshot.getInstance();
+                statistics.recordTransition(StatisticsSnapshot.Counter.REQUESTS_PENDING, StatisticsSnapshot.Counter.REQUESTS_APPROVED);
+                statistics.adjust(StatisticsSnapshot.Counter.REQUESTS_PENDING, -rejected);
+                statistics.adjust(StatisticsSnapshot.Counter.REQUESTS_REJECTED, rejected);
+                for (int i = 0; i < logEntries.size(); i++) {
+                    statistics.recordArchived(StatisticsSnapshot.Counter.REQUESTS_TOTAL,
+                            StatisticsSnapshot.Counter.REQUESTS_PENDING, StatisticsSnapshot.Counter.ARCHIVED_REQUESTS);
+                }
+                statistics.recordTransition(StatisticsSnapshot.Counter.forPetStatus(petStatus), StatisticsSnapshot.Counter.PETS_ADOPTED);
+                PetRecommender.getInstance().updateAdoptionStatus(petId, "Adopted");
+
+                ApprovalResult result = new ApprovalResult(Outcome.APPROVED, "Adoption request approved.");
+                result.petId = petId;
+                result.rejectedSiblings = rejected;
+                result.archivedSiblings = logEntries.size();
+                return result;
+
+            } catch (SQLException e) {
+                conn.rollback();
+                if (e.getErrorCode() == ER_DUP_ENTRY) {
+                    // uk_adopter_pet_request or uk_pet_adoption: an approval already exists for this adopter or pet
+                    return new ApprovalResult(Outcome.DUPLICATE, "An approved request or adoption record already exists for this pet.");
+                }
+                throw e;
+            } finally {
+                conn.setTransactionIsolation(previousIsolation);
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    private Integer selectRequestPetId(Connection conn, int requestId) throws SQLException {
+        try (PreparedStatement pstmt = StatementCatalog.prepare(conn, "SELECT pet_id FROM tbl_adoption_request WHERE adoption_request_id = ?")) {
+            pstmt.setInt(1, requestId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : null;
+            }
+        }
+    }
+
+    /**
+     * Lists the other pending requests for a pet
+     * @return adopter IDs by adoption request ID
+     */
+    private Map<Integer, Integer> selectPendingSiblings(Connection conn, int petId, int requestId) throws SQLException {
+        Map<Integer, Integer> siblings = new LinkedHashMap<>();
+        String sql = "SELECT adoption_request_id, adopter_id FROM tbl_adoption_request WHERE pet_id = ? AND status = 'Pending' AND adoption_request_id <> ?";
+        try (PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
+            pstmt.setInt(1, petId);
+            pstmt.setInt(2, requestId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    siblings.put(rs.getInt(1), rs.getInt(2));
+                }
+            }
+        }
+        return siblings;
+    }
+
+    /**
+     * Lists the other pending requests for a pet whose adopter already has a rejected request for it
+     * @return adopter IDs by adoption request ID
+     */
+    private Map<Integer, Integer> selectRejectedAgainSiblings(Connection conn, int petId, int requestId) throws SQLException {
+        Map<Integer, Integer> siblings = new LinkedHashMap<>();
+        String sql = "SELECT r.adoption_request_id, r.adopter_id FROM tbl_adoption_request r " +
+                     "JOIN tbl_adoption_request x ON x.adopter_id = r.adopter_id AND x.pet_id = r.pet_id AND x.status = 'Rejected' " +
+                     "WHERE r.pet_id = ? AND r.status = 'Pending' AND r.adoption_request_id <> ? FOR UPDATE";
+        try (PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
+            pstmt.setInt(1, petId);
+            pstmt.setInt(2, requestId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    siblings.put(rs.getInt(1), rs.getInt(2));
+                }
+            }
+        }
+        return siblings;
+    }
+
+    /**
+     * Moves pending sibling requests to tbl_adoption_request_archive and logs each move
+     * @return log entries to pass to ArchiveLog.committed once the transaction commits
+     */
+    private List<ArchiveLog.Entry> archiveSiblings(Connection conn, Collection<Integer> requestIds, Integer archivedByUserId) throws SQLException {
+        List<ArchiveLog.Entry> logEntries = new ArrayList<>();
+        String insertArchiveSql = "INSERT INTO tbl_adoption_request_archive (adoption_request_id, pet_id, adopter_id, request_date, status, approval_date, remarks, user_id, archived, archived_date, archived_by_user_id, archive_reason) " +
+                                 "SELECT adoption_request_id, pet_id, adopter_id, request_date, status, approval_date, remarks, user_id, TRUE, NOW(), ?, ? " +
+                                 "FROM tbl_adoption_request WHERE adoption_request_id = ?";
+        String deleteSql = "DELETE FROM tbl_adoption_request WHERE adoption_request_id = ?";
+
+        for (int siblingId : requestIds) {
+            try (PreparedStatement pstmt = StatementCatalog.prepare(conn, insertArchiveSql)) {
+                if (archivedByUserId != null) {
+                    pstmt.setInt(1, archivedByUserId);
+                } else {
+                    pstmt.setNull(1, Types.INTEGER);
+                }
+                pstmt.setString(2, SIBLING_ARCHIVE_REASON);
+                pstmt.setInt(3, siblingId);
+                pstmt.executeUpdate();
+            }
+            try (PreparedStatement pstmt = StatementCatalog.prepare(conn, deleteSql)) {
+                pstmt.setInt(1, siblingId);
+                pstmt.executeUpdate();
+            }
+
+            ArchiveLog.Entry logEntry = new ArchiveLog.Entry("tbl_adoption_request", siblingId, "ARCHIVE", archivedByUserId, SIBLING_ARCHIVE_REASON);
+            ArchiveLog.getInstance().record(conn, logEntry);
+            logEntries.add(logEntry);
+        }
+        return logEntries;
+    }
+
+    /**
+     * Locks the pet row
+     * @return the pet's adoption status, or null if the pet is missing, archived or (with skipLocked) locked
+     */
+    private String lockPet(Connection conn, int petId, boolean skipLocked) throws SQLException {
+        String sql = "SELECT adoption_status FROM tbl_pet WHERE pet_id = ? AND archived = 0 FOR UPDATE" + (skipLocked ? " SKIP LOCKED" : "");
+        try (PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
+            pstmt.setInt(1, petId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    private boolean petExists(Connection conn, int petId) throws SQLException {
+        try (PreparedStatement pstmt = StatementCatalog.prepare(conn, "SELECT 1 FROM tbl_pet WHERE pet_id = ? AND archived = 0")) {
+            pstmt.setInt(1, petId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private static boolean isRetryable(SQLException e) {
+        return e.getErrorCode() == ER_LOCK_DEADLOCK
+                || e.getErrorCode() == ER_LOCK_WAIT_TIMEOUT
+                || "40001".equals(e.getSQLState());
+    }
+
+    /**
+     * Sleeps for an exponentially growing, jittered delay so retrying sessions do not collide again
+     * @param attempt Number of the attempt that just failed (1-based)
+     */
+    private static void backoff(int attempt) {
+        long ceiling = BASE_BACKOFF_MILLIS << Math.min(attempt - 1, 6);
+        try {
+            Thread.sleep(ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void record(Outcome outcome) {
+        switch (outcome) {
+            case APPROVED: approvedCount.incrementAndGet(); break;
+            case PET_BUSY: busyCount.incrementAndGet(); break;
+            case FAILED: failedCount.incrementAndGet(); break;
+            default: conflictCount.incrementAndGet(); break;
+        }
+    }
+
+    // Counters since startup
+    public static long getApprovedCount() { return approvedCount.get(); }
+    public static long getConflictCount() { return conflictCount.get(); }
+    public static long getBusyCount() { return busyCount.get(); }
+    public static long getRetryCount() { return retryCount.get(); }
+    public static long getFailedCount() { return failedCount.get(); }
+
+    /**
+     * Outcome of an approval together with what the transaction changed
+     */
+    public static class ApprovalResult {
+        private final Outcome outcome;
+        private final String message;
+        private int petId;
+        private int rejectedSiblings;
+        private int archivedSiblings;
+        private int attempts;
+
+        ApprovalResult(Outcome outcome, String message) {
+            this.outcome = outcome;
+            this.message = message;
+        }
+
+        // Getters
+        public Outcome getOutcome() { return outcome; }
+        public boolean isApproved() { return outcome == Outcome.APPROVED; }
+        public String getMessage() { return message; }
+        public int getPetId() { return petId; }
+        public int getRejectedSiblings() { return rejectedSiblings; }
+        public int getArchivedSiblings() { return archivedSiblings; }
+        public int getAttempts() { return attempts; }
+    }
+}
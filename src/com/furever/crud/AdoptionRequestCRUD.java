@@ -14,18 +14,46 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Timestamp;
 import java.sql.Types;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import com.furever.database.DbConnection;
 import com.furever.models.AdoptionRequest;
 
 /**
  * CRUD operations for AdoptionRequest entity
+ * List and page methods return the summary projection; getAdoptionRequestById returns the full record
  */
 public class AdoptionRequestCRUD {
     
+    // Characters of the remarks transferred for list screens
+    static final int REMARKS_PREVIEW_LENGTH = 60;
+    
+    /** Columns shown by request tables; the remarks are a preview */
+    static final RowMapper<AdoptionRequest> REQUEST_SUMMARY = requestColumns(new RowMapper<>(AdoptionRequest::new))
+            .preview("remarks", REMARKS_PREVIEW_LENGTH, (r, rs, i) -> r.setRemarks(rs.getString(i)));
+    
+    /** Every request column, used for single-request reads and archive copies */
+    static final RowMapper<AdoptionRequest> REQUEST_DETAIL = requestColumns(new RowMapper<>(AdoptionRequest::new))
+            .column("remarks", (r, rs, i) -> r.setRemarks(rs.getString(i)));
+    
+    /**
+     * Request summary joined with the names shown next to it, so a listing is one query
+     * instead of a pet and an adopter lookup per request. Outer joins keep requests whose
+     * pet or adopter has been removed; their names are null.
+     */
+    static final String REQUEST_LISTING_FROM = "SELECT " + REQUEST_SUMMARY.columns("r") +
+            ", p.pet_name, p.adoption_status, t.pet_type_name, a.adopter_name, p.pet_owner_id, o.pet_owner_name" +
+            " FROM tbl_adoption_request r" +
+            " LEFT JOIN tbl_pet p ON p.pet_id = r.pet_id" +
+            " LEFT JOIN tbl_pet_type t ON t.pet_type_id = p.pet_type_id" +
+            " LEFT JOIN tbl_adopter a ON a.adopter_id = r.adopter_id" +
+            " LEFT JOIN tbl_pet_owner o ON o.pet_owner_id = p.pet_owner_id";
+    
     /**
      * Creates a new adoption request in the database
      * @param adoptionRequest AdoptionRequest object to create
@@ -35,7 +63,7 @@ public class AdoptionRequestCRUD {
         String sql = "INSERT INTO tbl_adoption_request (pet_id, adopter_id, request_date, status, approval_date, remarks, user_id) VALUES (?, ?, ?, ?, ?, ?, ?)";
         
         try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql, Statement.RETURN_GENERATED_KEYS)) {
             
             pstmt.setInt(1, adoptionRequest.getPetId());
             pstmt.setInt(2, adoptionRequest.getAdopterId());
@@ -58,6 +86,11 @@ public class AdoptionRequestCRUD {
                     }
                 }
                 System.out.println("Adoption request created successfully with ID: " + adoptionRequest.getAdoptionRequestId());
+                StatisticsSnapshot statistics = StatisticsSnapshot.getInstance();
+                statistics.adjust(StatisticsSnapshot.Counter.REQUESTS_TOTAL, 1);
+                statistics.adjust(StatisticsSnapshot.Counter.forRequestStatus(adoptionRequest.getStatus()), 1);
+                ChangeFeed.getInstance().publish(ChangeFeed.requestStatus(adoptionRequest.getAdoptionRequestId(),
+                        adoptionRequest.getPetId(), adoptionRequest.getAdopterId(), adoptionRequest.getStatus()));
                 return true;
             }
             
@@ -74,16 +107,16 @@ public class AdoptionRequestCRUD {
      * @return AdoptionRequest object if found, null otherwise
      */
     public AdoptionRequest getAdoptionRequestById(int requestId) {
-        String sql = "SELECT * FROM tbl_adoption_request WHERE adoption_request_id = ?";
+        String sql = StatementCatalog.REQUEST_BY_ID;
         
         try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             
             pstmt.setInt(1, requestId);
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return extractAdoptionRequestFromResultSet(rs);
+                    return REQUEST_DETAIL.map(rs);
                 }
             }
             
@@ -100,14 +133,14 @@ public class AdoptionRequestCRUD {
      */
     public List<AdoptionRequest> getAllAdoptionRequests() {
         List<AdoptionRequest> requests = new ArrayList<>();
-        String sql = "SELECT * FROM tbl_adoption_request ORDER BY adoption_request_id";
+        String sql = "SELECT " + REQUEST_SUMMARY.columns() + " FROM tbl_adoption_request ORDER BY adoption_request_id";
         
-        try (Connection conn = DbConnection.getConnection();
+        try (Connection conn = DbConnection.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
             while (rs.next()) {
-                requests.add(extractAdoptionRequestFromResultSet(rs));
+                requests.add(REQUEST_SUMMARY.map(rs));
             }
             
         } catch (SQLException e) {
@@ -124,16 +157,16 @@ public class AdoptionRequestCRUD {
      */
     public List<AdoptionRequest> getAdoptionRequestsByStatus(String status) {
         List<AdoptionRequest> requests = new ArrayList<>();
-        String sql = "SELECT * FROM tbl_adoption_request WHERE status = ? ORDER BY request_date DESC";
+        String sql = StatementCatalog.REQUESTS_BY_STATUS;
         
-        try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DbConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             
             pstmt.setString(1, status);
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    requests.add(extractAdoptionRequestFromResultSet(rs));
+                    requests.add(REQUEST_SUMMARY.map(rs));
                 }
             }
             
@@ -151,16 +184,16 @@ public class AdoptionRequestCRUD {
      */
     public List<AdoptionRequest> getAdoptionRequestsByAdopter(int adopterId) {
         List<AdoptionRequest> requests = new ArrayList<>();
-        String sql = "SELECT * FROM tbl_adoption_request WHERE adopter_id = ? ORDER BY request_date DESC";
+        String sql = StatementCatalog.REQUESTS_BY_ADOPTER;
         
-        try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DbConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             
             pstmt.setInt(1, adopterId);
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    requests.add(extractAdoptionRequestFromResultSet(rs));
+                    requests.add(REQUEST_SUMMARY.map(rs));
                 }
             }
             
@@ -178,16 +211,16 @@ public class AdoptionRequestCRUD {
      */
     public List<AdoptionRequest> getAdoptionRequestsByPet(int petId) {
         List<AdoptionRequest> requests = new ArrayList<>();
-        String sql = "SELECT * FROM tbl_adoption_request WHERE pet_id = ? ORDER BY request_date DESC";
+        String sql = StatementCatalog.REQUESTS_BY_PET;
         
-        try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DbConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             
             pstmt.setInt(1, petId);
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    requests.add(extractAdoptionRequestFromResultSet(rs));
+                    requests.add(REQUEST_SUMMARY.map(rs));
                 }
             }
             
@@ -207,7 +240,7 @@ public class AdoptionRequestCRUD {
         String sql = "UPDATE tbl_adoption_request SET pet_id = ?, adopter_id = ?, request_date = ?, status = ?, approval_date = ?, remarks = ?, user_id = ? WHERE adoption_request_id = ?";
         
         try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             
             pstmt.setInt(1, adoptionRequest.getPetId());
             pstmt.setInt(2, adoptionRequest.getAdopterId());
@@ -226,6 +259,10 @@ public class AdoptionRequestCRUD {
             
             if (rowsAffected > 0) {
                 System.out.println("Adoption request updated successfully.");
+                // The previous status is unknown here
+                StatisticsSnapshot.getInstance().markStale();
+                ChangeFeed.getInstance().publish(ChangeFeed.requestStatus(adoptionRequest.getAdoptionRequestId(),
+                        adoptionRequest.getPetId(), adoptionRequest.getAdopterId(), adoptionRequest.getStatus()));
                 return true;
             } else {
                 System.out.println("No adoption request found with ID: " + adoptionRequest.getAdoptionRequestId());
@@ -248,7 +285,7 @@ public class AdoptionRequestCRUD {
         String sql = "SELECT COUNT(*) FROM tbl_adoption_request WHERE adopter_id = ? AND pet_id = ? AND status = 'Approved'";
         
         try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             
             pstmt.setInt(1, adopterId);
             pstmt.setInt(2, petId);
@@ -268,29 +305,28 @@ public class AdoptionRequestCRUD {
     
     /**
      * Approves an adoption request with constraint checking
+     * Runs through AdoptionApprovalCRUD, which also rejects the other pending requests
+     * for the pet, marks the pet adopted and records the adoption in the same transaction
      * @param requestId Adoption request ID to approve
      * @param approvalDate Date of approval
      * @param remarks Approval remarks
      * @return true if request was approved successfully, false otherwise
      */
     public boolean approveAdoptionRequestSafely(int requestId, Date approvalDate, String remarks) {
-        // First, get the adoption request details
-        AdoptionRequest request = getAdoptionRequestById(requestId);
-        if (request == null) {
-            System.out.println("❌ ERROR: Adoption request not found.");
+        AdoptionApprovalCRUD.ApprovalResult result = new AdoptionApprovalCRUD().approve(requestId, approvalDate, remarks, null);
+        if (!result.isApproved()) {
+            System.out.println("❌ ERROR: " + result.getMessage());
             return false;
         }
         
-        // Check if adopter already has an approved request for this pet
-        if (hasApprovedRequestForPet(request.getAdopterId(), request.getPetId())) {
-            System.out.println("❌ ERROR: This adopter already has an approved request for this pet.");
-            System.out.println("   Only one approved request per adopter per pet is allowed.");
-            System.out.println("   Please reject the existing approved request first if needed.");
-            return false;
+        System.out.println("Adoption request approved successfully.");
+        if (result.getRejectedSiblings() > 0) {
+            System.out.println(result.getRejectedSiblings() + " other pending request(s) for this pet were rejected.");
         }
-        
-        // If no conflict, proceed with approval
-        return approveAdoptionRequest(requestId, approvalDate, remarks);
+        if (result.getArchivedSiblings() > 0) {
+            System.out.println(result.getArchivedSiblings() + " other pending request(s) were archived because the adopter had already been rejected for this pet.");
+        }
+        return true;
     }
     
     /**
@@ -304,7 +340,7 @@ public class AdoptionRequestCRUD {
         String sql = "UPDATE tbl_adoption_request SET status = 'Approved', approval_date = ?, remarks = ? WHERE adoption_request_id = ?";
         
         try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             
             pstmt.setDate(1, approvalDate);
             pstmt.setString(2, remarks);
@@ -314,6 +350,9 @@ public class AdoptionRequestCRUD {
             
             if (rowsAffected > 0) {
                 System.out.println("Adoption request approved successfully.");
+                // The previous status is unknown here
+                StatisticsSnapshot.getInstance().markStale();
+                publishRequestStatus(requestId, "Approved");
                 return true;
             } else {
                 System.out.println("No adoption request found with ID: " + requestId);
@@ -336,7 +375,7 @@ public class AdoptionRequestCRUD {
         String sql = "UPDATE tbl_adoption_request SET status = 'Rejected', remarks = ? WHERE adoption_request_id = ?";
         
         try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             
             pstmt.setString(1, remarks);
             pstmt.setInt(2, requestId);
@@ -345,6 +384,9 @@ public class AdoptionRequestCRUD {
             
             if (rowsAffected > 0) {
                 System.out.println("Adoption request rejected successfully.");
+                // The previous status is unknown here
+                StatisticsSnapshot.getInstance().markStale();
+                publishRequestStatus(requestId, "Rejected");
                 return true;
             } else {
                 System.out.println("No adoption request found with ID: " + requestId);
@@ -357,6 +399,22 @@ public class AdoptionRequestCRUD {
         return false;
     }
     
+    /**
+     * Publishes a request status change made by a method that only knows the request ID
+     * Skipped when nobody follows the change feed
+     * @param requestId Adoption request ID
+     * @param status New status
+     */
+    private void publishRequestStatus(int requestId, String status) {
+        ChangeFeed changeFeed = ChangeFeed.getInstance();
+        if (changeFeed.isActive()) {
+            AdoptionRequest request = getAdoptionRequestById(requestId);
+            if (request != null) {
+                changeFeed.publish(ChangeFeed.requestStatus(requestId, request.getPetId(), request.getAdopterId(), status));
+            }
+        }
+    }
+    
     /**
      * Deletes an adoption request by ID
      * @param requestId Adoption request ID to delete
@@ -364,9 +422,11 @@ public class AdoptionRequestCRUD {
      */
     public boolean deleteAdoptionRequest(int requestId) {
         String sql = "DELETE FROM tbl_adoption_request WHERE adoption_request_id = ?";
+        // The pet and adopter of the request are gone after the delete
+        AdoptionRequest deleted = ChangeFeed.getInstance().isActive() ? getAdoptionRequestById(requestId) : null;
         
         try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             
             pstmt.setInt(1, requestId);
             
@@ -374,6 +434,11 @@ public class AdoptionRequestCRUD {
             
             if (rowsAffected > 0) {
                 System.out.println("Adoption request deleted successfully.");
+                // The previous status is unknown here
+                StatisticsSnapshot.getInstance().markStale();
+                if (deleted != null) {
+                    ChangeFeed.getInstance().publish(ChangeFeed.requestStatus(requestId, deleted.getPetId(), deleted.getAdopterId(), ChangeFeed.REMOVED));
+                }
                 return true;
             } else {
                 System.out.println("No adoption request found with ID: " + requestId);
@@ -388,36 +453,29 @@ public class AdoptionRequestCRUD {
     
     /**
      * Counts total number of adoption requests
+     * Served from the shared statistics snapshot
      * @return Total count of adoption requests
      */
     public int getAdoptionRequestCount() {
-        String sql = "SELECT COUNT(*) FROM tbl_adoption_request";
-        
-        try (Connection conn = DbConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            if (rs.next()) {
-                return rs.getInt(1);
-            }
-            
-        } catch (SQLException e) {
-            System.err.println("Error counting adoption requests: " + e.getMessage());
-        }
-        
-        return 0;
+        return StatisticsSnapshot.getInstance().getCount(StatisticsSnapshot.Counter.REQUESTS_TOTAL);
     }
     
     /**
      * Counts adoption requests by status
+     * Known statuses are served from the shared statistics snapshot
      * @param status Status to count
      * @return Count of adoption requests with the specified status
      */
     public int getAdoptionRequestCountByStatus(String status) {
+        StatisticsSnapshot.Counter counter = StatisticsSnapshot.Counter.forRequestStatus(status);
+        if (counter != null) {
+            return StatisticsSnapshot.getInstance().getCount(counter);
+        }
+        
         String sql = "SELECT COUNT(*) FROM tbl_adoption_request WHERE status = ?";
         
-        try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DbConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             
             pstmt.setString(1, status);
             
@@ -435,27 +493,24 @@ public class AdoptionRequestCRUD {
     }
     
     /**
-     * Extracts AdoptionRequest object from ResultSet
-     * @param rs ResultSet containing adoption request data
-     * @return AdoptionRequest object
-     * @throws SQLException if database access error occurs
+     * Adds the request columns shared by the summary and detail projections
+     * @param mapper Mapper to add the columns to
+     * @return the same mapper
      */
-    private AdoptionRequest extractAdoptionRequestFromResultSet(ResultSet rs) throws SQLException {
-        AdoptionRequest request = new AdoptionRequest();
-        request.setAdoptionRequestId(rs.getInt("adoption_request_id"));
-        request.setPetId(rs.getInt("pet_id"));
-        request.setAdopterId(rs.getInt("adopter_id"));
-        request.setRequestDate(rs.getDate("request_date"));
-        request.setStatus(rs.getString("status"));
-        request.setApprovalDate(rs.getDate("approval_date"));
-        request.setRemarks(rs.getString("remarks"));
-        
-        int userId = rs.getInt("user_id");
-        if (!rs.wasNull()) {
-            request.setUserId(userId);
-        }
-        
-        return request;
+    private static RowMapper<AdoptionRequest> requestColumns(RowMapper<AdoptionRequest> mapper) {
+        return mapper
+                .column("adoption_request_id", (r, rs, i) -> r.setAdoptionRequestId(rs.getInt(i)))
+                .column("pet_id", (r, rs, i) -> r.setPetId(rs.getInt(i)))
+                .column("adopter_id", (r, rs, i) -> r.setAdopterId(rs.getInt(i)))
+                .column("request_date", (r, rs, i) -> r.setRequestDate(rs.getDate(i)))
+                .column("status", (r, rs, i) -> r.setStatus(rs.getString(i)))
+                .column("approval_date", (r, rs, i) -> r.setApprovalDate(rs.getDate(i)))
+                .column("user_id", (r, rs, i) -> {
+                    int userId = rs.getInt(i);
+                    if (!rs.wasNull()) {
+                        r.setUserId(userId);
+                    }
+                });
     }
     
     /**
@@ -466,21 +521,20 @@ public class AdoptionRequestCRUD {
      * @return true if archiving was successful, false otherwise
      */
     public boolean archiveAdoptionRequest(int adoptionRequestId, Integer archivedByUserId, String reason) {
-        String selectSql = "SELECT * FROM tbl_adoption_request WHERE adoption_request_id = ?";
+        String selectSql = "SELECT " + REQUEST_DETAIL.columns() + " FROM tbl_adoption_request WHERE adoption_request_id = ?";
         String insertArchiveSql = "INSERT INTO tbl_adoption_request_archive (adoption_request_id, pet_id, adopter_id, request_date, status, approval_date, remarks, user_id, archived, archived_date, archived_by_user_id, archive_reason) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
         String deleteSql = "DELETE FROM tbl_adoption_request WHERE adoption_request_id = ?";
-        String logSql = "INSERT INTO tbl_archive_log (table_name, record_id, operation, performed_by_user_id, reason) VALUES (?, ?, ?, ?, ?)";
         
         try (Connection conn = DbConnection.getConnection()) {
             conn.setAutoCommit(false);
             
             // Get the record to archive
             AdoptionRequest request = null;
-            try (PreparedStatement selectStmt = conn.prepareStatement(selectSql)) {
+            try (PreparedStatement selectStmt = StatementCatalog.prepare(conn, selectSql)) {
                 selectStmt.setInt(1, adoptionRequestId);
                 try (ResultSet rs = selectStmt.executeQuery()) {
                     if (rs.next()) {
-                        request = extractAdoptionRequestFromResultSet(rs);
+                        request = REQUEST_DETAIL.map(rs);
                     }
                 }
             }
@@ -491,7 +545,7 @@ public class AdoptionRequestCRUD {
             }
             
             // Insert into archive table
-            try (PreparedStatement insertStmt = conn.prepareStatement(insertArchiveSql)) {
+            try (PreparedStatement insertStmt = StatementCatalog.prepare(conn, insertArchiveSql)) {
                 insertStmt.setInt(1, request.getAdoptionRequestId());
                 insertStmt.setInt(2, request.getPetId());
                 insertStmt.setInt(3, request.getAdopterId());
@@ -517,27 +571,19 @@ public class AdoptionRequestCRUD {
             }
             
             // Delete from main table
-            try (PreparedStatement deleteStmt = conn.prepareStatement(deleteSql)) {
+            try (PreparedStatement deleteStmt = StatementCatalog.prepare(conn, deleteSql)) {
                 deleteStmt.setInt(1, adoptionRequestId);
                 deleteStmt.executeUpdate();
             }
             
             // Log the operation
-            try (PreparedStatement logStmt = conn.prepareStatement(logSql)) {
-                logStmt.setString(1, "tbl_adoption_request");
-                logStmt.setInt(2, adoptionRequestId);
-                logStmt.setString(3, "ARCHIVE");
-                if (archivedByUserId != null) {
-                    logStmt.setInt(4, archivedByUserId);
-                } else {
-                    logStmt.setNull(4, java.sql.Types.INTEGER);
-                }
-                logStmt.setString(5, reason);
-                
-                logStmt.executeUpdate();
-            }
+            ArchiveLog.Entry logEntry = new ArchiveLog.Entry("tbl_adoption_request", adoptionRequestId, "ARCHIVE", archivedByUserId, reason);
+            ArchiveLog.getInstance().record(conn, logEntry);
             
             conn.commit();
+            ArchiveLog.getInstance().committed(logEntry);
+            StatisticsSnapshot.getInstance().recordArchived(StatisticsSnapshot.Counter.REQUESTS_TOTAL,
+                    StatisticsSnapshot.Counter.forRequestStatus(request.getStatus()), StatisticsSnapshot.Counter.ARCHIVED_REQUESTS);
             return true;
             
         } catch (SQLException e) {
@@ -554,21 +600,22 @@ public class AdoptionRequestCRUD {
      * @return true if restoration was successful, false otherwise
      */
     public boolean restoreAdoptionRequest(int adoptionRequestId, Integer restoredByUserId, String reason) {
-        String selectArchiveSql = "SELECT * FROM tbl_adoption_request_archive WHERE adoption_request_id = ?";
+        String selectArchiveSql = "SELECT " + REQUEST_DETAIL.columns() + " FROM tbl_adoption_request_archive WHERE adoption_request_id = ?";
         String insertMainSql = "INSERT INTO tbl_adoption_request (adoption_request_id, pet_id, adopter_id, request_date, status, approval_date, remarks, user_id, archived, archived_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
         String deleteArchiveSql = "DELETE FROM tbl_adoption_request_archive WHERE adoption_request_id = ?";
-        String logSql = "INSERT INTO tbl_archive_log (table_name, record_id, operation, performed_by_user_id, reason) VALUES (?, ?, ?, ?, ?)";
+        
+        ArchiveColdStorage.getInstance().rehydrate("tbl_adoption_request_archive", adoptionRequestId);
         
         try (Connection conn = DbConnection.getConnection()) {
             conn.setAutoCommit(false);
             
             // Get the archived record
             AdoptionRequest request = null;
-            try (PreparedStatement selectStmt = conn.prepareStatement(selectArchiveSql)) {
+            try (PreparedStatement selectStmt = StatementCatalog.prepare(conn, selectArchiveSql)) {
                 selectStmt.setInt(1, adoptionRequestId);
                 try (ResultSet rs = selectStmt.executeQuery()) {
                     if (rs.next()) {
-                        request = extractAdoptionRequestFromResultSet(rs);
+                        request = REQUEST_DETAIL.map(rs);
                     }
                 }
             }
@@ -579,7 +626,7 @@ public class AdoptionRequestCRUD {
             }
             
             // Insert back into main table
-            try (PreparedStatement insertStmt = conn.prepareStatement(insertMainSql)) {
+            try (PreparedStatement insertStmt = StatementCatalog.prepare(conn, insertMainSql)) {
                 insertStmt.setInt(1, request.getAdoptionRequestId());
                 insertStmt.setInt(2, request.getPetId());
                 insertStmt.setInt(3, request.getAdopterId());
@@ -599,27 +646,19 @@ public class AdoptionRequestCRUD {
             }
             
             // Delete from archive table
-            try (PreparedStatement deleteStmt = conn.prepareStatement(deleteArchiveSql)) {
+            try (PreparedStatement deleteStmt = StatementCatalog.prepare(conn, deleteArchiveSql)) {
                 deleteStmt.setInt(1, adoptionRequestId);
                 deleteStmt.executeUpdate();
             }
             
             // Log the operation
-            try (PreparedStatement logStmt = conn.prepareStatement(logSql)) {
-                logStmt.setString(1, "tbl_adoption_request");
-                logStmt.setInt(2, adoptionRequestId);
-                logStmt.setString(3, "RESTORE");
-                if (restoredByUserId != null) {
-                    logStmt.setInt(4, restoredByUserId);
-                } else {
-                    logStmt.setNull(4, java.sql.Types.INTEGER);
-                }
-                logStmt.setString(5, reason);
-                
-                logStmt.executeUpdate();
-            }
+            ArchiveLog.Entry logEntry = new ArchiveLog.Entry("tbl_adoption_request", adoptionRequestId, "RESTORE", restoredByUserId, reason);
+            ArchiveLog.getInstance().record(conn, logEntry);
             
             conn.commit();
+            ArchiveLog.getInstance().committed(logEntry);
+            StatisticsSnapshot.getInstance().recordRestored(StatisticsSnapshot.Counter.REQUESTS_TOTAL,
+                    StatisticsSnapshot.Counter.forRequestStatus(request.getStatus()), StatisticsSnapshot.Counter.ARCHIVED_REQUESTS);
             return true;
             
         } catch (SQLException e) {
@@ -637,13 +676,14 @@ public class AdoptionRequestCRUD {
      */
     public boolean permanentDeleteAdoptionRequest(int adoptionRequestId, Integer deletedByUserId, String reason) {
         String deleteSql = "DELETE FROM tbl_adoption_request_archive WHERE adoption_request_id = ?";
-        String logSql = "INSERT INTO tbl_archive_log (table_name, record_id, operation, performed_by_user_id, reason) VALUES (?, ?, ?, ?, ?)";
+        
+        ArchiveColdStorage.getInstance().rehydrate("tbl_adoption_request_archive", adoptionRequestId);
         
         try (Connection conn = DbConnection.getConnection()) {
             conn.setAutoCommit(false);
             
             // Delete from archive table
-            try (PreparedStatement deleteStmt = conn.prepareStatement(deleteSql)) {
+            try (PreparedStatement deleteStmt = StatementCatalog.prepare(conn, deleteSql)) {
                 deleteStmt.setInt(1, adoptionRequestId);
                 int rowsAffected = deleteStmt.executeUpdate();
                 
@@ -654,21 +694,12 @@ public class AdoptionRequestCRUD {
             }
             
             // Log the operation
-            try (PreparedStatement logStmt = conn.prepareStatement(logSql)) {
-                logStmt.setString(1, "tbl_adoption_request");
-                logStmt.setInt(2, adoptionRequestId);
-                logStmt.setString(3, "PERMANENT_DELETE");
-                if (deletedByUserId != null) {
-                    logStmt.setInt(4, deletedByUserId);
-                } else {
-                    logStmt.setNull(4, java.sql.Types.INTEGER);
-                }
-                logStmt.setString(5, reason);
-                
-                logStmt.executeUpdate();
-            }
+            ArchiveLog.Entry logEntry = new ArchiveLog.Entry("tbl_adoption_request", adoptionRequestId, "PERMANENT_DELETE", deletedByUserId, reason);
+            ArchiveLog.getInstance().record(conn, logEntry);
             
             conn.commit();
+            ArchiveLog.getInstance().committed(logEntry);
+            StatisticsSnapshot.getInstance().adjust(StatisticsSnapshot.Counter.ARCHIVED_REQUESTS, -1);
             return true;
             
         } catch (SQLException e) {
@@ -682,22 +713,25 @@ public class AdoptionRequestCRUD {
      * @return List of archived adoption requests
      */
     public List<AdoptionRequest> getAllArchivedAdoptionRequests() {
-        String sql = "SELECT * FROM tbl_adoption_request_archive ORDER BY archived_date DESC";
+        String sql = "SELECT " + REQUEST_SUMMARY.columns() + ", archived_date FROM tbl_adoption_request_archive ORDER BY archived_date DESC, adoption_request_id DESC";
         List<AdoptionRequest> requests = new ArrayList<>();
+        List<Timestamp> archivedDates = new ArrayList<>();
         
-        try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql);
+        try (Connection conn = DbConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql);
              ResultSet rs = pstmt.executeQuery()) {
             
             while (rs.next()) {
-                requests.add(extractAdoptionRequestFromResultSet(rs));
+                archivedDates.add(rs.getTimestamp(REQUEST_SUMMARY.width() + 1));
+                requests.add(REQUEST_SUMMARY.map(rs));
             }
             
         } catch (SQLException e) {
             System.err.println("Error retrieving archived adoption requests: " + e.getMessage());
         }
         
-        return requests;
+        return ArchiveColdStorage.mergeArchiveList(requests, archivedDates, AdoptionRequest::getAdoptionRequestId,
+                ArchiveColdStorage.getInstance().readAll("tbl_adoption_request_archive"), AdoptionRequestCRUD::requestFromColdRow);
     }
     
     /**
@@ -706,17 +740,19 @@ public class AdoptionRequestCRUD {
      * @return List of archived adoption requests for the adopter
      */
     public List<AdoptionRequest> getArchivedAdoptionRequestsByAdopter(int adopterId) {
-        String sql = "SELECT * FROM tbl_adoption_request_archive WHERE adopter_id = ? ORDER BY archived_date DESC";
+        String sql = StatementCatalog.REQUESTS_ARCHIVED_BY_ADOPTER;
         List<AdoptionRequest> requests = new ArrayList<>();
+        List<Timestamp> archivedDates = new ArrayList<>();
         
-        try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DbConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             
             pstmt.setInt(1, adopterId);
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    requests.add(extractAdoptionRequestFromResultSet(rs));
+                    archivedDates.add(rs.getTimestamp(REQUEST_SUMMARY.width() + 1));
+                    requests.add(REQUEST_SUMMARY.map(rs));
                 }
             }
             
@@ -724,6 +760,222 @@ public class AdoptionRequestCRUD {
             System.err.println("Error retrieving archived adoption requests by adopter: " + e.getMessage());
         }
         
-        return requests;
+        List<ArchiveColdStorage.ColdRow> coldRequests = ArchiveColdStorage.getInstance()
+                .readWhere("tbl_adoption_request_archive", "adopter_id", Set.of(String.valueOf(adopterId)));
+        return ArchiveColdStorage.mergeArchiveList(requests, archivedDates, AdoptionRequest::getAdoptionRequestId,
+                coldRequests, AdoptionRequestCRUD::requestFromColdRow);
+    }
+    
+    // Listings with the pet, pet type, adopter and owner names
+    
+    /**
+     * Retrieves adoption requests by status together with their pet and adopter names
+     * @param status Status to filter by
+     * @return List of request listings, newest first
+     */
+    public List<RequestListing> getRequestListingsByStatus(String status) {
+        return getRequestListings(StatementCatalog.REQUEST_LISTINGS_BY_STATUS, status);
+    }
+    
+    /**
+     * Retrieves an adopter's adoption requests together with their pet names
+     * @param adopterId Adopter ID to filter by
+     * @return List of request listings, newest first
+     */
+    public List<RequestListing> getRequestListingsByAdopter(int adopterId) {
+        return getRequestListings(StatementCatalog.REQUEST_LISTINGS_BY_ADOPTER, adopterId);
+    }
+    
+    /**
+     * Retrieves the adoption requests for a pet together with their adopter names
+     * @param petId Pet ID to filter by
+     * @return List of request listings, newest first
+     */
+    public List<RequestListing> getRequestListingsByPet(int petId) {
+        return getRequestListings(StatementCatalog.REQUEST_LISTINGS_BY_PET, petId);
+    }
+    
+    /**
+     * Retrieves one page of adoption requests with their names, ordered by adoption request ID
+     * @param after Cursor returned with the previous page, or PageCursor.FIRST
+     * @param pageSize Maximum number of adoption requests in the page
+     * @return Page of request listings
+     */
+    public Page<RequestListing> getRequestListingsPage(PageCursor after, int pageSize) {
+        List<RequestListing> listings = getRequestListings(StatementCatalog.REQUEST_LISTINGS_PAGE, after.getLastId(), pageSize + 1);
+        return Page.ofIds(listings, pageSize, listing -> listing.getRequest().getAdoptionRequestId());
+    }
+    
+    private List<RequestListing> getRequestListings(String sql, Object... parameters) {
+        List<RequestListing> listings = new ArrayList<>();
+        
+        try (Connection conn = DbConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
+            
+            for (int i = 0; i < parameters.length; i++) {
+                pstmt.setObject(i + 1, parameters[i]);
+            }
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                int offset = REQUEST_SUMMARY.width();
+                while (rs.next()) {
+                    RequestListing listing = new RequestListing(REQUEST_SUMMARY.map(rs));
+                    listing.petName = rs.getString(offset + 1);
+                    listing.petAdoptionStatus = rs.getString(offset + 2);
+                    listing.petTypeName = rs.getString(offset + 3);
+                    listing.adopterName = rs.getString(offset + 4);
+                    int petOwnerId = rs.getInt(offset + 5);
+                    listing.petOwnerId = rs.wasNull() ? null : petOwnerId;
+                    listing.petOwnerName = rs.getString(offset + 6);
+                    listings.add(listing);
+                }
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error retrieving adoption request listings: " + e.getMessage());
+        }
+        
+        return listings;
+    }
+    
+    // Keyset pagination and streaming for large lists
+    
+    /**
+     * Retrieves one page of adoption requests ordered by adoption request ID
+     * @param after Cursor returned with the previous page, or PageCursor.FIRST
+     * @param pageSize Maximum number of adoption requests in the page
+     * @return Page of adoption requests
+     */
+    public Page<AdoptionRequest> getAdoptionRequestsPage(PageCursor after, int pageSize) {
+        String sql = StatementCatalog.REQUESTS_PAGE;
+        List<AdoptionRequest> requests = new ArrayList<>();
+        
+        try (Connection conn = DbConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
+            
+            pstmt.setInt(1, after.getLastId());
+            pstmt.setInt(2, pageSize + 1);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    requests.add(REQUEST_SUMMARY.map(rs));
+                }
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error retrieving adoption requests page: " + e.getMessage());
+        }
+        
+        return Page.ofIds(requests, pageSize, AdoptionRequest::getAdoptionRequestId);
+    }
+    
+    /**
+     * Retrieves one page of archived adoption requests from tbl_adoption_request_archive and
+     * cold storage, most recently archived first
+     * @param after Cursor returned with the previous page, or PageCursor.FIRST
+     * @param pageSize Maximum number of adoption requests in the page
+     * @return Page of archived adoption requests
+     */
+    public Page<AdoptionRequest> getArchivedAdoptionRequestsPage(PageCursor after, int pageSize) {
+        String sql = "SELECT " + REQUEST_SUMMARY.columns() + ", archived_date FROM tbl_adoption_request_archive WHERE " + after.descendingPredicate("archived_date", "adoption_request_id") +
+                     " ORDER BY archived_date DESC, adoption_request_id DESC LIMIT ?";
+        List<AdoptionRequest> requests = new ArrayList<>();
+        List<Timestamp> archivedDates = new ArrayList<>();
+        
+        try (Connection conn = DbConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
+            
+            int index = after.bindDescending(pstmt, 1);
+            pstmt.setInt(index, pageSize + 1);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    archivedDates.add(rs.getTimestamp(REQUEST_SUMMARY.width() + 1));
+                    requests.add(REQUEST_SUMMARY.map(rs));
+                }
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error retrieving archived adoption requests page: " + e.getMessage());
+        }
+        
+        return ArchiveColdStorage.getInstance().mergeArchivePage("tbl_adoption_request_archive", requests, archivedDates,
+                AdoptionRequest::getAdoptionRequestId, AdoptionRequestCRUD::requestFromColdRow, after, pageSize);
+    }
+    
+    /**
+     * Maps a cold storage row to the same fields as REQUEST_SUMMARY
+     */
+    private static AdoptionRequest requestFromColdRow(ArchiveColdStorage.ColdRow row) {
+        AdoptionRequest request = new AdoptionRequest();
+        request.setAdoptionRequestId(row.getInt("adoption_request_id"));
+        request.setPetId(row.getInt("pet_id"));
+        request.setAdopterId(row.getInt("adopter_id"));
+        request.setRequestDate(row.getDate("request_date"));
+        request.setStatus(row.getString("status"));
+        request.setApprovalDate(row.getDate("approval_date"));
+        if (row.getString("user_id") != null) {
+            request.setUserId(row.getInt("user_id"));
+        }
+        String remarks = row.getString("remarks");
+        request.setRemarks(remarks != null && remarks.length() > REMARKS_PREVIEW_LENGTH
+                ? remarks.substring(0, REMARKS_PREVIEW_LENGTH) : remarks);
+        return request;
+    }
+    
+    /**
+     * Streams every adoption request to the consumer one row at a time without buffering the table in memory
+     * @param consumer Callback invoked for each adoption request in ID order
+     * @return number of adoption requests streamed
+     */
+    public int streamAllAdoptionRequests(Consumer<AdoptionRequest> consumer) {
+        String sql = "SELECT " + REQUEST_DETAIL.columns() + " FROM tbl_adoption_request ORDER BY adoption_request_id";
+        int count = 0;
+        
+        try (Connection conn = DbConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            
+            // Integer.MIN_VALUE switches the MySQL driver to streaming mode
+            pstmt.setFetchSize(Integer.MIN_VALUE);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(REQUEST_DETAIL.map(rs));
+                    count++;
+                }
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error streaming adoption requests: " + e.getMessage());
+        }
+        
+        return count;
+    }
+    
+    /**
+     * An adoption request with the names list screens show next to it
+     * Names are null when the pet, pet type, adopter or owner no longer exists.
+     */
+    public static class RequestListing {
+        private final AdoptionRequest request;
+        private String petName;
+        private String petAdoptionStatus;
+        private String petTypeName;
+        private String adopterName;
+        private Integer petOwnerId;
+        private String petOwnerName;
+        
+        RequestListing(AdoptionRequest request) {
+            this.request = request;
+        }
+        
+        // Getters
+        public AdoptionRequest getRequest() { return request; }
+        public String getPetName() { return petName; }
+        public String getPetAdoptionStatus() { return petAdoptionStatus; }
+        public String getPetTypeName() { return petTypeName; }
+        public String getAdopterName() { return adopterName; }
+        public Integer getPetOwnerId() { return petOwnerId; }
+        public String getPetOwnerName() { return petOwnerName; }
     }
-}
\ No newline at end of file
+}
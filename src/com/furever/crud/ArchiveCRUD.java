@@ -29,113 +29,120 @@ import com.furever.models.PetOwner;
  */
 public class ArchiveCRUD {
     
+    // Window searched first for recent log entries; matches at most two monthly partitions
+    private static final int RECENT_WINDOW_DAYS = 31;
+    
+    static final String ARCHIVE_LOG_COLUMNS =
+            "SELECT log_id, table_name, record_id, operation, performed_by_user_id, operation_date, reason FROM tbl_archive_log";
+    
+    private final BulkArchiveCRUD bulkArchiveCRUD = new BulkArchiveCRUD();
+    private final ArchiveLogRetention archiveLogRetention = new ArchiveLogRetention();
+    
     /**
      * Gets archive statistics for dashboard display
+     * Counts come from the shared statistics snapshot instead of one COUNT(*) per table,
+     * plus the rows moved to cold storage, as in getArchiveSummary
      * @return Map containing counts for each archived table
      */
     public Map<String, Integer> getArchiveStatistics() {
         Map<String, Integer> stats = new HashMap<>();
         
-        String[] tables = {
-            "tbl_adopter_archive",
-            "tbl_pet_owner_archive", 
-            "tbl_pet_archive",
-            "tbl_adoption_request_archive",
-            "tbl_adoption_archive",
-            "users_archive"
-        };
-        
-        for (String table : tables) {
-            String sql = "SELECT COUNT(*) FROM " + table;
-            
-            try (Connection conn = DbConnection.getConnection();
-                 PreparedStatement pstmt = conn.prepareStatement(sql);
-                 ResultSet rs = pstmt.executeQuery()) {
-                
-                if (rs.next()) {
-                    stats.put(table, rs.getInt(1));
-                } else {
-                    stats.put(table, 0);
-                }
-                
-            } catch (SQLException e) {
-                System.err.println("Error getting statistics for " + table + ": " + e.getMessage());
-                stats.put(table, 0);
-            }
-        }
+        putArchivedCount(stats, "tbl_adopter_archive", StatisticsSnapshot.Counter.ARCHIVED_ADOPTERS);
+        putArchivedCount(stats, "tbl_pet_owner_archive", StatisticsSnapshot.Counter.ARCHIVED_PET_OWNERS);
+        putArchivedCount(stats, "tbl_pet_archive", StatisticsSnapshot.Counter.ARCHIVED_PETS);
+        putArchivedCount(stats, "tbl_adoption_request_archive", StatisticsSnapshot.Counter.ARCHIVED_REQUESTS);
+        putArchivedCount(stats, "tbl_adoption_archive", StatisticsSnapshot.Counter.ARCHIVED_ADOPTIONS);
+        putArchivedCount(stats, "users_archive", StatisticsSnapshot.Counter.ARCHIVED_USERS);
         
         return stats;
     }
     
+    private static void putArchivedCount(Map<String, Integer> stats, String archiveTable, StatisticsSnapshot.Counter counter) {
+        stats.put(archiveTable, StatisticsSnapshot.getInstance().getCount(counter)
+                + ArchiveColdStorage.getInstance().getStats(archiveTable).getCount());
+    }
+    
     /**
      * Gets recent archive operations for audit log
+     * Looks in the last RECENT_WINDOW_DAYS first so a partitioned log only reads its newest
+     * partitions, and widens to the whole log only if the window holds too few entries
      * @param limit Number of recent operations to retrieve
      * @return List of archive log entries
      */
     public List<ArchiveLogEntry> getRecentArchiveOperations(int limit) {
-        String sql = "SELECT * FROM tbl_archive_log ORDER BY operation_date DESC LIMIT ?";
-        List<ArchiveLogEntry> logEntries = new ArrayList<>();
-        
-        try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, limit);
-            
-            try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    ArchiveLogEntry entry = new ArchiveLogEntry();
-                    entry.setLogId(rs.getInt("log_id"));
-                    entry.setTableName(rs.getString("table_name"));
-                    entry.setRecordId(rs.getInt("record_id"));
-                    entry.setOperation(rs.getString("operation"));
-                    entry.setPerformedByUserId(rs.getInt("performed_by_user_id"));
-                    entry.setOperationDate(rs.getTimestamp("operation_date"));
-                    entry.setReason(rs.getString("reason"));
-                    
-                    logEntries.add(entry);
-                }
-            }
-            
-        } catch (SQLException e) {
-            System.err.println("Error retrieving archive operations: " + e.getMessage());
+        List<ArchiveLogEntry> logEntries = queryArchiveLog(null, limit, true);
+        if (logEntries != null && logEntries.size() < limit) {
+            logEntries = queryArchiveLog(null, limit, false);
         }
-        
-        return logEntries;
+        return logEntries != null ? logEntries : new ArrayList<>();
     }
     
     /**
      * Gets archive log entries for a specific table
+     * Uses the same recent window as getRecentArchiveOperations
      * @param tableName Name of the table to get log entries for
      * @param limit Number of entries to retrieve
      * @return List of archive log entries for the specified table
      */
     public List<ArchiveLogEntry> getArchiveOperationsByTable(String tableName, int limit) {
-        String sql = "SELECT * FROM tbl_archive_log WHERE table_name = ? ORDER BY operation_date DESC LIMIT ?";
+        List<ArchiveLogEntry> logEntries = queryArchiveLog(tableName, limit, true);
+        if (logEntries != null && logEntries.size() < limit) {
+            logEntries = queryArchiveLog(tableName, limit, false);
+        }
+        return logEntries != null ? logEntries : new ArrayList<>();
+    }
+    
+    /**
+     * Builds the archive log query; StatementCatalog registers the recent-window variants
+     * @param byTable Whether to filter by table_name
+     * @param recentOnly Whether to restrict operation_date to the recent window
+     * @return SQL taking the table name (if filtered) and the limit
+     */
+    static String archiveLogQuery(boolean byTable, boolean recentOnly) {
+        return ARCHIVE_LOG_COLUMNS + " WHERE 1 = 1" +
+               (byTable ? " AND table_name = ?" : "") +
+               (recentOnly ? " AND operation_date >= DATE_SUB(NOW(), INTERVAL " + RECENT_WINDOW_DAYS + " DAY)" : "") +
+               " ORDER BY operation_date DESC LIMIT ?";
+    }
+    
+    /**
+     * Reads the newest archive log entries, optionally for one table and within the recent window
+     * @param tableName Table to filter by, or null for all tables
+     * @param limit Maximum number of entries
+     * @param recentOnly Whether to restrict operation_date to the recent window
+     * @return entries newest first, or null if the query failed
+     */
+    private List<ArchiveLogEntry> queryArchiveLog(String tableName, int limit, boolean recentOnly) {
+        String sql = archiveLogQuery(tableName != null, recentOnly);
         List<ArchiveLogEntry> logEntries = new ArrayList<>();
         
         try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             
-            pstmt.setString(1, tableName);
-            pstmt.setInt(2, limit);
+            int index = 1;
+            if (tableName != null) {
+                pstmt.setString(index++, tableName);
+            }
+            pstmt.setInt(index, limit);
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
                     ArchiveLogEntry entry = new ArchiveLogEntry();
-                    entry.setLogId(rs.getInt("log_id"));
-                    entry.setTableName(rs.getString("table_name"));
-                    entry.setRecordId(rs.getInt("record_id"));
-                    entry.setOperation(rs.getString("operation"));
-                    entry.setPerformedByUserId(rs.getInt("performed_by_user_id"));
-                    entry.setOperationDate(rs.getTimestamp("operation_date"));
-                    entry.setReason(rs.getString("reason"));
+                    entry.setLogId(rs.getInt(1));
+                    entry.setTableName(rs.getString(2));
+                    entry.setRecordId(rs.getInt(3));
+                    entry.setOperation(rs.getString(4));
+                    entry.setPerformedByUserId(rs.getInt(5));
+                    entry.setOperationDate(rs.getTimestamp(6));
+                    entry.setReason(rs.getString(7));
                     
                     logEntries.add(entry);
                 }
             }
             
         } catch (SQLException e) {
-            System.err.println("Error retrieving archive operations by table: " + e.getMessage());
+            System.err.println("Error retrieving archive operations: " + e.getMessage());
+            return null;
         }
         
         return logEntries;
@@ -143,193 +150,98 @@ public class ArchiveCRUD {
     
     /**
      * Archives adoption requests with status "Approved" or "Rejected" after 30 days
+     * Runs as chunked set-based transactions through BulkArchiveCRUD
      * @param archivedByUserId ID of the user performing the archive operation
      * @return number of records archived
      */
     public int autoArchiveCompletedAdoptionRequests(Integer archivedByUserId) {
-        AdoptionRequestCRUD requestCRUD = new AdoptionRequestCRUD();
-        String selectSql = "SELECT adoption_request_id FROM tbl_adoption_request " +
-                          "WHERE status IN ('Approved', 'Rejected') " +
-                          "AND (approval_date IS NULL OR approval_date < DATE_SUB(CURDATE(), INTERVAL 30 DAY))";
-        
-        int archivedCount = 0;
-        
-        try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(selectSql);
-             ResultSet rs = pstmt.executeQuery()) {
-            
-            while (rs.next()) {
-                int requestId = rs.getInt("adoption_request_id");
-                if (requestCRUD.archiveAdoptionRequest(requestId, archivedByUserId, "Auto-archived: Completed request older than 30 days")) {
-                    archivedCount++;
-                }
-            }
-            
-        } catch (SQLException e) {
-            System.err.println("Error auto-archiving adoption requests: " + e.getMessage());
-        }
-        
-        return archivedCount;
+        BulkArchiveCRUD.BulkArchiveResult result = bulkArchiveCRUD.archiveCompletedAdoptionRequests(archivedByUserId);
+        return result.getArchivedCount();
     }
     
     /**
      * Archives pets with status "Adopted" after 60 days
+     * Runs as chunked set-based transactions through BulkArchiveCRUD
      * @param archivedByUserId ID of the user performing the archive operation
      * @return number of records archived
      */
     public int autoArchiveAdoptedPets(Integer archivedByUserId) {
-        PetCRUD petCRUD = new PetCRUD();
-        String selectSql = "SELECT p.pet_id FROM tbl_pet p " +
-                          "JOIN tbl_adoption a ON p.pet_id = a.pet_id " +
-                          "WHERE p.adoption_status = 'Adopted' " +
-                          "AND a.adoption_date < DATE_SUB(CURDATE(), INTERVAL 60 DAY)";
-        
-        int archivedCount = 0;
-        
-        try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(selectSql);
-             ResultSet rs = pstmt.executeQuery()) {
-            
-            while (rs.next()) {
-                int petId = rs.getInt("pet_id");
-                if (petCRUD.archivePet(petId, archivedByUserId, "Auto-archived: Pet adopted over 60 days ago")) {
-                    archivedCount++;
-                }
-            }
-            
-        } catch (SQLException e) {
-            System.err.println("Error auto-archiving adopted pets: " + e.getMessage());
-        }
-        
-        return archivedCount;
+        BulkArchiveCRUD.BulkArchiveResult result = bulkArchiveCRUD.archiveAdoptedPets(archivedByUserId);
+        return result.getArchivedCount();
     }
     
     /**
      * Clears archive log entries older than specified days
+     * Drops whole monthly partitions when the log is partitioned, otherwise deletes in small batches
      * @param daysToKeep Number of days to keep log entries
      * @return number of log entries deleted
      */
     public int cleanupArchiveLog(int daysToKeep) {
-        String sql = "DELETE FROM tbl_archive_log WHERE operation_date < DATE_SUB(NOW(), INTERVAL ? DAY)";
-        
-        try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, daysToKeep);
-            
-            int deletedCount = pstmt.executeUpdate();
-            return deletedCount;
-            
-        } catch (SQLException e) {
-            System.err.println("Error cleaning up archive log: " + e.getMessage());
-            return 0;
-        }
+        return (int) Math.min(Integer.MAX_VALUE, archiveLogRetention.enforceRetention(daysToKeep).getTotalRemoved());
     }
     
     /**
      * Gets archived records summary with details for admin dashboard
+     * Served from the shared statistics snapshot
      * @return List of archive summaries
      */
     public List<ArchiveSummary> getArchiveSummary() {
         List<ArchiveSummary> summaries = new ArrayList<>();
         
-        // Pets archive summary
-        String petsSql = "SELECT COUNT(*) as count, MIN(archived_date) as oldest, MAX(archived_date) as newest " +
-                        "FROM tbl_pet_archive";
-        summaries.add(getArchiveSummaryForTable("Pets", petsSql));
-        
-        // Adoption Requests archive summary
-        String requestsSql = "SELECT COUNT(*) as count, MIN(archived_date) as oldest, MAX(archived_date) as newest " +
-                            "FROM tbl_adoption_request_archive";
-        summaries.add(getArchiveSummaryForTable("Adoption Requests", requestsSql));
-        
-        // Adopters archive summary
-        String adoptersSql = "SELECT COUNT(*) as count, MIN(archived_date) as oldest, MAX(archived_date) as newest " +
-                            "FROM tbl_adopter_archive";
-        summaries.add(getArchiveSummaryForTable("Adopters", adoptersSql));
-        
-        // Pet Owners archive summary
-        String ownersSql = "SELECT COUNT(*) as count, MIN(archived_date) as oldest, MAX(archived_date) as newest " +
-                          "FROM tbl_pet_owner_archive";
-        summaries.add(getArchiveSummaryForTable("Pet Owners", ownersSql));
-        
-        // Adoptions archive summary
-        String adoptionsSql = "SELECT COUNT(*) as count, MIN(archived_date) as oldest, MAX(archived_date) as newest " +
-                             "FROM tbl_adoption_archive";
-        summaries.add(getArchiveSummaryForTable("Adoptions", adoptionsSql));
+        summaries.add(getArchiveSummaryForCounter("Pets", StatisticsSnapshot.Counter.ARCHIVED_PETS, "tbl_pet_archive"));
+        summaries.add(getArchiveSummaryForCounter("Adoption Requests", StatisticsSnapshot.Counter.ARCHIVED_REQUESTS, "tbl_adoption_request_archive"));
+        summaries.add(getArchiveSummaryForCounter("Adopters", StatisticsSnapshot.Counter.ARCHIVED_ADOPTERS, "tbl_adopter_archive"));
+        summaries.add(getArchiveSummaryForCounter("Pet Owners", StatisticsSnapshot.Counter.ARCHIVED_PET_OWNERS, "tbl_pet_owner_archive"));
+        summaries.add(getArchiveSummaryForCounter("Adoptions", StatisticsSnapshot.Counter.ARCHIVED_ADOPTIONS, "tbl_adoption_archive"));
         
         return summaries;
     }
     
     /**
-     * Helper method to get archive summary for a specific table
+     * Helper method to build the archive summary for one archive table
+     * Rows moved to cold storage are counted from the segment footers and included
      * @param entityName Name of the entity type
-     * @param sql SQL query to get summary data
+     * @param counter Snapshot counter of the archive table
+     * @param archiveTable Name of the archive table
      * @return ArchiveSummary object
      */
-    private ArchiveSummary getArchiveSummaryForTable(String entityName, String sql) {
+    private ArchiveSummary getArchiveSummaryForCounter(String entityName, StatisticsSnapshot.Counter counter, String archiveTable) {
+        StatisticsSnapshot snapshot = StatisticsSnapshot.getInstance();
+        ArchiveColdStorage.ColdStats cold = ArchiveColdStorage.getInstance().getStats(archiveTable);
         ArchiveSummary summary = new ArchiveSummary();
         summary.setEntityName(entityName);
-        
-        try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql);
-             ResultSet rs = pstmt.executeQuery()) {
-            
-            if (rs.next()) {
-                summary.setCount(rs.getInt("count"));
-                summary.setOldestDate(rs.getTimestamp("oldest"));
-                summary.setNewestDate(rs.getTimestamp("newest"));
-            }
-            
-        } catch (SQLException e) {
-            System.err.println("Error getting archive summary for " + entityName + ": " + e.getMessage());
-            summary.setCount(0);
-        }
-        
+        summary.setCount(snapshot.getCount(counter) + cold.getCount());
+        summary.setColdCount(cold.getCount());
+        summary.setOldestDate(earlier(snapshot.getOldestArchivedDate(counter), cold.getOldestDate()));
+        summary.setNewestDate(later(snapshot.getNewestArchivedDate(counter), cold.getNewestDate()));
         return summary;
     }
     
+    private static java.sql.Timestamp earlier(java.sql.Timestamp a, java.sql.Timestamp b) {
+        return a == null ? b : (b == null || a.before(b) ? a : b);
+    }
+    
+    private static java.sql.Timestamp later(java.sql.Timestamp a, java.sql.Timestamp b) {
+        return a == null ? b : (b == null || a.after(b) ? a : b);
+    }
+    
     /**
      * Validates archive integrity by checking for orphaned records
+     * Runs a full ArchiveIntegrityScanner scan; use the scanner directly to stream the offending rows
      * @return List of integrity issues found
      */
     public List<String> validateArchiveIntegrity() {
         List<String> issues = new ArrayList<>();
+        ArchiveIntegrityScanner.ScanResult result = new ArchiveIntegrityScanner().scan(false, violation -> { });
         
-        // Check for archived pets without corresponding owners
-        String orphanedPetsSql = "SELECT COUNT(*) FROM tbl_pet_archive pa " +
-                               "WHERE NOT EXISTS (SELECT 1 FROM tbl_pet_owner po WHERE po.pet_owner_id = pa.pet_owner_id) " +
-                               "AND NOT EXISTS (SELECT 1 FROM tbl_pet_owner_archive poa WHERE poa.pet_owner_id = pa.pet_owner_id)";
-        
-        try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(orphanedPetsSql);
-             ResultSet rs = pstmt.executeQuery()) {
-            
-            if (rs.next() && rs.getInt(1) > 0) {
-                issues.add("Found " + rs.getInt(1) + " archived pets without corresponding owners");
+        for (Map.Entry<ArchiveIntegrityScanner.Check, Integer> entry : result.getViolations().entrySet()) {
+            if (entry.getValue() > 0) {
+                issues.add("Found " + entry.getValue() + " rows in " + entry.getKey().getTable()
+                        + " with a missing " + entry.getKey().getReference());
             }
-            
-        } catch (SQLException e) {
-            issues.add("Error checking pet archive integrity: " + e.getMessage());
         }
-        
-        // Check for archived adoption requests without corresponding pets or adopters
-        String orphanedRequestsSql = "SELECT COUNT(*) FROM tbl_adoption_request_archive ara " +
-                                   "WHERE (NOT EXISTS (SELECT 1 FROM tbl_pet p WHERE p.pet_id = ara.pet_id) " +
-                                   "AND NOT EXISTS (SELECT 1 FROM tbl_pet_archive pa WHERE pa.pet_id = ara.pet_id)) " +
-                                   "OR (NOT EXISTS (SELECT 1 FROM tbl_adopter a WHERE a.adopter_id = ara.adopter_id) " +
-                                   "AND NOT EXISTS (SELECT 1 FROM tbl_adopter_archive aa WHERE aa.adopter_id = ara.adopter_id))";
-        
-        try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(orphanedRequestsSql);
-             ResultSet rs = pstmt.executeQuery()) {
-            
-            if (rs.next() && rs.getInt(1) > 0) {
-                issues.add("Found " + rs.getInt(1) + " archived adoption requests with missing references");
-            }
-            
-        } catch (SQLException e) {
-            issues.add("Error checking adoption request archive integrity: " + e.getMessage());
+        for (String error : result.getErrors()) {
+            issues.add("Error checking archive integrity: " + error);
         }
         
         return issues;
@@ -376,6 +288,7 @@ public class ArchiveCRUD {
     public static class ArchiveSummary {
         private String entityName;
         private int count;
+        private int coldCount;
         private java.sql.Timestamp oldestDate;
         private java.sql.Timestamp newestDate;
         
@@ -386,6 +299,9 @@ public class ArchiveCRUD {
         public int getCount() { return count; }
         public void setCount(int count) { this.count = count; }
         
+        public int getColdCount() { return coldCount; }
+        public void setColdCount(int coldCount) { this.coldCount = coldCount; }
+        
         public java.sql.Timestamp getOldestDate() { return oldestDate; }
         public void setOldestDate(java.sql.Timestamp oldestDate) { this.oldestDate = oldestDate; }
         
@@ -0,0 +1,769 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.furever.crud;
+
+/**
+ *
+ * @author jerimiahtongco
+ */
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+import com.furever.database.DbConnection;
+
+/**
+ * Cold tier for the tbl_*_archive tables
+ *
+ * The tiering job moves archive rows older than a threshold out of MySQL into compressed,
+ * column-oriented segment files (see ArchiveSegment) in a local directory, one file per
+ * SEGMENT_ROWS rows. The rows are locked while their segment is written and forced to disk,
+ * and deleted from the archive table in the same transaction, so a row is never in neither
+ * tier. A crash between the file write and the commit leaves a row in both tiers; readers
+ * prefer the warm copy.
+ *
+ * Restores are transparent: rehydrate() copies a cold row back into its archive table
+ * (memory-mapped read, one row group inflated) and hides it in the segment with a tombstone,
+ * after which the normal restore or permanent delete runs against the archive table.
+ *
+ * The directory is ./archive-cold unless -Dfurever.coldStorage.dir is set.
+ */
+public final class ArchiveColdStorage {
+
+    public static final int DEFAULT_TIER_AFTER_DAYS = 180;
+    public static final int SEGMENT_ROWS = 10_000;
+    private static final int DELETE_BATCH_SIZE = 500;
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String TOMBSTONE_SUFFIX = ".del";
+
+    /** Archive tables that can be tiered, with their integer primary key */
+    private static final Map<String, String> TABLE_KEYS = new LinkedHashMap<>();
+
+    static {
+        TABLE_KEYS.put("tbl_pet_archive", "pet_id");
+        TABLE_KEYS.put("tbl_pet_media_archive", "pet_media_id");
+        TABLE_KEYS.put("tbl_adoption_request_archive", "adoption_request_id");
+        TABLE_KEYS.put("tbl_adoption_archive", "adoption_id");
+        TABLE_KEYS.put("tbl_adopter_archive", "adopter_id");
+        TABLE_KEYS.put("tbl_pet_owner_archive", "pet_owner_id");
+        TABLE_KEYS.put("users_archive", "id");
+    }
+
+    private static volatile ArchiveColdStorage instance = null;
+
+    private final Path directory;
+    private final Map<String, List<Tier>> tiersByTable = new ConcurrentHashMap<>();
+
+    private ArchiveColdStorage(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Gets the shared cold storage for the directory given by furever.coldStorage.dir
+     * @return ArchiveColdStorage instance
+     */
+    public static ArchiveColdStorage getInstance() {
+        ArchiveColdStorage current = instance;
+        if (current != null) {
+            return current;
+        }
+        synchronized (ArchiveColdStorage.class) {
+            if (instance == null) {
+                instance = new ArchiveColdStorage(Paths.get(System.getProperty("furever.coldStorage.dir", "archive-cold")));
+            }
+            return instance;
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Gets the archive tables handled by the tiering job
+     * @return table names
+     */
+    public Set<String> getTieredTables() {
+        return Collections.unmodifiableSet(TABLE_KEYS.keySet());
+    }
+
+    /**
+     * Moves archive rows older than the given number of days from every archive table to cold storage
+     * @param olderThanDays Minimum age of archived_date for a row to be moved
+     * @return result of the tiering run
+     */
+    public TierResult tierAll(int olderThanDays) {
+        Timestamp cutoff = Timestamp.valueOf(LocalDate.now().minusDays(olderThanDays).atStartOfDay());
+        TierResult result = new TierResult();
+        long start = System.currentTimeMillis();
+
+        for (String table : TABLE_KEYS.keySet()) {
+            try {
+                tierTable(table, cutoff, result);
+            } catch (SQLException | IOException e) {
+                System.err.println("Error moving " + table + " to cold storage: " + e.getMessage());
+                result.errorMessage = table + ": " + e.getMessage();
+                break;
+            }
+        }
+
+        if (result.rowsMoved > 0) {
+            StatisticsSnapshot.getInstance().markStale();
+        }
+        result.elapsedMillis = System.currentTimeMillis() - start;
+        return result;
+    }
+
+    /**
+     * Moves the rows of one archive table archived before the cutoff, one segment at a time
+     */
+    private void tierTable(String table, Timestamp cutoff, TierResult result) throws SQLException, IOException {
+        String key = TABLE_KEYS.get(table);
+        String selectSql = "SELECT * FROM " + table + " WHERE archived_date < ? AND " + key + " > ? " +
+                           "ORDER BY " + key + " LIMIT " + SEGMENT_ROWS + " FOR UPDATE";
+        Files.createDirectories(directory);
+        int lastKey = Integer.MIN_VALUE;
+
+        while (true) {
+            Path segmentFile = null;
+            try (Connection conn = DbConnection.getConnection()) {
+                conn.setAutoCommit(false);
+                try {
+                    String[] columns;
+                    List<String[]> rows = new ArrayList<>();
+                    int keyColumn;
+                    int dateColumn;
+
+                    try (PreparedStatement pstmt = StatementCatalog.prepare(conn, selectSql)) {
+                        pstmt.setTimestamp(1, cutoff);
+                        pstmt.setInt(2, lastKey);
+                        try (ResultSet rs = pstmt.executeQuery()) {
+                            ResultSetMetaData meta = rs.getMetaData();
+                            columns = new String[meta.getColumnCount()];
+                            for (int i = 0; i < columns.length; i++) {
+                                columns[i] = meta.getColumnName(i + 1);
+                            }
+                            while (rs.next()) {
+                                rows.add(readRow(rs, meta));
+                            }
+                        }
+                    }
+
+                    if (rows.isEmpty()) {
+                        conn.rollback();
+                        return;
+                    }
+                    keyColumn = indexOf(columns, key);
+                    dateColumn = indexOf(columns, "archived_date");
+                    int firstKey = Integer.parseInt(rows.get(0)[keyColumn]);
+                    lastKey = Integer.parseInt(rows.get(rows.size() - 1)[keyColumn]);
+
+                    // Write and sync the segment before the rows leave MySQL
+                    segmentFile = directory.resolve(table + "-" + firstKey + "-" + lastKey + "-"
+                            + System.currentTimeMillis() + SEGMENT_SUFFIX);
+                    Path tempFile = segmentFile.resolveSibling(segmentFile.getFileName() + ".tmp");
+                    Files.deleteIfExists(tempFile);
+                    ArchiveSegment.write(tempFile, table, columns, keyColumn, dateColumn, rows);
+                    Files.move(tempFile, segmentFile, StandardCopyOption.ATOMIC_MOVE);
+
+                    int deleted = deleteRows(conn, table, key, rows, keyColumn, cutoff);
+                    if (deleted != rows.size()) {
+                        throw new SQLException("Expected to delete " + rows.size() + " rows from " + table + " but deleted " + deleted);
+                    }
+                    // From here on the file is kept: if the commit outcome is unknown a duplicate is
+                    // harmless, a lost row is not
+                    Path writtenFile = segmentFile;
+                    segmentFile = null;
+                    conn.commit();
+
+                    ArchiveSegment segment = ArchiveSegment.open(writtenFile);
+                    synchronized (this) {
+                        tiers(table).add(new Tier(segment, loadTombstones(segment.getPath())));
+                    }
+                    result.rowsMoved += rows.size();
+                    result.segmentsWritten++;
+                    result.bytesWritten += Files.size(segment.getPath());
+                    result.rowsByTable.merge(table, rows.size(), Integer::sum);
+
+                    if (rows.size() < SEGMENT_ROWS) {
+                        return;
+                    }
+
+                } catch (SQLException | IOException | RuntimeException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            } finally {
+                if (segmentFile != null) {
+                    // The rows are still in MySQL; the file must not survive as a second copy
+                    Files.deleteIfExists(segmentFile);
+                }
+            }
+        }
+    }
+
+    private static String[] readRow(ResultSet rs, ResultSetMetaData meta) throws SQLException {
+        String[] row = new String[meta.getColumnCount()];
+        for (int i = 0; i < row.length; i++) {
+            int type = meta.getColumnType(i + 1);
+            if (type == Types.BIT || type == Types.BOOLEAN) {
+                // tinyint(1) comes back as a boolean; store the value MySQL accepts on insert
+                boolean value = rs.getBoolean(i + 1);
+                row[i] = rs.wasNull() ? null : (value ? "1" : "0");
+            } else {
+                row[i] = rs.getString(i + 1);
+            }
+        }
+        return row;
+    }
+
+    private static int deleteRows(Connection conn, String table, String key, List<String[]> rows,
+                                  int keyColumn, Timestamp cutoff) throws SQLException {
+        int deleted = 0;
+        for (int start = 0; start < rows.size(); start += DELETE_BATCH_SIZE) {
+            List<String[]> batch = rows.subList(start, Math.min(start + DELETE_BATCH_SIZE, rows.size()));
+            String sql = "DELETE FROM " + table + " WHERE archived_date < ? AND " + key + " IN ("
+                       + String.join(", ", Collections.nCopies(batch.size(), "?")) + ")";
+            try (PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
+                pstmt.setTimestamp(1, cutoff);
+                for (int i = 0; i < batch.size(); i++) {
+                    pstmt.setInt(i + 2, Integer.parseInt(batch.get(i)[keyColumn]));
+                }
+                deleted += pstmt.executeUpdate();
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Finds a cold row by primary key
+     * @param table Archive table name
+     * @param key Primary key value
+     * @return row, or null if the key is not in cold storage
+     */
+    public ColdRow find(String table, int key) {
+        for (Tier tier : snapshot(table)) {
+            if (tier.segment.mayContain(key) && !tier.tombstones.contains(key)) {
+                String[] values = tier.segment.find(key);
+                if (values != null) {
+                    return new ColdRow(tier.segment, values);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads every cold row of an archive table
+     * @param table Archive table name
+     * @return rows, one per primary key
+     */
+    public List<ColdRow> readAll(String table) {
+        List<ColdRow> rows = new ArrayList<>();
+        Set<Integer> seen = new HashSet<>();
+        for (Tier tier : snapshot(table)) {
+            int keyColumn = tier.segment.getKeyColumn();
+            for (String[] values : tier.segment.readAll()) {
+                int key = Integer.parseInt(values[keyColumn]);
+                if (!tier.tombstones.contains(key) && seen.add(key)) {
+                    rows.add(new ColdRow(tier.segment, values));
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Reads the cold rows of an archive table whose column value is among the given values
+     * Only the filter column is inflated for row groups without a match
+     * @param table Archive table name
+     * @param column Filter column
+     * @param values Accepted values, compared as text
+     * @return rows, one per primary key
+     */
+    List<ColdRow> readWhere(String table, String column, Set<String> values) {
+        List<ColdRow> rows = new ArrayList<>();
+        Set<Integer> seen = new HashSet<>();
+        for (Tier tier : snapshot(table)) {
+            int filterColumn = tier.segment.columnIndex(column);
+            if (filterColumn < 0) {
+                continue;
+            }
+            int keyColumn = tier.segment.getKeyColumn();
+            for (String[] row : tier.segment.readWhere(filterColumn, values)) {
+                int key = Integer.parseInt(row[keyColumn]);
+                if (!tier.tombstones.contains(key) && seen.add(key)) {
+                    rows.add(new ColdRow(tier.segment, row));
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Completes one page of an archive list with the cold rows of the same table
+     * List screens order archives by archived_date DESC, key DESC; the caller reads up to
+     * pageSize + 1 warm rows after the cursor and this merges in the cold rows after the same
+     * cursor, so a record reads the same before and after it is tiered. A row left in both
+     * tiers by an interrupted tiering run is listed once, from the warm copy.
+     * @param <T> Row type
+     * @param table Archive table name
+     * @param warmRows Warm rows in list order, at most pageSize + 1
+     * @param warmDates archived_date of each warm row
+     * @param keyOf Gets the primary key of a row
+     * @param coldMapper Maps a cold row to the same fields as the warm rows
+     * @param after Cursor the warm rows were read after
+     * @param pageSize Maximum number of rows in the page
+     * @return Page across both tiers
+     */
+    <T> Page<T> mergeArchivePage(String table, List<T> warmRows, List<Timestamp> warmDates, ToIntFunction<T> keyOf,
+                                 Function<ColdRow, T> coldMapper, PageCursor after, int pageSize) {
+        // Tiering only moves rows that have an archived_date, and those sort before a NULL date
+        List<ColdRow> coldRows = after.isFirst() || after.getLastDate() != null
+                ? readAfter(table, after, pageSize + 1) : new ArrayList<>();
+
+        // Merge up to pageSize + 1 rows, the extra one showing that another page follows
+        List<T> items = new ArrayList<>();
+        List<Timestamp> dates = new ArrayList<>();
+        merge(warmRows, warmDates, keyOf, coldRows, coldMapper, pageSize + 1, items, dates);
+        return Page.ofDescending(items, dates, pageSize, keyOf, after);
+    }
+
+    /**
+     * Reads the first cold rows after a cursor, in archived_date DESC, key DESC order
+     * Row groups are visited newest first by the dates in the segment footers. Groups whose
+     * rows are all newer than the cursor are not inflated, and the walk stops once limit rows
+     * are found and the next group is entirely older than the last of them.
+     * @param table Archive table name
+     * @param after Cursor on a dated row, or PageCursor.FIRST
+     * @param limit Maximum number of rows
+     * @return up to limit rows in list order
+     */
+    private List<ColdRow> readAfter(String table, PageCursor after, int limit) {
+        long cursorMillis = after.isFirst() ? Long.MAX_VALUE : after.getLastDate().getTime();
+        List<GroupRef> groups = new ArrayList<>();
+        for (Tier tier : snapshot(table)) {
+            for (int g = 0; g < tier.segment.getGroupCount(); g++) {
+                long oldest = tier.segment.getGroupOldestMillis(g);
+                if (oldest != ArchiveSegment.NO_DATE && oldest <= cursorMillis) {
+                    groups.add(new GroupRef(tier, g, tier.segment.getGroupNewestMillis(g)));
+                }
+            }
+        }
+        groups.sort((a, b) -> Long.compare(b.newestMillis, a.newestMillis));
+
+        List<ColdRow> rows = new ArrayList<>();
+        Set<Integer> seen = new HashSet<>();
+        for (GroupRef group : groups) {
+            if (rows.size() >= limit) {
+                Timestamp last = rows.get(limit - 1).getArchivedDate();
+                if (last != null && group.newestMillis < last.getTime()) {
+                    break;
+                }
+            }
+            int keyColumn = group.tier.segment.getKeyColumn();
+            for (String[] values : group.tier.segment.readGroup(group.index)) {
+                int key = Integer.parseInt(values[keyColumn]);
+                if (group.tier.tombstones.contains(key) || seen.contains(key)) {
+                    continue;
+                }
+                ColdRow row = new ColdRow(group.tier.segment, values);
+                if (after.admitsDescending(row.getArchivedDate(), key)) {
+                    seen.add(key);
+                    rows.add(row);
+                }
+            }
+            rows.sort((a, b) -> PageCursor.compareDescending(a.getArchivedDate(), a.getKey(), b.getArchivedDate(), b.getKey()));
+            if (rows.size() > limit) {
+                rows.subList(limit, rows.size()).clear();
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Merges a whole archive list with cold rows, most recently archived first
+     * The warm rows must be ordered by archived_date DESC, key DESC. Cold rows are taken from
+     * readAll() for a full list, or from readWhere() for a list filtered by one column.
+     * @param <T> Row type
+     * @param warmRows Warm rows in list order
+     * @param warmDates archived_date of each warm row
+     * @param keyOf Gets the primary key of a row
+     * @param coldRows Cold rows of the same list, in any order
+     * @param coldMapper Maps a cold row to the same fields as the warm rows
+     * @return rows of both tiers in list order
+     */
+    static <T> List<T> mergeArchiveList(List<T> warmRows, List<Timestamp> warmDates, ToIntFunction<T> keyOf,
+                                        List<ColdRow> coldRows, Function<ColdRow, T> coldMapper) {
+        if (coldRows.isEmpty()) {
+            return warmRows;
+        }
+        List<T> items = new ArrayList<>(warmRows.size() + coldRows.size());
+        merge(warmRows, warmDates, keyOf, new ArrayList<>(coldRows), coldMapper, Integer.MAX_VALUE, items, new ArrayList<>());
+        return items;
+    }
+
+    /**
+     * Merges warm rows with cold rows by archived_date DESC, key DESC, stopping at limit rows
+     * A key present in both tiers with the same archived_date is taken from the warm row.
+     * Sorts coldRows in place.
+     */
+    private static <T> void merge(List<T> warmRows, List<Timestamp> warmDates, ToIntFunction<T> keyOf,
+                                  List<ColdRow> coldRows, Function<ColdRow, T> coldMapper, int limit,
+                                  List<T> items, List<Timestamp> dates) {
+        coldRows.sort((a, b) -> PageCursor.compareDescending(
+                a.getArchivedDate(), a.getKey(), b.getArchivedDate(), b.getKey()));
+
+        int warm = 0;
+        int cold = 0;
+        while (items.size() < limit && (warm < warmRows.size() || cold < coldRows.size())) {
+            int order;
+            if (cold == coldRows.size()) {
+                order = -1;
+            } else if (warm == warmRows.size()) {
+                order = 1;
+            } else {
+                ColdRow coldRow = coldRows.get(cold);
+                order = PageCursor.compareDescending(warmDates.get(warm), keyOf.applyAsInt(warmRows.get(warm)),
+                        coldRow.getArchivedDate(), coldRow.getKey());
+            }
+
+            if (order <= 0) {
+                dates.add(warmDates.get(warm));
+                items.add(warmRows.get(warm++));
+                if (order == 0) {
+                    cold++;
+                }
+            } else {
+                ColdRow coldRow = coldRows.get(cold++);
+                dates.add(coldRow.getArchivedDate());
+                items.add(coldMapper.apply(coldRow));
+            }
+        }
+    }
+
+    /**
+     * Copies a cold row back into its archive table and hides it in cold storage
+     * Call before restoring or permanently deleting an archived record; does nothing if the
+     * record is not in cold storage.
+     * @param table Archive table name
+     * @param key Primary key value
+     * @return true if a row was brought back from cold storage
+     */
+    public boolean rehydrate(String table, int key) {
+        ColdRow row = find(table, key);
+        if (row == null) {
+            return false;
+        }
+        return rehydrateRows(table, List.of(row)) > 0;
+    }
+
+    /**
+     * Copies every cold row whose column value is among the given values back into its archive table
+     * Used by cascading restores that select dependents by a foreign key
+     * @param table Archive table name
+     * @param column Filter column
+     * @param values Accepted values, compared as text
+     * @return number of rows brought back
+     */
+    public int rehydrateWhere(String table, String column, Set<String> values) {
+        if (values.isEmpty()) {
+            return 0;
+        }
+        List<ColdRow> rows = readWhere(table, column, values);
+        return rows.isEmpty() ? 0 : rehydrateRows(table, rows);
+    }
+
+    private int rehydrateRows(String table, List<ColdRow> rows) {
+        try (Connection conn = DbConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                for (ColdRow row : rows) {
+                    String[] columns = row.segment.getColumns();
+                    // IGNORE: a crash during tiering can leave the warm copy in place
+                    String sql = "INSERT IGNORE INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+                               + String.join(", ", Collections.nCopies(columns.length, "?")) + ")";
+                    try (PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
+                        for (int i = 0; i < columns.length; i++) {
+                            if (row.values[i] != null) {
+                                pstmt.setString(i + 1, row.values[i]);
+                            } else {
+                                pstmt.setNull(i + 1, Types.VARCHAR);
+                            }
+                        }
+                        pstmt.executeUpdate();
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error restoring rows from cold storage: " + e.getMessage());
+            return 0;
+        }
+
+        for (ColdRow row : rows) {
+            tombstone(table, row.getInt(TABLE_KEYS.get(table)));
+        }
+        StatisticsSnapshot.getInstance().markStale();
+        return rows.size();
+    }
+
+    /**
+     * Hides a key in every segment of the table that holds it
+     */
+    private synchronized void tombstone(String table, int key) {
+        for (Tier tier : tiers(table)) {
+            if (tier.segment.mayContain(key) && !tier.tombstones.contains(key) && tier.segment.find(key) != null) {
+                try {
+                    Files.write(tombstoneFile(tier.segment.getPath()), (key + System.lineSeparator()).getBytes(StandardCharsets.UTF_8),
+                                StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+                    tier.tombstones.add(key);
+                } catch (IOException e) {
+                    // The warm copy wins on read, so a missing tombstone only costs a duplicate restore check
+                    System.err.println("Error writing cold storage tombstone for " + table + "#" + key + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the number and archive date range of the live cold rows of a table
+     * Read from the segment footers; the date range is not narrowed by tombstones.
+     * @param table Archive table name
+     * @return cold tier statistics
+     */
+    public ColdStats getStats(String table) {
+        ColdStats stats = new ColdStats();
+        for (Tier tier : snapshot(table)) {
+            int live = tier.segment.getRowCount() - tier.tombstones.size();
+            if (live <= 0) {
+                continue;
+            }
+            stats.count += live;
+            stats.segments++;
+            Timestamp oldest = tier.segment.getOldestDate();
+            Timestamp newest = tier.segment.getNewestDate();
+            if (oldest != null && (stats.oldestDate == null || oldest.before(stats.oldestDate))) {
+                stats.oldestDate = oldest;
+            }
+            if (newest != null && (stats.newestDate == null || newest.after(stats.newestDate))) {
+                stats.newestDate = newest;
+            }
+        }
+        return stats;
+    }
+
+    private synchronized List<Tier> snapshot(String table) {
+        return new ArrayList<>(tiers(table));
+    }
+
+    /**
+     * Gets the loaded segments of a table, opening the files on first use
+     */
+    private synchronized List<Tier> tiers(String table) {
+        List<Tier> tiers = tiersByTable.get(table);
+        if (tiers != null) {
+            return tiers;
+        }
+
+        tiers = new ArrayList<>();
+        if (Files.isDirectory(directory)) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, table + "-*" + SEGMENT_SUFFIX)) {
+                for (Path file : files) {
+                    try {
+                        ArchiveSegment segment = ArchiveSegment.open(file);
+                        if (segment.getTableName().equals(table)) {
+                            tiers.add(new Tier(segment, loadTombstones(file)));
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        System.err.println("Skipping unreadable cold storage segment " + file + ": " + e.getMessage());
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Error listing cold storage segments: " + e.getMessage());
+            }
+        }
+        tiersByTable.put(table, tiers);
+        return tiers;
+    }
+
+    private static Set<Integer> loadTombstones(Path segmentFile) throws IOException {
+        Set<Integer> tombstones = ConcurrentHashMap.newKeySet();
+        Path file = tombstoneFile(segmentFile);
+        if (Files.exists(file)) {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                if (!line.isBlank()) {
+                    tombstones.add(Integer.parseInt(line.trim()));
+                }
+            }
+        }
+        return tombstones;
+    }
+
+    private static Path tombstoneFile(Path segmentFile) {
+        return segmentFile.resolveSibling(segmentFile.getFileName() + TOMBSTONE_SUFFIX);
+    }
+
+    private static int indexOf(String[] columns, String name) throws SQLException {
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i].equalsIgnoreCase(name)) {
+                return i;
+            }
+        }
+        throw new SQLException("Column " + name + " not found");
+    }
+
+    /**
+     * One segment with the keys hidden from it
+     */
+    private static class Tier {
+        private final ArchiveSegment segment;
+        private final Set<Integer> tombstones;
+
+        Tier(ArchiveSegment segment, Set<Integer> tombstones) {
+            this.segment = segment;
+            this.tombstones = tombstones;
+        }
+    }
+
+    /**
+     * One row group of a segment, with its newest archived_date from the footer
+     */
+    private static class GroupRef {
+        private final Tier tier;
+        private final int index;
+        private final long newestMillis;
+
+        GroupRef(Tier tier, int index, long newestMillis) {
+            this.tier = tier;
+            this.index = index;
+            this.newestMillis = newestMillis;
+        }
+    }
+
+    /**
+     * Archive row read from a segment, with typed getters in the style of ResultSet
+     */
+    public static class ColdRow {
+        private final ArchiveSegment segment;
+        private final String[] values;
+        private Timestamp archivedDate;
+        private boolean archivedDateParsed;
+
+        ColdRow(ArchiveSegment segment, String[] values) {
+            this.segment = segment;
+            this.values = values;
+        }
+
+        public String getString(String column) {
+            int index = segment.columnIndex(column);
+            return index >= 0 ? values[index] : null;
+        }
+
+        /**
+         * Gets the primary key of the row
+         */
+        int getKey() {
+            return Integer.parseInt(values[segment.getKeyColumn()]);
+        }
+
+        /**
+         * Gets archived_date, parsed once since list merges compare it repeatedly
+         */
+        Timestamp getArchivedDate() {
+            if (!archivedDateParsed) {
+                archivedDate = getTimestamp("archived_date");
+                archivedDateParsed = true;
+            }
+            return archivedDate;
+        }
+
+        /**
+         * Gets an integer column; 0 for NULL, like ResultSet.getInt
+         */
+        public int getInt(String column) {
+            String value = getString(column);
+            return value != null ? Integer.parseInt(value) : 0;
+        }
+
+        public java.sql.Date getDate(String column) {
+            String value = getString(column);
+            return value != null ? java.sql.Date.valueOf(value.length() > 10 ? value.substring(0, 10) : value) : null;
+        }
+
+        public Timestamp getTimestamp(String column) {
+            String value = getString(column);
+            return value != null ? Timestamp.valueOf(value.length() == 10 ? value + " 00:00:00" : value) : null;
+        }
+    }
+
+    /**
+     * Inner class to represent the cold tier of one archive table
+     */
+    public static class ColdStats {
+        private int count;
+        private int segments;
+        private Timestamp oldestDate;
+        private Timestamp newestDate;
+
+        // Getters
+        public int getCount() { return count; }
+        public int getSegments() { return segments; }
+        public Timestamp getOldestDate() { return oldestDate; }
+        public Timestamp getNewestDate() { return newestDate; }
+    }
+
+    /**
+     * Inner class to represent the outcome of a tiering run
+     */
+    public static class TierResult {
+        private long rowsMoved;
+        private int segmentsWritten;
+        private long bytesWritten;
+        private final Map<String, Integer> rowsByTable = new HashMap<>();
+        private long elapsedMillis;
+        private String errorMessage;
+
+        // Getters
+        public long getRowsMoved() { return rowsMoved; }
+        public int getSegmentsWritten() { return segmentsWritten; }
+        public long getBytesWritten() { return bytesWritten; }
+        public Map<String, Integer> getRowsByTable() { return rowsByTable; }
+        public long getElapsedMillis() { return elapsedMillis; }
+        public String getErrorMessage() { return errorMessage; }
+    }
+}
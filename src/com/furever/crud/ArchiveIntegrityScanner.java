@@ -0,0 +1,418 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.furever.crud;
+
+/**
+ *
+ * @author jerimiahtongco
+ */
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import com.furever.database.DbConnection;
+
+/**
+ * Referential integrity scan of the archive tables
+ *
+ * Each check looks for archive rows whose reference is neither in the live table nor in its
+ * archive table (nor in cold storage). Instead of one NOT EXISTS query over a whole table,
+ * every check is split into primary key ranges of chunkSize keys that run in parallel on
+ * pooled connections. A connection is borrowed per chunk, so the scan never holds more than
+ * `parallelism` connections, and a shared rate limit caps how many chunks start per second.
+ *
+ * Offending rows are streamed to a listener as they are found, each with a repair suggestion.
+ *
+ * Incremental mode checks only rows archived since the last completed scan, plus rows whose
+ * parent was permanently deleted since then according to tbl_archive_log. The time of the
+ * last completed scan is kept in archive-integrity.properties (-Dfurever.integrity.stateFile).
+ */
+public class ArchiveIntegrityScanner {
+
+    public static final int DEFAULT_PARALLELISM = 4;
+    public static final int DEFAULT_CHUNK_SIZE = 5000;
+    public static final int DEFAULT_CHUNKS_PER_SECOND = 20;
+
+    private static final String LAST_RUN_PROPERTY = "lastCompletedScan";
+    // Rows archived while the previous scan was running are checked again
+    private static final long INCREMENTAL_OVERLAP_MILLIS = 60_000;
+
+    /**
+     * Cross-references between archive rows and the records they point to
+     */
+    public enum Check {
+        PET_OWNER("tbl_pet_archive", "pet_id", "pet_owner_id", "tbl_pet_owner", "tbl_pet_owner_archive", "pet_owner_id",
+                "Restore pet owner #%2$d from a backup, or permanently delete archived pet #%1$d"),
+        REQUEST_PET("tbl_adoption_request_archive", "adoption_request_id", "pet_id", "tbl_pet", "tbl_pet_archive", "pet_id",
+                "Permanently delete archived adoption request #%1$d; pet #%2$d no longer exists"),
+        REQUEST_ADOPTER("tbl_adoption_request_archive", "adoption_request_id", "adopter_id", "tbl_adopter", "tbl_adopter_archive", "adopter_id",
+                "Permanently delete archived adoption request #%1$d; adopter #%2$d no longer exists"),
+        REQUEST_USER("tbl_adoption_request_archive", "adoption_request_id", "user_id", "users", "users_archive", "id",
+                "UPDATE tbl_adoption_request_archive SET user_id = NULL WHERE adoption_request_id = %1$d (user #%2$d no longer exists)"),
+        MEDIA_PET("tbl_pet_media_archive", "pet_media_id", "pet_id", "tbl_pet", "tbl_pet_archive", "pet_id",
+                "DELETE FROM tbl_pet_media_archive WHERE pet_media_id = %1$d (pet #%2$d no longer exists)"),
+        ADOPTION_PET("tbl_adoption_archive", "adoption_id", "pet_id", "tbl_pet", "tbl_pet_archive", "pet_id",
+                "Restore pet #%2$d from a backup, or delete archived adoption #%1$d"),
+        ADOPTION_ADOPTER("tbl_adoption_archive", "adoption_id", "adopter_id", "tbl_adopter", "tbl_adopter_archive", "adopter_id",
+                "Restore adopter #%2$d from a backup, or delete archived adoption #%1$d"),
+        ADOPTION_USER("tbl_adoption_archive", "adoption_id", "user_id", "users", "users_archive", "id",
+                "UPDATE tbl_adoption_archive SET user_id = NULL WHERE adoption_id = %1$d (user #%2$d no longer exists)");
+
+        private final String table;
+        private final String key;
+        private final String reference;
+        private final String liveParent;
+        private final String archiveParent;
+        private final String parentKey;
+        private final String repair;
+
+        Check(String table, String key, String reference, String liveParent, String archiveParent, String parentKey, String repair) {
+            this.table = table;
+            this.key = key;
+            this.reference = reference;
+            this.liveParent = liveParent;
+            this.archiveParent = archiveParent;
+            this.parentKey = parentKey;
+            this.repair = repair;
+        }
+
+        public String getTable() { return table; }
+        public String getReference() { return reference; }
+
+        /**
+         * Selects key and reference of the orphaned rows of one key range
+         */
+        private String rangeSql(boolean incremental) {
+            return "SELECT c." + key + ", c." + reference + " FROM " + table + " c " +
+                   "WHERE c." + key + " BETWEEN ? AND ? AND c." + reference + " IS NOT NULL " +
+                   (incremental ? "AND c.archived_date >= ? " : "") + "AND " + orphanFilter();
+        }
+
+        /**
+         * Selects orphaned rows whose parent was permanently deleted since the given time
+         */
+        private String deletedParentsSql() {
+            return "SELECT c." + key + ", c." + reference + " FROM " + table + " c " +
+                   "JOIN (SELECT DISTINCT record_id FROM tbl_archive_log " +
+                   "WHERE table_name = ? AND operation = 'PERMANENT_DELETE' AND operation_date >= ?) d " +
+                   "ON d.record_id = c." + reference + " WHERE " + orphanFilter();
+        }
+
+        private String orphanFilter() {
+            return "NOT EXISTS (SELECT 1 FROM " + liveParent + " lp WHERE lp." + parentKey + " = c." + reference + ") " +
+                   "AND NOT EXISTS (SELECT 1 FROM " + archiveParent + " ap WHERE ap." + parentKey + " = c." + reference + ")";
+        }
+    }
+
+    private final int parallelism;
+    private final int chunkSize;
+    private final RateLimiter rateLimiter;
+    private final Path stateFile;
+
+    /**
+     * Creates a scanner with the default parallelism, chunk size and rate limit
+     */
+    public ArchiveIntegrityScanner() {
+        this(DEFAULT_PARALLELISM, DEFAULT_CHUNK_SIZE, DEFAULT_CHUNKS_PER_SECOND);
+    }
+
+    /**
+     * Creates a scanner
+     * @param parallelism Number of chunks checked at the same time; kept below the pool size
+     * @param chunkSize Number of primary key values per chunk
+     * @param chunksPerSecond Maximum number of chunks started per second, 0 for no limit
+     */
+    public ArchiveIntegrityScanner(int parallelism, int chunkSize, int chunksPerSecond) {
+        this.parallelism = Math.max(1, parallelism);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.rateLimiter = new RateLimiter(chunksPerSecond);
+        this.stateFile = Paths.get(System.getProperty("furever.integrity.stateFile", "archive-integrity.properties"));
+    }
+
+    /**
+     * Runs every check
+     * @param incremental true to check only rows archived or orphaned since the last completed scan
+     * @param listener Receives each offending row as it is found; called from one thread at a time
+     * @return result of the scan
+     */
+    public ScanResult scan(boolean incremental, Consumer<Violation> listener) {
+        long started = System.currentTimeMillis();
+        Timestamp since = incremental ? getLastCompletedScan() : null;
+        ScanResult result = new ScanResult(since);
+        Consumer<Violation> serialized = violation -> {
+            if (isInColdStorage(violation)) {
+                return;
+            }
+            synchronized (result) {
+                result.violations.merge(violation.check, 1, Integer::sum);
+                listener.accept(violation);
+            }
+        };
+
+        int threads;
+        try {
+            // Leave connections for the rest of the application
+            threads = Math.max(1, Math.min(parallelism, DbConnection.getPool().getMaxSize() - 2));
+        } catch (SQLException e) {
+            result.addError(e.getMessage());
+            return result;
+        }
+
+        ExecutorService workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "furever-integrity-scan");
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<Future<?>> tasks = new ArrayList<>();
+
+        try {
+            for (Check check : Check.values()) {
+                int[] range = keyRange(check, since);
+                if (range != null) {
+                    for (long low = range[0]; low <= range[1]; low += chunkSize) {
+                        int from = (int) low;
+                        int to = (int) Math.min(low + chunkSize - 1, range[1]);
+                        tasks.add(workers.submit(() -> scanRange(check, from, to, since, serialized, result)));
+                    }
+                }
+                if (since != null) {
+                    tasks.add(workers.submit(() -> scanDeletedParents(check, since, serialized, result)));
+                }
+            }
+
+            for (Future<?> task : tasks) {
+                try {
+                    task.get();
+                } catch (ExecutionException e) {
+                    result.addError(e.getCause().getMessage());
+                }
+            }
+
+        } catch (SQLException e) {
+            result.addError(e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.addError("Scan interrupted");
+            tasks.forEach(task -> task.cancel(true));
+        } finally {
+            workers.shutdownNow();
+        }
+
+        result.elapsedMillis = System.currentTimeMillis() - started;
+        if (result.errors.isEmpty()) {
+            setLastCompletedScan(new Timestamp(started - INCREMENTAL_OVERLAP_MILLIS));
+        }
+        return result;
+    }
+
+    /**
+     * Gets the primary key range to scan for a check
+     * @return lowest and highest key, or null if there is nothing to scan
+     */
+    private int[] keyRange(Check check, Timestamp since) throws SQLException {
+        String sql = "SELECT MIN(" + check.key + "), MAX(" + check.key + ") FROM " + check.table +
+                     (since != null ? " WHERE archived_date >= ?" : "");
+
+        try (Connection conn = DbConnection.getConnection();
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
+            if (since != null) {
+                pstmt.setTimestamp(1, since);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                rs.next();
+                int min = rs.getInt(1);
+                return rs.wasNull() ? null : new int[] { min, rs.getInt(2) };
+            }
+        }
+    }
+
+    private Void scanRange(Check check, int from, int to, Timestamp since, Consumer<Violation> listener,
+                           ScanResult result) throws SQLException, InterruptedException {
+        rateLimiter.acquire();
+        try (Connection conn = DbConnection.getConnection();
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, check.rangeSql(since != null))) {
+            pstmt.setInt(1, from);
+            pstmt.setInt(2, to);
+            if (since != null) {
+                pstmt.setTimestamp(3, since);
+            }
+            stream(check, pstmt, listener);
+        }
+        result.chunks.incrementAndGet();
+        return null;
+    }
+
+    private Void scanDeletedParents(Check check, Timestamp since, Consumer<Violation> listener,
+                                    ScanResult result) throws SQLException, InterruptedException {
+        rateLimiter.acquire();
+        try (Connection conn = DbConnection.getConnection();
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, check.deletedParentsSql())) {
+            pstmt.setString(1, check.liveParent);
+            pstmt.setTimestamp(2, since);
+            stream(check, pstmt, listener);
+        }
+        result.chunks.incrementAndGet();
+        return null;
+    }
+
+    private static void stream(Check check, PreparedStatement pstmt, Consumer<Violation> listener) throws SQLException {
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                listener.accept(new Violation(check, rs.getInt(1), rs.getInt(2)));
+            }
+        }
+    }
+
+    /**
+     * A parent that was moved to cold storage still exists
+     */
+    private static boolean isInColdStorage(Violation violation) {
+        return ArchiveColdStorage.getInstance().find(violation.check.archiveParent, violation.missingId) != null;
+    }
+
+    /**
+     * Gets the time incremental scans start from
+     * @return time of the last completed scan minus a small overlap, or null if none was recorded
+     */
+    public Timestamp getLastCompletedScan() {
+        if (!Files.exists(stateFile)) {
+            return null;
+        }
+        Properties state = new Properties();
+        try (InputStream in = Files.newInputStream(stateFile)) {
+            state.load(in);
+            String value = state.getProperty(LAST_RUN_PROPERTY);
+            return value != null ? new Timestamp(Long.parseLong(value)) : null;
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("Error reading integrity scan state: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void setLastCompletedScan(Timestamp time) {
+        Properties state = new Properties();
+        state.setProperty(LAST_RUN_PROPERTY, Long.toString(time.getTime()));
+        try (OutputStream out = Files.newOutputStream(stateFile)) {
+            state.store(out, "Archive integrity scan state");
+        } catch (IOException e) {
+            System.err.println("Error saving integrity scan state: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Spaces chunk starts evenly so the scan never exceeds a fixed number of chunks per second
+     */
+    private static class RateLimiter {
+        private final long intervalNanos;
+        private long nextSlot = System.nanoTime();
+
+        RateLimiter(int permitsPerSecond) {
+            this.intervalNanos = permitsPerSecond > 0 ? 1_000_000_000L / permitsPerSecond : 0;
+        }
+
+        void acquire() throws InterruptedException {
+            if (intervalNanos == 0) {
+                return;
+            }
+            long wait;
+            synchronized (this) {
+                long now = System.nanoTime();
+                long slot = Math.max(nextSlot, now);
+                nextSlot = slot + intervalNanos;
+                wait = slot - now;
+            }
+            if (wait > 0) {
+                Thread.sleep(wait / 1_000_000, (int) (wait % 1_000_000));
+            }
+        }
+    }
+
+    /**
+     * Archive row whose reference points nowhere
+     */
+    public static class Violation {
+        private final Check check;
+        private final int rowId;
+        private final int missingId;
+
+        Violation(Check check, int rowId, int missingId) {
+            this.check = check;
+            this.rowId = rowId;
+            this.missingId = missingId;
+        }
+
+        // Getters
+        public Check getCheck() { return check; }
+        public int getRowId() { return rowId; }
+        public int getMissingId() { return missingId; }
+
+        /**
+         * Gets a suggested fix for this row
+         * @return repair suggestion
+         */
+        public String getRepairSuggestion() {
+            return String.format(check.repair, rowId, missingId);
+        }
+
+        @Override
+        public String toString() {
+            return check.table + "#" + rowId + ": " + check.reference + " " + missingId + " not found";
+        }
+    }
+
+    /**
+     * Inner class to represent the outcome of a scan
+     */
+    public static class ScanResult {
+        private final Timestamp since;
+        private final Map<Check, Integer> violations = new EnumMap<>(Check.class);
+        private final AtomicInteger chunks = new AtomicInteger();
+        private final List<String> errors = new ArrayList<>();
+        private long elapsedMillis;
+
+        ScanResult(Timestamp since) {
+            this.since = since;
+        }
+
+        private synchronized void addError(String message) {
+            errors.add(message);
+        }
+
+        // Getters
+        public boolean isIncremental() { return since != null; }
+        public Timestamp getSince() { return since; }
+        public synchronized Map<Check, Integer> getViolations() { return new EnumMap<>(violations); }
+        public int getChunks() { return chunks.get(); }
+        public synchronized List<String> getErrors() { return new ArrayList<>(errors); }
+        public long getElapsedMillis() { return elapsedMillis; }
+
+        /**
+         * Gets the number of offending rows over all checks
+         * @return total violations
+         */
+        public synchronized int getTotalViolations() {
+            return violations.values().stream().mapToInt(Integer::intValue).sum();
+        }
+    }
+}
@@ -0,0 +1,352 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.furever.crud;
+
+/**
+ *
+ * @author jerimiahtongco
+ */
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.furever.database.DbConnection;
+
+/**
+ * Audit pipeline for tbl_archive_log rows written by the single-record archive, restore
+ * and permanent-delete methods
+ *
+ * TRANSACTIONAL mode (the default) inserts the row inside the caller's transaction, so the
+ * log commits or rolls back with the change it describes. ASYNC mode keeps the round trip
+ * out of the transaction: committed entries go into a bounded queue that a background writer
+ * drains with multi-row inserts. When the queue is full the caller writes its entry itself,
+ * so entries are never dropped for lack of space; entries still queued are lost only if the
+ * JVM dies before the shutdown flush.
+ *
+ * Usage inside a transaction:
+ *   ArchiveLog.Entry logEntry = new ArchiveLog.Entry("tbl_pet", petId, "ARCHIVE", userId, reason);
+ *   ArchiveLog.getInstance().record(conn, logEntry);
+ *   conn.commit();
+ *   ArchiveLog.getInstance().committed(logEntry);
+ *
+ * The mode can be chosen at startup with -Dfurever.archiveLog.mode=async
+ */
+public final class ArchiveLog {
+
+    public enum Mode { TRANSACTIONAL, ASYNC }
+
+    public static final int QUEUE_CAPACITY = 10_000;
+    public static final int MAX_BATCH_SIZE = 500;
+    private static final long OFFER_TIMEOUT_MILLIS = 50;
+    private static final int MAX_WRITE_ATTEMPTS = 5;
+    private static final long RETRY_BACKOFF_MILLIS = 200;
+
+    private static final String COLUMNS = "INSERT INTO tbl_archive_log (table_name, record_id, operation, performed_by_user_id, reason, operation_date) VALUES ";
+    private static final String ROW = "(?, ?, ?, ?, ?, ?)";
+
+    private static volatile ArchiveLog instance = null;
+
+    private volatile Mode mode;
+    private final BlockingQueue<Entry> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private Thread writer = null;
+    private volatile boolean running = false;
+    private boolean shutdownHookAdded = false;
+
+    // Backpressure and throughput metrics
+    private final AtomicLong enqueuedCount = new AtomicLong();
+    private final AtomicLong drainedCount = new AtomicLong();
+    private final AtomicLong writtenCount = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong fallbackCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong highWaterMark = new AtomicLong();
+
+    private ArchiveLog(Mode mode) {
+        this.mode = mode;
+        if (mode == Mode.ASYNC) {
+            startWriter();
+        }
+    }
+
+    /**
+     * Gets the shared archive log, creating it in the mode given by furever.archiveLog.mode
+     * @return ArchiveLog instance
+     */
+    public static ArchiveLog getInstance() {
+        ArchiveLog current = instance;
+        if (current != null) {
+            return current;
+        }
+        synchronized (ArchiveLog.class) {
+            if (instance == null) {
+                String configured = System.getProperty("furever.archiveLog.mode", "transactional");
+                instance = new ArchiveLog("async".equalsIgnoreCase(configured) ? Mode.ASYNC : Mode.TRANSACTIONAL);
+            }
+            return instance;
+        }
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Switches the mode; leaving ASYNC mode writes out everything still queued first
+     * @param newMode Mode to use for entries recorded from now on
+     */
+    public synchronized void setMode(Mode newMode) {
+        if (newMode == mode) {
+            return;
+        }
+        mode = newMode;
+        if (newMode == Mode.ASYNC) {
+            startWriter();
+        } else {
+            stopWriter();
+        }
+    }
+
+    /**
+     * Records an entry as part of the caller's transaction
+     * In TRANSACTIONAL mode the row is inserted now on the caller's connection; in ASYNC mode
+     * nothing happens until committed() is called
+     * @param conn Connection with the open business transaction
+     * @param entry Log entry
+     * @throws SQLException if the insert fails
+     */
+    public void record(Connection conn, Entry entry) throws SQLException {
+        if (mode == Mode.TRANSACTIONAL) {
+            entry.written = true;
+            insert(conn, List.of(entry));
+        }
+    }
+
+    /**
+     * Hands over an entry whose transaction has committed
+     * Entries already written by record() are ignored. If the queue stays full for
+     * OFFER_TIMEOUT_MILLIS the entry is written synchronously instead.
+     * @param entry Log entry passed to record() before the commit
+     */
+    public void committed(Entry entry) {
+        if (entry.written) {
+            return;
+        }
+        entry.written = true;
+
+        try {
+            if (running && queue.offer(entry, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                enqueuedCount.incrementAndGet();
+                highWaterMark.accumulateAndGet(queue.size(), Math::max);
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Queue full or writer stopped: pay the round trip here rather than lose the entry
+        fallbackCount.incrementAndGet();
+        writeWithRetry(List.of(entry));
+    }
+
+    /**
+     * Waits until every entry queued so far has been written
+     * @param timeoutMillis Maximum time to wait
+     * @return true if the queue was drained in time
+     */
+    public boolean flush(long timeoutMillis) {
+        long target = enqueuedCount.get();
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (drainedCount.get() < target) {
+            if (System.currentTimeMillis() >= deadline || !running && queue.isEmpty()) {
+                return queue.isEmpty();
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Stops the background writer after writing out everything still queued
+     * Call before DbConnection.closeConnection() on exit; also runs from a shutdown hook
+     */
+    public synchronized void shutdown() {
+        stopWriter();
+    }
+
+    private synchronized void startWriter() {
+        if (running) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::drainLoop, "furever-archive-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+        if (!shutdownHookAdded) {
+            Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "furever-archive-log-flush"));
+            shutdownHookAdded = true;
+        }
+    }
+
+    private synchronized void stopWriter() {
+        if (!running) {
+            return;
+        }
+        // No interrupt: it would fail a pool borrow in the middle of a batch; the poll times out instead
+        running = false;
+        try {
+            writer.join(10_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writer = null;
+
+        // Entries offered while the writer was stopping
+        List<Entry> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        if (!rest.isEmpty()) {
+            writeWithRetry(rest);
+            drainedCount.addAndGet(rest.size());
+        }
+    }
+
+    /**
+     * Writer loop: waits for the first entry, then takes whatever else is queued up to a batch
+     * Keeps draining after shutdown is requested until the queue is empty
+     */
+    private void drainLoop() {
+        List<Entry> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        while (running || !queue.isEmpty()) {
+            try {
+                Entry first = running ? queue.poll(500, TimeUnit.MILLISECONDS) : queue.poll();
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+            writeWithRetry(batch);
+            drainedCount.addAndGet(batch.size());
+            batch.clear();
+        }
+    }
+
+    /**
+     * Writes a batch on its own connection, retrying transient failures
+     * A batch that still fails is printed to the error log so the audit trail can be recovered
+     */
+    private void writeWithRetry(List<Entry> batch) {
+        for (int attempt = 1; attempt <= MAX_WRITE_ATTEMPTS; attempt++) {
+            try (Connection conn = DbConnection.getConnection()) {
+                insert(conn, batch);
+                writtenCount.addAndGet(batch.size());
+                batchCount.incrementAndGet();
+                return;
+            } catch (SQLException e) {
+                if (attempt == MAX_WRITE_ATTEMPTS) {
+                    System.err.println("Error writing " + batch.size() + " archive log entries: " + e.getMessage());
+                    for (Entry entry : batch) {
+                        System.err.println("  Unwritten archive log entry: " + entry);
+                    }
+                    failedCount.addAndGet(batch.size());
+                    return;
+                }
+                try {
+                    Thread.sleep(RETRY_BACKOFF_MILLIS * attempt);
+                } catch (InterruptedException ie) {
+                    // Keep retrying; shutdown waits for the batch
+                }
+            }
+        }
+    }
+
+    /**
+     * Inserts entries with one multi-row statement
+     */
+    private static void insert(Connection conn, List<Entry> entries) throws SQLException {
+        StringBuilder sql = new StringBuilder(COLUMNS.length() + entries.size() * (ROW.length() + 2)).append(COLUMNS);
+        for (int i = 0; i < entries.size(); i++) {
+            sql.append(i == 0 ? ROW : ", " + ROW);
+        }
+
+        try (PreparedStatement pstmt = StatementCatalog.prepare(conn, sql.toString())) {
+            int index = 1;
+            for (Entry entry : entries) {
+                pstmt.setString(index++, entry.tableName);
+                pstmt.setInt(index++, entry.recordId);
+                pstmt.setString(index++, entry.operation);
+                if (entry.performedByUserId != null) {
+                    pstmt.setInt(index++, entry.performedByUserId);
+                } else {
+                    pstmt.setNull(index++, java.sql.Types.INTEGER);
+                }
+                pstmt.setString(index++, entry.reason);
+                pstmt.setTimestamp(index++, entry.operationDate);
+            }
+            pstmt.executeUpdate();
+        }
+    }
+
+    // Getters
+    public int getQueueDepth() { return queue.size(); }
+    public long getEnqueuedCount() { return enqueuedCount.get(); }
+    public long getWrittenCount() { return writtenCount.get(); }
+    public long getBatchCount() { return batchCount.get(); }
+    public long getFallbackCount() { return fallbackCount.get(); }
+    public long getFailedCount() { return failedCount.get(); }
+    public long getHighWaterMark() { return highWaterMark.get(); }
+
+    /**
+     * Describes the pipeline state in one printable line
+     * @return summary of mode, queue and counters
+     */
+    public String describe() {
+        long batches = batchCount.get();
+        return String.format("mode %s  queued %d/%d (peak %d)  written %d in %d batch(es), avg %.1f  sync fallbacks %d  failed %d",
+                mode, queue.size(), QUEUE_CAPACITY, highWaterMark.get(), writtenCount.get(), batches,
+                batches == 0 ? 0.0 : (double) writtenCount.get() / batches, fallbackCount.get(), failedCount.get());
+    }
+
+    /**
+     * One tbl_archive_log row; the operation time is taken when the entry is created
+     */
+    public static class Entry {
+        private final String tableName;
+        private final int recordId;
+        private final String operation;
+        private final Integer performedByUserId;
+        private final String reason;
+        private final Timestamp operationDate = new Timestamp(System.currentTimeMillis());
+        private volatile boolean written = false;
+
+        public Entry(String tableName, int recordId, String operation, Integer performedByUserId, String reason) {
+            this.tableName = tableName;
+            this.recordId = recordId;
+            this.operation = operation;
+            this.performedByUserId = performedByUserId;
+            this.reason = reason;
+        }
+
+        @Override
+        public String toString() {
+            return operation + " " + tableName + "#" + recordId + " by " + performedByUserId
+                    + " at " + operationDate + ": " + reason;
+        }
+    }
+}
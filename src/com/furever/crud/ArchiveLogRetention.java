@@ -0,0 +1,288 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.furever.crud;
+
+/**
+ *
+ * @author jerimiahtongco
+ */
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.furever.database.DbConnection;
+
+/**
+ * Retention management for tbl_archive_log
+ * Once the table is range-partitioned by month (enablePartitioning), old entries are removed
+ * by dropping whole partitions, which is a metadata change instead of a row-by-row delete.
+ * Partitions are named pYYYYMM and hold the rows of that month; p_future catches everything
+ * beyond the last month and is split ahead of time by ensureFuturePartitions.
+ * Until the table is partitioned, retention falls back to small delete batches with a pause
+ * between them so no single statement holds locks or undo for long.
+ */
+public class ArchiveLogRetention {
+
+    public static final int DEFAULT_MONTHS_AHEAD = 3;
+    public static final int DELETE_BATCH_SIZE = 1000;
+    public static final long DELETE_PAUSE_MILLIS = 100;
+
+    private static final String TABLE = "tbl_archive_log";
+    private static final String FUTURE_PARTITION = "p_future";
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    /**
+     * Checks whether tbl_archive_log is partitioned
+     * @return true if the table has partitions
+     * @throws SQLException if database access error occurs
+     */
+    public boolean isPartitioned() throws SQLException {
+        return !getPartitionNames().isEmpty();
+    }
+
+    /**
+     * Gets the partitions of tbl_archive_log in boundary order
+     * @return partition names, empty if the table is not partitioned
+     * @throws SQLException if database access error occurs
+     */
+    public List<String> getPartitionNames() throws SQLException {
+        String sql = "SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+                     "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL " +
+                     "ORDER BY PARTITION_ORDINAL_POSITION";
+        List<String> names = new ArrayList<>();
+
+        try (Connection conn = DbConnection.getConnection();
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
+            pstmt.setString(1, TABLE);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    names.add(rs.getString(1));
+                }
+            }
+        }
+
+        return names;
+    }
+
+    /**
+     * Converts tbl_archive_log to monthly RANGE COLUMNS partitions on operation_date
+     * MySQL requires the partitioning column in every unique key, so the primary key becomes
+     * (log_id, operation_date) and operation_date becomes NOT NULL. This rebuilds the table;
+     * run it in a maintenance window.
+     * @param monthsAhead Number of future months to create partitions for
+     * @return true if the table was converted
+     */
+    public boolean enablePartitioning(int monthsAhead) {
+        try (Connection conn = DbConnection.getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            if (isPartitioned()) {
+                System.out.println("Archive log is already partitioned.");
+                return true;
+            }
+
+            YearMonth first = YearMonth.now();
+            try (ResultSet rs = stmt.executeQuery("SELECT MIN(operation_date) FROM " + TABLE)) {
+                if (rs.next() && rs.getTimestamp(1) != null) {
+                    first = YearMonth.from(rs.getTimestamp(1).toLocalDateTime());
+                }
+            }
+            YearMonth last = YearMonth.now().plusMonths(monthsAhead);
+
+            StringBuilder partitions = new StringBuilder();
+            for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+                partitions.append(partitionDefinition(month)).append(", ");
+            }
+            partitions.append("PARTITION ").append(FUTURE_PARTITION).append(" VALUES LESS THAN (MAXVALUE)");
+
+            stmt.executeUpdate("UPDATE " + TABLE + " SET operation_date = NOW() WHERE operation_date IS NULL");
+            stmt.executeUpdate("ALTER TABLE " + TABLE + " MODIFY operation_date DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP, " +
+                               "DROP PRIMARY KEY, ADD PRIMARY KEY (log_id, operation_date)");
+            stmt.executeUpdate("ALTER TABLE " + TABLE + " PARTITION BY RANGE COLUMNS (operation_date) (" + partitions + ")");
+            return true;
+
+        } catch (SQLException e) {
+            System.err.println("Error partitioning archive log: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Splits p_future so that monthly partitions exist up to the given number of months ahead
+     * Splitting an empty p_future is cheap, which is why this runs before any row lands there
+     * @param monthsAhead Number of future months that must have their own partition
+     * @return number of partitions created
+     * @throws SQLException if database access error occurs
+     */
+    public int ensureFuturePartitions(int monthsAhead) throws SQLException {
+        YearMonth lastExisting = null;
+        for (String name : getPartitionNames()) {
+            YearMonth month = monthOf(name);
+            if (month != null && (lastExisting == null || month.isAfter(lastExisting))) {
+                lastExisting = month;
+            }
+        }
+
+        YearMonth target = YearMonth.now().plusMonths(monthsAhead);
+        YearMonth next = lastExisting != null ? lastExisting.plusMonths(1) : YearMonth.now();
+        if (next.isAfter(target)) {
+            return 0;
+        }
+
+        StringBuilder partitions = new StringBuilder();
+        int created = 0;
+        for (YearMonth month = next; !month.isAfter(target); month = month.plusMonths(1)) {
+            partitions.append(partitionDefinition(month)).append(", ");
+            created++;
+        }
+        partitions.append("PARTITION ").append(FUTURE_PARTITION).append(" VALUES LESS THAN (MAXVALUE)");
+
+        try (Connection conn = DbConnection.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("ALTER TABLE " + TABLE + " REORGANIZE PARTITION " + FUTURE_PARTITION + " INTO (" + partitions + ")");
+        }
+        return created;
+    }
+
+    /**
+     * Removes log entries older than the given number of days
+     * Partitioned: drops every monthly partition that ends before the cutoff, then deletes the
+     * few older rows left in the partition that contains the cutoff. Not partitioned: deletes
+     * in batches of DELETE_BATCH_SIZE with DELETE_PAUSE_MILLIS between them.
+     * @param daysToKeep Number of days to keep log entries
+     * @return result of the retention run
+     */
+    public RetentionResult enforceRetention(int daysToKeep) {
+        LocalDateTime cutoff = LocalDate.now().minusDays(daysToKeep).atStartOfDay();
+        RetentionResult result = new RetentionResult();
+
+        try {
+            List<String> partitionNames = getPartitionNames();
+            result.partitioned = !partitionNames.isEmpty();
+
+            if (result.partitioned) {
+                result.partitionsCreated = ensureFuturePartitions(DEFAULT_MONTHS_AHEAD);
+
+                List<String> expired = new ArrayList<>();
+                for (String name : partitionNames) {
+                    YearMonth month = monthOf(name);
+                    // A partition holds rows below the first day of the following month
+                    if (month != null && !month.plusMonths(1).atDay(1).atStartOfDay().isAfter(cutoff)) {
+                        expired.add(name);
+                    }
+                }
+                if (!expired.isEmpty()) {
+                    dropPartitions(expired, result);
+                }
+            }
+
+            deleteInBatches(Timestamp.valueOf(cutoff), result);
+
+        } catch (SQLException e) {
+            System.err.println("Error enforcing archive log retention: " + e.getMessage());
+            result.errorMessage = e.getMessage();
+        }
+
+        return result;
+    }
+
+    private void dropPartitions(List<String> names, RetentionResult result) throws SQLException {
+        String list = String.join(", ", names);
+
+        try (Connection conn = DbConnection.getConnection();
+             Statement stmt = conn.createStatement()) {
+            // Exact row counts for the report; each count is pruned to its own partition
+            try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM " + TABLE + " PARTITION (" + list + ")")) {
+                if (rs.next()) {
+                    result.rowsInDroppedPartitions = rs.getLong(1);
+                }
+            }
+            stmt.executeUpdate("ALTER TABLE " + TABLE + " DROP PARTITION " + list);
+            result.partitionsDropped = names.size();
+        }
+    }
+
+    private void deleteInBatches(Timestamp cutoff, RetentionResult result) throws SQLException {
+        String sql = "DELETE FROM " + TABLE + " WHERE operation_date < ? ORDER BY operation_date LIMIT ?";
+
+        while (true) {
+            int deleted;
+            try (Connection conn = DbConnection.getConnection();
+                 PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
+                pstmt.setTimestamp(1, cutoff);
+                pstmt.setInt(2, DELETE_BATCH_SIZE);
+                deleted = pstmt.executeUpdate();
+            }
+
+            if (deleted == 0) {
+                return;
+            }
+            result.rowsDeleted += deleted;
+            result.deleteBatches++;
+            if (deleted < DELETE_BATCH_SIZE) {
+                return;
+            }
+
+            try {
+                Thread.sleep(DELETE_PAUSE_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static String partitionDefinition(YearMonth month) {
+        return "PARTITION " + month.format(PARTITION_NAME) + " VALUES LESS THAN ('" + month.plusMonths(1).atDay(1) + "')";
+    }
+
+    /**
+     * Parses the month of a pYYYYMM partition name
+     * @return month, or null for p_future and unrecognised names
+     */
+    private static YearMonth monthOf(String partitionName) {
+        if (partitionName == null || !partitionName.matches("p\\d{6}")) {
+            return null;
+        }
+        return YearMonth.of(Integer.parseInt(partitionName.substring(1, 5)), Integer.parseInt(partitionName.substring(5)));
+    }
+
+    /**
+     * Inner class to represent the outcome of a retention run
+     */
+    public static class RetentionResult {
+        private boolean partitioned;
+        private int partitionsCreated;
+        private int partitionsDropped;
+        private long rowsInDroppedPartitions;
+        private long rowsDeleted;
+        private int deleteBatches;
+        private String errorMessage;
+
+        // Getters
+        public boolean isPartitioned() { return partitioned; }
+        public int getPartitionsCreated() { return partitionsCreated; }
+        public int getPartitionsDropped() { return partitionsDropped; }
+        public long getRowsInDroppedPartitions() { return rowsInDroppedPartitions; }
+        public long getRowsDeleted() { return rowsDeleted; }
+        public int getDeleteBatches() { return deleteBatches; }
+        public String getErrorMessage() { return errorMessage; }
+
+        /**
+         * Gets the number of log entries removed by dropped partitions and deletes together
+         * @return total entries removed
+         */
+        public long getTotalRemoved() { return rowsInDroppedPartitions + rowsDeleted; }
+    }
+}
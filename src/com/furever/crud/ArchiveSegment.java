@@ -0,0 +1,453 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.furever.crud;
+
+/**
+ *
+ * @author jerimiahtongco
+ */
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Immutable, compressed, column-oriented file holding archive rows moved to cold storage
+ *
+ * Layout:
+ *   row groups   for each group, one deflated block per column
+ *   footer       table name, column names, key columns, row count and the sparse index
+ *   trailer      footer offset (long) and MAGIC (int)
+ *
+ * Rows are written in primary key order and split into groups of ROW_GROUP_SIZE rows. The
+ * sparse index keeps one entry per group (first/last key, oldest/newest archived_date and
+ * the block offsets), so a key lookup inflates only the key block of one group and then the
+ * other blocks of that group. Values are stored as nullable UTF-8 strings; a column block
+ * holds all value lengths first and then the bytes, which compresses well for the repeated
+ * enum and date values of archive tables.
+ *
+ * Segments are read through a read-only memory mapping and never modified; rows restored
+ * from a segment are hidden by ArchiveColdStorage with a tombstone file.
+ */
+final class ArchiveSegment {
+
+    static final int MAGIC = 0x46465347; // "FFSG"
+    static final int VERSION = 1;
+    static final int ROW_GROUP_SIZE = 1000;
+
+    /** Group date in the sparse index when no row of the group has an archived_date */
+    static final long NO_DATE = Long.MIN_VALUE;
+
+    private static final int NULL_LENGTH = -1;
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final String tableName;
+    private final String[] columns;
+    private final int keyColumn;
+    private final int dateColumn;
+    private final int rowCount;
+    private final GroupIndex[] groups;
+
+    private ArchiveSegment(Path path, MappedByteBuffer buffer) throws IOException {
+        this.path = path;
+        this.buffer = buffer;
+
+        ByteBuffer view = buffer.duplicate();
+        if (view.capacity() < 12 || view.getInt(view.capacity() - 4) != MAGIC) {
+            throw new IOException("Not an archive segment: " + path);
+        }
+        view.position((int) view.getLong(view.capacity() - 12));
+
+        if (view.getInt() != VERSION) {
+            throw new IOException("Unsupported archive segment version: " + path);
+        }
+        tableName = readString(view);
+        columns = new String[view.getInt()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = readString(view);
+        }
+        keyColumn = view.getInt();
+        dateColumn = view.getInt();
+        rowCount = view.getInt();
+
+        groups = new GroupIndex[view.getInt()];
+        for (int g = 0; g < groups.length; g++) {
+            GroupIndex group = new GroupIndex();
+            group.firstKey = view.getInt();
+            group.lastKey = view.getInt();
+            group.oldestDate = view.getLong();
+            group.newestDate = view.getLong();
+            group.rows = view.getInt();
+            group.blockOffsets = new long[columns.length];
+            for (int c = 0; c < columns.length; c++) {
+                group.blockOffsets[c] = view.getLong();
+            }
+            groups[g] = group;
+        }
+    }
+
+    /**
+     * Maps a segment file and reads its footer
+     * @param path Segment file
+     * @return opened segment
+     * @throws IOException if the file cannot be read or is not a segment
+     */
+    static ArchiveSegment open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return new ArchiveSegment(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Writes rows to a new segment file and forces it to disk
+     * @param path File to create
+     * @param tableName Archive table the rows come from
+     * @param columns Column names in row order
+     * @param keyColumn Index of the integer primary key column
+     * @param dateColumn Index of archived_date
+     * @param rows Rows sorted by primary key
+     * @throws IOException if the file cannot be written
+     */
+    static void write(Path path, String tableName, String[] columns, int keyColumn, int dateColumn,
+                      List<String[]> rows) throws IOException {
+        ByteArrayOutputStream footerBytes = new ByteArrayOutputStream();
+        DataOutputStream footer = new DataOutputStream(footerBytes);
+        footer.writeInt(VERSION);
+        writeString(footer, tableName);
+        footer.writeInt(columns.length);
+        for (String column : columns) {
+            writeString(footer, column);
+        }
+        footer.writeInt(keyColumn);
+        footer.writeInt(dateColumn);
+        footer.writeInt(rows.size());
+        footer.writeInt((rows.size() + ROW_GROUP_SIZE - 1) / ROW_GROUP_SIZE);
+
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            long offset = 0;
+            for (int start = 0; start < rows.size(); start += ROW_GROUP_SIZE) {
+                List<String[]> group = rows.subList(start, Math.min(start + ROW_GROUP_SIZE, rows.size()));
+
+                long oldest = NO_DATE;
+                long newest = NO_DATE;
+                for (String[] row : group) {
+                    long date = dateMillis(row[dateColumn]);
+                    if (date != NO_DATE) {
+                        oldest = oldest == NO_DATE ? date : Math.min(oldest, date);
+                        newest = Math.max(newest, date);
+                    }
+                }
+                footer.writeInt(Integer.parseInt(group.get(0)[keyColumn]));
+                footer.writeInt(Integer.parseInt(group.get(group.size() - 1)[keyColumn]));
+                footer.writeLong(oldest);
+                footer.writeLong(newest);
+                footer.writeInt(group.size());
+
+                for (int c = 0; c < columns.length; c++) {
+                    footer.writeLong(offset);
+                    ByteBuffer block = compress(encodeColumn(group, c), deflater);
+                    offset += block.remaining();
+                    writeFully(channel, block);
+                }
+            }
+
+            footer.flush();
+            ByteBuffer tail = ByteBuffer.allocate(footerBytes.size() + 12);
+            tail.put(footerBytes.toByteArray()).putLong(offset).putInt(MAGIC).flip();
+            writeFully(channel, tail);
+            channel.force(true);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Finds a row by primary key
+     * @param key Primary key value
+     * @return column values, or null if the segment does not hold the key
+     */
+    String[] find(int key) {
+        int low = 0;
+        int high = groups.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            GroupIndex group = groups[mid];
+            if (key < group.firstKey) {
+                high = mid - 1;
+            } else if (key > group.lastKey) {
+                low = mid + 1;
+            } else {
+                String[] keys = readColumn(mid, keyColumn);
+                for (int r = 0; r < keys.length; r++) {
+                    if (Integer.parseInt(keys[r]) == key) {
+                        String[] row = new String[columns.length];
+                        for (int c = 0; c < columns.length; c++) {
+                            row[c] = c == keyColumn ? keys[r] : readColumn(mid, c)[r];
+                        }
+                        return row;
+                    }
+                }
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads every row of the segment
+     * @return rows in primary key order
+     */
+    List<String[]> readAll() {
+        List<String[]> rows = new ArrayList<>(rowCount);
+        for (int g = 0; g < groups.length; g++) {
+            rows.addAll(readGroup(g));
+        }
+        return rows;
+    }
+
+    /**
+     * Reads every row of one row group
+     * @param groupIndex Row group, from 0 to getGroupCount() - 1
+     * @return rows in primary key order
+     */
+    List<String[]> readGroup(int groupIndex) {
+        String[][] blocks = new String[columns.length][];
+        for (int c = 0; c < columns.length; c++) {
+            blocks[c] = readColumn(groupIndex, c);
+        }
+        List<String[]> rows = new ArrayList<>(groups[groupIndex].rows);
+        for (int r = 0; r < groups[groupIndex].rows; r++) {
+            String[] row = new String[columns.length];
+            for (int c = 0; c < columns.length; c++) {
+                row[c] = blocks[c][r];
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    /**
+     * Reads the rows whose value in one column is among the given values
+     * Only the filter column is inflated for groups without a match
+     * @param column Index of the filter column
+     * @param values Accepted values
+     * @return matching rows in primary key order
+     */
+    List<String[]> readWhere(int column, Set<String> values) {
+        List<String[]> rows = new ArrayList<>();
+        for (int g = 0; g < groups.length; g++) {
+            String[] filter = readColumn(g, column);
+            String[][] blocks = null;
+            for (int r = 0; r < filter.length; r++) {
+                if (filter[r] == null || !values.contains(filter[r])) {
+                    continue;
+                }
+                if (blocks == null) {
+                    blocks = new String[columns.length][];
+                    for (int c = 0; c < columns.length; c++) {
+                        blocks[c] = c == column ? filter : readColumn(g, c);
+                    }
+                }
+                String[] row = new String[columns.length];
+                for (int c = 0; c < columns.length; c++) {
+                    row[c] = blocks[c][r];
+                }
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Inflates one column block of one row group from the mapping
+     */
+    private String[] readColumn(int groupIndex, int column) {
+        GroupIndex group = groups[groupIndex];
+        ByteBuffer block = buffer.duplicate();
+        block.position((int) group.blockOffsets[column]);
+        int rawLength = block.getInt();
+        int compressedLength = block.getInt();
+        block.limit(block.position() + compressedLength);
+
+        ByteBuffer raw = ByteBuffer.allocate(rawLength);
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(block);
+            while (!inflater.finished() && raw.hasRemaining()) {
+                if (inflater.inflate(raw) == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt block in " + path + ": " + e.getMessage(), e);
+        } finally {
+            inflater.end();
+        }
+        raw.flip();
+
+        String[] values = new String[group.rows];
+        int[] lengths = new int[group.rows];
+        for (int r = 0; r < group.rows; r++) {
+            lengths[r] = raw.getInt();
+        }
+        for (int r = 0; r < group.rows; r++) {
+            if (lengths[r] != NULL_LENGTH) {
+                byte[] bytes = new byte[lengths[r]];
+                raw.get(bytes);
+                values[r] = new String(bytes, StandardCharsets.UTF_8);
+            }
+        }
+        return values;
+    }
+
+    private static byte[] encodeColumn(List<String[]> group, int column) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(group.size() * 16);
+        DataOutputStream out = new DataOutputStream(bytes);
+        byte[][] encoded = new byte[group.size()][];
+        for (int r = 0; r < group.size(); r++) {
+            String value = group.get(r)[column];
+            encoded[r] = value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+            out.writeInt(encoded[r] != null ? encoded[r].length : NULL_LENGTH);
+        }
+        for (byte[] value : encoded) {
+            if (value != null) {
+                out.write(value);
+            }
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static ByteBuffer compress(byte[] raw, Deflater deflater) {
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(raw.length / 4 + 64);
+        byte[] chunk = new byte[8192];
+        while (!deflater.finished()) {
+            int length = deflater.deflate(chunk);
+            compressed.write(chunk, 0, length);
+        }
+
+        ByteBuffer block = ByteBuffer.allocate(compressed.size() + 8);
+        block.putInt(raw.length).putInt(compressed.size()).put(compressed.toByteArray()).flip();
+        return block;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer view) {
+        byte[] bytes = new byte[view.getInt()];
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long dateMillis(String value) {
+        if (value == null) {
+            return NO_DATE;
+        }
+        try {
+            return Timestamp.valueOf(value).getTime();
+        } catch (IllegalArgumentException e) {
+            return NO_DATE;
+        }
+    }
+
+    // Getters
+    Path getPath() { return path; }
+    String getTableName() { return tableName; }
+    String[] getColumns() { return columns.clone(); }
+    int getKeyColumn() { return keyColumn; }
+    int getRowCount() { return rowCount; }
+    int getGroupCount() { return groups.length; }
+    long getGroupOldestMillis(int groupIndex) { return groups[groupIndex].oldestDate; }
+    long getGroupNewestMillis(int groupIndex) { return groups[groupIndex].newestDate; }
+
+    /**
+     * Gets the position of a column
+     * @param name Column name
+     * @return column index, or -1 if the segment has no such column
+     */
+    int columnIndex(String name) {
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i].equalsIgnoreCase(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the oldest archived_date in the segment from the sparse index
+     * @return oldest archive time, or null if no row has one
+     */
+    Timestamp getOldestDate() {
+        long oldest = NO_DATE;
+        for (GroupIndex group : groups) {
+            if (group.oldestDate != NO_DATE) {
+                oldest = oldest == NO_DATE ? group.oldestDate : Math.min(oldest, group.oldestDate);
+            }
+        }
+        return oldest == NO_DATE ? null : new Timestamp(oldest);
+    }
+
+    /**
+     * Gets the newest archived_date in the segment from the sparse index
+     * @return newest archive time, or null if no row has one
+     */
+    Timestamp getNewestDate() {
+        long newest = NO_DATE;
+        for (GroupIndex group : groups) {
+            newest = Math.max(newest, group.newestDate);
+        }
+        return newest == NO_DATE ? null : new Timestamp(newest);
+    }
+
+    /**
+     * Checks whether the sparse index allows the key to be in this segment
+     * @param key Primary key value
+     * @return false if the key is certainly not in the segment
+     */
+    boolean mayContain(int key) {
+        return groups.length > 0 && key >= groups[0].firstKey && key <= groups[groups.length - 1].lastKey;
+    }
+
+    /**
+     * Sparse index entry of one row group
+     */
+    private static class GroupIndex {
+        private int firstKey;
+        private int lastKey;
+        private long oldestDate;
+        private long newestDate;
+        private int rows;
+        private long[] blockOffsets;
+    }
+}
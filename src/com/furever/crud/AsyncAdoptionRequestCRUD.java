@@ -0,0 +1,99 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.furever.crud;
+
+/**
+ *
+ * @author jerimiahtongco
+ */
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import com.furever.models.AdoptionRequest;
+
+/**
+ * Asynchronous variants of the AdoptionRequestCRUD reads
+ * Each method starts the read on a virtual thread and returns at once; see AsyncCRUD for
+ * timeouts and cancellation. Approvals and other writes stay synchronous on AdoptionRequestCRUD.
+ */
+public class AsyncAdoptionRequestCRUD {
+    
+    private final AdoptionRequestCRUD adoptionRequestCRUD;
+    private final long timeoutMillis;
+    
+    public AsyncAdoptionRequestCRUD() {
+        this(new AdoptionRequestCRUD(), AsyncCRUD.DEFAULT_TIMEOUT_MS);
+    }
+    
+    /**
+     * Creates a facade over an existing AdoptionRequestCRUD
+     * @param adoptionRequestCRUD CRUD object the reads are delegated to
+     * @param timeoutMillis Timeout of each read, or 0 for none
+     */
+    public AsyncAdoptionRequestCRUD(AdoptionRequestCRUD adoptionRequestCRUD, long timeoutMillis) {
+        this.adoptionRequestCRUD = adoptionRequestCRUD;
+        this.timeoutMillis = timeoutMillis;
+    }
+    
+    public CompletableFuture<AdoptionRequest> getAdoptionRequestById(int requestId) {
+        return AsyncCRUD.supply(() -> adoptionRequestCRUD.getAdoptionRequestById(requestId), timeoutMillis);
+    }
+    
+    public CompletableFuture<List<AdoptionRequest>> getAllAdoptionRequests() {
+        return AsyncCRUD.supply(adoptionRequestCRUD::getAllAdoptionRequests, timeoutMillis);
+    }
+    
+    public CompletableFuture<List<AdoptionRequest>> getAdoptionRequestsByStatus(String status) {
+        return AsyncCRUD.supply(() -> adoptionRequestCRUD.getAdoptionRequestsByStatus(status), timeoutMillis);
+    }
+    
+    public CompletableFuture<List<AdoptionRequest>> getAdoptionRequestsByAdopter(int adopterId) {
+        return AsyncCRUD.supply(() -> adoptionRequestCRUD.getAdoptionRequestsByAdopter(adopterId), timeoutMillis);
+    }
+    
+    public CompletableFuture<List<AdoptionRequest>> getAdoptionRequestsByPet(int petId) {
+        return AsyncCRUD.supply(() -> adoptionRequestCRUD.getAdoptionRequestsByPet(petId), timeoutMillis);
+    }
+    
+    public CompletableFuture<Boolean> hasApprovedRequestForPet(int adopterId, int petId) {
+        return AsyncCRUD.supply(() -> adoptionRequestCRUD.hasApprovedRequestForPet(adopterId, petId), timeoutMillis);
+    }
+    
+    public CompletableFuture<Integer> getAdoptionRequestCount() {
+        return AsyncCRUD.supply(adoptionRequestCRUD::getAdoptionRequestCount, timeoutMillis);
+    }
+    
+    public CompletableFuture<Integer> getAdoptionRequestCountByStatus(String status) {
+        return AsyncCRUD.supply(() -> adoptionRequestCRUD.getAdoptionRequestCountByStatus(status), timeoutMillis);
+    }
+    
+    public CompletableFuture<Page<AdoptionRequest>> getAdoptionRequestsPage(PageCursor after, int pageSize) {
+        return AsyncCRUD.supply(() -> adoptionRequestCRUD.getAdoptionRequestsPage(after, pageSize), timeoutMillis);
+    }
+    
+    public CompletableFuture<List<AdoptionRequestCRUD.RequestListing>> getRequestListingsByStatus(String status) {
+        return AsyncCRUD.supply(() -> adoptionRequestCRUD.getRequestListingsByStatus(status), timeoutMillis);
+    }
+    
+    public CompletableFuture<List<AdoptionRequestCRUD.RequestListing>> getRequestListingsByAdopter(int adopterId) {
+        return AsyncCRUD.supply(() -> adoptionRequestCRUD.getRequestListingsByAdopter(adopterId), timeoutMillis);
+    }
+    
+    public CompletableFuture<List<AdoptionRequestCRUD.RequestListing>> getRequestListingsByPet(int petId) {
+        return AsyncCRUD.supply(() -> adoptionRequestCRUD.getRequestListingsByPet(petId), timeoutMillis);
+    }
+    
+    public CompletableFuture<Page<AdoptionRequestCRUD.RequestListing>> getRequestListingsPage(PageCursor after, int pageSize) {
+        return AsyncCRUD.supply(() -> adoptionRequestCRUD.getRequestListingsPage(after, pageSize), timeoutMillis);
+    }
+    
+    public CompletableFuture<Page<AdoptionRequest>> getArchivedAdoptionRequestsPage(PageCursor after, int pageSize) {
+        return AsyncCRUD.supply(() -> adoptionRequestCRUD.getArchivedAdoptionRequestsPage(after, pageSize), timeoutMillis);
+    }
+    
+    public CompletableFuture<List<AdoptionRequest>> getArchivedAdoptionRequestsByAdopter(int adopterId) {
+        return AsyncCRUD.supply(() -> adoptionRequestCRUD.getArchivedAdoptionRequestsByAdopter(adopterId), timeoutMillis);
+    }
+}
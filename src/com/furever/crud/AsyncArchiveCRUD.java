@@ -0,0 +1,54 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.furever.crud;
+
+/**
+ *
+ * @author jerimiahtongco
+ */
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous variants of the ArchiveCRUD reads
+ * Each method starts the read on a virtual thread and returns at once; see AsyncCRUD for
+ * timeouts and cancellation. Archiving, restoring and log cleanup stay synchronous on ArchiveCRUD.
+ */
+public class AsyncArchiveCRUD {
+    
+    private final ArchiveCRUD archiveCRUD;
+    private final long timeoutMillis;
+    
+    public AsyncArchiveCRUD() {
+        this(new ArchiveCRUD(), AsyncCRUD.DEFAULT_TIMEOUT_MS);
+    }
+    
+    /**
+     * Creates a facade over an existing ArchiveCRUD
+     * @param archiveCRUD CRUD object the reads are delegated to
+     * @param timeoutMillis Timeout of each read, or 0 for none
+     */
+    public AsyncArchiveCRUD(ArchiveCRUD archiveCRUD, long timeoutMillis) {
+        this.archiveCRUD = archiveCRUD;
+        this.timeoutMillis = timeoutMillis;
+    }
+    
+    public CompletableFuture<Map<String, Integer>> getArchiveStatistics() {
+        return AsyncCRUD.supply(archiveCRUD::getArchiveStatistics, timeoutMillis);
+    }
+    
+    public CompletableFuture<List<ArchiveCRUD.ArchiveSummary>> getArchiveSummary() {
+        return AsyncCRUD.supply(archiveCRUD::getArchiveSummary, timeoutMillis);
+    }
+    
+    public CompletableFuture<List<ArchiveCRUD.ArchiveLogEntry>> getRecentArchiveOperations(int limit) {
+        return AsyncCRUD.supply(() -> archiveCRUD.getRecentArchiveOperations(limit), timeoutMillis);
+    }
+    
+    public CompletableFuture<List<ArchiveCRUD.ArchiveLogEntry>> getArchiveOperationsByTable(String tableName, int limit) {
+        return AsyncCRUD.supply(() -> archiveCRUD.getArchiveOperationsByTable(tableName, limit), timeoutMillis);
+    }
+}
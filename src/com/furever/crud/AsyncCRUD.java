@@ -0,0 +1,150 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.furever.crud;
+
+/**
+ *
+ * @author jerimiahtongco
+ */
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import com.furever.database.DbConnection;
+
+/**
+ * Runs CRUD calls on virtual threads and returns them as CompletableFutures
+ * Used by the Async*CRUD facades so that a screen can start all of its independent queries
+ * at once and wait only as long as the slowest one. Every call takes its connection from the
+ * shared pool, so a burst of calls waits for free connections instead of opening more.
+ *
+ * Cancelling a returned future, or letting it time out, interrupts the thread running the
+ * call: a call still waiting for a pooled connection gives up at once, and a query already
+ * sent has its socket closed, which discards that connection from the pool.
+ * Calls run with the read consistency of the thread that started them.
+ */
+public final class AsyncCRUD {
+
+    /** Default time a call may take, including the wait for a pooled connection */
+    public static final long DEFAULT_TIMEOUT_MS = Long.getLong("furever.async.timeoutMs", 15_000L);
+
+    private static final ExecutorService EXECUTOR =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("furever-async-", 0).factory());
+
+    private AsyncCRUD() {}
+
+    /**
+     * Runs a call asynchronously with the default timeout
+     * @param call CRUD call to run
+     * @return future completed with the call's result
+     */
+    public static <T> CompletableFuture<T> supply(Supplier<T> call) {
+        return supply(call, DEFAULT_TIMEOUT_MS);
+    }
+
+    /**
+     * Runs a call asynchronously
+     * @param call CRUD call to run
+     * @param timeoutMillis Time after which the future fails with a TimeoutException and the
+     *                      call is interrupted, or 0 for no timeout
+     * @return future completed with the call's result
+     */
+    public static <T> CompletableFuture<T> supply(Supplier<T> call, long timeoutMillis) {
+        DbConnection.ReadConsistency consistency = DbConnection.getReadConsistency();
+        CompletableFuture<T> result = new CompletableFuture<>();
+
+        Future<?> task = EXECUTOR.submit(() -> {
+            try {
+                result.complete(DbConnection.withReadConsistency(consistency, call::get));
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+
+        // Cancellation and timeouts complete the future first; stop the call behind it
+        result.whenComplete((value, error) -> {
+            if (error != null) {
+                task.cancel(true);
+            }
+        });
+        if (timeoutMillis > 0) {
+            result.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+        }
+        return result;
+    }
+
+    /**
+     * Waits for every future to complete
+     * As soon as one fails, times out or is cancelled, the others are cancelled as well, so
+     * a screen never waits for results it can no longer show.
+     * @param futures Futures to wait for
+     * @throws CancellationException if a future was cancelled
+     * @throws IllegalStateException if a call timed out
+     * @throws RuntimeException the failure of the first call that failed
+     */
+    public static void awaitAll(CompletableFuture<?>... futures) {
+        AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+        for (CompletableFuture<?> future : futures) {
+            future.whenComplete((value, error) -> {
+                if (error != null && firstFailure.compareAndSet(null, error)) {
+                    cancelAll(futures);
+                }
+            });
+        }
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException | CancellationException e) {
+            Throwable failure = firstFailure.get();
+            throw unwrap(failure != null ? failure : e);
+        }
+    }
+
+    /**
+     * Waits for one future and returns its result
+     * @param future Future to wait for
+     * @return the call's result
+     * @throws CancellationException if the future was cancelled
+     * @throws IllegalStateException if the call timed out
+     * @throws RuntimeException the call's own failure
+     */
+    public static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    /**
+     * Cancels every future that has not completed yet
+     * @param futures Futures to cancel
+     */
+    public static void cancelAll(CompletableFuture<?>... futures) {
+        for (CompletableFuture<?> future : futures) {
+            future.cancel(true);
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable failure) {
+        Throwable cause = failure;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof TimeoutException) {
+            return new IllegalStateException("The database did not respond in time.", cause);
+        }
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        return new CompletionException(cause);
+    }
+}
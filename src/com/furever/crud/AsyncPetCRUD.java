@@ -0,0 +1,92 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.furever.crud;
+
+/**
+ *
+ * @author jerimiahtongco
+ */
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import com.furever.models.Pet;
+
+/**
+ * Asynchronous variants of the PetCRUD reads
+ * Each method starts the read on a virtual thread and returns at once; see AsyncCRUD for
+ * timeouts and cancellation. Writes stay synchronous on PetCRUD, since interrupting a write
+ * half way would leave the caller unsure whether it happened.
+ */
+public class AsyncPetCRUD {
+    
+    private final PetCRUD petCRUD;
+    private final long timeoutMillis;
+    
+    public AsyncPetCRUD() {
+        this(new PetCRUD(), AsyncCRUD.DEFAULT_TIMEOUT_MS);
+    }
+    
+    /**
+     * Creates a facade over an existing PetCRUD
+     * @param petCRUD CRUD object the reads are delegated to
+     * @param timeoutMillis Timeout of each read, or 0 for none
+     */
+    public AsyncPetCRUD(PetCRUD petCRUD, long timeoutMillis) {
+        this.petCRUD = petCRUD;
+        this.timeoutMillis = timeoutMillis;
+    }
+    
+    public CompletableFuture<Pet> getPetById(int petId) {
+        return AsyncCRUD.supply(() -> petCRUD.getPetById(petId), timeoutMillis);
+    }
+    
+    public CompletableFuture<List<Pet>> getAllPets() {
+        return AsyncCRUD.supply(petCRUD::getAllPets, timeoutMillis);
+    }
+    
+    public CompletableFuture<List<Pet>> getActivePets() {
+        return AsyncCRUD.supply(petCRUD::getActivePets, timeoutMillis);
+    }
+    
+    public CompletableFuture<List<Pet>> getPetsByAdoptionStatus(String status) {
+        return AsyncCRUD.supply(() -> petCRUD.getPetsByAdoptionStatus(status), timeoutMillis);
+    }
+    
+    public CompletableFuture<List<Pet>> getPetsByType(int petTypeId) {
+        return AsyncCRUD.supply(() -> petCRUD.getPetsByType(petTypeId), timeoutMillis);
+    }
+    
+    public CompletableFuture<List<Pet>> getPetsByOwner(int ownerId) {
+        return AsyncCRUD.supply(() -> petCRUD.getPetsByOwner(ownerId), timeoutMillis);
+    }
+    
+    public CompletableFuture<List<Pet>> searchPetsByName(String searchTerm) {
+        return AsyncCRUD.supply(() -> petCRUD.searchPetsByName(searchTerm), timeoutMillis);
+    }
+    
+    public CompletableFuture<Integer> getPetCount() {
+        return AsyncCRUD.supply(petCRUD::getPetCount, timeoutMillis);
+    }
+    
+    public CompletableFuture<Integer> getPetCountByStatus(String status) {
+        return AsyncCRUD.supply(() -> petCRUD.getPetCountByStatus(status), timeoutMillis);
+    }
+    
+    public CompletableFuture<Page<Pet>> getPetsPage(PageCursor after, int pageSize) {
+        return AsyncCRUD.supply(() -> petCRUD.getPetsPage(after, pageSize), timeoutMillis);
+    }
+    
+    public CompletableFuture<Page<Pet>> getPetsByAdoptionStatusPage(String status, PageCursor after, int pageSize) {
+        return AsyncCRUD.supply(() -> petCRUD.getPetsByAdoptionStatusPage(status, after, pageSize), timeoutMillis);
+    }
+    
+    public CompletableFuture<Page<Pet>> getArchivedPetsPage(PageCursor after, int pageSize) {
+        return AsyncCRUD.supply(() -> petCRUD.getArchivedPetsPage(after, pageSize), timeoutMillis);
+    }
+    
+    public CompletableFuture<List<Pet>> getArchivedPetsByOwner(int petOwnerId) {
+        return AsyncCRUD.supply(() -> petCRUD.getArchivedPetsByOwner(petOwnerId), timeoutMillis);
+    }
+}
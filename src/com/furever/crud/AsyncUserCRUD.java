@@ -0,0 +1,75 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.furever.crud;
+
+/**
+ *
+ * @author jerimiahtongco
+ */
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import com.furever.models.User;
+
+/**
+ * Asynchronous variants of the UserCRUD reads
+ * Each method starts the read on a virtual thread and returns at once; see AsyncCRUD for
+ * timeouts and cancellation. Authentication and writes stay synchronous on UserCRUD.
+ */
+public class AsyncUserCRUD {
+    
+    private final UserCRUD userCRUD;
+    private final long timeoutMillis;
+    
+    public AsyncUserCRUD() {
+        this(new UserCRUD(), AsyncCRUD.DEFAULT_TIMEOUT_MS);
+    }
+    
+    /**
+     * Creates a facade over an existing UserCRUD
+     * @param userCRUD CRUD object the reads are delegated to
+     * @param timeoutMillis Timeout of each read, or 0 for none
+     */
+    public AsyncUserCRUD(UserCRUD userCRUD, long timeoutMillis) {
+        this.userCRUD = userCRUD;
+        this.timeoutMillis = timeoutMillis;
+    }
+    
+    public CompletableFuture<User> getUserById(int userId) {
+        return AsyncCRUD.supply(() -> userCRUD.getUserById(userId), timeoutMillis);
+    }
+    
+    public CompletableFuture<User> getUserByUsername(String username) {
+        return AsyncCRUD.supply(() -> userCRUD.getUserByUsername(username), timeoutMillis);
+    }
+    
+    public CompletableFuture<List<User>> searchUsersByUsername(String usernamePattern) {
+        return AsyncCRUD.supply(() -> userCRUD.searchUsersByUsername(usernamePattern), timeoutMillis);
+    }
+    
+    public CompletableFuture<List<User>> getAllUsers() {
+        return AsyncCRUD.supply(userCRUD::getAllUsers, timeoutMillis);
+    }
+    
+    public CompletableFuture<Integer> getUserCount() {
+        return AsyncCRUD.supply(userCRUD::getUserCount, timeoutMillis);
+    }
+    
+    public CompletableFuture<Integer> getUserCountByRole(String role) {
+        return AsyncCRUD.supply(() -> userCRUD.getUserCountByRole(role), timeoutMillis);
+    }
+    
+    public CompletableFuture<Page<User>> getUsersPage(PageCursor after, int pageSize) {
+        return AsyncCRUD.supply(() -> userCRUD.getUsersPage(after, pageSize), timeoutMillis);
+    }
+    
+    public CompletableFuture<Page<User>> getArchivedUsersPage(PageCursor after, int pageSize) {
+        return AsyncCRUD.supply(() -> userCRUD.getArchivedUsersPage(after, pageSize), timeoutMillis);
+    }
+    
+    public CompletableFuture<List<User>> getAllArchivedUsers() {
+        return AsyncCRUD.supply(userCRUD::getAllArchivedUsers, timeoutMillis);
+    }
+}
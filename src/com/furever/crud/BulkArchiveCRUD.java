@@ -0,0 +1,438 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.furever.crud;
+
+/**
+ *
+ * @author jerimiahtongco
+ */
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import com.furever.database.DbConnection;
+
+/**
+ * Set-based bulk archival for the auto-archive jobs
+ * Moves rows into the *_archive tables with INSERT ... SELECT and DELETE ... JOIN,
+ * one bounded chunk per transaction, so large jobs never hold locks for long
+ */
+public class BulkArchiveCRUD {
+
+    public static final int DEFAULT_CHUNK_SIZE = 500;
+    public static final long DEFAULT_PAUSE_MILLIS = 50;
+
+    private static final String COMPLETED_REQUESTS_REASON = "Auto-archived: Completed request older than 30 days";
+    private static final String ADOPTED_PETS_REASON = "Auto-archived: Pet adopted over 60 days ago";
+
+    /**
+     * Archives adoption requests with status "Approved" or "Rejected" older than 30 days
+     * @param archivedByUserId ID of the user performing the archive operation
+     * @return result of the bulk archive run
+     */
+    public BulkArchiveResult archiveCompletedAdoptionRequests(Integer archivedByUserId) {
+        return archiveCompletedAdoptionRequests(archivedByUserId, 0, DEFAULT_CHUNK_SIZE, DEFAULT_PAUSE_MILLIS);
+    }
+
+    /**
+     * Archives adoption requests with status "Approved" or "Rejected" older than 30 days in chunks
+     * @param archivedByUserId ID of the user performing the archive operation
+     * @param startAfterId Resume point; only requests with a higher ID are processed (0 to start from the beginning)
+     * @param chunkSize Number of requests moved per transaction
+     * @param pauseMillis Pause between chunks to let other sessions acquire locks
+     * @return result of the bulk archive run, including the ID to resume from
+     */
+    public BulkArchiveResult archiveCompletedAdoptionRequests(Integer archivedByUserId, int startAfterId, int chunkSize, long pauseMillis) {
+        String selectChunkSql = "SELECT adoption_request_id FROM tbl_adoption_request " +
+                               "WHERE status IN ('Approved', 'Rejected') " +
+                               "AND (approval_date IS NULL OR approval_date < DATE_SUB(CURDATE(), INTERVAL 30 DAY)) " +
+                               "AND adoption_request_id > ? ORDER BY adoption_request_id LIMIT ? FOR UPDATE";
+
+        BulkArchiveResult result = new BulkArchiveResult(startAfterId);
+
+        while (true) {
+            try (Connection conn = DbConnection.getConnection()) {
+                conn.setAutoCommit(false);
+
+                try {
+                    List<Integer> ids = selectChunk(conn, selectChunkSql, result.getLastProcessedId(), chunkSize);
+                    if (ids.isEmpty()) {
+                        conn.commit();
+                        result.setCompleted(true);
+                        return result;
+                    }
+                    int lastId = ids.get(ids.size() - 1);
+
+                    int skipped = skipAlreadyArchived(conn, ids, "adoption requests",
+                            "SELECT adoption_request_id FROM tbl_adoption_request_archive WHERE adoption_request_id IN (%s)", 1);
+                    if (ids.isEmpty()) {
+                        conn.commit();
+                        result.recordChunk(lastId, 0, skipped);
+                        continue;
+                    }
+
+                    String in = buildPlaceholders(ids.size());
+
+                    // Copy requests into the archive table
+                    String insertArchiveSql = "INSERT INTO tbl_adoption_request_archive (adoption_request_id, pet_id, adopter_id, request_date, status, approval_date, remarks, user_id, archived, archived_date, archived_by_user_id, archive_reason) " +
+                                             "SELECT adoption_request_id, pet_id, adopter_id, request_date, status, approval_date, remarks, user_id, TRUE, NOW(), ?, ? " +
+                                             "FROM tbl_adoption_request WHERE adoption_request_id IN (" + in + ")";
+                    executeWithIds(conn, insertArchiveSql, archivedByUserId, COMPLETED_REQUESTS_REASON, ids);
+
+                    // Log every archived request in one multi-row insert
+                    String logSql = "INSERT INTO tbl_archive_log (table_name, record_id, operation, performed_by_user_id, reason) " +
+                                   "SELECT 'tbl_adoption_request', adoption_request_id, 'ARCHIVE', ?, ? " +
+                                   "FROM tbl_adoption_request WHERE adoption_request_id IN (" + in + ")";
+                    executeWithIds(conn, logSql, archivedByUserId, COMPLETED_REQUESTS_REASON, ids);
+
+                    // Remove only rows that made it into the archive
+                    String deleteSql = "DELETE r FROM tbl_adoption_request r " +
+                                      "JOIN tbl_adoption_request_archive ra ON ra.adoption_request_id = r.adoption_request_id " +
+                                      "WHERE r.adoption_request_id IN (" + in + ")";
+                    int deleted = executeWithIds(conn, deleteSql, ids);
+
+                    conn.commit();
+                    result.recordChunk(lastId, deleted, skipped);
+                    // Chunks mix statuses and move dependent rows, so reconcile instead of adjusting
+                    StatisticsSnapshot.getInstance().markStale();
+
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                }
+
+            } catch (SQLException e) {
+                System.err.println("Error bulk archiving adoption requests after ID " + result.getLastProcessedId() + ": " + e.getMessage());
+                result.setErrorMessage(e.getMessage());
+                return result;
+            }
+
+            pauseBetweenChunks(pauseMillis);
+        }
+    }
+
+    /**
+     * Archives pets with status "Adopted" whose adoption is older than 60 days
+     * Adoption records, adoption requests and media for those pets are archived alongside them
+     * @param archivedByUserId ID of the user performing the archive operation
+     * @return result of the bulk archive run
+     */
+    public BulkArchiveResult archiveAdoptedPets(Integer archivedByUserId) {
+        return archiveAdoptedPets(archivedByUserId, 0, DEFAULT_CHUNK_SIZE, DEFAULT_PAUSE_MILLIS);
+    }
+
+    /**
+     * Archives pets with status "Adopted" whose adoption is older than 60 days in chunks
+     * Adoption records, adoption requests and media for those pets are archived alongside them
+     * @param archivedByUserId ID of the user performing the archive operation
+     * @param startAfterId Resume point; only pets with a higher ID are processed (0 to start from the beginning)
+     * @param chunkSize Number of pets moved per transaction
+     * @param pauseMillis Pause between chunks to let other sessions acquire locks
+     * @return result of the bulk archive run, including the ID to resume from
+     */
+    public BulkArchiveResult archiveAdoptedPets(Integer archivedByUserId, int startAfterId, int chunkSize, long pauseMillis) {
+        String selectChunkSql = "SELECT p.pet_id FROM tbl_pet p " +
+                               "JOIN tbl_adoption a ON p.pet_id = a.pet_id " +
+                               "WHERE p.adoption_status = 'Adopted' " +
+                               "AND a.adoption_date < DATE_SUB(CURDATE(), INTERVAL 60 DAY) " +
+                               "AND p.pet_id > ? ORDER BY p.pet_id LIMIT ? FOR UPDATE";
+
+        BulkArchiveResult result = new BulkArchiveResult(startAfterId);
+
+        while (true) {
+            try (Connection conn = DbConnection.getConnection()) {
+                conn.setAutoCommit(false);
+
+                try {
+                    List<Integer> ids = selectChunk(conn, selectChunkSql, result.getLastProcessedId(), chunkSize);
+                    if (ids.isEmpty()) {
+                        conn.commit();
+                        result.setCompleted(true);
+                        return result;
+                    }
+                    int lastId = ids.get(ids.size() - 1);
+
+                    // A pet moves together with its dependents, so a copy of any of them skips the pet
+                    int skipped = skipAlreadyArchived(conn, ids, "adopted pets",
+                            "SELECT pet_id FROM tbl_pet_archive WHERE pet_id IN (%1$s) " +
+                            "UNION SELECT r.pet_id FROM tbl_adoption_request r " +
+                            "JOIN tbl_adoption_request_archive ra ON ra.adoption_request_id = r.adoption_request_id WHERE r.pet_id IN (%1$s) " +
+                            "UNION SELECT a.pet_id FROM tbl_adoption a " +
+                            "JOIN tbl_adoption_archive aa ON aa.adoption_id = a.adoption_id WHERE a.pet_id IN (%1$s) " +
+                            "UNION SELECT m.pet_id FROM tbl_pet_media m " +
+                            "JOIN tbl_pet_media_archive ma ON ma.pet_media_id = m.pet_media_id WHERE m.pet_id IN (%1$s)", 4);
+                    if (ids.isEmpty()) {
+                        conn.commit();
+                        result.recordChunk(lastId, 0, skipped);
+                        continue;
+                    }
+
+                    String in = buildPlaceholders(ids.size());
+
+                    // Copy dependents first, then the pets themselves
+                    String insertMediaSql = "INSERT INTO tbl_pet_media_archive (pet_media_id, pet_id, pet_media_name, pet_media_url, archived_date, archived_by_user_id, archive_reason) " +
+                                           "SELECT pet_media_id, pet_id, pet_media_name, pet_media_url, NOW(), ?, ? " +
+                                           "FROM tbl_pet_media WHERE pet_id IN (" + in + ")";
+                    executeWithIds(conn, insertMediaSql, archivedByUserId, ADOPTED_PETS_REASON, ids);
+
+                    String insertRequestsSql = "INSERT INTO tbl_adoption_request_archive (adoption_request_id, pet_id, adopter_id, request_date, status, approval_date, remarks, user_id, archived, archived_date, archived_by_user_id, archive_reason) " +
+                                              "SELECT adoption_request_id, pet_id, adopter_id, request_date, status, approval_date, remarks, user_id, TRUE, NOW(), ?, ? " +
+                                              "FROM tbl_adoption_request WHERE pet_id IN (" + in + ")";
+                    executeWithIds(conn, insertRequestsSql, archivedByUserId, ADOPTED_PETS_REASON, ids);
+
+                    String insertAdoptionsSql = "INSERT INTO tbl_adoption_archive (adoption_id, pet_id, adopter_id, adoption_date, upload_adoption_document, remarks, user_id, archived, archived_date, archived_by_user_id, archive_reason) " +
+                                               "SELECT adoption_id, pet_id, adopter_id, adoption_date, upload_adoption_document, remarks, user_id, TRUE, NOW(), ?, ? " +
+                                               "FROM tbl_adoption WHERE pet_id IN (" + in + ")";
+                    executeWithIds(conn, insertAdoptionsSql, archivedByUserId, ADOPTED_PETS_REASON, ids);
+
+                    String insertPetsSql = "INSERT INTO tbl_pet_archive (pet_id, pet_owner_id, pet_name, pet_type_id, description, age, gender, health_status, upload_health_history, vaccination_status, proof_of_vaccination, adoption_status, date_registered, archived, archived_date, archived_by_user_id, archive_reason) " +
+                                          "SELECT pet_id, pet_owner_id, pet_name, pet_type_id, description, age, gender, health_status, upload_health_history, vaccination_status, proof_of_vaccination, adoption_status, date_registered, TRUE, NOW(), ?, ? " +
+                                          "FROM tbl_pet WHERE pet_id IN (" + in + ")";
+                    executeWithIds(conn, insertPetsSql, archivedByUserId, ADOPTED_PETS_REASON, ids);
+
+                    // Log pets, requests and adoptions in one multi-row insert
+                    String logSql = "INSERT INTO tbl_archive_log (table_name, record_id, operation, performed_by_user_id, reason) " +
+                                   "SELECT 'tbl_pet', pet_id, 'ARCHIVE', ?, ? FROM tbl_pet WHERE pet_id IN (" + in + ") " +
+                                   "UNION ALL SELECT 'tbl_adoption_request', adoption_request_id, 'ARCHIVE', ?, ? FROM tbl_adoption_request WHERE pet_id IN (" + in + ") " +
+                                   "UNION ALL SELECT 'tbl_adoption', adoption_id, 'ARCHIVE', ?, ? FROM tbl_adoption WHERE pet_id IN (" + in + ")";
+                    try (PreparedStatement logStmt = StatementCatalog.prepare(conn, logSql)) {
+                        int index = 1;
+                        for (int block = 0; block < 3; block++) {
+                            setUserId(logStmt, index++, archivedByUserId);
+                            logStmt.setString(index++, ADOPTED_PETS_REASON);
+                            for (Integer id : ids) {
+                                logStmt.setInt(index++, id);
+                            }
+                        }
+                        logStmt.executeUpdate();
+                    }
+
+                    // Remove only rows that made it into the archive, children before parents
+                    executeWithIds(conn, "DELETE m FROM tbl_pet_media m " +
+                                        "JOIN tbl_pet_media_archive ma ON ma.pet_media_id = m.pet_media_id " +
+                                        "WHERE m.pet_id IN (" + in + ")", ids);
+                    executeWithIds(conn, "DELETE r FROM tbl_adoption_request r " +
+                                        "JOIN tbl_adoption_request_archive ra ON ra.adoption_request_id = r.adoption_request_id " +
+                                        "WHERE r.pet_id IN (" + in + ")", ids);
+                    executeWithIds(conn, "DELETE a FROM tbl_adoption a " +
+                                        "JOIN tbl_adoption_archive aa ON aa.adoption_id = a.adoption_id " +
+                                        "WHERE a.pet_id IN (" + in + ")", ids);
+                    int deleted = executeWithIds(conn, "DELETE p FROM tbl_pet p " +
+                                                      "JOIN tbl_pet_archive pa ON pa.pet_id = p.pet_id " +
+                                                      "WHERE p.pet_id IN (" + in + ")", ids);
+
+                    conn.commit();
+                    result.recordChunk(lastId, deleted, skipped);
+                    // Chunks mix statuses and move dependent rows, so reconcile instead of adjusting
+                    StatisticsSnapshot.getInstance().markStale();
+                    SearchIndexes searchIndexes = SearchIndexes.getInstance();
+                    PetRecommender recommender = PetRecommender.getInstance();
+                    List<ChangeFeed.Event> events = new ArrayList<>();
+                    for (Integer petId : ids) {
+                        searchIndexes.removePet(petId);
+                        recommender.removePet(petId);
+                        events.add(ChangeFeed.petStatus(petId, ChangeFeed.REMOVED));
+                    }
+                    ChangeFeed.getInstance().publish(events);
+
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                }
+
+            } catch (SQLException e) {
+                System.err.println("Error bulk archiving adopted pets after ID " + result.getLastProcessedId() + ": " + e.getMessage());
+                result.setErrorMessage(e.getMessage());
+                return result;
+            }
+
+            pauseBetweenChunks(pauseMillis);
+        }
+    }
+
+    /**
+     * Selects and locks the next chunk of IDs after the given cursor
+     * @param conn Connection in an open transaction
+     * @param sql Chunk query taking the cursor and the chunk size
+     * @param afterId Cursor; only higher IDs are returned
+     * @param chunkSize Maximum number of IDs to return
+     * @return IDs in ascending order
+     * @throws SQLException if database access error occurs
+     */
+    private List<Integer> selectChunk(Connection conn, String sql, int afterId, int chunkSize) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+
+        try (PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
+            pstmt.setInt(1, afterId);
+            pstmt.setInt(2, chunkSize);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+            }
+        }
+
+        return ids;
+    }
+
+    /**
+     * Removes from a chunk the IDs whose rows already have a copy in an archive table
+     * Copying such a row again fails on the archive's primary key and would roll back the
+     * whole chunk on every run; deleting it against the older copy would lose the live row.
+     * It is left in place and reported, and the cursor still moves past it.
+     * @param conn Connection in an open transaction
+     * @param ids Locked chunk IDs; the skipped ones are removed
+     * @param description What the IDs are, for the report
+     * @param sqlFormat Query returning the IDs to skip, with %s (or %1$s) where the ID list goes
+     * @param idListCount Number of times the ID list appears in the query
+     * @return number of IDs skipped
+     * @throws SQLException if database access error occurs
+     */
+    private int skipAlreadyArchived(Connection conn, List<Integer> ids, String description, String sqlFormat, int idListCount) throws SQLException {
+        String sql = String.format(sqlFormat, buildPlaceholders(ids.size()));
+        Set<Integer> archived = new TreeSet<>();
+
+        try (PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
+            int index = 1;
+            for (int list = 0; list < idListCount; list++) {
+                for (Integer id : ids) {
+                    pstmt.setInt(index++, id);
+                }
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    archived.add(rs.getInt(1));
+                }
+            }
+        }
+
+        if (!archived.isEmpty()) {
+            ids.removeAll(archived);
+            System.err.println("Skipped " + archived.size() + " " + description + " already present in the archive: " + archived);
+        }
+        return archived.size();
+    }
+
+    /**
+     * Executes a statement whose parameters are the user ID, the reason and then the ID list
+     * @return number of rows affected
+     * @throws SQLException if database access error occurs
+     */
+    private int executeWithIds(Connection conn, String sql, Integer userId, String reason, List<Integer> ids) throws SQLException {
+        try (PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
+            setUserId(pstmt, 1, userId);
+            pstmt.setString(2, reason);
+            int index = 3;
+            for (Integer id : ids) {
+                pstmt.setInt(index++, id);
+            }
+            return pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Executes a statement whose only parameters are the ID list
+     * @return number of rows affected
+     * @throws SQLException if database access error occurs
+     */
+    private int executeWithIds(Connection conn, String sql, List<Integer> ids) throws SQLException {
+        try (PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
+            int index = 1;
+            for (Integer id : ids) {
+                pstmt.setInt(index++, id);
+            }
+            return pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Sets a nullable user ID parameter
+     */
+    private void setUserId(PreparedStatement pstmt, int index, Integer userId) throws SQLException {
+        if (userId != null) {
+            pstmt.setInt(index, userId);
+        } else {
+            pstmt.setNull(index, java.sql.Types.INTEGER);
+        }
+    }
+
+    /**
+     * Builds a comma separated list of placeholders for an IN clause
+     * @param count Number of placeholders
+     * @return placeholder list such as "?, ?, ?"
+     */
+    private String buildPlaceholders(int count) {
+        StringBuilder sb = new StringBuilder(count * 3);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append('?');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Sleeps between chunks so concurrent sessions and replicas can catch up
+     */
+    private void pauseBetweenChunks(long pauseMillis) {
+        if (pauseMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(pauseMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Inner class to represent the outcome of a bulk archive run
+     * A run that stopped early can be resumed by passing getLastProcessedId() as the start point
+     */
+    public static class BulkArchiveResult {
+        private int lastProcessedId;
+        private int archivedCount;
+        private int skippedCount;
+        private int chunkCount;
+        private boolean completed;
+        private String errorMessage;
+
+        public BulkArchiveResult(int startAfterId) {
+            this.lastProcessedId = startAfterId;
+        }
+
+        void recordChunk(int lastId, int archived, int skipped) {
+            this.lastProcessedId = lastId;
+            this.archivedCount += archived;
+            this.skippedCount += skipped;
+            this.chunkCount++;
+        }
+
+        // Getters and setters
+        public int getLastProcessedId() { return lastProcessedId; }
+
+        public int getArchivedCount() { return archivedCount; }
+
+        /**
+         * Gets the number of records left in place because a copy was already in the archive
+         */
+        public int getSkippedCount() { return skippedCount; }
+
+        public int getChunkCount() { return chunkCount; }
+
+        public boolean isCompleted() { return completed; }
+        public void setCompleted(boolean completed) { this.completed = completed; }
+
+        public String getErrorMessage() { return errorMessage; }
+        public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+    }
+}
@@ -0,0 +1,585 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.furever.crud;
+
+/**
+ *
+ * @author jerimiahtongco
+ */
+import java.io.IOException;
+import java.io.Writer;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import com.furever.database.DbConnection;
+import com.furever.database.OperationMetrics;
+import com.furever.models.Pet;
+import com.furever.models.PetType;
+import com.furever.utils.InputValidator;
+import com.furever.utils.RecordReader;
+import com.furever.utils.RecordWriter;
+
+/**
+ * Bulk import and export of pets, pet owners and adopters
+ *
+ * Imports stream records from a RecordReader, validate each one with the same rules as the
+ * dashboards (InputValidator) and insert the valid ones BATCH_SIZE at a time with a single
+ * multi-row INSERT per batch, one transaction per batch. Generated keys of a batch come back
+ * from that one statement in row order. If a batch is rejected by the database (for example a
+ * duplicate username), it is rolled back and its rows are inserted one by one so that only
+ * the offending rows are reported.
+ *
+ * Every record may carry a "ref" column (for owners, pet_owner_id is used when ref is absent).
+ * The generated ID of each referenced record is returned, so a pet import can resolve its
+ * pet_owner_ref or pet_owner_id column against the owners imported just before it.
+ *
+ * Exports stream rows with a forward-only result set and never include passwords.
+ */
+public class BulkImportCRUD {
+
+    public static final int BATCH_SIZE = 1000;
+    /** Per-row errors kept in the result; further errors are only counted */
+    public static final int MAX_REPORTED_ERRORS = 10_000;
+
+    private static final String[] PET_COLUMNS = { "pet_owner_id", "pet_name", "pet_type_id", "description", "age",
+            "gender", "health_status", "upload_health_history", "vaccination_status", "proof_of_vaccination",
+            "adoption_status", "date_registered" };
+    private static final String[] PET_OWNER_COLUMNS = { "pet_owner_name", "pet_owner_contact", "pet_owner_email",
+            "pet_owner_address", "pet_owner_profile", "pet_owner_username", "pet_owner_password", "username" };
+    private static final String[] ADOPTER_COLUMNS = { "adopter_name", "adopter_contact", "adopter_email",
+            "adopter_address", "adopter_profile", "adopter_username", "adopter_password" };
+
+    /**
+     * Imports pets
+     * @param reader Source records
+     * @param ownerKeys Keys generated by a previous pet owner import (ref to pet_owner_id), or null
+     * @return import result with per-row errors
+     */
+    public ImportResult importPets(RecordReader reader, Map<String, Integer> ownerKeys) {
+        ImportResult result = new ImportResult();
+        Set<Integer> owners;
+        Map<String, Integer> petTypes = new HashMap<>();
+        try {
+            owners = loadIds("SELECT pet_owner_id FROM tbl_pet_owner WHERE archived = false");
+        } catch (SQLException e) {
+            result.fatal("Error loading pet owners: " + e.getMessage());
+            return result;
+        }
+        for (PetType petType : new PetTypeCRUD().getAllPetTypes()) {
+            petTypes.put(String.valueOf(petType.getPetTypeId()), petType.getPetTypeId());
+            petTypes.put(petType.getPetTypeName().toLowerCase(Locale.ROOT), petType.getPetTypeId());
+        }
+        Map<String, Integer> resolvedOwners = ownerKeys != null ? ownerKeys : Map.of();
+        java.sql.Date today = new java.sql.Date(System.currentTimeMillis());
+
+        RowConverter converter = record -> {
+            Integer ownerId;
+            String ownerRef = record.get("pet_owner_ref");
+            String ownerIdText = record.get("pet_owner_id");
+            if (ownerRef != null) {
+                ownerId = resolvedOwners.get(ownerRef);
+                if (ownerId == null) {
+                    throw new IllegalArgumentException("pet_owner_ref " + ownerRef + " was not imported");
+                }
+            } else if (ownerIdText != null && resolvedOwners.containsKey(ownerIdText)) {
+                ownerId = resolvedOwners.get(ownerIdText);
+            } else {
+                ownerId = integer(record, "pet_owner_id", 1, Integer.MAX_VALUE, true);
+                if (!owners.contains(ownerId)) {
+                    throw new IllegalArgumentException("pet_owner_id " + ownerId + " is not an active pet owner");
+                }
+            }
+
+            String type = record.get("pet_type_id") != null ? record.get("pet_type_id") : record.get("pet_type");
+            Integer petTypeId = type != null ? petTypes.get(type.trim().toLowerCase(Locale.ROOT)) : null;
+            if (petTypeId == null) {
+                throw new IllegalArgumentException(type == null ? "pet_type_id is required" : "Unknown pet type: " + type);
+            }
+
+            String dateRegistered = text(record, "date_registered", 0, 10, false);
+            if (dateRegistered != null && !InputValidator.isValidDate(dateRegistered)) {
+                throw new IllegalArgumentException("date_registered must be a valid date in YYYY-MM-DD format");
+            }
+
+            return new Object[] {
+                ownerId,
+                text(record, "pet_name", 1, 100, true),
+                petTypeId,
+                text(record, "description", 0, 65535, false),
+                integer(record, "age", 0, 30, false),
+                choice(record, "gender", false, "Male", "Female"),
+                choice(record, "health_status", false, "Healthy", "Needs Treatment"),
+                text(record, "upload_health_history", 0, 65535, false),
+                choice(record, "vaccination_status", false, "Vaccinated", "Not Vaccinated"),
+                text(record, "proof_of_vaccination", 0, 65535, false),
+                record.get("adoption_status") != null ? choice(record, "adoption_status", true, "Available", "Pending", "Adopted") : "Available",
+                dateRegistered != null ? java.sql.Date.valueOf(dateRegistered) : today
+            };
+        };
+
+        importRecords(reader, "tbl_pet", PET_COLUMNS, converter, record -> record.get("ref"), result,
+                (id, values) -> {
+                    SearchIndexes.getInstance().indexPet(id, (String) values[1]);
+                    PetRecommender.getInstance().indexPet(importedPet(id, values));
+                    ChangeFeed.getInstance().publish(ChangeFeed.petStatus(id, (String) values[10]));
+                });
+        return result;
+    }
+
+    /**
+     * Builds the pet inserted from one converted row, with values in PET_COLUMNS order
+     */
+    private static Pet importedPet(int petId, Object[] values) {
+        Pet pet = new Pet();
+        pet.setPetId(petId);
+        pet.setPetTypeId((Integer) values[2]);
+        pet.setAge(values[4] != null ? (Integer) values[4] : -1);
+        pet.setGender((String) values[5]);
+        pet.setHealthStatus((String) values[6]);
+        pet.setVaccinationStatus((String) values[8]);
+        pet.setAdoptionStatus((String) values[10]);
+        pet.setDateRegistered((java.sql.Date) values[11]);
+        return pet;
+    }
+
+    /**
+     * Imports pet owners
+     * The username column links the profile to an existing user account and may be left empty
+     * @param reader Source records
+     * @return import result; getGeneratedKeys() maps each ref (or exported pet_owner_id) to the new ID
+     */
+    public ImportResult importPetOwners(RecordReader reader) {
+        ImportResult result = new ImportResult();
+        Set<String> usernames = new HashSet<>();
+
+        RowConverter converter = record -> {
+            String username = uniqueUsername(record, "pet_owner_username", usernames);
+            return new Object[] {
+                text(record, "pet_owner_name", 1, 100, true),
+                phone(record, "pet_owner_contact"),
+                email(record, "pet_owner_email", false),
+                text(record, "pet_owner_address", 0, 255, false),
+                text(record, "pet_owner_profile", 0, 65535, false),
+                username,
+                text(record, "pet_owner_password", 0, 255, false),
+                text(record, "username", 0, 50, false)
+            };
+        };
+
+        importRecords(reader, "tbl_pet_owner", PET_OWNER_COLUMNS, converter,
+                record -> record.get("ref") != null ? record.get("ref") : record.get("pet_owner_id"), result,
+                (id, values) -> SearchIndexes.getInstance().indexPetOwner(id, (String) values[0]));
+        return result;
+    }
+
+    /**
+     * Imports adopters
+     * @param reader Source records
+     * @return import result with per-row errors
+     */
+    public ImportResult importAdopters(RecordReader reader) {
+        ImportResult result = new ImportResult();
+        Set<String> usernames = new HashSet<>();
+
+        RowConverter converter = record -> {
+            String username = uniqueUsername(record, "adopter_username", usernames);
+            // Same rule as AdopterDashboard: a login needs a password of at least 6 characters
+            String password = text(record, "adopter_password", username != null ? 6 : 0, 255, username != null);
+            return new Object[] {
+                text(record, "adopter_name", 1, 100, true),
+                phone(record, "adopter_contact"),
+                email(record, "adopter_email", true),
+                text(record, "adopter_address", 0, 255, false),
+                text(record, "adopter_profile", 0, 65535, false),
+                username,
+                password
+            };
+        };
+
+        importRecords(reader, "tbl_adopter", ADOPTER_COLUMNS, converter,
+                record -> record.get("ref") != null ? record.get("ref") : record.get("adopter_id"), result,
+                (id, values) -> SearchIndexes.getInstance().indexAdopter(id, (String) values[0], (String) values[5]));
+        return result;
+    }
+
+    /**
+     * Shared import loop: validate, batch, insert, fall back to single rows on a rejected batch
+     */
+    private void importRecords(RecordReader reader, String table, String[] columns, RowConverter converter,
+                               RefExtractor refs, ImportResult result, InsertListener listener) {
+        long started = System.currentTimeMillis();
+        List<PendingRow> batch = new ArrayList<>(BATCH_SIZE);
+
+        try (Connection conn = DbConnection.getConnection()) {
+            String batchSql = insertSql(table, columns, BATCH_SIZE);
+            String singleSql = insertSql(table, columns, 1);
+
+            while (true) {
+                Map<String, String> record;
+                try {
+                    record = reader.next();
+                } catch (IllegalArgumentException e) {
+                    // The input cannot be resynchronised after a syntax error
+                    result.fatal("Malformed input after record " + reader.getRecordNumber() + ": " + e.getMessage());
+                    break;
+                }
+                if (record == null) {
+                    break;
+                }
+                result.rowsRead++;
+
+                try {
+                    batch.add(new PendingRow(reader.getRecordNumber(), refs.ref(record), converter.convert(record)));
+                } catch (IllegalArgumentException e) {
+                    result.rowError(reader.getRecordNumber(), e.getMessage());
+                }
+
+                if (batch.size() == BATCH_SIZE) {
+                    flush(conn, batchSql, singleSql, columns.length, batch, result, listener);
+                }
+            }
+            if (!batch.isEmpty()) {
+                flush(conn, insertSql(table, columns, batch.size()), singleSql, columns.length, batch, result, listener);
+            }
+
+        } catch (SQLException | IOException e) {
+            System.err.println("Error importing into " + table + ": " + e.getMessage());
+            result.fatal(e.getMessage());
+        }
+
+        if (result.rowsImported > 0) {
+            StatisticsSnapshot.getInstance().markStale();
+        }
+        result.elapsedMillis = System.currentTimeMillis() - started;
+    }
+
+    private void flush(Connection conn, String sql, String singleSql, int width, List<PendingRow> batch,
+                       ImportResult result, InsertListener listener) throws SQLException {
+        conn.setAutoCommit(false);
+        try (PreparedStatement pstmt = StatementCatalog.prepare(conn, sql, Statement.RETURN_GENERATED_KEYS)) {
+            int index = 1;
+            for (PendingRow row : batch) {
+                for (Object value : row.values) {
+                    bind(pstmt, index++, value);
+                }
+            }
+            pstmt.executeUpdate();
+            List<Integer> keys = new ArrayList<>(batch.size());
+            try (ResultSet rs = pstmt.getGeneratedKeys()) {
+                while (rs.next()) {
+                    keys.add(rs.getInt(1));
+                }
+            }
+            if (keys.size() != batch.size()) {
+                throw new SQLException("Expected " + batch.size() + " generated keys but got " + keys.size());
+            }
+            conn.commit();
+            for (int i = 0; i < batch.size(); i++) {
+                inserted(batch.get(i), keys.get(i), result, listener);
+            }
+
+        } catch (SQLException e) {
+            conn.rollback();
+            // Find the rows the database rejects; the others go in on their own
+            conn.setAutoCommit(true);
+            for (PendingRow row : batch) {
+                try (PreparedStatement pstmt = StatementCatalog.prepare(conn, singleSql, Statement.RETURN_GENERATED_KEYS)) {
+                    for (int i = 0; i < width; i++) {
+                        bind(pstmt, i + 1, row.values[i]);
+                    }
+                    pstmt.executeUpdate();
+                    try (ResultSet rs = pstmt.getGeneratedKeys()) {
+                        if (rs.next()) {
+                            inserted(row, rs.getInt(1), result, listener);
+                        }
+                    }
+                } catch (SQLException rowError) {
+                    result.rowError(row.recordNumber, rowError.getMessage());
+                }
+            }
+        } finally {
+            conn.setAutoCommit(true);
+            batch.clear();
+        }
+    }
+
+    private static void inserted(PendingRow row, int id, ImportResult result, InsertListener listener) {
+        result.rowsImported++;
+        if (row.ref != null) {
+            result.generatedKeys.put(row.ref, id);
+        }
+        listener.inserted(id, row.values);
+    }
+
+    /**
+     * Exports active pets
+     * @param out Target; closed when the export ends
+     * @param format Output format
+     * @return number of pets written, or -1 on error
+     */
+    public int exportPets(Writer out, RecordReader.Format format) {
+        return export("SELECT pet_id, " + String.join(", ", PET_COLUMNS) + " FROM tbl_pet WHERE archived = false ORDER BY pet_id",
+                out, format, "pets");
+    }
+
+    /**
+     * Exports active pet owners without their passwords
+     * @param out Target; closed when the export ends
+     * @param format Output format
+     * @return number of pet owners written, or -1 on error
+     */
+    public int exportPetOwners(Writer out, RecordReader.Format format) {
+        return export("SELECT pet_owner_id, pet_owner_name, pet_owner_contact, pet_owner_email, pet_owner_address, " +
+                      "pet_owner_profile, pet_owner_username, username FROM tbl_pet_owner WHERE archived = false ORDER BY pet_owner_id",
+                out, format, "pet owners");
+    }
+
+    /**
+     * Exports active adopters without their passwords
+     * @param out Target; closed when the export ends
+     * @param format Output format
+     * @return number of adopters written, or -1 on error
+     */
+    public int exportAdopters(Writer out, RecordReader.Format format) {
+        return export("SELECT adopter_id, adopter_name, adopter_contact, adopter_email, adopter_address, " +
+                      "adopter_profile, adopter_username FROM tbl_adopter WHERE archived = false ORDER BY adopter_id",
+                out, format, "adopters");
+    }
+
+    private int export(String sql, Writer out, RecordReader.Format format, String entityName) {
+        try (Connection conn = DbConnection.getConnection();
+             Statement stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            // Integer.MIN_VALUE makes Connector/J stream rows instead of buffering the whole result
+            stmt.setFetchSize(Integer.MIN_VALUE);
+
+            try (ResultSet rs = stmt.executeQuery(sql)) {
+                ResultSetMetaData meta = rs.getMetaData();
+                List<String> columns = new ArrayList<>();
+                for (int i = 1; i <= meta.getColumnCount(); i++) {
+                    columns.add(meta.getColumnLabel(i));
+                }
+                try (RecordWriter writer = new RecordWriter(out, format, columns)) {
+                    String[] values = new String[columns.size()];
+                    while (rs.next()) {
+                        for (int i = 0; i < values.length; i++) {
+                            values[i] = rs.getString(i + 1);
+                        }
+                        writer.write(Arrays.asList(values));
+                    }
+                    OperationMetrics.addRows(writer.getRecordCount());
+                    return writer.getRecordCount();
+                }
+            }
+
+        } catch (SQLException | IOException e) {
+            System.err.println("Error exporting " + entityName + ": " + e.getMessage());
+            return -1;
+        }
+    }
+
+    private static Set<Integer> loadIds(String sql) throws SQLException {
+        Set<Integer> ids = new HashSet<>();
+        try (Connection conn = DbConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                ids.add(rs.getInt(1));
+            }
+        }
+        return ids;
+    }
+
+    private static String insertSql(String table, String[] columns, int rows) {
+        String row = "(" + String.join(", ", Collections.nCopies(columns.length, "?")) + ")";
+        StringBuilder sql = new StringBuilder(64 + rows * (row.length() + 2))
+                .append("INSERT INTO ").append(table).append(" (").append(String.join(", ", columns)).append(") VALUES ");
+        for (int i = 0; i < rows; i++) {
+            sql.append(i == 0 ? row : ", " + row);
+        }
+        return sql.toString();
+    }
+
+    private static void bind(PreparedStatement pstmt, int index, Object value) throws SQLException {
+        if (value == null) {
+            pstmt.setNull(index, Types.VARCHAR);
+        } else if (value instanceof Integer) {
+            pstmt.setInt(index, (Integer) value);
+        } else if (value instanceof java.sql.Date) {
+            pstmt.setDate(index, (java.sql.Date) value);
+        } else {
+            pstmt.setString(index, value.toString());
+        }
+    }
+
+    // Field rules, matching the dashboards' InputValidator prompts
+
+    private static String text(Map<String, String> record, String column, int minLength, int maxLength, boolean required) {
+        String value = record.get(column);
+        value = value != null ? value.trim() : null;
+        if (value == null || value.isEmpty()) {
+            if (required) {
+                throw new IllegalArgumentException(column + " is required");
+            }
+            return null;
+        }
+        if (!InputValidator.isLengthBetween(value, minLength, maxLength)) {
+            throw new IllegalArgumentException(column + " must be between " + minLength + " and " + maxLength + " characters");
+        }
+        return value;
+    }
+
+    private static Integer integer(Map<String, String> record, String column, int min, int max, boolean required) {
+        String value = text(record, column, 1, 11, required);
+        if (value == null) {
+            return null;
+        }
+        try {
+            int number = Integer.parseInt(value);
+            if (number < min || number > max) {
+                throw new IllegalArgumentException(column + " must be between " + min + " and " + max);
+            }
+            return number;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + " must be a whole number");
+        }
+    }
+
+    private static String choice(Map<String, String> record, String column, boolean required, String... allowed) {
+        String value = text(record, column, 1, 50, required);
+        if (value == null) {
+            return null;
+        }
+        for (String option : allowed) {
+            if (option.equalsIgnoreCase(value)) {
+                return option;
+            }
+        }
+        throw new IllegalArgumentException(column + " must be one of " + String.join(", ", allowed));
+    }
+
+    private static String email(Map<String, String> record, String column, boolean required) {
+        String value = text(record, column, 1, 100, required);
+        if (value != null && !InputValidator.isValidEmail(value)) {
+            throw new IllegalArgumentException(column + " is not a valid email address");
+        }
+        return value;
+    }
+
+    private static String phone(Map<String, String> record, String column) {
+        String value = text(record, column, 1, 15, false);
+        if (value != null && !InputValidator.isValidPhone(value)) {
+            throw new IllegalArgumentException(column + " must be a Philippine mobile number (09xxxxxxxxx)");
+        }
+        return value;
+    }
+
+    private static String uniqueUsername(Map<String, String> record, String column, Set<String> seen) {
+        String value = text(record, column, 1, 50, false);
+        if (value != null && !seen.add(value.toLowerCase(Locale.ROOT))) {
+            throw new IllegalArgumentException(column + " " + value + " appears more than once in the file");
+        }
+        return value;
+    }
+
+    /**
+     * Validates one record and converts it to values in insert column order
+     */
+    @FunctionalInterface
+    private interface RowConverter {
+        Object[] convert(Map<String, String> record);
+    }
+
+    @FunctionalInterface
+    private interface RefExtractor {
+        String ref(Map<String, String> record);
+    }
+
+    @FunctionalInterface
+    private interface InsertListener {
+        void inserted(int id, Object[] values);
+    }
+
+    private static class PendingRow {
+        private final int recordNumber;
+        private final String ref;
+        private final Object[] values;
+
+        PendingRow(int recordNumber, String ref, Object[] values) {
+            this.recordNumber = recordNumber;
+            this.ref = ref;
+            this.values = values;
+        }
+    }
+
+    /**
+     * One rejected record
+     */
+    public static class RowError {
+        private final int recordNumber;
+        private final String message;
+
+        RowError(int recordNumber, String message) {
+            this.recordNumber = recordNumber;
+            this.message = message;
+        }
+
+        // Getters
+        public int getRecordNumber() { return recordNumber; }
+        public String getMessage() { return message; }
+
+        @Override
+        public String toString() {
+            return "Record " + recordNumber + ": " + message;
+        }
+    }
+
+    /**
+     * Inner class to represent the outcome of an import
+     */
+    public static class ImportResult {
+        private int rowsRead;
+        private int rowsImported;
+        private int errorCount;
+        private final List<RowError> errors = new ArrayList<>();
+        private final Map<String, Integer> generatedKeys = new LinkedHashMap<>();
+        private String fatalError;
+        private long elapsedMillis;
+
+        private void rowError(int recordNumber, String message) {
+            errorCount++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new RowError(recordNumber, message));
+            }
+        }
+
+        private void fatal(String message) {
+            fatalError = message;
+        }
+
+        // Getters
+        public int getRowsRead() { return rowsRead; }
+        public int getRowsImported() { return rowsImported; }
+        public int getErrorCount() { return errorCount; }
+        public List<RowError> getErrors() { return errors; }
+        public Map<String, Integer> getGeneratedKeys() { return generatedKeys; }
+        public String getFatalError() { return fatalError; }
+        public long getElapsedMillis() { return elapsedMillis; }
+    }
+}
@@ -0,0 +1,515 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.furever.crud;
+
+/**
+ *
+ * @author jerimiahtongco
+ */
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+import com.furever.database.DbConnection;
+
+/**
+ * In-process change feed for pet availability and adoption request status
+ *
+ * The CRUD write paths publish an event after their change commits. Each subscriber gets its
+ * own bounded queue: an event replaces one still pending for the same pet or request, so a
+ * slow reader sees the latest state rather than every step, and a full queue drops its oldest
+ * event and flags the subscription as overflowed so the reader re-runs its list query once.
+ * Publishing never blocks the writer.
+ *
+ * Events carry the new state rather than a delta, so reading one twice is harmless. With
+ * -Dfurever.changeFeed.outbox=true every event is also written to tbl_change_outbox, which
+ * other JVMs can tail by outbox ID with readOutbox(). Writes that run in a transaction record
+ * the row before their commit, so it commits with the change; single-statement writes run in
+ * autocommit and write their row right after the change.
+ *
+ * Usage inside a transaction:
+ *   ChangeFeed.Event event = ChangeFeed.petStatus(petId, "Adopted");
+ *   ChangeFeed.getInstance().record(conn, event);
+ *   conn.commit();
+ *   ChangeFeed.getInstance().publish(event);
+ */
+public final class ChangeFeed {
+
+    public enum Type { PET_STATUS, REQUEST_STATUS }
+
+    /** Status published for pets that were deleted or archived */
+    public static final String REMOVED = "Removed";
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 256;
+    public static final int MAX_OUTBOX_READ = 1000;
+    public static final int OUTBOX_DELETE_BATCH_SIZE = 10_000;
+
+    private static final String OUTBOX_INSERT = "INSERT INTO tbl_change_outbox (event_type, entity_id, pet_id, adopter_id, status, created_at) VALUES ";
+    private static final String OUTBOX_ROW = "(?, ?, ?, ?, ?, ?)";
+
+    private static volatile ChangeFeed instance = null;
+
+    private final boolean outboxEnabled;
+    private final AtomicLong sequence = new AtomicLong();
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    private final AtomicLong publishedCount = new AtomicLong();
+    private final AtomicLong outboxWrittenCount = new AtomicLong();
+    private final AtomicLong outboxFailedCount = new AtomicLong();
+
+    private ChangeFeed(boolean outboxEnabled) {
+        this.outboxEnabled = outboxEnabled;
+    }
+
+    /**
+     * Gets the shared change feed, writing the outbox when furever.changeFeed.outbox is true
+     * @return ChangeFeed instance
+     */
+    public static ChangeFeed getInstance() {
+        ChangeFeed current = instance;
+        if (current != null) {
+            return current;
+        }
+        synchronized (ChangeFeed.class) {
+            if (instance == null) {
+                instance = new ChangeFeed(Boolean.getBoolean("furever.changeFeed.outbox"));
+            }
+            return instance;
+        }
+    }
+
+    // Events
+
+    /**
+     * Creates a pet availability event
+     * @param petId Pet ID
+     * @param status New adoption status, or REMOVED
+     * @return event to record and publish
+     */
+    public static Event petStatus(int petId, String status) {
+        return new Event(Type.PET_STATUS, petId, petId, 0, status);
+    }
+
+    /**
+     * Creates an adoption request status event
+     * @param requestId Adoption request ID
+     * @param petId Pet the request is for
+     * @param adopterId Adopter who made the request
+     * @param status New request status, or REMOVED
+     * @return event to record and publish
+     */
+    public static Event requestStatus(int requestId, int petId, int adopterId, String status) {
+        return new Event(Type.REQUEST_STATUS, requestId, petId, adopterId, status);
+    }
+
+    public boolean isOutboxEnabled() {
+        return outboxEnabled;
+    }
+
+    /**
+     * Checks whether anyone would see an event
+     * Writers use it to skip the extra lookups some events need when nobody is listening
+     * @return true if there are subscribers or the outbox is written
+     */
+    public boolean isActive() {
+        return outboxEnabled || !subscriptions.isEmpty();
+    }
+
+    /**
+     * Writes events to the outbox as part of the caller's transaction
+     * Does nothing when the outbox is disabled
+     * @param conn Connection with the open business transaction
+     * @param events Events describing the change
+     * @throws SQLException if the insert fails
+     */
+    public void record(Connection conn, List<Event> events) throws SQLException {
+        if (!outboxEnabled || events.isEmpty()) {
+            return;
+        }
+        insertOutbox(conn, events);
+        for (Event event : events) {
+            event.recorded = true;
+        }
+    }
+
+    public void record(Connection conn, Event event) throws SQLException {
+        record(conn, List.of(event));
+    }
+
+    /**
+     * Hands committed events to every subscriber
+     * Events not yet recorded are written to the outbox first, on their own connection
+     * @param events Events whose change has committed
+     */
+    public void publish(List<Event> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        if (outboxEnabled) {
+            List<Event> unrecorded = new ArrayList<>();
+            for (Event event : events) {
+                if (!event.recorded) {
+                    event.recorded = true;
+                    unrecorded.add(event);
+                }
+            }
+            if (!unrecorded.isEmpty()) {
+                try (Connection conn = DbConnection.getConnection()) {
+                    insertOutbox(conn, unrecorded);
+                } catch (SQLException e) {
+                    // The change itself is committed; in-process subscribers still get the event
+                    outboxFailedCount.addAndGet(unrecorded.size());
+                    System.err.println("Error writing " + unrecorded.size() + " change outbox event(s): " + e.getMessage());
+                }
+            }
+        }
+
+        for (Event event : events) {
+            event.sequence = sequence.incrementAndGet();
+            publishedCount.incrementAndGet();
+            for (Subscription subscription : subscriptions) {
+                if (subscription.filter.test(event)) {
+                    subscription.offer(event);
+                }
+            }
+        }
+    }
+
+    public void publish(Event event) {
+        publish(List.of(event));
+    }
+
+    // Subscriptions
+
+    /**
+     * Registers a subscriber
+     * @param name Name shown in describe()
+     * @param capacity Maximum number of pending events before the oldest is dropped
+     * @param filter Events the subscriber wants
+     * @return subscription to poll; close it when done
+     */
+    public Subscription subscribe(String name, int capacity, Predicate<Event> filter) {
+        Subscription subscription = new Subscription(this, name, capacity, filter);
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    // Outbox
+
+    /**
+     * Reads outbox events after a given outbox ID, oldest first
+     * The event sequence is the outbox ID. IDs are assigned at insert, so a transaction that
+     * commits late can add an ID lower than one already read; tailers that must not miss a
+     * change should re-read from a checkpoint a few seconds old, which is safe because events
+     * carry state rather than deltas.
+     * @param afterOutboxId Last outbox ID already processed, 0 to start from the beginning
+     * @param limit Maximum number of events, capped at MAX_OUTBOX_READ
+     * @return events in outbox ID order
+     */
+    public List<Event> readOutbox(long afterOutboxId, int limit) {
+        List<Event> events = new ArrayList<>();
+        String sql = "SELECT outbox_id, event_type, entity_id, pet_id, adopter_id, status, created_at " +
+                     "FROM tbl_change_outbox WHERE outbox_id > ? ORDER BY outbox_id LIMIT ?";
+
+        try (Connection conn = DbConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
+
+            pstmt.setLong(1, afterOutboxId);
+            pstmt.setInt(2, Math.max(1, Math.min(limit, MAX_OUTBOX_READ)));
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    Event event = new Event(Type.valueOf(rs.getString("event_type")), rs.getInt("entity_id"),
+                            rs.getInt("pet_id"), rs.getInt("adopter_id"), rs.getString("status"), rs.getTimestamp("created_at"));
+                    event.sequence = rs.getLong("outbox_id");
+                    event.recorded = true;
+                    events.add(event);
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error reading change outbox: " + e.getMessage());
+        }
+
+        return events;
+    }
+
+    /**
+     * Deletes outbox events older than the retention period in batches
+     * @param retentionDays Number of days of events to keep
+     * @return number of events deleted, or -1 if the delete failed
+     */
+    public int purgeOutbox(int retentionDays) {
+        String sql = "DELETE FROM tbl_change_outbox WHERE created_at < NOW() - INTERVAL ? DAY ORDER BY outbox_id LIMIT ?";
+        int total = 0;
+
+        try (Connection conn = DbConnection.getConnection();
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
+
+            pstmt.setInt(1, retentionDays);
+            pstmt.setInt(2, OUTBOX_DELETE_BATCH_SIZE);
+            int deleted;
+            do {
+                deleted = pstmt.executeUpdate();
+                total += deleted;
+            } while (deleted == OUTBOX_DELETE_BATCH_SIZE);
+            return total;
+
+        } catch (SQLException e) {
+            System.err.println("Error purging change outbox: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Inserts events with one multi-row statement
+     */
+    private void insertOutbox(Connection conn, List<Event> events) throws SQLException {
+        StringBuilder sql = new StringBuilder(OUTBOX_INSERT.length() + events.size() * (OUTBOX_ROW.length() + 2)).append(OUTBOX_INSERT);
+        for (int i = 0; i < events.size(); i++) {
+            sql.append(i == 0 ? OUTBOX_ROW : ", " + OUTBOX_ROW);
+        }
+
+        try (PreparedStatement pstmt = StatementCatalog.prepare(conn, sql.toString())) {
+            int index = 1;
+            for (Event event : events) {
+                pstmt.setString(index++, event.type.name());
+                pstmt.setInt(index++, event.entityId);
+                pstmt.setInt(index++, event.petId);
+                if (event.adopterId > 0) {
+                    pstmt.setInt(index++, event.adopterId);
+                } else {
+                    pstmt.setNull(index++, Types.INTEGER);
+                }
+                pstmt.setString(index++, event.status);
+                pstmt.setTimestamp(index++, event.occurredAt);
+            }
+            pstmt.executeUpdate();
+        }
+        outboxWrittenCount.addAndGet(events.size());
+    }
+
+    // Getters
+    public int getSubscriberCount() { return subscriptions.size(); }
+    public long getPublishedCount() { return publishedCount.get(); }
+    public long getOutboxWrittenCount() { return outboxWrittenCount.get(); }
+    public long getOutboxFailedCount() { return outboxFailedCount.get(); }
+
+    /**
+     * Describes the feed and every subscriber, one line each
+     * @return printable summary
+     */
+    public String describe() {
+        StringBuilder text = new StringBuilder(String.format("published %d  subscribers %d  outbox %s (written %d, failed %d)",
+                publishedCount.get(), subscriptions.size(), outboxEnabled ? "on" : "off",
+                outboxWrittenCount.get(), outboxFailedCount.get()));
+        for (Subscription subscription : subscriptions) {
+            text.append(System.lineSeparator()).append("  ").append(subscription.describe());
+        }
+        return text.toString();
+    }
+
+    /**
+     * One committed change: the new status of a pet or adoption request
+     */
+    public static class Event {
+        private final Type type;
+        private final int entityId;
+        private final int petId;
+        private final int adopterId;
+        private final String status;
+        private final Timestamp occurredAt;
+        private volatile long sequence = 0;
+        private volatile boolean recorded = false;
+
+        private Event(Type type, int entityId, int petId, int adopterId, String status) {
+            this(type, entityId, petId, adopterId, status, new Timestamp(System.currentTimeMillis()));
+        }
+
+        private Event(Type type, int entityId, int petId, int adopterId, String status, Timestamp occurredAt) {
+            this.type = type;
+            this.entityId = entityId;
+            this.petId = petId;
+            this.adopterId = adopterId;
+            this.status = status;
+            this.occurredAt = occurredAt;
+        }
+
+        /**
+         * Events with the same key describe the same pet or request; the later one supersedes
+         */
+        long key() {
+            return ((long) type.ordinal() << 32) | (entityId & 0xFFFFFFFFL);
+        }
+
+        public Type getType() { return type; }
+        /** Pet ID for PET_STATUS, adoption request ID for REQUEST_STATUS */
+        public int getEntityId() { return entityId; }
+        public int getPetId() { return petId; }
+        /** Adopter of the request; 0 for pet events */
+        public int getAdopterId() { return adopterId; }
+        public String getStatus() { return status; }
+        public Timestamp getOccurredAt() { return occurredAt; }
+        /** Publication order within this JVM, or the outbox ID for events read from the outbox */
+        public long getSequence() { return sequence; }
+
+        @Override
+        public String toString() {
+            return type == Type.PET_STATUS
+                    ? "Pet #" + petId + " is now " + status
+                    : "Adoption request #" + entityId + " for pet #" + petId + " is now " + status;
+        }
+    }
+
+    /**
+     * Bounded, coalescing queue of events for one subscriber
+     * Uses a lock rather than monitors so API long polls do not pin their virtual threads
+     */
+    public static final class Subscription implements AutoCloseable {
+        private final ChangeFeed feed;
+        private final String name;
+        private final int capacity;
+        private final Predicate<Event> filter;
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition notEmpty = lock.newCondition();
+        // Insertion order is publication order; a superseded event is removed and re-added
+        private final LinkedHashMap<Long, Event> pending = new LinkedHashMap<>();
+        private boolean overflowed = false;
+        private boolean closed = false;
+
+        private long deliveredCount = 0;
+        private long coalescedCount = 0;
+        private long droppedCount = 0;
+
+        private Subscription(ChangeFeed feed, String name, int capacity, Predicate<Event> filter) {
+            this.feed = feed;
+            this.name = name;
+            this.capacity = Math.max(1, capacity);
+            this.filter = filter;
+        }
+
+        private void offer(Event event) {
+            lock.lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                Event previous = pending.remove(event.key());
+                if (previous != null) {
+                    if (previous.sequence > event.sequence) {
+                        // A later event for the same key overtook this one between threads
+                        pending.put(previous.key(), previous);
+                        return;
+                    }
+                    coalescedCount++;
+                } else if (pending.size() >= capacity) {
+                    Iterator<Event> oldest = pending.values().iterator();
+                    oldest.next();
+                    oldest.remove();
+                    droppedCount++;
+                    overflowed = true;
+                }
+                pending.put(event.key(), event);
+                notEmpty.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Takes every pending event without waiting
+         * @return events in publication order, possibly empty
+         */
+        public List<Event> drain() {
+            lock.lock();
+            try {
+                List<Event> events = new ArrayList<>(pending.values());
+                pending.clear();
+                deliveredCount += events.size();
+                return events;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Waits until at least one event is pending, then takes every pending event
+         * @param timeoutMillis Maximum time to wait
+         * @return events in publication order; empty on timeout or when closed
+         * @throws InterruptedException if the waiting thread is interrupted
+         */
+        public List<Event> poll(long timeoutMillis) throws InterruptedException {
+            lock.lock();
+            try {
+                long remaining = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+                while (pending.isEmpty() && !closed && remaining > 0) {
+                    remaining = notEmpty.awaitNanos(remaining);
+                }
+                return drain();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Checks and clears the overflow flag
+         * When it was set, events were dropped and the subscriber should re-read the state it shows
+         * @return true if events were dropped since the last call
+         */
+        public boolean checkOverflow() {
+            lock.lock();
+            try {
+                boolean result = overflowed;
+                overflowed = false;
+                return result;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Unregisters the subscription and wakes any waiting poll
+         */
+        @Override
+        public void close() {
+            feed.subscriptions.remove(this);
+            lock.lock();
+            try {
+                closed = true;
+                pending.clear();
+                notEmpty.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        public String getName() { return name; }
+
+        String describe() {
+            lock.lock();
+            try {
+                return String.format("%s: pending %d/%d  delivered %d  coalesced %d  dropped %d",
+                        name, pending.size(), capacity, deliveredCount, coalescedCount, droppedCount);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
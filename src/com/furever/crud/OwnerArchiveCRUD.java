@@ -0,0 +1,428 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.furever.crud;
+
+/**
+ *
+ * @author jerimiahtongco
+ */
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.furever.database.DbConnection;
+import com.furever.models.Pet;
+
+/**
+ * Cascading archive and restore of a pet owner with everything under them
+ * The owner, their pets and the pets' media, adoption requests and adoptions are moved
+ * with one INSERT ... SELECT and one DELETE ... JOIN per table, keyed by the owner ID,
+ * inside a single transaction. Every archive row of the tree gets the same archived_date,
+ * which is how a later restore finds exactly the rows that were archived together.
+ */
+public class OwnerArchiveCRUD {
+
+    /**
+     * Archives a pet owner together with their pets, pet media, adoption requests and adoptions
+     * @param petOwnerId ID of the pet owner to archive
+     * @param archivedByUserId ID of the user performing the archive operation
+     * @param reason Reason for archiving
+     * @return result with the number of rows moved per table
+     */
+    public CascadeResult archivePetOwnerCascade(int petOwnerId, Integer archivedByUserId, String reason) {
+        CascadeResult result = new CascadeResult(petOwnerId);
+        long started = System.currentTimeMillis();
+        // archived_date is DATETIME; whole seconds compare exactly after the round trip
+        Timestamp archivedAt = new Timestamp(started / 1000 * 1000);
+
+        String petsOfOwner = "JOIN tbl_pet p ON p.pet_id = %s.pet_id WHERE p.pet_owner_id = ?";
+        Map<Integer, String> petNames = new LinkedHashMap<>();
+        String ownerName;
+
+        try (Connection conn = DbConnection.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try {
+                // Lock the owner, then the pets; dependents are protected by their foreign keys
+                ownerName = lockName(conn, "SELECT pet_owner_name FROM tbl_pet_owner WHERE pet_owner_id = ? FOR UPDATE", petOwnerId);
+                if (ownerName == null) {
+                    conn.rollback();
+                    result.setErrorMessage("Pet owner with ID " + petOwnerId + " not found.");
+                    return result;
+                }
+                try (PreparedStatement pstmt = StatementCatalog.prepare(conn, "SELECT pet_id, pet_name FROM tbl_pet WHERE pet_owner_id = ? FOR UPDATE")) {
+                    pstmt.setInt(1, petOwnerId);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            petNames.put(rs.getInt(1), rs.getString(2));
+                        }
+                    }
+                }
+
+                // Copy the tree into the archive tables, children first
+                result.media = execute(conn, "INSERT INTO tbl_pet_media_archive (pet_media_id, pet_id, pet_media_name, pet_media_url, archived_date, archived_by_user_id, archive_reason) " +
+                        "SELECT m.pet_media_id, m.pet_id, m.pet_media_name, m.pet_media_url, ?, ?, ? FROM tbl_pet_media m " +
+                        String.format(petsOfOwner, "m"), archivedAt, archivedByUserId, reason, petOwnerId);
+                result.adoptionRequests = execute(conn, "INSERT INTO tbl_adoption_request_archive (adoption_request_id, pet_id, adopter_id, request_date, status, approval_date, remarks, user_id, archived, archived_date, archived_by_user_id, archive_reason) " +
+                        "SELECT r.adoption_request_id, r.pet_id, r.adopter_id, r.request_date, r.status, r.approval_date, r.remarks, r.user_id, TRUE, ?, ?, ? FROM tbl_adoption_request r " +
+                        String.format(petsOfOwner, "r"), archivedAt, archivedByUserId, reason, petOwnerId);
+                result.adoptions = execute(conn, "INSERT INTO tbl_adoption_archive (adoption_id, pet_id, adopter_id, adoption_date, upload_adoption_document, remarks, user_id, archived, archived_date, archived_by_user_id, archive_reason) " +
+                        "SELECT a.adoption_id, a.pet_id, a.adopter_id, a.adoption_date, a.upload_adoption_document, a.remarks, a.user_id, TRUE, ?, ?, ? FROM tbl_adoption a " +
+                        String.format(petsOfOwner, "a"), archivedAt, archivedByUserId, reason, petOwnerId);
+                result.pets = execute(conn, "INSERT INTO tbl_pet_archive (pet_id, pet_owner_id, pet_name, pet_type_id, description, age, gender, health_status, upload_health_history, vaccination_status, proof_of_vaccination, adoption_status, date_registered, archived, archived_date, archived_by_user_id, archive_reason) " +
+                        "SELECT pet_id, pet_owner_id, pet_name, pet_type_id, description, age, gender, health_status, upload_health_history, vaccination_status, proof_of_vaccination, adoption_status, date_registered, TRUE, ?, ?, ? " +
+                        "FROM tbl_pet WHERE pet_owner_id = ?", archivedAt, archivedByUserId, reason, petOwnerId);
+                result.owners = execute(conn, "INSERT INTO tbl_pet_owner_archive (pet_owner_id, pet_owner_name, pet_owner_contact, pet_owner_email, pet_owner_address, pet_owner_profile, pet_owner_username, pet_owner_password, username, archived, archived_date, archived_by_user_id, archive_reason) " +
+                        "SELECT pet_owner_id, pet_owner_name, pet_owner_contact, pet_owner_email, pet_owner_address, pet_owner_profile, pet_owner_username, pet_owner_password, username, TRUE, ?, ?, ? " +
+                        "FROM tbl_pet_owner WHERE pet_owner_id = ?", archivedAt, archivedByUserId, reason, petOwnerId);
+
+                result.logRows = writeLog(conn, "ARCHIVE", petOwnerId, archivedAt, archivedByUserId, reason, "");
+
+                // Remove the live rows, children before parents; every count must match its copy
+                expect(result.media, "tbl_pet_media", execute(conn, "DELETE m FROM tbl_pet_media m " + String.format(petsOfOwner, "m"), petOwnerId));
+                expect(result.adoptionRequests, "tbl_adoption_request", execute(conn, "DELETE r FROM tbl_adoption_request r " + String.format(petsOfOwner, "r"), petOwnerId));
+                expect(result.adoptions, "tbl_adoption", execute(conn, "DELETE a FROM tbl_adoption a " + String.format(petsOfOwner, "a"), petOwnerId));
+                expect(result.pets, "tbl_pet", execute(conn, "DELETE FROM tbl_pet WHERE pet_owner_id = ?", petOwnerId));
+                expect(result.owners, "tbl_pet_owner", execute(conn, "DELETE FROM tbl_pet_owner WHERE pet_owner_id = ?", petOwnerId));
+
+                conn.commit();
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error archiving pet owner " + petOwnerId + " with dependents: " + e.getMessage());
+            result.setErrorMessage(e.getMessage());
+            result.clearCounts();
+            return result;
+        }
+
+        result.success = true;
+        result.elapsedMillis = System.currentTimeMillis() - started;
+
+        // Several statuses and tables changed at once, so reconcile instead of adjusting
+        StatisticsSnapshot.getInstance().markStale();
+        SearchIndexes searchIndexes = SearchIndexes.getInstance();
+        searchIndexes.removePetOwner(petOwnerId);
+        PetRecommender recommender = PetRecommender.getInstance();
+        List<ChangeFeed.Event> events = new ArrayList<>();
+        for (Integer petId : petNames.keySet()) {
+            searchIndexes.removePet(petId);
+            recommender.removePet(petId);
+            events.add(ChangeFeed.petStatus(petId, ChangeFeed.REMOVED));
+        }
+        ChangeFeed.getInstance().publish(events);
+        PetOwnerCRUD.invalidatePetOwnerCache();
+        return result;
+    }
+
+    /**
+     * Restores a pet owner together with every row archived with them by archivePetOwnerCascade
+     * Adoption requests and adoptions whose adopter is no longer active stay in the archive.
+     * Rows already moved to cold storage are copied back into the archive tables first.
+     * @param petOwnerId ID of the archived pet owner
+     * @param restoredByUserId ID of the user performing the restore operation
+     * @param reason Reason for restoring
+     * @return result with the number of rows restored per table
+     */
+    public CascadeResult restorePetOwnerCascade(int petOwnerId, Integer restoredByUserId, String reason) {
+        CascadeResult result = new CascadeResult(petOwnerId);
+        long started = System.currentTimeMillis();
+
+        // Archived pets of this owner that were archived together with the owner
+        String archivedPets = "JOIN tbl_pet_archive pa ON pa.pet_id = %s.pet_id " +
+                              "WHERE pa.pet_owner_id = ? AND pa.archived_date = ? AND %s.archived_date = ?";
+        String activeAdopter = "JOIN tbl_adopter ad ON ad.adopter_id = %s.adopter_id ";
+        // Archive rows whose live copy now exists under a restored pet of this owner
+        String restoredPets = "JOIN tbl_pet p ON p.pet_id = %s.pet_id WHERE p.pet_owner_id = ? AND %s.archived_date = ?";
+        Map<Integer, String> petNames = new LinkedHashMap<>();
+        String ownerName;
+        Timestamp archivedAt;
+
+        rehydrateFromColdStorage(petOwnerId);
+
+        try (Connection conn = DbConnection.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try {
+                try (PreparedStatement pstmt = StatementCatalog.prepare(conn, 
+                        "SELECT pet_owner_name, archived_date FROM tbl_pet_owner_archive WHERE pet_owner_id = ? FOR UPDATE")) {
+                    pstmt.setInt(1, petOwnerId);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        if (!rs.next()) {
+                            conn.rollback();
+                            result.setErrorMessage("Archived pet owner with ID " + petOwnerId + " not found.");
+                            return result;
+                        }
+                        ownerName = rs.getString(1);
+                        archivedAt = rs.getTimestamp(2);
+                    }
+                }
+                try (PreparedStatement pstmt = StatementCatalog.prepare(conn, 
+                        "SELECT pet_id, pet_name FROM tbl_pet_archive WHERE pet_owner_id = ? AND archived_date = ? FOR UPDATE")) {
+                    pstmt.setInt(1, petOwnerId);
+                    pstmt.setTimestamp(2, archivedAt);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            petNames.put(rs.getInt(1), rs.getString(2));
+                        }
+                    }
+                }
+
+                // Copy the tree back, parents first
+                result.owners = execute(conn, "INSERT INTO tbl_pet_owner (pet_owner_id, pet_owner_name, pet_owner_contact, pet_owner_email, pet_owner_address, pet_owner_profile, pet_owner_username, pet_owner_password, username, archived, archived_date) " +
+                        "SELECT pet_owner_id, pet_owner_name, pet_owner_contact, pet_owner_email, pet_owner_address, pet_owner_profile, pet_owner_username, pet_owner_password, username, FALSE, NULL " +
+                        "FROM tbl_pet_owner_archive WHERE pet_owner_id = ?", petOwnerId);
+                result.pets = execute(conn, "INSERT INTO tbl_pet (pet_id, pet_owner_id, pet_name, pet_type_id, description, age, gender, health_status, upload_health_history, vaccination_status, proof_of_vaccination, adoption_status, date_registered, archived, archived_date) " +
+                        "SELECT pet_id, pet_owner_id, pet_name, pet_type_id, description, age, gender, health_status, upload_health_history, vaccination_status, proof_of_vaccination, adoption_status, date_registered, FALSE, NULL " +
+                        "FROM tbl_pet_archive WHERE pet_owner_id = ? AND archived_date = ?", petOwnerId, archivedAt);
+                result.adoptions = execute(conn, "INSERT INTO tbl_adoption (adoption_id, pet_id, adopter_id, adoption_date, upload_adoption_document, remarks, user_id, archived, archived_date) " +
+                        "SELECT aa.adoption_id, aa.pet_id, aa.adopter_id, aa.adoption_date, aa.upload_adoption_document, aa.remarks, aa.user_id, FALSE, NULL FROM tbl_adoption_archive aa " +
+                        String.format(activeAdopter, "aa") + String.format(archivedPets, "aa", "aa"), petOwnerId, archivedAt, archivedAt);
+                result.adoptionRequests = execute(conn, "INSERT INTO tbl_adoption_request (adoption_request_id, pet_id, adopter_id, request_date, status, approval_date, remarks, user_id, archived, archived_date) " +
+                        "SELECT ra.adoption_request_id, ra.pet_id, ra.adopter_id, ra.request_date, ra.status, ra.approval_date, ra.remarks, ra.user_id, FALSE, NULL FROM tbl_adoption_request_archive ra " +
+                        String.format(activeAdopter, "ra") + String.format(archivedPets, "ra", "ra"), petOwnerId, archivedAt, archivedAt);
+                result.media = execute(conn, "INSERT INTO tbl_pet_media (pet_media_id, pet_id, pet_media_name, pet_media_url) " +
+                        "SELECT ma.pet_media_id, ma.pet_id, ma.pet_media_name, ma.pet_media_url FROM tbl_pet_media_archive ma " +
+                        String.format(archivedPets, "ma", "ma"), petOwnerId, archivedAt, archivedAt);
+
+                // Log only what came back; rows held back for inactive adopters are not restored
+                result.logRows = writeLog(conn, "RESTORE", petOwnerId, archivedAt, restoredByUserId, reason, String.format(activeAdopter, "%1$s"));
+
+                // Remove the archive copies of restored rows, children before parents
+                expect(result.media, "tbl_pet_media_archive", execute(conn, "DELETE ma FROM tbl_pet_media_archive ma " + String.format(restoredPets, "ma", "ma"), petOwnerId, archivedAt));
+                expect(result.adoptionRequests, "tbl_adoption_request_archive", execute(conn, "DELETE ra FROM tbl_adoption_request_archive ra " +
+                        "JOIN tbl_adoption_request r ON r.adoption_request_id = ra.adoption_request_id " + String.format(restoredPets, "ra", "ra"), petOwnerId, archivedAt));
+                expect(result.adoptions, "tbl_adoption_archive", execute(conn, "DELETE aa FROM tbl_adoption_archive aa " +
+                        "JOIN tbl_adoption a ON a.adoption_id = aa.adoption_id " + String.format(restoredPets, "aa", "aa"), petOwnerId, archivedAt));
+                expect(result.pets, "tbl_pet_archive", execute(conn, "DELETE pa FROM tbl_pet_archive pa " + String.format(restoredPets, "pa", "pa"), petOwnerId, archivedAt));
+                expect(result.owners, "tbl_pet_owner_archive", execute(conn, "DELETE FROM tbl_pet_owner_archive WHERE pet_owner_id = ?", petOwnerId));
+
+                // Whatever is still archived under these pets was held back
+                result.heldBack = count(conn, "SELECT (SELECT COUNT(*) FROM tbl_adoption_request_archive ra " + String.format(restoredPets, "ra", "ra") + ") + " +
+                        "(SELECT COUNT(*) FROM tbl_adoption_archive aa " + String.format(restoredPets, "aa", "aa") + ")",
+                        petOwnerId, archivedAt, petOwnerId, archivedAt);
+
+                conn.commit();
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error restoring pet owner " + petOwnerId + " with dependents: " + e.getMessage());
+            result.setErrorMessage(e.getMessage());
+            result.clearCounts();
+            return result;
+        }
+
+        result.success = true;
+        result.elapsedMillis = System.currentTimeMillis() - started;
+
+        StatisticsSnapshot.getInstance().markStale();
+        SearchIndexes searchIndexes = SearchIndexes.getInstance();
+        searchIndexes.indexPetOwner(petOwnerId, ownerName);
+        for (Map.Entry<Integer, String> pet : petNames.entrySet()) {
+            searchIndexes.indexPet(pet.getKey(), pet.getValue());
+        }
+        PetRecommender.getInstance().reindexPets(petNames.keySet());
+        publishRestoredPets(petNames.keySet());
+        PetOwnerCRUD.invalidatePetOwnerCache();
+        return result;
+    }
+
+    /**
+     * Publishes the status of every restored pet; skipped when nobody follows the change feed
+     */
+    private void publishRestoredPets(Collection<Integer> petIds) {
+        ChangeFeed changeFeed = ChangeFeed.getInstance();
+        if (!changeFeed.isActive()) {
+            return;
+        }
+        PetCRUD petCRUD = new PetCRUD();
+        List<ChangeFeed.Event> events = new ArrayList<>();
+        for (Integer petId : petIds) {
+            Pet pet = petCRUD.getPetById(petId);
+            if (pet != null) {
+                events.add(ChangeFeed.petStatus(petId, pet.getAdoptionStatus()));
+            }
+        }
+        changeFeed.publish(events);
+    }
+
+    /**
+     * Copies an archived owner's rows back from cold storage: the owner, their pets, and the
+     * media, adoption requests and adoptions of those pets
+     */
+    private void rehydrateFromColdStorage(int petOwnerId) {
+        ArchiveColdStorage coldStorage = ArchiveColdStorage.getInstance();
+        coldStorage.rehydrate("tbl_pet_owner_archive", petOwnerId);
+        coldStorage.rehydrateWhere("tbl_pet_archive", "pet_owner_id", Set.of(String.valueOf(petOwnerId)));
+
+        Set<String> petIds = new HashSet<>();
+        try (Connection conn = DbConnection.getConnection();
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, "SELECT pet_id FROM tbl_pet_archive WHERE pet_owner_id = ?")) {
+            pstmt.setInt(1, petOwnerId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    petIds.add(String.valueOf(rs.getInt(1)));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error reading archived pets for cold storage restore: " + e.getMessage());
+            return;
+        }
+
+        coldStorage.rehydrateWhere("tbl_pet_media_archive", "pet_id", petIds);
+        coldStorage.rehydrateWhere("tbl_adoption_request_archive", "pet_id", petIds);
+        coldStorage.rehydrateWhere("tbl_adoption_archive", "pet_id", petIds);
+    }
+
+    /**
+     * Writes one archive log row per owner, pet, pet media, adoption request and adoption of the tree
+     * The rows are selected from the archive tables, so this runs after the copy and before the delete
+     * @param dependentFilter Extra join applied to requests and adoptions ("%1$s" is the table alias), or empty
+     * @return number of log rows written
+     */
+    private int writeLog(Connection conn, String operation, int petOwnerId, Timestamp archivedAt,
+                         Integer userId, String reason, String dependentFilter) throws SQLException {
+        String underPets = "JOIN tbl_pet_archive pa ON pa.pet_id = %1$s.pet_id " +
+                           "WHERE pa.pet_owner_id = ? AND pa.archived_date = ? AND %1$s.archived_date = ?";
+        String sql = "INSERT INTO tbl_archive_log (table_name, record_id, operation, performed_by_user_id, reason) " +
+                     "SELECT 'tbl_pet_owner', pet_owner_id, ?, ?, ? FROM tbl_pet_owner_archive WHERE pet_owner_id = ? " +
+                     "UNION ALL SELECT 'tbl_pet', pet_id, ?, ?, ? FROM tbl_pet_archive WHERE pet_owner_id = ? AND archived_date = ? " +
+                     "UNION ALL SELECT 'tbl_pet_media', ma.pet_media_id, ?, ?, ? FROM tbl_pet_media_archive ma " + String.format(underPets, "ma") + " " +
+                     "UNION ALL SELECT 'tbl_adoption_request', ra.adoption_request_id, ?, ?, ? FROM tbl_adoption_request_archive ra " +
+                     String.format(dependentFilter, "ra") + String.format(underPets, "ra") + " " +
+                     "UNION ALL SELECT 'tbl_adoption', aa.adoption_id, ?, ?, ? FROM tbl_adoption_archive aa " +
+                     String.format(dependentFilter, "aa") + String.format(underPets, "aa");
+
+        return execute(conn, sql,
+                operation, userId, reason, petOwnerId,
+                operation, userId, reason, petOwnerId, archivedAt,
+                operation, userId, reason, petOwnerId, archivedAt, archivedAt,
+                operation, userId, reason, petOwnerId, archivedAt, archivedAt,
+                operation, userId, reason, petOwnerId, archivedAt, archivedAt);
+    }
+
+    /**
+     * Fails the transaction when a delete did not remove exactly the rows that were copied
+     */
+    private void expect(int copied, String table, int deleted) throws SQLException {
+        if (copied != deleted) {
+            throw new SQLException("Copied " + copied + " rows of " + table + " but removed " + deleted + "; rolled back.");
+        }
+    }
+
+    private String lockName(Connection conn, String sql, int id) throws SQLException {
+        try (PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
+            pstmt.setInt(1, id);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    private int count(Connection conn, String sql, Object... params) throws SQLException {
+        try (PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
+            bind(pstmt, params);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    /**
+     * Executes a statement with positional parameters
+     * @return number of rows affected
+     * @throws SQLException if database access error occurs
+     */
+    private int execute(Connection conn, String sql, Object... params) throws SQLException {
+        try (PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
+            bind(pstmt, params);
+            return pstmt.executeUpdate();
+        }
+    }
+
+    private void bind(PreparedStatement pstmt, Object... params) throws SQLException {
+        for (int i = 0; i < params.length; i++) {
+            Object param = params[i];
+            if (param == null) {
+                // Only the user ID and the reason are ever null here
+                pstmt.setNull(i + 1, java.sql.Types.VARCHAR);
+            } else if (param instanceof Integer) {
+                pstmt.setInt(i + 1, (Integer) param);
+            } else if (param instanceof Timestamp) {
+                pstmt.setTimestamp(i + 1, (Timestamp) param);
+            } else {
+                pstmt.setString(i + 1, param.toString());
+            }
+        }
+    }
+
+    /**
+     * Inner class to represent the outcome of a cascading archive or restore
+     */
+    public static class CascadeResult {
+        private final int petOwnerId;
+        private boolean success;
+        private int owners;
+        private int pets;
+        private int media;
+        private int adoptionRequests;
+        private int adoptions;
+        private int heldBack;
+        private int logRows;
+        private long elapsedMillis;
+        private String errorMessage;
+
+        CascadeResult(int petOwnerId) {
+            this.petOwnerId = petOwnerId;
+        }
+
+        private void clearCounts() {
+            owners = pets = media = adoptionRequests = adoptions = heldBack = logRows = 0;
+        }
+
+        // Getters and setters
+        public int getPetOwnerId() { return petOwnerId; }
+        public boolean isSuccess() { return success; }
+        public int getOwners() { return owners; }
+        public int getPets() { return pets; }
+        public int getMedia() { return media; }
+        public int getAdoptionRequests() { return adoptionRequests; }
+        public int getAdoptions() { return adoptions; }
+
+        /**
+         * Gets the adoption requests and adoptions left in the archive on restore because their adopter is not active
+         * @return number of rows held back
+         */
+        public int getHeldBack() { return heldBack; }
+
+        public int getLogRows() { return logRows; }
+        public long getElapsedMillis() { return elapsedMillis; }
+
+        public String getErrorMessage() { return errorMessage; }
+        public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+
+        @Override
+        public String toString() {
+            return String.format("owner %d: %d pet(s), %d media, %d request(s), %d adoption(s), %d log row(s) in %d ms",
+                    petOwnerId, pets, media, adoptionRequests, adoptions, logRows, elapsedMillis);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.furever.crud;
+
+/**
+ *
+ * @author jerimiahtongco
+ */
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * One page of a keyset-paginated list
+ * @param <T> Type of the rows in the page
+ */
+public class Page<T> {
+    
+    private final List<T> items;
+    private final PageCursor nextCursor;
+    private final boolean hasMore;
+    
+    public Page(List<T> items, PageCursor nextCursor, boolean hasMore) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+    
+    /**
+     * Builds a page of a list ordered by ID from up to pageSize + 1 rows
+     * The extra row only shows that another page follows and is dropped
+     * @param <T> Type of the rows
+     * @param rows Rows read for the page; trimmed in place
+     * @param pageSize Requested page size
+     * @param idOf Gets the ID of a row
+     * @return Page with the cursor after its last row
+     */
+    static <T> Page<T> ofIds(List<T> rows, int pageSize, ToIntFunction<T> idOf) {
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows.remove(rows.size() - 1);
+        }
+        PageCursor next = rows.isEmpty() ? PageCursor.FIRST : PageCursor.afterId(idOf.applyAsInt(rows.get(rows.size() - 1)));
+        return new Page<>(rows, next, hasMore);
+    }
+    
+    /**
+     * Builds a page of a list ordered by date DESC, ID DESC from up to pageSize + 1 rows
+     * The extra row only shows that another page follows and is dropped
+     * @param <T> Type of the rows
+     * @param rows Rows read for the page; trimmed in place
+     * @param dates Date of each row, in the same order
+     * @param pageSize Requested page size
+     * @param idOf Gets the ID of a row
+     * @param after Cursor the rows were read after, kept when the page is empty
+     * @return Page with the cursor after its last row
+     */
+    static <T> Page<T> ofDescending(List<T> rows, List<Timestamp> dates, int pageSize, ToIntFunction<T> idOf, PageCursor after) {
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows.remove(rows.size() - 1);
+        }
+        PageCursor next = rows.isEmpty() ? after
+                : PageCursor.afterDateAndId(dates.get(rows.size() - 1), idOf.applyAsInt(rows.get(rows.size() - 1)));
+        return new Page<>(rows, next, hasMore);
+    }
+    
+    public List<T> getItems() {
+        return items;
+    }
+    
+    /**
+     * Gets the cursor to pass in when loading the next page
+     * @return cursor positioned after the last row of this page
+     */
+    public PageCursor getNextCursor() {
+        return nextCursor;
+    }
+    
+    public boolean hasMore() {
+        return hasMore;
+    }
+    
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.furever.crud;
+
+/**
+ *
+ * @author jerimiahtongco
+ */
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * Keyset pagination cursor marking the last row of a page
+ * ID-ordered lists only use the ID; archive lists ordered by date newest first
+ * also carry the date of the last row so the next page can continue after it
+ */
+public class PageCursor {
+    
+    /**
+     * Cursor for the first page of any list
+     */
+    public static final PageCursor FIRST = new PageCursor(true, 0, null);
+    
+    private final boolean first;
+    private final int lastId;
+    private final Timestamp lastDate;
+    
+    private PageCursor(boolean first, int lastId, Timestamp lastDate) {
+        this.first = first;
+        this.lastId = lastId;
+        this.lastDate = lastDate;
+    }
+    
+    /**
+     * Creates a cursor positioned after the given ID (ascending ID order)
+     * @param lastId ID of the last row already seen
+     * @return cursor for the next page
+     */
+    public static PageCursor afterId(int lastId) {
+        return new PageCursor(false, lastId, null);
+    }
+    
+    /**
+     * Creates a cursor positioned after the given row (date descending, then ID descending)
+     * @param lastDate Date of the last row already seen, may be null
+     * @param lastId ID of the last row already seen
+     * @return cursor for the next page
+     */
+    public static PageCursor afterDateAndId(Timestamp lastDate, int lastId) {
+        return new PageCursor(false, lastId, lastDate);
+    }
+    
+    public boolean isFirst() {
+        return first;
+    }
+    
+    public int getLastId() {
+        return lastId;
+    }
+    
+    public Timestamp getLastDate() {
+        return lastDate;
+    }
+    
+    /**
+     * Builds the WHERE predicate for a list ordered by dateColumn DESC, idColumn DESC
+     * MySQL sorts NULL dates last in descending order, so rows without a date come after all dated rows
+     * @param dateColumn Name of the date column
+     * @param idColumn Name of the primary key column
+     * @return SQL predicate, or "1 = 1" for the first page
+     */
+    String descendingPredicate(String dateColumn, String idColumn) {
+        if (first) {
+            return "1 = 1";
+        }
+        if (lastDate == null) {
+            return "(" + dateColumn + " IS NULL AND " + idColumn + " < ?)";
+        }
+        return "(" + dateColumn + " < ? OR (" + dateColumn + " = ? AND " + idColumn + " < ?) OR " + dateColumn + " IS NULL)";
+    }
+    
+    /**
+     * Tells whether a row comes after this cursor in a list ordered by date DESC, ID DESC
+     * In-memory counterpart of descendingPredicate, for rows that are not read through SQL
+     * @param date Date of the row, may be null
+     * @param id ID of the row
+     * @return true if the row belongs on a page after this cursor
+     */
+    boolean admitsDescending(Timestamp date, int id) {
+        return first || compareDescending(lastDate, lastId, date, id) < 0;
+    }
+    
+    /**
+     * Compares two rows in date DESC, ID DESC order with NULL dates last, as MySQL sorts them
+     * @return negative if row A comes first, positive if row B comes first, 0 for the same position
+     */
+    static int compareDescending(Timestamp dateA, int idA, Timestamp dateB, int idB) {
+        if (dateA == null || dateB == null) {
+            if (dateA != dateB) {
+                return dateA == null ? 1 : -1;
+            }
+        } else if (!dateA.equals(dateB)) {
+            return dateB.compareTo(dateA);
+        }
+        return Integer.compare(idB, idA);
+    }
+    
+    /**
+     * Binds the parameters of descendingPredicate starting at the given index
+     * @param pstmt Statement to bind
+     * @param index Index of the first predicate parameter
+     * @return index of the next free parameter
+     * @throws SQLException if database access error occurs
+     */
+    int bindDescending(PreparedStatement pstmt, int index) throws SQLException {
+        if (first) {
+            return index;
+        }
+        if (lastDate == null) {
+            pstmt.setInt(index, lastId);
+            return index + 1;
+        }
+        pstmt.setTimestamp(index, lastDate);
+        pstmt.setTimestamp(index + 1, lastDate);
+        pstmt.setInt(index + 2, lastId);
+        return index + 3;
+    }
+}
@@ -13,17 +13,35 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import com.furever.database.DbConnection;
+import com.furever.database.OperationMetrics;
 import com.furever.models.Pet;
 
 /**
  * CRUD operations for Pet entity
+ * List, search and page methods return the summary projection; getPetById returns the full record
  */
 public class PetCRUD {
     
+    // Characters of the description transferred for list screens
+    static final int DESCRIPTION_PREVIEW_LENGTH = 60;
+    
+    /** Columns shown by pet tables; the description is a preview and the health documents are left out */
+    static final RowMapper<Pet> PET_SUMMARY = petColumns(new RowMapper<>(Pet::new))
+            .preview("description", DESCRIPTION_PREVIEW_LENGTH, (p, rs, i) -> p.setDescription(rs.getString(i)));
+    
+    /** Every pet column, used for single-pet reads and archive copies */
+    static final RowMapper<Pet> PET_DETAIL = petColumns(new RowMapper<>(Pet::new))
+            .column("description", (p, rs, i) -> p.setDescription(rs.getString(i)))
+            .column("upload_health_history", (p, rs, i) -> p.setUploadHealthHistory(rs.getString(i)))
+            .column("proof_of_vaccination", (p, rs, i) -> p.setProofOfVaccination(rs.getString(i)));
+    
     /**
      * Creates a new pet in the database
      * @param pet Pet object to create
@@ -33,7 +51,7 @@ public class PetCRUD {
         String sql = "INSERT INTO tbl_pet (pet_owner_id, pet_name, pet_type_id, description, age, gender, health_status, upload_health_history, vaccination_status, proof_of_vaccination, adoption_status, date_registered) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
         
         try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql, Statement.RETURN_GENERATED_KEYS)) {
             
             // Set current date for registration
             java.sql.Date currentDate = new java.sql.Date(System.currentTimeMillis());
@@ -62,6 +80,12 @@ public class PetCRUD {
                     }
                 }
                 System.out.println("Pet created successfully with ID: " + pet.getPetId());
+                StatisticsSnapshot statistics = StatisticsSnapshot.getInstance();
+                statistics.adjust(StatisticsSnapshot.Counter.PETS_TOTAL, 1);
+                statistics.adjust(StatisticsSnapshot.Counter.forPetStatus(pet.getAdoptionStatus()), 1);
+                SearchIndexes.getInstance().indexPet(pet.getPetId(), pet.getPetName());
+                PetRecommender.getInstance().indexPet(pet);
+                ChangeFeed.getInstance().publish(ChangeFeed.petStatus(pet.getPetId(), pet.getAdoptionStatus()));
                 return true;
             }
             
@@ -78,16 +102,16 @@ public class PetCRUD {
      * @return Pet object if found, null otherwise
      */
     public Pet getPetById(int petId) {
-        String sql = "SELECT * FROM tbl_pet WHERE pet_id = ?";
+        String sql = StatementCatalog.PET_BY_ID;
         
-        try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DbConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             
             pstmt.setInt(1, petId);
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return extractPetFromResultSet(rs);
+                    return PET_DETAIL.map(rs);
                 }
             }
             
@@ -104,14 +128,14 @@ public class PetCRUD {
      */
     public List<Pet> getAllPets() {
         List<Pet> pets = new ArrayList<>();
-        String sql = "SELECT * FROM tbl_pet WHERE archived = false ORDER BY pet_id";
+        String sql = StatementCatalog.PETS_ACTIVE;
         
-        try (Connection conn = DbConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        try (Connection conn = DbConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql);
+             ResultSet rs = pstmt.executeQuery()) {
             
             while (rs.next()) {
-                pets.add(extractPetFromResultSet(rs));
+                pets.add(PET_SUMMARY.map(rs));
             }
             
         } catch (SQLException e) {
@@ -128,16 +152,16 @@ public class PetCRUD {
      */
     public List<Pet> getPetsByAdoptionStatus(String status) {
         List<Pet> pets = new ArrayList<>();
-        String sql = "SELECT * FROM tbl_pet WHERE adoption_status = ? AND archived = false ORDER BY pet_id";
+        String sql = StatementCatalog.PETS_BY_STATUS;
         
-        try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DbConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             
             pstmt.setString(1, status);
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    pets.add(extractPetFromResultSet(rs));
+                    pets.add(PET_SUMMARY.map(rs));
                 }
             }
             
@@ -155,16 +179,16 @@ public class PetCRUD {
      */
     public List<Pet> getPetsByType(int petTypeId) {
         List<Pet> pets = new ArrayList<>();
-        String sql = "SELECT * FROM tbl_pet WHERE pet_type_id = ? ORDER BY pet_id";
+        String sql = "SELECT " + PET_SUMMARY.columns() + " FROM tbl_pet WHERE pet_type_id = ? ORDER BY pet_id";
         
-        try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DbConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             
             pstmt.setInt(1, petTypeId);
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    pets.add(extractPetFromResultSet(rs));
+                    pets.add(PET_SUMMARY.map(rs));
                 }
             }
             
@@ -182,16 +206,16 @@ public class PetCRUD {
      */
     public List<Pet> getPetsByOwner(int ownerId) {
         List<Pet> pets = new ArrayList<>();
-        String sql = "SELECT * FROM tbl_pet WHERE pet_owner_id = ? AND archived = false ORDER BY pet_id";
+        String sql = StatementCatalog.PETS_BY_OWNER;
         
-        try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DbConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             
             pstmt.setInt(1, ownerId);
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    pets.add(extractPetFromResultSet(rs));
+                    pets.add(PET_SUMMARY.map(rs));
                 }
             }
             
@@ -211,7 +235,7 @@ public class PetCRUD {
         String sql = "UPDATE tbl_pet SET pet_owner_id = ?, pet_name = ?, pet_type_id = ?, description = ?, age = ?, gender = ?, health_status = ?, upload_health_history = ?, vaccination_status = ?, proof_of_vaccination = ?, adoption_status = ? WHERE pet_id = ?";
         
         try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             
             pstmt.setInt(1, pet.getPetOwnerId());
             pstmt.setString(2, pet.getPetName());
@@ -230,6 +254,11 @@ public class PetCRUD {
             
             if (rowsAffected > 0) {
                 System.out.println("Pet updated successfully.");
+                // The adoption status may have changed from an unknown previous value
+                StatisticsSnapshot.getInstance().markStale();
+                SearchIndexes.getInstance().indexPet(pet.getPetId(), pet.getPetName());
+                PetRecommender.getInstance().indexPet(pet);
+                ChangeFeed.getInstance().publish(ChangeFeed.petStatus(pet.getPetId(), pet.getAdoptionStatus()));
                 return true;
             } else {
                 System.out.println("No pet found with ID: " + pet.getPetId());
@@ -251,7 +280,7 @@ public class PetCRUD {
         String sql = "DELETE FROM tbl_pet WHERE pet_id = ?";
         
         try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             
             pstmt.setInt(1, petId);
             
@@ -259,6 +288,11 @@ public class PetCRUD {
             
             if (rowsAffected > 0) {
                 System.out.println("Pet deleted successfully.");
+                // The deleted pet's status is unknown here
+                StatisticsSnapshot.getInstance().markStale();
+                SearchIndexes.getInstance().removePet(petId);
+                PetRecommender.getInstance().removePet(petId);
+                ChangeFeed.getInstance().publish(ChangeFeed.petStatus(petId, ChangeFeed.REMOVED));
                 return true;
             } else {
                 System.out.println("No pet found with ID: " + petId);
@@ -272,22 +306,29 @@ public class PetCRUD {
     }
     
     /**
-     * Searches pets by name
+     * Searches pets by name using the in-memory trigram index
+     * Matches substrings, prefixes and near misses, best match first
      * @param searchTerm Search term to match against pet names
      * @return List of pets matching the search term
      */
     public List<Pet> searchPetsByName(String searchTerm) {
+        SearchIndexes searchIndexes = SearchIndexes.getInstance();
+        if (searchIndexes.isReady()) {
+            return getPetsByRankedIds(searchIndexes.searchPetIds(searchTerm));
+        }
+        
+        // Fallback when the in-memory index could not be loaded
         List<Pet> pets = new ArrayList<>();
-        String sql = "SELECT * FROM tbl_pet WHERE pet_name LIKE ? ORDER BY pet_name";
+        String sql = "SELECT " + PET_SUMMARY.columns() + " FROM tbl_pet WHERE pet_name LIKE ? ORDER BY pet_name";
         
-        try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DbConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             
             pstmt.setString(1, "%" + searchTerm + "%");
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    pets.add(extractPetFromResultSet(rs));
+                    pets.add(PET_SUMMARY.map(rs));
                 }
             }
             
@@ -299,37 +340,75 @@ public class PetCRUD {
     }
     
     /**
-     * Counts total number of pets
-     * @return Total count of pets
+     * Retrieves the available pets that best match an adopter's request history
+     * @param adopterId Adopter ID
+     * @param limit Maximum number of pets
+     * @return List of recommended pets, best match first; empty if the recommender is unavailable
      */
-    public int getPetCount() {
-        String sql = "SELECT COUNT(*) FROM tbl_pet";
+    public List<Pet> getRecommendedPets(int adopterId, int limit) {
+        List<Integer> ids = new ArrayList<>();
+        for (PetRecommender.Recommendation recommendation : PetRecommender.getInstance().recommend(adopterId, limit)) {
+            ids.add(recommendation.getPetId());
+        }
+        return getPetsByRankedIds(ids);
+    }
+    
+    /**
+     * Loads pets for IDs ranked by the search index, keeping the ranking order
+     * @param ids Ranked pet IDs
+     * @return List of pets in ranking order
+     */
+    private List<Pet> getPetsByRankedIds(List<Integer> ids) {
+        List<Pet> pets = new ArrayList<>();
+        if (ids.isEmpty()) {
+            return pets;
+        }
         
-        try (Connection conn = DbConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        String sql = "SELECT " + PET_SUMMARY.columns() + " FROM tbl_pet WHERE " + SearchIndexes.rankedIdClause("pet_id", ids);
+        
+        try (Connection conn = DbConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             
-            if (rs.next()) {
-                return rs.getInt(1);
+            SearchIndexes.bindRankedIds(pstmt, ids);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    pets.add(PET_SUMMARY.map(rs));
+                }
             }
             
         } catch (SQLException e) {
-            System.err.println("Error counting pets: " + e.getMessage());
+            System.err.println("Error searching pets: " + e.getMessage());
         }
         
-        return 0;
+        return pets;
+    }
+    
+    /**
+     * Counts total number of pets
+     * Served from the shared statistics snapshot
+     * @return Total count of pets
+     */
+    public int getPetCount() {
+        return StatisticsSnapshot.getInstance().getCount(StatisticsSnapshot.Counter.PETS_TOTAL);
     }
     
     /**
      * Counts pets by adoption status
+     * Known statuses are served from the shared statistics snapshot
      * @param status Adoption status to count
      * @return Count of pets with the specified status
      */
     public int getPetCountByStatus(String status) {
+        StatisticsSnapshot.Counter counter = StatisticsSnapshot.Counter.forPetStatus(status);
+        if (counter != null) {
+            return StatisticsSnapshot.getInstance().getCount(counter);
+        }
+        
         String sql = "SELECT COUNT(*) FROM tbl_pet WHERE adoption_status = ?";
         
-        try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DbConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             
             pstmt.setString(1, status);
             
@@ -347,27 +426,22 @@ public class PetCRUD {
     }
     
     /**
-     * Extracts Pet object from ResultSet
-     * @param rs ResultSet containing pet data
-     * @return Pet object
-     * @throws SQLException if database access error occurs
+     * Adds the pet columns shared by the summary and detail projections
+     * @param mapper Mapper to add the columns to
+     * @return the same mapper
      */
-    private Pet extractPetFromResultSet(ResultSet rs) throws SQLException {
-        Pet pet = new Pet();
-        pet.setPetId(rs.getInt("pet_id"));
-        pet.setPetOwnerId(rs.getInt("pet_owner_id"));
-        pet.setPetName(rs.getString("pet_name"));
-        pet.setPetTypeId(rs.getInt("pet_type_id"));
-        pet.setDescription(rs.getString("description"));
-        pet.setAge(rs.getInt("age"));
-        pet.setGender(rs.getString("gender"));
-        pet.setHealthStatus(rs.getString("health_status"));
-        pet.setUploadHealthHistory(rs.getString("upload_health_history"));
-        pet.setVaccinationStatus(rs.getString("vaccination_status"));
-        pet.setProofOfVaccination(rs.getString("proof_of_vaccination"));
-        pet.setAdoptionStatus(rs.getString("adoption_status"));
-        pet.setDateRegistered(rs.getDate("date_registered"));
-        return pet;
+    private static RowMapper<Pet> petColumns(RowMapper<Pet> mapper) {
+        return mapper
+                .column("pet_id", (p, rs, i) -> p.setPetId(rs.getInt(i)))
+                .column("pet_owner_id", (p, rs, i) -> p.setPetOwnerId(rs.getInt(i)))
+                .column("pet_name", (p, rs, i) -> p.setPetName(rs.getString(i)))
+                .column("pet_type_id", (p, rs, i) -> p.setPetTypeId(rs.getInt(i)))
+                .column("age", (p, rs, i) -> p.setAge(rs.getInt(i)))
+                .column("gender", (p, rs, i) -> p.setGender(rs.getString(i)))
+                .column("health_status", (p, rs, i) -> p.setHealthStatus(rs.getString(i)))
+                .column("vaccination_status", (p, rs, i) -> p.setVaccinationStatus(rs.getString(i)))
+                .column("adoption_status", (p, rs, i) -> p.setAdoptionStatus(rs.getString(i)))
+                .column("date_registered", (p, rs, i) -> p.setDateRegistered(rs.getDate(i)));
     }
     
     /**
@@ -379,7 +453,7 @@ public class PetCRUD {
         String sql = "UPDATE tbl_pet SET archived = true, archived_date = NOW() WHERE pet_id = ? AND archived = false";
         
         try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             
             pstmt.setInt(1, petId);
             
@@ -387,6 +461,8 @@ public class PetCRUD {
             
             if (rowsAffected > 0) {
                 System.out.println("Pet archived successfully.");
+                PetRecommender.getInstance().removePet(petId);
+                ChangeFeed.getInstance().publish(ChangeFeed.petStatus(petId, ChangeFeed.REMOVED));
                 return true;
             } else {
                 System.out.println("No active pet found with ID: " + petId);
@@ -408,7 +484,7 @@ public class PetCRUD {
         String sql = "UPDATE tbl_pet SET archived = false, archived_date = NULL WHERE pet_id = ? AND archived = true";
         
         try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             
             pstmt.setInt(1, petId);
             
@@ -416,6 +492,8 @@ public class PetCRUD {
             
             if (rowsAffected > 0) {
                 System.out.println("Pet restored successfully.");
+                PetRecommender.getInstance().reindexPets(List.of(petId));
+                publishRestoredStatus(petId);
                 return true;
             } else {
                 System.out.println("No archived pet found with ID: " + petId);
@@ -428,20 +506,35 @@ public class PetCRUD {
         return false;
     }
     
+    /**
+     * Publishes the status of a pet brought back by restorePet, which does not know it
+     * Skipped when nobody follows the change feed
+     * @param petId Restored pet ID
+     */
+    private void publishRestoredStatus(int petId) {
+        ChangeFeed changeFeed = ChangeFeed.getInstance();
+        if (changeFeed.isActive()) {
+            Pet pet = getPetById(petId);
+            if (pet != null) {
+                changeFeed.publish(ChangeFeed.petStatus(petId, pet.getAdoptionStatus()));
+            }
+        }
+    }
+    
     /**
      * Retrieves all archived pets from the database
      * @return List of archived pets
      */
     public List<Pet> getArchivedPets() {
         List<Pet> pets = new ArrayList<>();
-        String sql = "SELECT * FROM tbl_pet WHERE archived = true ORDER BY archived_date DESC";
+        String sql = "SELECT " + PET_SUMMARY.columns() + " FROM tbl_pet WHERE archived = true ORDER BY archived_date DESC";
         
-        try (Connection conn = DbConnection.getConnection();
+        try (Connection conn = DbConnection.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
             while (rs.next()) {
-                pets.add(extractPetFromResultSet(rs));
+                pets.add(PET_SUMMARY.map(rs));
             }
             
         } catch (SQLException e) {
@@ -457,14 +550,14 @@ public class PetCRUD {
      */
     public List<Pet> getActivePets() {
         List<Pet> pets = new ArrayList<>();
-        String sql = "SELECT * FROM tbl_pet WHERE archived = false ORDER BY pet_id";
+        String sql = StatementCatalog.PETS_ACTIVE;
         
-        try (Connection conn = DbConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        try (Connection conn = DbConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql);
+             ResultSet rs = pstmt.executeQuery()) {
             
             while (rs.next()) {
-                pets.add(extractPetFromResultSet(rs));
+                pets.add(PET_SUMMARY.map(rs));
             }
             
         } catch (SQLException e) {
@@ -562,7 +655,7 @@ public class PetCRUD {
         String sql = "UPDATE tbl_pet SET pet_name = ?, description = ?, age = ? WHERE pet_id = ? AND archived = FALSE";
         
         try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             
             pstmt.setString(1, name);
             pstmt.setString(2, description);
@@ -570,6 +663,10 @@ public class PetCRUD {
             pstmt.setInt(4, petId);
             
             int rowsAffected = pstmt.executeUpdate();
+            if (rowsAffected > 0) {
+                SearchIndexes.getInstance().indexPet(petId, name);
+                PetRecommender.getInstance().updateAge(petId, age);
+            }
             return rowsAffected > 0;
             
         } catch (SQLException e) {
@@ -589,13 +686,16 @@ public class PetCRUD {
         String sql = "UPDATE tbl_pet SET health_status = ?, vaccination_status = ? WHERE pet_id = ? AND archived = FALSE";
         
         try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             
             pstmt.setString(1, healthStatus);
             pstmt.setString(2, vaccinationStatus);
             pstmt.setInt(3, petId);
             
             int rowsAffected = pstmt.executeUpdate();
+            if (rowsAffected > 0) {
+                PetRecommender.getInstance().updateHealth(petId, healthStatus, vaccinationStatus);
+            }
             return rowsAffected > 0;
             
         } catch (SQLException e) {
@@ -614,12 +714,17 @@ public class PetCRUD {
         String sql = "UPDATE tbl_pet SET adoption_status = ? WHERE pet_id = ? AND archived = FALSE";
         
         try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             
             pstmt.setString(1, adoptionStatus);
             pstmt.setInt(2, petId);
             
             int rowsAffected = pstmt.executeUpdate();
+            if (rowsAffected > 0) {
+                StatisticsSnapshot.getInstance().markStale();
+                PetRecommender.getInstance().updateAdoptionStatus(petId, adoptionStatus);
+                ChangeFeed.getInstance().publish(ChangeFeed.petStatus(petId, adoptionStatus));
+            }
             return rowsAffected > 0;
             
         } catch (SQLException e) {
@@ -639,7 +744,7 @@ public class PetCRUD {
         int updatedCount = 0;
         
         try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             
             for (Integer petId : petIds) {
                 pstmt.setString(1, adoptionStatus);
@@ -648,11 +753,20 @@ public class PetCRUD {
             }
             
             int[] results = pstmt.executeBatch();
-            for (int result : results) {
-                if (result > 0) {
+            PetRecommender recommender = PetRecommender.getInstance();
+            List<ChangeFeed.Event> events = new ArrayList<>();
+            for (int i = 0; i < results.length; i++) {
+                if (results[i] > 0) {
                     updatedCount++;
+                    recommender.updateAdoptionStatus(petIds.get(i), adoptionStatus);
+                    events.add(ChangeFeed.petStatus(petIds.get(i), adoptionStatus));
                 }
             }
+            ChangeFeed.getInstance().publish(events);
+            
+            if (updatedCount > 0) {
+                StatisticsSnapshot.getInstance().markStale();
+            }
             
         } catch (SQLException e) {
             System.err.println("Error in batch update adoption status: " + e.getMessage());
@@ -670,21 +784,20 @@ public class PetCRUD {
      * @return true if archiving was successful, false otherwise
      */
     public boolean archivePet(int petId, Integer archivedByUserId, String reason) {
-        String selectPetSql = "SELECT * FROM tbl_pet WHERE pet_id = ?";
+        String selectPetSql = "SELECT " + PET_DETAIL.columns() + " FROM tbl_pet WHERE pet_id = ?";
         String insertPetArchiveSql = "INSERT INTO tbl_pet_archive (pet_id, pet_owner_id, pet_name, pet_type_id, description, age, gender, health_status, upload_health_history, vaccination_status, proof_of_vaccination, adoption_status, date_registered, archived, archived_date, archived_by_user_id, archive_reason) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
         String deletePetSql = "DELETE FROM tbl_pet WHERE pet_id = ?";
-        String logSql = "INSERT INTO tbl_archive_log (table_name, record_id, operation, performed_by_user_id, reason) VALUES (?, ?, ?, ?, ?)";
         
         try (Connection conn = DbConnection.getConnection()) {
             conn.setAutoCommit(false);
             
             // Get the pet record to archive
             Pet pet = null;
-            try (PreparedStatement selectStmt = conn.prepareStatement(selectPetSql)) {
+            try (PreparedStatement selectStmt = StatementCatalog.prepare(conn, selectPetSql)) {
                 selectStmt.setInt(1, petId);
                 try (ResultSet rs = selectStmt.executeQuery()) {
                     if (rs.next()) {
-                        pet = extractPetFromResultSet(rs);
+                        pet = PET_DETAIL.map(rs);
                     }
                 }
             }
@@ -695,7 +808,7 @@ public class PetCRUD {
             }
             
             // Insert pet into archive table
-            try (PreparedStatement insertStmt = conn.prepareStatement(insertPetArchiveSql)) {
+            try (PreparedStatement insertStmt = StatementCatalog.prepare(conn, insertPetArchiveSql)) {
                 insertStmt.setInt(1, pet.getPetId());
                 insertStmt.setInt(2, pet.getPetOwnerId());
                 insertStmt.setString(3, pet.getPetName());
@@ -722,27 +835,24 @@ public class PetCRUD {
             }
             
             // Delete pet from main table
-            try (PreparedStatement deleteStmt = conn.prepareStatement(deletePetSql)) {
+            try (PreparedStatement deleteStmt = StatementCatalog.prepare(conn, deletePetSql)) {
                 deleteStmt.setInt(1, petId);
                 deleteStmt.executeUpdate();
             }
             
             // Log the operation
-            try (PreparedStatement logStmt = conn.prepareStatement(logSql)) {
-                logStmt.setString(1, "tbl_pet");
-                logStmt.setInt(2, petId);
-                logStmt.setString(3, "ARCHIVE");
-                if (archivedByUserId != null) {
-                    logStmt.setInt(4, archivedByUserId);
-                } else {
-                    logStmt.setNull(4, java.sql.Types.INTEGER);
-                }
-                logStmt.setString(5, reason);
-                
-                logStmt.executeUpdate();
-            }
+            ArchiveLog.Entry logEntry = new ArchiveLog.Entry("tbl_pet", petId, "ARCHIVE", archivedByUserId, reason);
+            ArchiveLog.getInstance().record(conn, logEntry);
+            ChangeFeed.Event event = ChangeFeed.petStatus(petId, ChangeFeed.REMOVED);
+            ChangeFeed.getInstance().record(conn, event);
             
             conn.commit();
+            ArchiveLog.getInstance().committed(logEntry);
+            ChangeFeed.getInstance().publish(event);
+            StatisticsSnapshot.getInstance().recordArchived(StatisticsSnapshot.Counter.PETS_TOTAL,
+                    StatisticsSnapshot.Counter.forPetStatus(pet.getAdoptionStatus()), StatisticsSnapshot.Counter.ARCHIVED_PETS);
+            SearchIndexes.getInstance().removePet(petId);
+            PetRecommender.getInstance().removePet(petId);
             return true;
             
         } catch (SQLException e) {
@@ -754,27 +864,29 @@ public class PetCRUD {
     /**
      * Restores a pet from archive back to the main table
      * Also restores associated pet media records
+     * A pet already moved to cold storage is copied back into tbl_pet_archive first
      * @param petId ID of the pet to restore
      * @param restoredByUserId ID of the user performing the restore operation
      * @param reason Reason for restoring
      * @return true if restoration was successful, false otherwise
      */
     public boolean restorePet(int petId, Integer restoredByUserId, String reason) {
-        String selectPetArchiveSql = "SELECT * FROM tbl_pet_archive WHERE pet_id = ?";
+        String selectPetArchiveSql = "SELECT " + PET_DETAIL.columns() + " FROM tbl_pet_archive WHERE pet_id = ?";
         String insertPetMainSql = "INSERT INTO tbl_pet (pet_id, pet_owner_id, pet_name, pet_type_id, description, age, gender, health_status, upload_health_history, vaccination_status, proof_of_vaccination, adoption_status, date_registered, archived, archived_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
         String deletePetArchiveSql = "DELETE FROM tbl_pet_archive WHERE pet_id = ?";
-        String logSql = "INSERT INTO tbl_archive_log (table_name, record_id, operation, performed_by_user_id, reason) VALUES (?, ?, ?, ?, ?)";
+        
+        ArchiveColdStorage.getInstance().rehydrate("tbl_pet_archive", petId);
         
         try (Connection conn = DbConnection.getConnection()) {
             conn.setAutoCommit(false);
             
             // Get the archived pet record
             Pet pet = null;
-            try (PreparedStatement selectStmt = conn.prepareStatement(selectPetArchiveSql)) {
+            try (PreparedStatement selectStmt = StatementCatalog.prepare(conn, selectPetArchiveSql)) {
                 selectStmt.setInt(1, petId);
                 try (ResultSet rs = selectStmt.executeQuery()) {
                     if (rs.next()) {
-                        pet = extractPetFromResultSet(rs);
+                        pet = PET_DETAIL.map(rs);
                     }
                 }
             }
@@ -785,7 +897,7 @@ public class PetCRUD {
             }
             
             // Insert pet back into main table
-            try (PreparedStatement insertStmt = conn.prepareStatement(insertPetMainSql)) {
+            try (PreparedStatement insertStmt = StatementCatalog.prepare(conn, insertPetMainSql)) {
                 insertStmt.setInt(1, pet.getPetId());
                 insertStmt.setInt(2, pet.getPetOwnerId());
                 insertStmt.setString(3, pet.getPetName());
@@ -806,27 +918,24 @@ public class PetCRUD {
             }
             
             // Delete pet from archive table
-            try (PreparedStatement deleteStmt = conn.prepareStatement(deletePetArchiveSql)) {
+            try (PreparedStatement deleteStmt = StatementCatalog.prepare(conn, deletePetArchiveSql)) {
                 deleteStmt.setInt(1, petId);
                 deleteStmt.executeUpdate();
             }
             
             // Log the operation
-            try (PreparedStatement logStmt = conn.prepareStatement(logSql)) {
-                logStmt.setString(1, "tbl_pet");
-                logStmt.setInt(2, petId);
-                logStmt.setString(3, "RESTORE");
-                if (restoredByUserId != null) {
-                    logStmt.setInt(4, restoredByUserId);
-                } else {
-                    logStmt.setNull(4, java.sql.Types.INTEGER);
-                }
-                logStmt.setString(5, reason);
-                
-                logStmt.executeUpdate();
-            }
+            ArchiveLog.Entry logEntry = new ArchiveLog.Entry("tbl_pet", petId, "RESTORE", restoredByUserId, reason);
+            ArchiveLog.getInstance().record(conn, logEntry);
+            ChangeFeed.Event event = ChangeFeed.petStatus(petId, pet.getAdoptionStatus());
+            ChangeFeed.getInstance().record(conn, event);
             
             conn.commit();
+            ArchiveLog.getInstance().committed(logEntry);
+            ChangeFeed.getInstance().publish(event);
+            StatisticsSnapshot.getInstance().recordRestored(StatisticsSnapshot.Counter.PETS_TOTAL,
+                    StatisticsSnapshot.Counter.forPetStatus(pet.getAdoptionStatus()), StatisticsSnapshot.Counter.ARCHIVED_PETS);
+            SearchIndexes.getInstance().indexPet(pet.getPetId(), pet.getPetName());
+            PetRecommender.getInstance().indexPet(pet);
             return true;
             
         } catch (SQLException e) {
@@ -845,13 +954,14 @@ public class PetCRUD {
      */
     public boolean permanentDeletePet(int petId, Integer deletedByUserId, String reason) {
         String deletePetSql = "DELETE FROM tbl_pet_archive WHERE pet_id = ?";
-        String logSql = "INSERT INTO tbl_archive_log (table_name, record_id, operation, performed_by_user_id, reason) VALUES (?, ?, ?, ?, ?)";
+        
+        ArchiveColdStorage.getInstance().rehydrate("tbl_pet_archive", petId);
         
         try (Connection conn = DbConnection.getConnection()) {
             conn.setAutoCommit(false);
             
             // Delete pet from archive table
-            try (PreparedStatement deleteStmt = conn.prepareStatement(deletePetSql)) {
+            try (PreparedStatement deleteStmt = StatementCatalog.prepare(conn, deletePetSql)) {
                 deleteStmt.setInt(1, petId);
                 int rowsAffected = deleteStmt.executeUpdate();
                 
@@ -862,21 +972,12 @@ public class PetCRUD {
             }
             
             // Log the operation
-            try (PreparedStatement logStmt = conn.prepareStatement(logSql)) {
-                logStmt.setString(1, "tbl_pet");
-                logStmt.setInt(2, petId);
-                logStmt.setString(3, "PERMANENT_DELETE");
-                if (deletedByUserId != null) {
-                    logStmt.setInt(4, deletedByUserId);
-                } else {
-                    logStmt.setNull(4, java.sql.Types.INTEGER);
-                }
-                logStmt.setString(5, reason);
-                
-                logStmt.executeUpdate();
-            }
+            ArchiveLog.Entry logEntry = new ArchiveLog.Entry("tbl_pet", petId, "PERMANENT_DELETE", deletedByUserId, reason);
+            ArchiveLog.getInstance().record(conn, logEntry);
             
             conn.commit();
+            ArchiveLog.getInstance().committed(logEntry);
+            StatisticsSnapshot.getInstance().adjust(StatisticsSnapshot.Counter.ARCHIVED_PETS, -1);
             return true;
             
         } catch (SQLException e) {
@@ -886,52 +987,181 @@ public class PetCRUD {
     }
     
     /**
-     * Gets all archived pets
-     * @return List of archived pets
+     * Maps a cold storage row to the same fields as PET_SUMMARY
+     */
+    private static Pet petFromColdRow(ArchiveColdStorage.ColdRow row) {
+        Pet pet = new Pet();
+        pet.setPetId(row.getInt("pet_id"));
+        pet.setPetOwnerId(row.getInt("pet_owner_id"));
+        pet.setPetName(row.getString("pet_name"));
+        pet.setPetTypeId(row.getInt("pet_type_id"));
+        pet.setAge(row.getInt("age"));
+        pet.setGender(row.getString("gender"));
+        pet.setHealthStatus(row.getString("health_status"));
+        pet.setVaccinationStatus(row.getString("vaccination_status"));
+        pet.setAdoptionStatus(row.getString("adoption_status"));
+        pet.setDateRegistered(row.getDate("date_registered"));
+        String description = row.getString("description");
+        pet.setDescription(description != null && description.length() > DESCRIPTION_PREVIEW_LENGTH
+                ? description.substring(0, DESCRIPTION_PREVIEW_LENGTH) : description);
+        return pet;
+    }
+    
+    /**
+     * Gets archived pets by owner ID from tbl_pet_archive and cold storage
+     * @param petOwnerId ID of the pet owner
+     * @return List of archived pets for the owner, most recently archived first
      */
-    public List<Pet> getAllArchivedPets() {
-        String sql = "SELECT * FROM tbl_pet_archive ORDER BY archived_date DESC";
+    public List<Pet> getArchivedPetsByOwner(int petOwnerId) {
+        String sql = StatementCatalog.PETS_ARCHIVED_BY_OWNER;
         List<Pet> pets = new ArrayList<>();
+        List<Timestamp> archivedDates = new ArrayList<>();
         
-        try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql);
-             ResultSet rs = pstmt.executeQuery()) {
+        try (Connection conn = DbConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             
-            while (rs.next()) {
-                pets.add(extractPetFromResultSet(rs));
+            pstmt.setInt(1, petOwnerId);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    archivedDates.add(rs.getTimestamp(PET_SUMMARY.width() + 1));
+                    pets.add(PET_SUMMARY.map(rs));
+                }
             }
             
         } catch (SQLException e) {
-            System.err.println("Error retrieving archived pets: " + e.getMessage());
+            System.err.println("Error retrieving archived pets by owner: " + e.getMessage());
         }
         
-        return pets;
+        List<ArchiveColdStorage.ColdRow> coldPets = ArchiveColdStorage.getInstance()
+                .readWhere("tbl_pet_archive", "pet_owner_id", Set.of(String.valueOf(petOwnerId)));
+        return ArchiveColdStorage.mergeArchiveList(pets, archivedDates, Pet::getPetId, coldPets, PetCRUD::petFromColdRow);
     }
     
+    // Keyset pagination and streaming for large lists
+    
     /**
-     * Gets archived pets by owner ID
-     * @param petOwnerId ID of the pet owner
-     * @return List of archived pets for the owner
+     * Retrieves one page of active pets ordered by pet ID
+     * @param after Cursor returned with the previous page, or PageCursor.FIRST
+     * @param pageSize Maximum number of pets in the page
+     * @return Page of active pets
      */
-    public List<Pet> getArchivedPetsByOwner(int petOwnerId) {
-        String sql = "SELECT * FROM tbl_pet_archive WHERE pet_owner_id = ? ORDER BY archived_date DESC";
+    public Page<Pet> getPetsPage(PageCursor after, int pageSize) {
+        String sql = StatementCatalog.PETS_PAGE;
         List<Pet> pets = new ArrayList<>();
         
-        try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DbConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             
-            pstmt.setInt(1, petOwnerId);
+            pstmt.setInt(1, after.getLastId());
+            pstmt.setInt(2, pageSize + 1);
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    pets.add(extractPetFromResultSet(rs));
+                    pets.add(PET_SUMMARY.map(rs));
                 }
             }
             
         } catch (SQLException e) {
-            System.err.println("Error retrieving archived pets by owner: " + e.getMessage());
+            System.err.println("Error retrieving pets page: " + e.getMessage());
         }
         
-        return pets;
+        return Page.ofIds(pets, pageSize, Pet::getPetId);
+    }
+    
+    /**
+     * Retrieves one page of active pets with the given adoption status ordered by pet ID
+     * @param status Adoption status to filter by
+     * @param after Cursor returned with the previous page, or PageCursor.FIRST
+     * @param pageSize Maximum number of pets in the page
+     * @return Page of pets with the specified adoption status
+     */
+    public Page<Pet> getPetsByAdoptionStatusPage(String status, PageCursor after, int pageSize) {
+        String sql = StatementCatalog.PETS_BY_STATUS_PAGE;
+        List<Pet> pets = new ArrayList<>();
+        
+        try (Connection conn = DbConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
+            
+            pstmt.setString(1, status);
+            pstmt.setInt(2, after.getLastId());
+            pstmt.setInt(3, pageSize + 1);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    pets.add(PET_SUMMARY.map(rs));
+                }
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error retrieving pets page by adoption status: " + e.getMessage());
+        }
+        
+        return Page.ofIds(pets, pageSize, Pet::getPetId);
+    }
+    
+    /**
+     * Retrieves one page of archived pets from tbl_pet_archive and cold storage, most recently archived first
+     * @param after Cursor returned with the previous page, or PageCursor.FIRST
+     * @param pageSize Maximum number of pets in the page
+     * @return Page of archived pets
+     */
+    public Page<Pet> getArchivedPetsPage(PageCursor after, int pageSize) {
+        // archived_date follows the summary columns; it orders the list and positions the next cursor
+        String sql = "SELECT " + PET_SUMMARY.columns() + ", archived_date FROM tbl_pet_archive WHERE " + after.descendingPredicate("archived_date", "pet_id") +
+                     " ORDER BY archived_date DESC, pet_id DESC LIMIT ?";
+        List<Pet> pets = new ArrayList<>();
+        List<Timestamp> archivedDates = new ArrayList<>();
+        
+        try (Connection conn = DbConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
+            
+            int index = after.bindDescending(pstmt, 1);
+            pstmt.setInt(index, pageSize + 1);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    archivedDates.add(rs.getTimestamp(PET_SUMMARY.width() + 1));
+                    pets.add(PET_SUMMARY.map(rs));
+                }
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error retrieving archived pets page: " + e.getMessage());
+        }
+        
+        return ArchiveColdStorage.getInstance().mergeArchivePage("tbl_pet_archive", pets, archivedDates,
+                Pet::getPetId, PetCRUD::petFromColdRow, after, pageSize);
+    }
+    
+    /**
+     * Streams every active pet to the consumer one row at a time without buffering the table in memory
+     * Uses the connector's row-by-row streaming result set; the consumer must not keep the connection busy
+     * @param consumer Callback invoked for each pet in pet ID order
+     * @return number of pets streamed
+     */
+    public int streamAllPets(Consumer<Pet> consumer) {
+        String sql = "SELECT " + PET_DETAIL.columns() + " FROM tbl_pet WHERE archived = false ORDER BY pet_id";
+        int count = 0;
+        
+        try (Connection conn = DbConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            
+            // Integer.MIN_VALUE switches the MySQL driver to streaming mode
+            pstmt.setFetchSize(Integer.MIN_VALUE);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(PET_DETAIL.map(rs));
+                    count++;
+                }
+            }
+            OperationMetrics.addRows(count);
+            
+        } catch (SQLException e) {
+            System.err.println("Error streaming pets: " + e.getMessage());
+        }
+        
+        return count;
     }
 }
\ No newline at end of file
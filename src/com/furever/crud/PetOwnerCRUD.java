@@ -13,17 +13,32 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.List;
 
 import com.furever.database.DbConnection;
 import com.furever.models.PetOwner;
+import com.furever.utils.EntityCache;
 
 /**
  * CRUD operations for PetOwner entity
+ * List and search methods return the summary projection; single-owner reads return the full record
  */
 public class PetOwnerCRUD {
     
+    /** Columns shown by pet owner tables; the profile text and legacy password are left out */
+    static final RowMapper<PetOwner> PET_OWNER_SUMMARY = petOwnerColumns(new RowMapper<>(PetOwner::new));
+    
+    /** Every pet owner column, used for single-owner reads */
+    static final RowMapper<PetOwner> PET_OWNER_DETAIL = petOwnerColumns(new RowMapper<>(PetOwner::new))
+            .column("pet_owner_profile", (o, rs, i) -> o.setPetOwnerProfile(rs.getString(i)))
+            .column("pet_owner_password", (o, rs, i) -> o.setPetOwnerPassword(rs.getString(i)));
+    
+    // Shared by every PetOwnerCRUD instance; entries are dropped on each write to the pet owner
+    private static final EntityCache<Integer, PetOwner> PET_OWNER_CACHE =
+            EntityCache.create("Pet owners by ID", 1000, 5 * 60 * 1000L, PetOwner::new);
+    
     /**
      * Creates a new pet owner in the database
      */
@@ -33,7 +48,7 @@ public class PetOwnerCRUD {
                      "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
         
         try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             
             pstmt.setString(1, petOwner.getPetOwnerName());
             pstmt.setString(2, petOwner.getPetOwnerContact());
@@ -44,7 +59,12 @@ public class PetOwnerCRUD {
             pstmt.setString(7, petOwner.getPetOwnerPassword());
             pstmt.setString(8, petOwner.getPetOwnerUsername()); // username field for FK
             
-            return pstmt.executeUpdate() > 0;
+            if (pstmt.executeUpdate() > 0) {
+                StatisticsSnapshot.getInstance().adjust(StatisticsSnapshot.Counter.PET_OWNERS_TOTAL, 1);
+                SearchIndexes.getInstance().reindexProfilesForUsername(petOwner.getPetOwnerUsername());
+                return true;
+            }
+            return false;
             
         } catch (SQLException e) {
             System.err.println("Error creating pet owner: " + e.getMessage());
@@ -56,16 +76,24 @@ public class PetOwnerCRUD {
      * Retrieves a pet owner by ID
      */
     public PetOwner getPetOwnerById(int petOwnerId) {
-        String sql = "SELECT * FROM tbl_pet_owner WHERE pet_owner_id = ?";
+        return PET_OWNER_CACHE.get(petOwnerId, this::loadPetOwnerById);
+    }
+    
+    /**
+     * Reads a pet owner from the database, bypassing the cache
+     */
+    private PetOwner loadPetOwnerById(int petOwnerId) {
+        String sql = StatementCatalog.PET_OWNER_BY_ID;
         
         try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             
             pstmt.setInt(1, petOwnerId);
-            ResultSet rs = pstmt.executeQuery();
             
-            if (rs.next()) {
-                return extractPetOwnerFromResultSet(rs);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return PET_OWNER_DETAIL.map(rs);
+                }
             }
             
         } catch (SQLException e) {
@@ -79,17 +107,17 @@ public class PetOwnerCRUD {
      * Retrieves a pet owner by username
      */
     public PetOwner getPetOwnerByUsername(String username) {
-        String sql = "SELECT * FROM tbl_pet_owner WHERE pet_owner_username = ? OR username = ?";
+        String sql = StatementCatalog.PET_OWNER_BY_USERNAME;
         
         try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             
             pstmt.setString(1, username);
             pstmt.setString(2, username);
             ResultSet rs = pstmt.executeQuery();
             
             if (rs.next()) {
-                return extractPetOwnerFromResultSet(rs);
+                return PET_OWNER_DETAIL.map(rs);
             }
             
         } catch (SQLException e) {
@@ -103,15 +131,15 @@ public class PetOwnerCRUD {
      * Retrieves all pet owners
      */
     public List<PetOwner> getAllPetOwners() {
-        String sql = "SELECT * FROM tbl_pet_owner ORDER BY pet_owner_name";
+        String sql = "SELECT " + PET_OWNER_SUMMARY.columns() + " FROM tbl_pet_owner ORDER BY pet_owner_name";
         List<PetOwner> petOwners = new ArrayList<>();
         
-        try (Connection conn = DbConnection.getConnection();
+        try (Connection conn = DbConnection.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
             while (rs.next()) {
-                petOwners.add(extractPetOwnerFromResultSet(rs));
+                petOwners.add(PET_OWNER_SUMMARY.map(rs));
             }
             
         } catch (SQLException e) {
@@ -130,7 +158,7 @@ public class PetOwnerCRUD {
                      "WHERE pet_owner_id = ?";
         
         try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             
             pstmt.setString(1, petOwner.getPetOwnerName());
             pstmt.setString(2, petOwner.getPetOwnerContact());
@@ -139,7 +167,12 @@ public class PetOwnerCRUD {
             pstmt.setString(5, petOwner.getPetOwnerProfile());
             pstmt.setInt(6, petOwner.getPetOwnerId());
             
-            return pstmt.executeUpdate() > 0;
+            if (pstmt.executeUpdate() > 0) {
+                PET_OWNER_CACHE.invalidate(petOwner.getPetOwnerId());
+                SearchIndexes.getInstance().indexPetOwner(petOwner.getPetOwnerId(), petOwner.getPetOwnerName());
+                return true;
+            }
+            return false;
             
         } catch (SQLException e) {
             System.err.println("Error updating pet owner: " + e.getMessage());
@@ -155,20 +188,26 @@ public class PetOwnerCRUD {
     }
     
     /**
-     * Searches pet owners by name (partial match)
+     * Searches pet owners by name using the in-memory trigram index (substring, prefix and near misses, best match first)
      */
     public List<PetOwner> searchPetOwnersByName(String name) {
-        String sql = "SELECT * FROM tbl_pet_owner WHERE pet_owner_name LIKE ? ORDER BY pet_owner_name";
+        SearchIndexes searchIndexes = SearchIndexes.getInstance();
+        if (searchIndexes.isReady()) {
+            return getPetOwnersByRankedIds(searchIndexes.searchPetOwnerIds(name));
+        }
+        
+        // Fallback when the in-memory index could not be loaded
+        String sql = "SELECT " + PET_OWNER_SUMMARY.columns() + " FROM tbl_pet_owner WHERE pet_owner_name LIKE ? ORDER BY pet_owner_name";
         List<PetOwner> petOwners = new ArrayList<>();
         
-        try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DbConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             
             pstmt.setString(1, "%" + name + "%");
             ResultSet rs = pstmt.executeQuery();
             
             while (rs.next()) {
-                petOwners.add(extractPetOwnerFromResultSet(rs));
+                petOwners.add(PET_OWNER_SUMMARY.map(rs));
             }
             
         } catch (SQLException e) {
@@ -179,24 +218,41 @@ public class PetOwnerCRUD {
     }
     
     /**
-     * Gets the total count of pet owners
+     * Loads pet owners for IDs ranked by the search index, keeping the ranking order
+     * @param ids Ranked IDs
+     * @return List of pet owners in ranking order
      */
-    public int getPetOwnerCount() {
-        String sql = "SELECT COUNT(*) FROM tbl_pet_owner";
+    private List<PetOwner> getPetOwnersByRankedIds(List<Integer> ids) {
+        List<PetOwner> results = new ArrayList<>();
+        if (ids.isEmpty()) {
+            return results;
+        }
         
-        try (Connection conn = DbConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        String sql = "SELECT " + PET_OWNER_SUMMARY.columns() + " FROM tbl_pet_owner WHERE " + SearchIndexes.rankedIdClause("pet_owner_id", ids);
+        
+        try (Connection conn = DbConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             
-            if (rs.next()) {
-                return rs.getInt(1);
+            SearchIndexes.bindRankedIds(pstmt, ids);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    results.add(PET_OWNER_SUMMARY.map(rs));
+                }
             }
             
         } catch (SQLException e) {
-            System.err.println("Error getting pet owner count: " + e.getMessage());
+            System.err.println("Error searching pet owners by name: " + e.getMessage());
         }
         
-        return 0;
+        return results;
+    }
+    
+    /**
+     * Gets the total count of pet owners, served from the shared statistics snapshot
+     */
+    public int getPetOwnerCount() {
+        return StatisticsSnapshot.getInstance().getCount(StatisticsSnapshot.Counter.PET_OWNERS_TOTAL);
     }
     
     /**
@@ -207,14 +263,20 @@ public class PetOwnerCRUD {
                      "VALUES (?, ?, ?, ?)";
         
         try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             
             pstmt.setString(1, name);
             pstmt.setString(2, email);
             pstmt.setString(3, username);
             pstmt.setString(4, username);
             
-            return pstmt.executeUpdate() > 0;
+            if (pstmt.executeUpdate() > 0) {
+                StatisticsSnapshot.getInstance().adjust(StatisticsSnapshot.Counter.PET_OWNERS_TOTAL, 1);
+                SearchIndexes.getInstance().reindexProfilesForUsername(username);
+                invalidatePetOwnerCache();
+                return true;
+            }
+            return false;
             
         } catch (SQLException e) {
             System.err.println("Error creating pet owner profile for user: " + e.getMessage());
@@ -222,6 +284,14 @@ public class PetOwnerCRUD {
         }
     }
     
+    /**
+     * Drops every cached pet owner
+     * Used by user writes that change pet owner profiles by username inside their own transaction
+     */
+    static void invalidatePetOwnerCache() {
+        PET_OWNER_CACHE.invalidateAll();
+    }
+    
     /**
      * Updates pet owner username reference
      */
@@ -229,12 +299,14 @@ public class PetOwnerCRUD {
         String sql = "UPDATE tbl_pet_owner SET username = ? WHERE pet_owner_id = ?";
         
         try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             
             pstmt.setString(1, username);
             pstmt.setInt(2, petOwnerId);
             
-            return pstmt.executeUpdate() > 0;
+            boolean updated = pstmt.executeUpdate() > 0;
+            PET_OWNER_CACHE.invalidate(petOwnerId);
+            return updated;
             
         } catch (SQLException e) {
             System.err.println("Error updating pet owner username: " + e.getMessage());
@@ -249,7 +321,7 @@ public class PetOwnerCRUD {
         String sql = "SELECT COUNT(*) FROM tbl_pet_owner WHERE pet_owner_username = ? OR username = ?";
         
         try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             
             pstmt.setString(1, username);
             pstmt.setString(2, username);
@@ -267,19 +339,16 @@ public class PetOwnerCRUD {
     }
     
     /**
-     * Helper method to extract PetOwner object from ResultSet
+     * Adds the pet owner columns shared by the summary and detail projections
      */
-    private PetOwner extractPetOwnerFromResultSet(ResultSet rs) throws SQLException {
-        PetOwner petOwner = new PetOwner();
-        petOwner.setPetOwnerId(rs.getInt("pet_owner_id"));
-        petOwner.setPetOwnerName(rs.getString("pet_owner_name"));
-        petOwner.setPetOwnerContact(rs.getString("pet_owner_contact"));
-        petOwner.setPetOwnerEmail(rs.getString("pet_owner_email"));
-        petOwner.setPetOwnerAddress(rs.getString("pet_owner_address"));
-        petOwner.setPetOwnerProfile(rs.getString("pet_owner_profile"));
-        petOwner.setPetOwnerUsername(rs.getString("pet_owner_username"));
-        petOwner.setPetOwnerPassword(rs.getString("pet_owner_password"));
-        return petOwner;
+    private static RowMapper<PetOwner> petOwnerColumns(RowMapper<PetOwner> mapper) {
+        return mapper
+                .column("pet_owner_id", (o, rs, i) -> o.setPetOwnerId(rs.getInt(i)))
+                .column("pet_owner_name", (o, rs, i) -> o.setPetOwnerName(rs.getString(i)))
+                .column("pet_owner_contact", (o, rs, i) -> o.setPetOwnerContact(rs.getString(i)))
+                .column("pet_owner_email", (o, rs, i) -> o.setPetOwnerEmail(rs.getString(i)))
+                .column("pet_owner_address", (o, rs, i) -> o.setPetOwnerAddress(rs.getString(i)))
+                .column("pet_owner_username", (o, rs, i) -> o.setPetOwnerUsername(rs.getString(i)));
     }
     
     /**
@@ -295,17 +364,16 @@ public class PetOwnerCRUD {
         String selectPetOwnerSql = "SELECT * FROM tbl_pet_owner WHERE pet_owner_id = ?";
         String insertArchiveSql = "INSERT INTO tbl_pet_owner_archive (pet_owner_id, pet_owner_name, pet_owner_contact, pet_owner_email, pet_owner_address, pet_owner_profile, pet_owner_username, pet_owner_password, username, archived, archived_date, archived_by_user_id, archive_reason) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
         String deletePetOwnerSql = "DELETE FROM tbl_pet_owner WHERE pet_owner_id = ?";
-        String logSql = "INSERT INTO tbl_archive_log (table_name, record_id, operation, performed_by_user_id, reason) VALUES (?, ?, ?, ?, ?)";
         
         try (Connection conn = DbConnection.getConnection()) {
             conn.setAutoCommit(false);
             
             // Check if pet owner has any active pets
-            try (PreparedStatement checkStmt = conn.prepareStatement(checkPetsSql)) {
+            try (PreparedStatement checkStmt = StatementCatalog.prepare(conn, checkPetsSql)) {
                 checkStmt.setInt(1, petOwnerId);
                 try (ResultSet rs = checkStmt.executeQuery()) {
                     if (rs.next() && rs.getInt("pet_count") > 0) {
-                        System.err.println("Cannot archive pet owner: Pet owner has active pets. Please archive or transfer the pets first.");
+                        System.err.println("Cannot archive pet owner: Pet owner has active pets. Archive or transfer the pets first, or use OwnerArchiveCRUD.archivePetOwnerCascade.");
                         conn.rollback();
                         return false;
                     }
@@ -315,7 +383,7 @@ public class PetOwnerCRUD {
             // Get the pet owner record to archive
             PetOwner petOwner = null;
             String linkedUsername = null;
-            try (PreparedStatement selectStmt = conn.prepareStatement(selectPetOwnerSql)) {
+            try (PreparedStatement selectStmt = StatementCatalog.prepare(conn, selectPetOwnerSql)) {
                 selectStmt.setInt(1, petOwnerId);
                 try (ResultSet rs = selectStmt.executeQuery()) {
                     if (rs.next()) {
@@ -337,7 +405,7 @@ public class PetOwnerCRUD {
             }
             
             // Insert into archive table
-            try (PreparedStatement insertStmt = conn.prepareStatement(insertArchiveSql)) {
+            try (PreparedStatement insertStmt = StatementCatalog.prepare(conn, insertArchiveSql)) {
                 insertStmt.setInt(1, petOwner.getPetOwnerId());
                 insertStmt.setString(2, petOwner.getPetOwnerName());
                 insertStmt.setString(3, petOwner.getPetOwnerContact());
@@ -360,27 +428,21 @@ public class PetOwnerCRUD {
             }
             
             // Delete from main table
-            try (PreparedStatement deleteStmt = conn.prepareStatement(deletePetOwnerSql)) {
+            try (PreparedStatement deleteStmt = StatementCatalog.prepare(conn, deletePetOwnerSql)) {
                 deleteStmt.setInt(1, petOwnerId);
                 deleteStmt.executeUpdate();
             }
             
             // Log the operation
-            try (PreparedStatement logStmt = conn.prepareStatement(logSql)) {
-                logStmt.setString(1, "tbl_pet_owner");
-                logStmt.setInt(2, petOwnerId);
-                logStmt.setString(3, "ARCHIVE");
-                if (archivedByUserId != null) {
-                    logStmt.setInt(4, archivedByUserId);
-                } else {
-                    logStmt.setNull(4, java.sql.Types.INTEGER);
-                }
-                logStmt.setString(5, reason);
-                
-                logStmt.executeUpdate();
-            }
+            ArchiveLog.Entry logEntry = new ArchiveLog.Entry("tbl_pet_owner", petOwnerId, "ARCHIVE", archivedByUserId, reason);
+            ArchiveLog.getInstance().record(conn, logEntry);
             
             conn.commit();
+            ArchiveLog.getInstance().committed(logEntry);
+            StatisticsSnapshot.getInstance().recordArchived(StatisticsSnapshot.Counter.PET_OWNERS_TOTAL,
+                    null, StatisticsSnapshot.Counter.ARCHIVED_PET_OWNERS);
+            SearchIndexes.getInstance().removePetOwner(petOwnerId);
+            PET_OWNER_CACHE.invalidate(petOwnerId);
             return true;
             
         } catch (SQLException e) {
@@ -400,7 +462,8 @@ public class PetOwnerCRUD {
         String selectArchiveSql = "SELECT * FROM tbl_pet_owner_archive WHERE pet_owner_id = ?";
         String insertMainSql = "INSERT INTO tbl_pet_owner (pet_owner_id, pet_owner_name, pet_owner_contact, pet_owner_email, pet_owner_address, pet_owner_profile, pet_owner_username, pet_owner_password, username, archived, archived_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
         String deleteArchiveSql = "DELETE FROM tbl_pet_owner_archive WHERE pet_owner_id = ?";
-        String logSql = "INSERT INTO tbl_archive_log (table_name, record_id, operation, performed_by_user_id, reason) VALUES (?, ?, ?, ?, ?)";
+        
+        ArchiveColdStorage.getInstance().rehydrate("tbl_pet_owner_archive", petOwnerId);
         
         try (Connection conn = DbConnection.getConnection()) {
             conn.setAutoCommit(false);
@@ -408,7 +471,7 @@ public class PetOwnerCRUD {
             // Get the pet owner record from archive
             PetOwner petOwner = null;
             String linkedUsername = null;
-            try (PreparedStatement selectStmt = conn.prepareStatement(selectArchiveSql)) {
+            try (PreparedStatement selectStmt = StatementCatalog.prepare(conn, selectArchiveSql)) {
                 selectStmt.setInt(1, petOwnerId);
                 try (ResultSet rs = selectStmt.executeQuery()) {
                     if (rs.next()) {
@@ -430,7 +493,7 @@ public class PetOwnerCRUD {
             }
             
             // Insert pet owner back into main table
-            try (PreparedStatement insertStmt = conn.prepareStatement(insertMainSql)) {
+            try (PreparedStatement insertStmt = StatementCatalog.prepare(conn, insertMainSql)) {
                 insertStmt.setInt(1, petOwner.getPetOwnerId());
                 insertStmt.setString(2, petOwner.getPetOwnerName());
                 insertStmt.setString(3, petOwner.getPetOwnerContact());
@@ -447,27 +510,21 @@ public class PetOwnerCRUD {
             }
             
             // Delete from archive table
-            try (PreparedStatement deleteStmt = conn.prepareStatement(deleteArchiveSql)) {
+            try (PreparedStatement deleteStmt = StatementCatalog.prepare(conn, deleteArchiveSql)) {
                 deleteStmt.setInt(1, petOwnerId);
                 deleteStmt.executeUpdate();
             }
             
             // Log the operation
-            try (PreparedStatement logStmt = conn.prepareStatement(logSql)) {
-                logStmt.setString(1, "tbl_pet_owner");
-                logStmt.setInt(2, petOwnerId);
-                logStmt.setString(3, "RESTORE");
-                if (restoredByUserId != null) {
-                    logStmt.setInt(4, restoredByUserId);
-                } else {
-                    logStmt.setNull(4, java.sql.Types.INTEGER);
-                }
-                logStmt.setString(5, reason);
-                
-                logStmt.executeUpdate();
-            }
+            ArchiveLog.Entry logEntry = new ArchiveLog.Entry("tbl_pet_owner", petOwnerId, "RESTORE", restoredByUserId, reason);
+            ArchiveLog.getInstance().record(conn, logEntry);
             
             conn.commit();
+            ArchiveLog.getInstance().committed(logEntry);
+            StatisticsSnapshot.getInstance().recordRestored(StatisticsSnapshot.Counter.PET_OWNERS_TOTAL,
+                    null, StatisticsSnapshot.Counter.ARCHIVED_PET_OWNERS);
+            SearchIndexes.getInstance().indexPetOwner(petOwner.getPetOwnerId(), petOwner.getPetOwnerName());
+            PET_OWNER_CACHE.invalidate(petOwnerId);
             return true;
             
         } catch (SQLException e) {
@@ -485,13 +542,14 @@ public class PetOwnerCRUD {
      */
     public boolean permanentDeletePetOwner(int petOwnerId, Integer deletedByUserId, String reason) {
         String deletePetOwnerSql = "DELETE FROM tbl_pet_owner_archive WHERE pet_owner_id = ?";
-        String logSql = "INSERT INTO tbl_archive_log (table_name, record_id, operation, performed_by_user_id, reason) VALUES (?, ?, ?, ?, ?)";
+        
+        ArchiveColdStorage.getInstance().rehydrate("tbl_pet_owner_archive", petOwnerId);
         
         try (Connection conn = DbConnection.getConnection()) {
             conn.setAutoCommit(false);
             
             // Delete pet owner from archive table
-            try (PreparedStatement deleteStmt = conn.prepareStatement(deletePetOwnerSql)) {
+            try (PreparedStatement deleteStmt = StatementCatalog.prepare(conn, deletePetOwnerSql)) {
                 deleteStmt.setInt(1, petOwnerId);
                 int rowsAffected = deleteStmt.executeUpdate();
                 
@@ -502,21 +560,13 @@ public class PetOwnerCRUD {
             }
             
             // Log the operation
-            try (PreparedStatement logStmt = conn.prepareStatement(logSql)) {
-                logStmt.setString(1, "tbl_pet_owner");
-                logStmt.setInt(2, petOwnerId);
-                logStmt.setString(3, "PERMANENT_DELETE");
-                if (deletedByUserId != null) {
-                    logStmt.setInt(4, deletedByUserId);
-                } else {
-                    logStmt.setNull(4, java.sql.Types.INTEGER);
-                }
-                logStmt.setString(5, reason);
-                
-                logStmt.executeUpdate();
-            }
+            ArchiveLog.Entry logEntry = new ArchiveLog.Entry("tbl_pet_owner", petOwnerId, "PERMANENT_DELETE", deletedByUserId, reason);
+            ArchiveLog.getInstance().record(conn, logEntry);
             
             conn.commit();
+            ArchiveLog.getInstance().committed(logEntry);
+            StatisticsSnapshot.getInstance().adjust(StatisticsSnapshot.Counter.ARCHIVED_PET_OWNERS, -1);
+            PET_OWNER_CACHE.invalidate(petOwnerId);
             return true;
             
         } catch (SQLException e) {
@@ -531,30 +581,37 @@ public class PetOwnerCRUD {
      */
     public List<PetOwner> getAllArchivedPetOwners() {
         List<PetOwner> petOwners = new ArrayList<>();
-        String sql = "SELECT * FROM tbl_pet_owner_archive ORDER BY archived_date DESC";
+        List<Timestamp> archivedDates = new ArrayList<>();
+        String sql = "SELECT " + PET_OWNER_SUMMARY.columns() + ", archived_date FROM tbl_pet_owner_archive ORDER BY archived_date DESC, pet_owner_id DESC";
         
-        try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql);
+        try (Connection conn = DbConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql);
              ResultSet rs = pstmt.executeQuery()) {
             
             while (rs.next()) {
-                PetOwner petOwner = new PetOwner();
-                petOwner.setPetOwnerId(rs.getInt("pet_owner_id"));
-                petOwner.setPetOwnerName(rs.getString("pet_owner_name"));
-                petOwner.setPetOwnerContact(rs.getString("pet_owner_contact"));
-                petOwner.setPetOwnerEmail(rs.getString("pet_owner_email"));
-                petOwner.setPetOwnerAddress(rs.getString("pet_owner_address"));
-                petOwner.setPetOwnerProfile(rs.getString("pet_owner_profile"));
-                petOwner.setPetOwnerUsername(rs.getString("pet_owner_username"));
-                petOwner.setPetOwnerPassword(rs.getString("pet_owner_password"));
-                // Note: username field stored separately in archive table
-                petOwners.add(petOwner);
+                archivedDates.add(rs.getTimestamp(PET_OWNER_SUMMARY.width() + 1));
+                petOwners.add(PET_OWNER_SUMMARY.map(rs));
             }
             
         } catch (SQLException e) {
             System.err.println("Error retrieving archived pet owners: " + e.getMessage());
         }
         
-        return petOwners;
+        return ArchiveColdStorage.mergeArchiveList(petOwners, archivedDates, PetOwner::getPetOwnerId,
+                ArchiveColdStorage.getInstance().readAll("tbl_pet_owner_archive"), PetOwnerCRUD::petOwnerFromColdRow);
+    }
+    
+    /**
+     * Maps a cold storage row to the same fields as PET_OWNER_SUMMARY
+     */
+    private static PetOwner petOwnerFromColdRow(ArchiveColdStorage.ColdRow row) {
+        PetOwner petOwner = new PetOwner();
+        petOwner.setPetOwnerId(row.getInt("pet_owner_id"));
+        petOwner.setPetOwnerName(row.getString("pet_owner_name"));
+        petOwner.setPetOwnerContact(row.getString("pet_owner_contact"));
+        petOwner.setPetOwnerEmail(row.getString("pet_owner_email"));
+        petOwner.setPetOwnerAddress(row.getString("pet_owner_address"));
+        petOwner.setPetOwnerUsername(row.getString("pet_owner_username"));
+        return petOwner;
     }
 }
\ No newline at end of file
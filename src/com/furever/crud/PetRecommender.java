@@ -0,0 +1,845 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.furever.crud;
+
+/**
+ *
+ * @author jerimiahtongco
+ */
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.furever.database.DbConnection;
+import com.furever.database.OperationMetrics;
+import com.furever.models.AdoptionRequest;
+import com.furever.models.Pet;
+
+/**
+ * Ranks available pets for an adopter from a compact in-memory feature index
+ * Every non-archived pet is kept as one slot across parallel primitive arrays (type, age,
+ * gender, health, vaccination, availability, registration day), warmed from the database
+ * once and kept current by the pet write paths. An adopter's preferences are derived from
+ * their adoption request history and every available pet is scored against them.
+ * Like the search indexes, only IDs are returned; the rows are read from the database.
+ */
+public class PetRecommender {
+
+    /** Default number of recommendations shown to an adopter */
+    public static final int DEFAULT_LIMIT = 10;
+
+    // Flag bits kept per pet
+    private static final int AVAILABLE = 1;
+    private static final int MALE = 1 << 1;
+    private static final int FEMALE = 1 << 2;
+    private static final int HEALTHY = 1 << 3;
+    private static final int NEEDS_TREATMENT = 1 << 4;
+    private static final int VACCINATED = 1 << 5;
+    private static final int NOT_VACCINATED = 1 << 6;
+    private static final int FLAG_COMBINATIONS = 1 << 7;
+
+    /** Stored age for pets without one; real ages are capped just below it */
+    private static final int UNKNOWN_AGE = 0xFF;
+    /** Stored registration day for pets without one; later than any real day, so it earns no waiting bonus */
+    private static final int UNKNOWN_DAY = Integer.MAX_VALUE;
+
+    // Weights of each component in the final score
+    private static final double TYPE_WEIGHT = 3.0;
+    private static final double AGE_WEIGHT = 2.0;
+    private static final double GENDER_WEIGHT = 1.0;
+    private static final double HEALTH_WEIGHT = 1.0;
+    private static final double VACCINATION_WEIGHT = 1.0;
+    /** Bonus for pets that have waited longest, reaching its maximum after a year */
+    private static final double WAITING_WEIGHT = 0.5;
+    private static final int WAITING_DAYS_FOR_MAX = 365;
+    private static final double WAITING_PER_DAY = WAITING_WEIGHT / WAITING_DAYS_FOR_MAX;
+
+    // Weight of each request in the preference profile, by request status
+    private static final double APPROVED_REQUEST_WEIGHT = 1.0;
+    private static final double PENDING_REQUEST_WEIGHT = 1.0;
+    private static final double REJECTED_REQUEST_WEIGHT = 0.5;
+    /** Pseudo-requests spread evenly over every option so short histories are not over-fitted */
+    private static final double PRIOR_WEIGHT = 2.0;
+
+    /** Pets scored by one fork-join leaf; smaller indexes are scored on the calling thread */
+    private static final int LEAF_SIZE = 32768;
+
+    private static final String PET_FEATURE_COLUMNS = "pet_id, pet_type_id, age, gender, health_status, vaccination_status, adoption_status, date_registered";
+
+    private static volatile PetRecommender instance = null;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Features features = new Features(16);
+
+    private volatile boolean ready = false;
+
+    /**
+     * Private constructor; use getInstance()
+     */
+    private PetRecommender() {}
+
+    /**
+     * Gets the shared recommender
+     * @return PetRecommender instance
+     */
+    public static PetRecommender getInstance() {
+        PetRecommender current = instance;
+        if (current != null) {
+            return current;
+        }
+
+        synchronized (PetRecommender.class) {
+            if (instance == null) {
+                instance = new PetRecommender();
+            }
+            return instance;
+        }
+    }
+
+    /**
+     * Loads the feature index from the database
+     * The new index is built without holding the lock and swapped in when complete,
+     * so recommendations keep being served from the previous index meanwhile
+     * @return true if the index was loaded, false otherwise
+     */
+    public synchronized boolean warm() {
+        String sql = "SELECT " + PET_FEATURE_COLUMNS + " FROM tbl_pet WHERE archived = false";
+
+        try (Connection conn = DbConnection.getConnection();
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            pstmt.setFetchSize(Integer.MIN_VALUE);
+            Features loaded = new Features(1024);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    loadRow(loaded, rs);
+                }
+            }
+            OperationMetrics.addRows(loaded.size);
+
+            lock.writeLock().lock();
+            try {
+                features = loaded;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            ready = true;
+            return true;
+
+        } catch (SQLException e) {
+            System.err.println("Error warming pet recommender: " + e.getMessage());
+            ready = false;
+            return false;
+        }
+    }
+
+    /**
+     * Checks whether the index is loaded, warming it on first use
+     * @return true if the index can serve recommendations
+     */
+    public boolean isReady() {
+        if (!ready) {
+            warm();
+        }
+        return ready;
+    }
+
+    /**
+     * Gets the number of pets in the index
+     * @return Indexed pet count
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return features.size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Write paths
+
+    /**
+     * Adds or replaces the features of a pet
+     * @param pet Pet as written to the database
+     */
+    public void indexPet(Pet pet) {
+        if (!ready || pet == null) {
+            return;
+        }
+        int day = pet.getDateRegistered() != null ? (int) pet.getDateRegistered().toLocalDate().toEpochDay() : UNKNOWN_DAY;
+        int flags = statusFlag(pet.getAdoptionStatus()) | genderFlag(pet.getGender())
+                | healthFlags(pet.getHealthStatus(), pet.getVaccinationStatus());
+
+        lock.writeLock().lock();
+        try {
+            // Full updates do not carry the registration date, so keep the one already indexed
+            int slot = features.slotOf(pet.getPetId());
+            if (day == UNKNOWN_DAY && slot >= 0) {
+                day = features.registeredDay[slot];
+            }
+            features.put(pet.getPetId(), pet.getPetTypeId(), encodeAge(pet.getAge()), day, flags);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a deleted or archived pet
+     * @param petId Pet ID
+     */
+    public void removePet(int petId) {
+        if (!ready) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            features.remove(petId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Updates whether a pet can be recommended
+     * @param petId Pet ID
+     * @param adoptionStatus New adoption status
+     */
+    public void updateAdoptionStatus(int petId, String adoptionStatus) {
+        if (!ready) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            int slot = features.slotOf(petId);
+            if (slot >= 0) {
+                features.flags[slot] = (byte) ((features.flags[slot] & ~AVAILABLE) | statusFlag(adoptionStatus));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Updates the health and vaccination features of a pet
+     * @param petId Pet ID
+     * @param healthStatus New health status
+     * @param vaccinationStatus New vaccination status
+     */
+    public void updateHealth(int petId, String healthStatus, String vaccinationStatus) {
+        if (!ready) {
+            return;
+        }
+        int healthMask = HEALTHY | NEEDS_TREATMENT | VACCINATED | NOT_VACCINATED;
+        lock.writeLock().lock();
+        try {
+            int slot = features.slotOf(petId);
+            if (slot >= 0) {
+                features.flags[slot] = (byte) ((features.flags[slot] & ~healthMask) | healthFlags(healthStatus, vaccinationStatus));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Updates the age of a pet
+     * @param petId Pet ID
+     * @param age New age
+     */
+    public void updateAge(int petId, int age) {
+        if (!ready) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            int slot = features.slotOf(petId);
+            if (slot >= 0) {
+                features.age[slot] = (byte) encodeAge(age);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Re-reads pets from the database, dropping those that no longer exist or are archived
+     * Used after writes that change pets inside their own transaction
+     * @param petIds Pet IDs to reload
+     */
+    public void reindexPets(Collection<Integer> petIds) {
+        if (!ready || petIds == null || petIds.isEmpty()) {
+            return;
+        }
+
+        List<Integer> ids = new ArrayList<>(petIds);
+        StringBuilder placeholders = new StringBuilder();
+        for (int i = 0; i < ids.size(); i++) {
+            placeholders.append(i == 0 ? "?" : ", ?");
+        }
+        String sql = "SELECT " + PET_FEATURE_COLUMNS + " FROM tbl_pet WHERE pet_id IN (" + placeholders + ") AND archived = false";
+
+        try (Connection conn = DbConnection.getConnection();
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
+
+            for (int i = 0; i < ids.size(); i++) {
+                pstmt.setInt(i + 1, ids.get(i));
+            }
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                lock.writeLock().lock();
+                try {
+                    for (int petId : ids) {
+                        features.remove(petId);
+                    }
+                    while (rs.next()) {
+                        loadRow(features, rs);
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error reindexing pets for recommendations: " + e.getMessage());
+        }
+    }
+
+    // Recommendations
+
+    /**
+     * Ranks available pets for an adopter, best match first
+     * Pets the adopter has already requested are never recommended. Without any request
+     * history, pets that have waited longest for a home come first.
+     * @param adopterId Adopter ID
+     * @param limit Maximum number of recommendations
+     * @return Recommendations in ranking order; empty if the index is unavailable
+     */
+    public List<Recommendation> recommend(int adopterId, int limit) {
+        if (limit <= 0 || !isReady()) {
+            return new ArrayList<>();
+        }
+        List<AdoptionRequest> history = new AdoptionRequestCRUD().getAdoptionRequestsByAdopter(adopterId);
+        return recommend(history, limit);
+    }
+
+    /**
+     * Ranks available pets against the preferences shown by a request history
+     * @param history Adoption requests of one adopter
+     * @param limit Maximum number of recommendations
+     * @return Recommendations in ranking order
+     */
+    List<Recommendation> recommend(List<AdoptionRequest> history, int limit) {
+        int[] excluded = new int[history.size()];
+        for (int i = 0; i < excluded.length; i++) {
+            excluded[i] = history.get(i).getPetId();
+        }
+        Arrays.sort(excluded);
+
+        lock.readLock().lock();
+        try {
+            Features current = features;
+            Scorer scorer = Scorer.forHistory(current, history, (int) LocalDate.now().toEpochDay());
+            int capacity = Math.max(1, Math.min(limit, current.size));
+            TopK top = new ScoreTask(current, scorer, excluded, capacity, 0, current.size).invoke();
+            return top.toRecommendations();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reads one feature row into an index
+     */
+    private static void loadRow(Features target, ResultSet rs) throws SQLException {
+        int age = rs.getInt("age");
+        int encodedAge = rs.wasNull() ? UNKNOWN_AGE : encodeAge(age);
+        Date registered = rs.getDate("date_registered");
+        int day = registered != null ? (int) registered.toLocalDate().toEpochDay() : UNKNOWN_DAY;
+        int flags = statusFlag(rs.getString("adoption_status")) | genderFlag(rs.getString("gender"))
+                | healthFlags(rs.getString("health_status"), rs.getString("vaccination_status"));
+        target.put(rs.getInt("pet_id"), rs.getInt("pet_type_id"), encodedAge, day, flags);
+    }
+
+    private static int encodeAge(int age) {
+        return age < 0 ? UNKNOWN_AGE : Math.min(age, UNKNOWN_AGE - 1);
+    }
+
+    private static int statusFlag(String adoptionStatus) {
+        return "Available".equalsIgnoreCase(adoptionStatus) ? AVAILABLE : 0;
+    }
+
+    private static int genderFlag(String gender) {
+        if ("Male".equalsIgnoreCase(gender)) {
+            return MALE;
+        }
+        return "Female".equalsIgnoreCase(gender) ? FEMALE : 0;
+    }
+
+    private static int healthFlags(String healthStatus, String vaccinationStatus) {
+        int flags = 0;
+        if ("Healthy".equalsIgnoreCase(healthStatus)) {
+            flags |= HEALTHY;
+        } else if ("Needs Treatment".equalsIgnoreCase(healthStatus)) {
+            flags |= NEEDS_TREATMENT;
+        }
+        if ("Vaccinated".equalsIgnoreCase(vaccinationStatus)) {
+            flags |= VACCINATED;
+        } else if ("Not Vaccinated".equalsIgnoreCase(vaccinationStatus)) {
+            flags |= NOT_VACCINATED;
+        }
+        return flags;
+    }
+
+    /**
+     * One recommended pet and its score
+     */
+    public static class Recommendation {
+        private final int petId;
+        private final double score;
+
+        Recommendation(int petId, double score) {
+            this.petId = petId;
+            this.score = score;
+        }
+
+        public int getPetId() { return petId; }
+        public double getScore() { return score; }
+    }
+
+    /**
+     * Pet features stored as parallel arrays indexed by slot
+     * Removing a pet moves the last slot into the freed one, so slots stay dense
+     */
+    private static final class Features {
+        int size = 0;
+        int[] petIds;
+        short[] typeSlot;
+        byte[] age;
+        int[] registeredDay;
+        byte[] flags;
+        final IntTable slotOfPet;
+        final IntTable slotOfType = new IntTable(16);
+        int typeCount = 0;
+
+        Features(int capacity) {
+            petIds = new int[capacity];
+            typeSlot = new short[capacity];
+            age = new byte[capacity];
+            registeredDay = new int[capacity];
+            flags = new byte[capacity];
+            slotOfPet = new IntTable(capacity);
+        }
+
+        int slotOf(int petId) {
+            return slotOfPet.get(petId);
+        }
+
+        void put(int petId, int petTypeId, int encodedAge, int day, int petFlags) {
+            int slot = slotOfPet.get(petId);
+            if (slot < 0) {
+                if (size == petIds.length) {
+                    grow();
+                }
+                slot = size++;
+                petIds[slot] = petId;
+                slotOfPet.put(petId, slot);
+            }
+            typeSlot[slot] = (short) typeSlotOf(petTypeId);
+            age[slot] = (byte) encodedAge;
+            registeredDay[slot] = day;
+            flags[slot] = (byte) petFlags;
+        }
+
+        void remove(int petId) {
+            int slot = slotOfPet.remove(petId);
+            if (slot < 0) {
+                return;
+            }
+            int last = --size;
+            if (slot != last) {
+                petIds[slot] = petIds[last];
+                typeSlot[slot] = typeSlot[last];
+                age[slot] = age[last];
+                registeredDay[slot] = registeredDay[last];
+                flags[slot] = flags[last];
+                slotOfPet.put(petIds[slot], slot);
+            }
+        }
+
+        private int typeSlotOf(int petTypeId) {
+            int slot = slotOfType.get(petTypeId);
+            if (slot < 0) {
+                slot = typeCount++;
+                slotOfType.put(petTypeId, slot);
+            }
+            return slot;
+        }
+
+        private void grow() {
+            int capacity = petIds.length * 2;
+            petIds = Arrays.copyOf(petIds, capacity);
+            typeSlot = Arrays.copyOf(typeSlot, capacity);
+            age = Arrays.copyOf(age, capacity);
+            registeredDay = Arrays.copyOf(registeredDay, capacity);
+            flags = Arrays.copyOf(flags, capacity);
+        }
+    }
+
+    /**
+     * Open-addressing map from positive int keys to non-negative int values
+     * Removal shifts later entries back instead of leaving tombstones
+     */
+    private static final class IntTable {
+        private static final int EMPTY = 0;
+
+        private int[] keys;
+        private int[] values;
+        private int count = 0;
+
+        IntTable(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(4, expected) * 2 - 1) << 1;
+            keys = new int[capacity];
+            values = new int[capacity];
+        }
+
+        int get(int key) {
+            int mask = keys.length - 1;
+            for (int i = hash(key) & mask; keys[i] != EMPTY; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return values[i];
+                }
+            }
+            return -1;
+        }
+
+        void put(int key, int value) {
+            if ((count + 1) * 2 > keys.length) {
+                rehash(keys.length * 2);
+            }
+            int mask = keys.length - 1;
+            int i = hash(key) & mask;
+            while (keys[i] != EMPTY) {
+                if (keys[i] == key) {
+                    values[i] = value;
+                    return;
+                }
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            values[i] = value;
+            count++;
+        }
+
+        int remove(int key) {
+            int mask = keys.length - 1;
+            int i = hash(key) & mask;
+            while (keys[i] != key) {
+                if (keys[i] == EMPTY) {
+                    return -1;
+                }
+                i = (i + 1) & mask;
+            }
+            int removed = values[i];
+            count--;
+
+            // Shift back entries whose probe sequence passes through the freed position
+            int gap = i;
+            for (int j = (i + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask) {
+                int home = hash(keys[j]) & mask;
+                if (((j - home) & mask) >= ((j - gap) & mask)) {
+                    keys[gap] = keys[j];
+                    values[gap] = values[j];
+                    gap = j;
+                }
+            }
+            keys[gap] = EMPTY;
+            return removed;
+        }
+
+        private void rehash(int capacity) {
+            int[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new int[capacity];
+            values = new int[capacity];
+            count = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int hash(int key) {
+            int h = key * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+
+    /**
+     * Per-query lookup tables built from an adopter's preferences
+     * Each component is reduced to a table lookup so scoring a pet costs a handful of array reads
+     */
+    private static final class Scorer {
+        final double[] typeScore;
+        final double[] ageScore = new double[UNKNOWN_AGE + 1];
+        final double[] flagScore = new double[FLAG_COMBINATIONS];
+        final int today;
+
+        private Scorer(int typeCount, int today) {
+            this.typeScore = new double[Math.max(1, typeCount)];
+            this.today = today;
+        }
+
+        /**
+         * Derives smoothed preference shares from the pets an adopter has requested
+         * Requests for pets no longer in the index, such as archived ones, are skipped
+         */
+        static Scorer forHistory(Features features, List<AdoptionRequest> history, int today) {
+            Scorer scorer = new Scorer(features.typeCount, today);
+            double[] typeWeight = new double[scorer.typeScore.length];
+            double total = 0;
+            double male = 0;
+            double female = 0;
+            double healthy = 0;
+            double needsTreatment = 0;
+            double vaccinated = 0;
+            double notVaccinated = 0;
+            double ageTotal = 0;
+            double ageSquares = 0;
+            double ageWeight = 0;
+
+            for (AdoptionRequest request : history) {
+                int slot = features.slotOf(request.getPetId());
+                if (slot < 0) {
+                    continue;
+                }
+                double weight = requestWeight(request.getStatus());
+                int petFlags = features.flags[slot];
+                int petAge = features.age[slot] & 0xFF;
+
+                total += weight;
+                typeWeight[features.typeSlot[slot]] += weight;
+                male += (petFlags & MALE) != 0 ? weight : 0;
+                female += (petFlags & FEMALE) != 0 ? weight : 0;
+                healthy += (petFlags & HEALTHY) != 0 ? weight : 0;
+                needsTreatment += (petFlags & NEEDS_TREATMENT) != 0 ? weight : 0;
+                vaccinated += (petFlags & VACCINATED) != 0 ? weight : 0;
+                notVaccinated += (petFlags & NOT_VACCINATED) != 0 ? weight : 0;
+                if (petAge != UNKNOWN_AGE) {
+                    ageTotal += weight * petAge;
+                    ageSquares += weight * petAge * petAge;
+                    ageWeight += weight;
+                }
+            }
+
+            for (int t = 0; t < typeWeight.length; t++) {
+                scorer.typeScore[t] = TYPE_WEIGHT * share(typeWeight[t], total, typeWeight.length);
+            }
+
+            if (ageWeight > 0) {
+                double mean = ageTotal / ageWeight;
+                double spread = Math.sqrt(Math.max(0, ageSquares / ageWeight - mean * mean)) + 1.0;
+                double confidence = ageWeight / (ageWeight + PRIOR_WEIGHT);
+                for (int a = 0; a < UNKNOWN_AGE; a++) {
+                    double distance = (a - mean) / spread;
+                    scorer.ageScore[a] = AGE_WEIGHT * confidence * Math.exp(-0.5 * distance * distance);
+                }
+            }
+
+            for (int f = 0; f < FLAG_COMBINATIONS; f++) {
+                double score = 0;
+                score += GENDER_WEIGHT * optionShare(f, MALE, male, FEMALE, female, total);
+                score += HEALTH_WEIGHT * optionShare(f, HEALTHY, healthy, NEEDS_TREATMENT, needsTreatment, total);
+                score += VACCINATION_WEIGHT * optionShare(f, VACCINATED, vaccinated, NOT_VACCINATED, notVaccinated, total);
+                scorer.flagScore[f] = score;
+            }
+            return scorer;
+        }
+
+        double score(int typeSlot, int age, int registeredDay, int flags) {
+            // Unknown and future registration days clamp to no waiting bonus
+            int waitingDays = Math.min(WAITING_DAYS_FOR_MAX, Math.max(0, today - registeredDay));
+            return typeScore[typeSlot] + ageScore[age] + flagScore[flags] + WAITING_PER_DAY * waitingDays;
+        }
+
+        private static double requestWeight(String status) {
+            if ("Approved".equalsIgnoreCase(status)) {
+                return APPROVED_REQUEST_WEIGHT;
+            }
+            return "Rejected".equalsIgnoreCase(status) ? REJECTED_REQUEST_WEIGHT : PENDING_REQUEST_WEIGHT;
+        }
+
+        private static double share(double weight, double total, int options) {
+            return (weight + PRIOR_WEIGHT / options) / (total + PRIOR_WEIGHT);
+        }
+
+        /**
+         * Share of a two-option feature; pets with neither option set get an even share
+         */
+        private static double optionShare(int flags, int first, double firstWeight, int second, double secondWeight, double total) {
+            if ((flags & first) != 0) {
+                return share(firstWeight, total, 2);
+            }
+            if ((flags & second) != 0) {
+                return share(secondWeight, total, 2);
+            }
+            return 0.5;
+        }
+    }
+
+    /**
+     * Bounded min-heap of the best scores seen so far, worst entry at the root
+     * Ties are broken by pet ID, lower IDs ranking first
+     */
+    private static final class TopK {
+        private final int capacity;
+        private final double[] scores;
+        private final int[] petIds;
+        private int size = 0;
+
+        TopK(int capacity) {
+            this.capacity = capacity;
+            this.scores = new double[capacity];
+            this.petIds = new int[capacity];
+        }
+
+        boolean accepts(double score, int petId) {
+            return size < capacity || worse(scores[0], petIds[0], score, petId);
+        }
+
+        void offer(double score, int petId) {
+            if (size < capacity) {
+                int i = size++;
+                while (i > 0) {
+                    int parent = (i - 1) >>> 1;
+                    if (!worse(score, petId, scores[parent], petIds[parent])) {
+                        break;
+                    }
+                    scores[i] = scores[parent];
+                    petIds[i] = petIds[parent];
+                    i = parent;
+                }
+                scores[i] = score;
+                petIds[i] = petId;
+            } else if (worse(scores[0], petIds[0], score, petId)) {
+                siftDown(score, petId);
+            }
+        }
+
+        void merge(TopK other) {
+            for (int i = 0; i < other.size; i++) {
+                offer(other.scores[i], other.petIds[i]);
+            }
+        }
+
+        List<Recommendation> toRecommendations() {
+            Recommendation[] ranked = new Recommendation[size];
+            while (size > 0) {
+                ranked[size - 1] = new Recommendation(petIds[0], scores[0]);
+                size--;
+                if (size > 0) {
+                    siftDown(scores[size], petIds[size]);
+                }
+            }
+            return new ArrayList<>(Arrays.asList(ranked));
+        }
+
+        private void siftDown(double score, int petId) {
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && worse(scores[child + 1], petIds[child + 1], scores[child], petIds[child])) {
+                    child++;
+                }
+                if (!worse(scores[child], petIds[child], score, petId)) {
+                    break;
+                }
+                scores[i] = scores[child];
+                petIds[i] = petIds[child];
+                i = child;
+            }
+            scores[i] = score;
+            petIds[i] = petId;
+        }
+
+        private static boolean worse(double scoreA, int petA, double scoreB, int petB) {
+            return scoreA < scoreB || (scoreA == scoreB && petA > petB);
+        }
+    }
+
+    /**
+     * Scores a range of slots, splitting it across the common fork-join pool
+     */
+    private static final class ScoreTask extends RecursiveTask<TopK> {
+        private static final long serialVersionUID = 1L;
+
+        // ForkJoinTask is Serializable, but a task is never serialized; these only share the snapshot
+        private final transient Features features;
+        private final transient Scorer scorer;
+        private final transient int[] excluded;
+        private final int limit;
+        private final int from;
+        private final int to;
+
+        ScoreTask(Features features, Scorer scorer, int[] excluded, int limit, int from, int to) {
+            this.features = features;
+            this.scorer = scorer;
+            this.excluded = excluded;
+            this.limit = limit;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected TopK compute() {
+            if (to - from <= LEAF_SIZE || ForkJoinPool.getCommonPoolParallelism() <= 1) {
+                return scoreRange();
+            }
+            int middle = (from + to) >>> 1;
+            ScoreTask left = new ScoreTask(features, scorer, excluded, limit, from, middle);
+            left.fork();
+            TopK top = new ScoreTask(features, scorer, excluded, limit, middle, to).compute();
+            top.merge(left.join());
+            return top;
+        }
+
+        private TopK scoreRange() {
+            TopK top = new TopK(limit);
+            short[] typeSlot = features.typeSlot;
+            byte[] age = features.age;
+            int[] registeredDay = features.registeredDay;
+            byte[] flags = features.flags;
+            int[] petIds = features.petIds;
+
+            for (int i = from; i < to; i++) {
+                int petFlags = flags[i];
+                if ((petFlags & AVAILABLE) == 0) {
+                    continue;
+                }
+                double score = scorer.score(typeSlot[i], age[i] & 0xFF, registeredDay[i], petFlags);
+                // Requested pets are rare, so they are only looked up once a pet would make the list
+                if (top.accepts(score, petIds[i]) && Arrays.binarySearch(excluded, petIds[i]) < 0) {
+                    top.offer(score, petIds[i]);
+                }
+            }
+            return top;
+        }
+    }
+}
@@ -10,6 +10,7 @@ package com.furever.crud;
  */
 import com.furever.database.DbConnection;
 import com.furever.models.PetType;
+import com.furever.utils.EntityCache;
 
 import java.sql.*;
 import java.util.ArrayList;
@@ -20,6 +21,11 @@ import java.util.List;
  */
 public class PetTypeCRUD {
     
+    // Pet types almost never change, so the whole ordered list is cached as a single entry
+    private static final String ALL_PET_TYPES = "all";
+    private static final EntityCache<String, List<PetType>> PET_TYPE_CACHE =
+            EntityCache.create("Pet types", 1, 60 * 60 * 1000L, PetTypeCRUD::copyPetTypes);
+    
     /**
      * Creates a new pet type in the database
      * @param petType PetType object to create
@@ -29,7 +35,7 @@ public class PetTypeCRUD {
         String sql = "INSERT INTO tbl_pet_type (pet_type_name) VALUES (?)";
         
         try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql, Statement.RETURN_GENERATED_KEYS)) {
             
             pstmt.setString(1, petType.getPetTypeName());
             
@@ -41,6 +47,7 @@ public class PetTypeCRUD {
                         petType.setPetTypeId(generatedKeys.getInt(1));
                     }
                 }
+                PET_TYPE_CACHE.invalidateAll();
                 System.out.println("Pet type created successfully with ID: " + petType.getPetTypeId());
                 return true;
             }
@@ -58,10 +65,17 @@ public class PetTypeCRUD {
      * @return PetType object if found, null otherwise
      */
     public PetType getPetTypeById(int petTypeId) {
+        for (PetType petType : getAllPetTypes()) {
+            if (petType.getPetTypeId() == petTypeId) {
+                return petType;
+            }
+        }
+        
+        // Not in the cached list; it may have been added by another client since the list was loaded
         String sql = "SELECT * FROM tbl_pet_type WHERE pet_type_id = ?";
         
         try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             
             pstmt.setInt(1, petTypeId);
             
@@ -83,6 +97,15 @@ public class PetTypeCRUD {
      * @return List of all pet types
      */
     public List<PetType> getAllPetTypes() {
+        List<PetType> petTypes = PET_TYPE_CACHE.get(ALL_PET_TYPES, key -> loadAllPetTypes());
+        return petTypes != null ? petTypes : new ArrayList<>();
+    }
+    
+    /**
+     * Reads every pet type from the database
+     * @return List of all pet types, or null if the query failed so that nothing is cached
+     */
+    private List<PetType> loadAllPetTypes() {
         List<PetType> petTypes = new ArrayList<>();
         String sql = "SELECT * FROM tbl_pet_type ORDER BY pet_type_name";
         
@@ -96,6 +119,7 @@ public class PetTypeCRUD {
             
         } catch (SQLException e) {
             System.err.println("Error retrieving all pet types: " + e.getMessage());
+            return null;
         }
         
         return petTypes;
@@ -110,7 +134,7 @@ public class PetTypeCRUD {
         String sql = "UPDATE tbl_pet_type SET pet_type_name = ? WHERE pet_type_id = ?";
         
         try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             
             pstmt.setString(1, petType.getPetTypeName());
             pstmt.setInt(2, petType.getPetTypeId());
@@ -118,6 +142,7 @@ public class PetTypeCRUD {
             int rowsAffected = pstmt.executeUpdate();
             
             if (rowsAffected > 0) {
+                PET_TYPE_CACHE.invalidateAll();
                 System.out.println("Pet type updated successfully.");
                 return true;
             } else {
@@ -140,13 +165,14 @@ public class PetTypeCRUD {
         String sql = "DELETE FROM tbl_pet_type WHERE pet_type_id = ?";
         
         try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             
             pstmt.setInt(1, petTypeId);
             
             int rowsAffected = pstmt.executeUpdate();
             
             if (rowsAffected > 0) {
+                PET_TYPE_CACHE.invalidateAll();
                 System.out.println("Pet type deleted successfully.");
                 return true;
             } else {
@@ -160,6 +186,19 @@ public class PetTypeCRUD {
         return false;
     }
     
+    /**
+     * Copies a list of pet types so cached objects are never shared with callers
+     * @param petTypes Pet types to copy
+     * @return List of copies in the same order
+     */
+    private static List<PetType> copyPetTypes(List<PetType> petTypes) {
+        List<PetType> copies = new ArrayList<>(petTypes.size());
+        for (PetType petType : petTypes) {
+            copies.add(new PetType(petType));
+        }
+        return copies;
+    }
+    
     /**
      * Extracts PetType object from ResultSet
      * @param rs ResultSet containing pet type data
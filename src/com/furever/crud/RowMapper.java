@@ -0,0 +1,149 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.furever.crud;
+
+/**
+ *
+ * @author jerimiahtongco
+ */
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Maps rows of an explicit column projection to model objects
+ * The mapper owns its SELECT list, so every column is read by position and no
+ * column label is looked up per cell. Each CRUD class keeps a summary projection
+ * for list screens and a detail projection for single-record reads.
+ * @param <T> model type
+ */
+final class RowMapper<T> {
+
+    /**
+     * Reads one column of the current row into a model object
+     * @param <T> model type
+     */
+    @FunctionalInterface
+    interface ColumnReader<T> {
+        void read(T target, ResultSet rs, int index) throws SQLException;
+    }
+
+    private final Supplier<T> factory;
+    private final List<String> columns = new ArrayList<>();
+    private final List<String> expressions = new ArrayList<>();
+    private final List<ColumnReader<T>> readers = new ArrayList<>();
+
+    /**
+     * Creates an empty mapper
+     * @param factory Creates a new model object for each row
+     */
+    RowMapper(Supplier<T> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Adds a column read as-is
+     * @param column Column name
+     * @param reader Copies the column value into the model
+     * @return this mapper
+     */
+    RowMapper<T> column(String column, ColumnReader<T> reader) {
+        return add(column, "%s", reader);
+    }
+
+    /**
+     * Adds a text column of which only the first characters are transferred
+     * Used by summary projections for TEXT columns that list screens truncate anyway
+     * @param column Column name
+     * @param length Number of characters to read
+     * @param reader Copies the column value into the model
+     * @return this mapper
+     */
+    RowMapper<T> preview(String column, int length, ColumnReader<T> reader) {
+        return add(column, "LEFT(%s, " + length + ")", reader);
+    }
+
+    /**
+     * Gets the SELECT list of this projection
+     * @return comma separated column list
+     */
+    String columns() {
+        return columns(null);
+    }
+
+    /**
+     * Gets the SELECT list of this projection with every column qualified by a table alias
+     * @param alias Table alias, or null for unqualified columns
+     * @return comma separated column list
+     */
+    String columns(String alias) {
+        StringBuilder sql = new StringBuilder();
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            String column = alias != null ? alias + "." + columns.get(i) : columns.get(i);
+            sql.append(String.format(expressions.get(i), column));
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Gets the number of columns in this projection
+     * @return column count
+     */
+    int width() {
+        return columns.size();
+    }
+
+    /**
+     * Maps the current row of a result set selected with columns()
+     * @param rs Result set positioned on a row
+     * @return mapped model object
+     * @throws SQLException if database access error occurs
+     */
+    T map(ResultSet rs) throws SQLException {
+        return map(rs, 0);
+    }
+
+    /**
+     * Maps the current row when this projection does not start at the first column,
+     * as in a join that selects several projections side by side
+     * @param rs Result set positioned on a row
+     * @param offset Number of columns selected before this projection
+     * @return mapped model object
+     * @throws SQLException if database access error occurs
+     */
+    T map(ResultSet rs, int offset) throws SQLException {
+        T target = factory.get();
+        for (int i = 0; i < readers.size(); i++) {
+            readers.get(i).read(target, rs, offset + i + 1);
+        }
+        return target;
+    }
+
+    /**
+     * Maps every remaining row of a result set
+     * @param rs Result set selected with columns()
+     * @return mapped model objects in result order
+     * @throws SQLException if database access error occurs
+     */
+    List<T> mapAll(ResultSet rs) throws SQLException {
+        List<T> results = new ArrayList<>();
+        while (rs.next()) {
+            results.add(map(rs));
+        }
+        return results;
+    }
+
+    private RowMapper<T> add(String column, String expression, ColumnReader<T> reader) {
+        columns.add(column);
+        expressions.add(expression);
+        readers.add(reader);
+        return this;
+    }
+}
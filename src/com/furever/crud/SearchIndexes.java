@@ -0,0 +1,245 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.furever.crud;
+
+/**
+ *
+ * @author jerimiahtongco
+ */
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import com.furever.database.DbConnection;
+import com.furever.database.OperationMetrics;
+import com.furever.utils.TrigramIndex;
+
+/**
+ * Shared in-memory name indexes used by the CRUD search methods.
+ * Indexes are warmed from the database once and kept current by the CRUD write paths.
+ * Searches only return candidate IDs; the rows themselves are always read from the database.
+ */
+public class SearchIndexes {
+
+    /** Maximum number of ranked matches returned by a search */
+    public static final int MAX_RESULTS = 100;
+
+    private static volatile SearchIndexes instance = null;
+
+    private final TrigramIndex petNames = new TrigramIndex();
+    private final TrigramIndex adopterNames = new TrigramIndex();
+    private final TrigramIndex adopterUsernames = new TrigramIndex();
+    private final TrigramIndex petOwnerNames = new TrigramIndex();
+    private final TrigramIndex usernames = new TrigramIndex();
+
+    private volatile boolean ready = false;
+
+    /**
+     * Private constructor; use getInstance()
+     */
+    private SearchIndexes() {}
+
+    /**
+     * Gets the shared search indexes
+     * @return SearchIndexes instance
+     */
+    public static SearchIndexes getInstance() {
+        SearchIndexes current = instance;
+        if (current != null) {
+            return current;
+        }
+
+        synchronized (SearchIndexes.class) {
+            if (instance == null) {
+                instance = new SearchIndexes();
+            }
+            return instance;
+        }
+    }
+
+    /**
+     * Loads every index from the database
+     * Called at startup; searches also trigger it if it has not run yet
+     * @return true if all indexes were loaded, false otherwise
+     */
+    public synchronized boolean warm() {
+        try (Connection conn = DbConnection.getConnection()) {
+            petNames.clear();
+            adopterNames.clear();
+            adopterUsernames.clear();
+            petOwnerNames.clear();
+            usernames.clear();
+
+            try (PreparedStatement pstmt = streamingStatement(conn, "SELECT pet_id, pet_name FROM tbl_pet");
+                 ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    petNames.put(rs.getInt("pet_id"), rs.getString("pet_name"));
+                }
+            }
+
+            try (PreparedStatement pstmt = streamingStatement(conn, "SELECT adopter_id, adopter_name, adopter_username FROM tbl_adopter");
+                 ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    int adopterId = rs.getInt("adopter_id");
+                    adopterNames.put(adopterId, rs.getString("adopter_name"));
+                    adopterUsernames.put(adopterId, rs.getString("adopter_username"));
+                }
+            }
+
+            try (PreparedStatement pstmt = streamingStatement(conn, "SELECT pet_owner_id, pet_owner_name FROM tbl_pet_owner");
+                 ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    petOwnerNames.put(rs.getInt("pet_owner_id"), rs.getString("pet_owner_name"));
+                }
+            }
+
+            try (PreparedStatement pstmt = streamingStatement(conn, "SELECT id, username FROM users");
+                 ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    usernames.put(rs.getInt("id"), rs.getString("username"));
+                }
+            }
+            OperationMetrics.addRows(petNames.size() + adopterNames.size() + petOwnerNames.size() + usernames.size());
+
+            ready = true;
+            return true;
+
+        } catch (SQLException e) {
+            System.err.println("Error warming search indexes: " + e.getMessage());
+            ready = false;
+            return false;
+        }
+    }
+
+    /**
+     * Checks whether the indexes are loaded, warming them on first use
+     * CRUD classes fall back to SQL LIKE searches when this returns false
+     * @return true if the indexes can serve searches
+     */
+    public boolean isReady() {
+        if (!ready) {
+            warm();
+        }
+        return ready;
+    }
+
+    // Pets
+
+    public List<Integer> searchPetIds(String query) { return petNames.search(query, MAX_RESULTS); }
+    public void indexPet(int petId, String petName) { petNames.put(petId, petName); }
+    public void removePet(int petId) { petNames.remove(petId); }
+
+    // Adopters
+
+    public List<Integer> searchAdopterIdsByName(String query) { return adopterNames.search(query, MAX_RESULTS); }
+    public List<Integer> searchAdopterIdsByUsername(String query) { return adopterUsernames.search(query, MAX_RESULTS); }
+
+    /**
+     * Adds or replaces the indexed name and username of an adopter
+     * @param adopterId Adopter ID
+     * @param adopterName Display name
+     * @param adopterUsername Adopter username
+     */
+    public void indexAdopter(int adopterId, String adopterName, String adopterUsername) {
+        adopterNames.put(adopterId, adopterName);
+        adopterUsernames.put(adopterId, adopterUsername);
+    }
+
+    public void removeAdopter(int adopterId) {
+        adopterNames.remove(adopterId);
+        adopterUsernames.remove(adopterId);
+    }
+
+    // Pet owners
+
+    public List<Integer> searchPetOwnerIds(String query) { return petOwnerNames.search(query, MAX_RESULTS); }
+    public void indexPetOwner(int petOwnerId, String petOwnerName) { petOwnerNames.put(petOwnerId, petOwnerName); }
+    public void removePetOwner(int petOwnerId) { petOwnerNames.remove(petOwnerId); }
+
+    // Users
+
+    public List<Integer> searchUserIds(String query) { return usernames.search(query, MAX_RESULTS); }
+    public void indexUser(int userId, String username) { usernames.put(userId, username); }
+    public void removeUser(int userId) { usernames.remove(userId); }
+
+    /**
+     * Re-reads the adopter and pet owner profiles linked to a username
+     * Used after user writes that create profiles inside their own transaction
+     * @param username Username from the users table
+     */
+    public void reindexProfilesForUsername(String username) {
+        if (!ready || username == null) {
+            return;
+        }
+
+        String adopterSql = "SELECT adopter_id, adopter_name, adopter_username FROM tbl_adopter WHERE username = ?";
+        String petOwnerSql = "SELECT pet_owner_id, pet_owner_name FROM tbl_pet_owner WHERE username = ?";
+
+        try (Connection conn = DbConnection.getConnection()) {
+            try (PreparedStatement pstmt = StatementCatalog.prepare(conn, adopterSql)) {
+                pstmt.setString(1, username);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        indexAdopter(rs.getInt("adopter_id"), rs.getString("adopter_name"), rs.getString("adopter_username"));
+                    }
+                }
+            }
+
+            try (PreparedStatement pstmt = StatementCatalog.prepare(conn, petOwnerSql)) {
+                pstmt.setString(1, username);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        indexPetOwner(rs.getInt("pet_owner_id"), rs.getString("pet_owner_name"));
+                    }
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error reindexing profiles for " + username + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Builds the SQL placeholder list and ORDER BY FIELD clause used to load ranked IDs
+     * @param idColumn ID column of the table
+     * @param ids Ranked IDs
+     * @return SQL fragment "idColumn IN (?, ...) ORDER BY FIELD(idColumn, ?, ...)"
+     */
+    static String rankedIdClause(String idColumn, List<Integer> ids) {
+        StringBuilder placeholders = new StringBuilder();
+        for (int i = 0; i < ids.size(); i++) {
+            placeholders.append(i == 0 ? "?" : ", ?");
+        }
+        return idColumn + " IN (" + placeholders + ") ORDER BY FIELD(" + idColumn + ", " + placeholders + ")";
+    }
+
+    /**
+     * Binds ranked IDs twice, once for the IN list and once for the FIELD ordering
+     * @param pstmt Statement built with rankedIdClause
+     * @param ids Ranked IDs
+     * @throws SQLException if binding fails
+     */
+    static void bindRankedIds(PreparedStatement pstmt, List<Integer> ids) throws SQLException {
+        for (int i = 0; i < ids.size(); i++) {
+            pstmt.setInt(i + 1, ids.get(i));
+            pstmt.setInt(ids.size() + i + 1, ids.get(i));
+        }
+    }
+
+    /**
+     * Creates a forward-only statement that streams rows instead of buffering the table
+     * @param conn Database connection
+     * @param sql Query to prepare
+     * @return prepared statement
+     * @throws SQLException if preparation fails
+     */
+    private static PreparedStatement streamingStatement(Connection conn, String sql) throws SQLException {
+        PreparedStatement pstmt = StatementCatalog.prepare(conn, sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        pstmt.setFetchSize(Integer.MIN_VALUE);
+        return pstmt;
+    }
+}
@@ -0,0 +1,318 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.furever.crud;
+
+/**
+ *
+ * @author jerimiahtongco
+ */
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.furever.database.DbConnection;
+import com.furever.database.ExecutionInterceptor;
+
+/**
+ * Central catalog of the SQL statements run by the CRUD layer
+ *
+ * Every prepared statement in com.furever.crud is created through prepare(), which counts
+ * how often each statement is prepared. Executions and their duration are reported by the
+ * connector through ExecutionInterceptor, so the statements handed out are the driver's own.
+ * The hottest queries are declared here by name. The connection URL enables the connector's
+ * client-side per-connection statement cache, and the first time a pooled connection is handed
+ * out the hot statements are prepared on it, so later calls take the already parsed statement
+ * from the cache instead of parsing it again. The cache lives in the driver, so it survives the
+ * session reset the pool performs on every borrow.
+ */
+public final class StatementCatalog {
+
+    /** Distinct statements tracked individually; the rest are counted together */
+    private static final int MAX_TRACKED_STATEMENTS = 500;
+    private static final String OTHER_STATEMENTS = "(other statements)";
+
+    // Must be initialized before the hot statements below register themselves
+    private static final Map<String, String> HOT_NAMES = new LinkedHashMap<>();
+    private static final Map<String, Counters> COUNTERS = new ConcurrentHashMap<>();
+    private static final AtomicInteger warmedConnections = new AtomicInteger(0);
+
+    // ==================== HOT STATEMENTS ====================
+
+    static final String PET_BY_ID = hot("pet.byId",
+            "SELECT " + PetCRUD.PET_DETAIL.columns() + " FROM tbl_pet WHERE pet_id = ?");
+    static final String PETS_ACTIVE = hot("pet.active",
+            "SELECT " + PetCRUD.PET_SUMMARY.columns() + " FROM tbl_pet WHERE archived = false ORDER BY pet_id");
+    static final String PETS_BY_STATUS = hot("pet.byStatus",
+            "SELECT " + PetCRUD.PET_SUMMARY.columns() + " FROM tbl_pet WHERE adoption_status = ? AND archived = false ORDER BY pet_id");
+    static final String PETS_BY_OWNER = hot("pet.byOwner",
+            "SELECT " + PetCRUD.PET_SUMMARY.columns() + " FROM tbl_pet WHERE pet_owner_id = ? AND archived = false ORDER BY pet_id");
+    static final String PETS_PAGE = hot("pet.page",
+            "SELECT " + PetCRUD.PET_SUMMARY.columns() + " FROM tbl_pet WHERE archived = false AND pet_id > ? ORDER BY pet_id LIMIT ?");
+    static final String PETS_BY_STATUS_PAGE = hot("pet.byStatusPage",
+            "SELECT " + PetCRUD.PET_SUMMARY.columns() + " FROM tbl_pet WHERE adoption_status = ? AND archived = false AND pet_id > ? ORDER BY pet_id LIMIT ?");
+    static final String PETS_ARCHIVED_BY_OWNER = hot("pet.archivedByOwner",
+            "SELECT " + PetCRUD.PET_SUMMARY.columns() + ", archived_date FROM tbl_pet_archive WHERE pet_owner_id = ? ORDER BY archived_date DESC, pet_id DESC");
+
+    static final String USER_BY_ID = hot("user.byId",
+            "SELECT " + UserCRUD.USER_DETAIL.columns() + " FROM users WHERE id = ?");
+    static final String USER_BY_USERNAME = hot("user.byUsername",
+            "SELECT " + UserCRUD.USER_DETAIL.columns() + " FROM users WHERE username = ?");
+    static final String USER_LOGIN = hot("user.login",
+            "SELECT " + UserCRUD.USER_DETAIL.columns() + " FROM users WHERE username = ? AND password = ?");
+
+    static final String PET_OWNER_BY_ID = hot("petOwner.byId",
+            "SELECT " + PetOwnerCRUD.PET_OWNER_DETAIL.columns() + " FROM tbl_pet_owner WHERE pet_owner_id = ?");
+    static final String PET_OWNER_BY_USERNAME = hot("petOwner.byUsername",
+            "SELECT " + PetOwnerCRUD.PET_OWNER_DETAIL.columns() + " FROM tbl_pet_owner WHERE pet_owner_username = ? OR username = ?");
+
+    static final String ADOPTER_BY_ID = hot("adopter.byId",
+            "SELECT " + AdopterCRUD.ADOPTER_DETAIL.columns() + " FROM tbl_adopter WHERE adopter_id = ?");
+    static final String ADOPTER_BY_USERNAME = hot("adopter.byUsername",
+            "SELECT " + AdopterCRUD.ADOPTER_DETAIL.columns() + " FROM tbl_adopter WHERE adopter_username = ?");
+    static final String ADOPTER_BY_LINKED_USERNAME = hot("adopter.byLinkedUsername",
+            "SELECT " + AdopterCRUD.ADOPTER_DETAIL.columns() + " FROM tbl_adopter WHERE username = ?");
+
+    static final String REQUEST_BY_ID = hot("adoptionRequest.byId",
+            "SELECT " + AdoptionRequestCRUD.REQUEST_DETAIL.columns() + " FROM tbl_adoption_request WHERE adoption_request_id = ?");
+    static final String REQUESTS_BY_STATUS = hot("adoptionRequest.byStatus",
+            "SELECT " + AdoptionRequestCRUD.REQUEST_SUMMARY.columns() + " FROM tbl_adoption_request WHERE status = ? ORDER BY request_date DESC");
+    static final String REQUESTS_BY_ADOPTER = hot("adoptionRequest.byAdopter",
+            "SELECT " + AdoptionRequestCRUD.REQUEST_SUMMARY.columns() + " FROM tbl_adoption_request WHERE adopter_id = ? ORDER BY request_date DESC");
+    static final String REQUESTS_BY_PET = hot("adoptionRequest.byPet",
+            "SELECT " + AdoptionRequestCRUD.REQUEST_SUMMARY.columns() + " FROM tbl_adoption_request WHERE pet_id = ? ORDER BY request_date DESC");
+    static final String REQUESTS_PAGE = hot("adoptionRequest.page",
+            "SELECT " + AdoptionRequestCRUD.REQUEST_SUMMARY.columns() + " FROM tbl_adoption_request WHERE adoption_request_id > ? ORDER BY adoption_request_id LIMIT ?");
+    static final String REQUESTS_ARCHIVED_BY_ADOPTER = hot("adoptionRequest.archivedByAdopter",
+            "SELECT " + AdoptionRequestCRUD.REQUEST_SUMMARY.columns() + ", archived_date FROM tbl_adoption_request_archive WHERE adopter_id = ? ORDER BY archived_date DESC, adoption_request_id DESC");
+
+    static final String REQUEST_LISTINGS_BY_STATUS = hot("adoptionRequest.listingsByStatus",
+            AdoptionRequestCRUD.REQUEST_LISTING_FROM + " WHERE r.status = ? ORDER BY r.request_date DESC");
+    static final String REQUEST_LISTINGS_BY_ADOPTER = hot("adoptionRequest.listingsByAdopter",
+            AdoptionRequestCRUD.REQUEST_LISTING_FROM + " WHERE r.adopter_id = ? ORDER BY r.request_date DESC");
+    static final String REQUEST_LISTINGS_BY_PET = hot("adoptionRequest.listingsByPet",
+            AdoptionRequestCRUD.REQUEST_LISTING_FROM + " WHERE r.pet_id = ? ORDER BY r.request_date DESC");
+    static final String REQUEST_LISTINGS_PAGE = hot("adoptionRequest.listingsPage",
+            AdoptionRequestCRUD.REQUEST_LISTING_FROM + " WHERE r.adoption_request_id > ? ORDER BY r.adoption_request_id LIMIT ?");
+
+    // The recent-window queries ArchiveCRUD tries first; the unbounded fallback runs rarely
+    static final String ARCHIVE_LOG_RECENT = hot("archiveLog.recent",
+            ArchiveCRUD.archiveLogQuery(false, true));
+    static final String ARCHIVE_LOG_BY_TABLE = hot("archiveLog.byTable",
+            ArchiveCRUD.archiveLogQuery(true, true));
+
+    static {
+        DbConnection.addConnectionInitializer(StatementCatalog::warmUp);
+        ExecutionInterceptor.addListener(StatementCatalog::recordExecution);
+    }
+
+    /**
+     * Private constructor to prevent instantiation
+     */
+    private StatementCatalog() {}
+
+    private static String hot(String name, String sql) {
+        HOT_NAMES.put(sql, name);
+        return sql;
+    }
+
+    // ==================== PREPARE ====================
+
+    /**
+     * Prepares a statement, counting the prepare under its SQL text
+     * @param conn Connection to prepare on
+     * @param sql SQL text
+     * @return prepared statement
+     * @throws SQLException if the statement cannot be prepared
+     */
+    static PreparedStatement prepare(Connection conn, String sql) throws SQLException {
+        countersFor(sql).prepares.increment();
+        return conn.prepareStatement(sql);
+    }
+
+    /**
+     * Prepares a statement that can return generated keys
+     * @param conn Connection to prepare on
+     * @param sql SQL text
+     * @param autoGeneratedKeys Statement.RETURN_GENERATED_KEYS or Statement.NO_GENERATED_KEYS
+     * @return prepared statement
+     * @throws SQLException if the statement cannot be prepared
+     */
+    static PreparedStatement prepare(Connection conn, String sql, int autoGeneratedKeys) throws SQLException {
+        countersFor(sql).prepares.increment();
+        return conn.prepareStatement(sql, autoGeneratedKeys);
+    }
+
+    /**
+     * Prepares a statement with the given result set type and concurrency
+     * @param conn Connection to prepare on
+     * @param sql SQL text
+     * @param resultSetType Result set type
+     * @param resultSetConcurrency Result set concurrency
+     * @return prepared statement
+     * @throws SQLException if the statement cannot be prepared
+     */
+    static PreparedStatement prepare(Connection conn, String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+        countersFor(sql).prepares.increment();
+        return conn.prepareStatement(sql, resultSetType, resultSetConcurrency);
+    }
+
+    private static Counters countersFor(String sql) {
+        Counters counters = COUNTERS.get(sql);
+        if (counters != null) {
+            return counters;
+        }
+        String key = COUNTERS.size() < MAX_TRACKED_STATEMENTS ? sql : OTHER_STATEMENTS;
+        return COUNTERS.computeIfAbsent(key, k -> new Counters(k, HOT_NAMES.get(k)));
+    }
+
+    /**
+     * Records one execution reported by the connector
+     * @param sql SQL text the statement was prepared with
+     * @param elapsedNanos Time spent in the round trip
+     * @param failed Whether the execution failed
+     */
+    private static void recordExecution(String sql, long elapsedNanos, boolean failed) {
+        Counters counters = countersFor(sql);
+        counters.executions.increment();
+        counters.totalNanos.add(elapsedNanos);
+        counters.maxNanos.accumulate(elapsedNanos);
+        if (failed) {
+            counters.errors.increment();
+        }
+    }
+
+    // ==================== WARM-UP ====================
+
+    /**
+     * Prepares every hot statement on a connection and closes it again
+     * With cachePrepStmts the parsed statements stay in the connection's client-side cache
+     * @param conn Connection to warm up
+     * @throws SQLException if a statement cannot be prepared
+     */
+    public static void warmUp(Connection conn) throws SQLException {
+        for (String sql : HOT_NAMES.keySet()) {
+            conn.prepareStatement(sql).close();
+        }
+        warmedConnections.incrementAndGet();
+    }
+
+    /**
+     * Gets the hot statements by name, for tools that check their query plans
+     * @return SQL text by catalog name, in declaration order
+     */
+    public static Map<String, String> getHotStatements() {
+        Map<String, String> statements = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : HOT_NAMES.entrySet()) {
+            statements.put(entry.getValue(), entry.getKey());
+        }
+        return statements;
+    }
+
+    /**
+     * Gets the number of statements prepared on each connection when it is first used
+     * @return number of hot statements
+     */
+    public static int getHotStatementCount() {
+        return HOT_NAMES.size();
+    }
+
+    /**
+     * Gets the number of connections warmed up so far
+     * @return warmed connection count
+     */
+    public static int getWarmedConnectionCount() {
+        return warmedConnections.get();
+    }
+
+    // ==================== STATISTICS ====================
+
+    /**
+     * Gets the statistics of every statement run so far, most total execution time first
+     * @return statement statistics
+     */
+    public static List<StatementStats> getStatistics() {
+        List<StatementStats> stats = new ArrayList<>();
+        for (Counters counters : COUNTERS.values()) {
+            stats.add(new StatementStats(counters));
+        }
+        stats.sort(Comparator.comparingLong(StatementStats::getTotalNanos).reversed());
+        return stats;
+    }
+
+    /**
+     * Clears the statement statistics
+     */
+    public static void resetStatistics() {
+        COUNTERS.clear();
+    }
+
+    private static class Counters {
+        private final String sql;
+        private final String name;
+        private final LongAdder prepares = new LongAdder();
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        Counters(String sql, String name) {
+            this.sql = sql;
+            this.name = name;
+        }
+    }
+
+    /**
+     * Inner class to represent the statistics of one statement
+     */
+    public static class StatementStats {
+        private final String name;
+        private final String sql;
+        private final long prepares;
+        private final long executions;
+        private final long errors;
+        private final long totalNanos;
+        private final long maxNanos;
+
+        StatementStats(Counters counters) {
+            this.name = counters.name;
+            this.sql = counters.sql;
+            this.prepares = counters.prepares.sum();
+            this.executions = counters.executions.sum();
+            this.errors = counters.errors.sum();
+            this.totalNanos = counters.totalNanos.sum();
+            this.maxNanos = counters.maxNanos.get();
+        }
+
+        // Getters
+        public String getName() { return name; }
+        public String getSql() { return sql; }
+        public boolean isHot() { return name != null; }
+        public long getPrepares() { return prepares; }
+        public long getExecutions() { return executions; }
+        public long getErrors() { return errors; }
+        public long getTotalNanos() { return totalNanos; }
+        public long getMaxMicros() { return maxNanos / 1000; }
+        public long getAverageMicros() { return executions == 0 ? 0 : totalNanos / executions / 1000; }
+
+        /**
+         * Gets the catalog name, or the start of the SQL for statements without one
+         * @param maxLength Maximum length of the label
+         * @return label for display
+         */
+        public String getLabel(int maxLength) {
+            String label = name != null ? name : sql.replaceAll("\\s+", " ");
+            return label.length() <= maxLength ? label : label.substring(0, maxLength - 3) + "...";
+        }
+    }
+}
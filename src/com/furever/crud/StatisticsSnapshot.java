@@ -0,0 +1,362 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.furever.crud;
+
+/**
+ *
+ * @author jerimiahtongco
+ */
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.furever.database.DbConnection;
+
+/**
+ * In-process cache of every counter shown on the dashboards.
+ * The cache is loaded with one batched query, adjusted in place by the CRUD
+ * write paths after they commit, and periodically reconciled against the database.
+ */
+public class StatisticsSnapshot {
+
+    private static final long RECONCILE_INTERVAL_MS = 300_000;
+
+    /**
+     * Dashboard counters and the column alias each one is read from
+     */
+    public enum Counter {
+        PETS_TOTAL("pets_total"),
+        PETS_AVAILABLE("pets_available"),
+        PETS_PENDING("pets_pending"),
+        PETS_ADOPTED("pets_adopted"),
+        REQUESTS_TOTAL("requests_total"),
+        REQUESTS_PENDING("requests_pending"),
+        REQUESTS_APPROVED("requests_approved"),
+        REQUESTS_REJECTED("requests_rejected"),
+        ADOPTERS_TOTAL("adopters_total"),
+        PET_OWNERS_TOTAL("pet_owners_total"),
+        USERS_TOTAL("users_total"),
+        USERS_ADMIN("users_admin"),
+        USERS_ADOPTER("users_adopter"),
+        USERS_PET_OWNER("users_pet_owner"),
+        ARCHIVED_PETS("archived_pets"),
+        ARCHIVED_REQUESTS("archived_requests"),
+        ARCHIVED_ADOPTERS("archived_adopters"),
+        ARCHIVED_PET_OWNERS("archived_pet_owners"),
+        ARCHIVED_ADOPTIONS("archived_adoptions"),
+        ARCHIVED_USERS("archived_users");
+
+        private final String column;
+
+        Counter(String column) {
+            this.column = column;
+        }
+
+        /**
+         * Checks whether this counter tracks an archive table
+         * @return true for archive counters, which also carry oldest/newest dates
+         */
+        public boolean isArchive() {
+            return name().startsWith("ARCHIVED_");
+        }
+
+        /**
+         * Maps a pet adoption status to its counter
+         * @param status Adoption status
+         * @return matching counter, or null if the status is unknown
+         */
+        public static Counter forPetStatus(String status) {
+            if (status == null) {
+                return null;
+            }
+            switch (status) {
+                case "Available": return PETS_AVAILABLE;
+                case "Pending": return PETS_PENDING;
+                case "Adopted": return PETS_ADOPTED;
+                default: return null;
+            }
+        }
+
+        /**
+         * Maps an adoption request status to its counter
+         * @param status Request status
+         * @return matching counter, or null if the status is unknown
+         */
+        public static Counter forRequestStatus(String status) {
+            if (status == null) {
+                return null;
+            }
+            switch (status) {
+                case "Pending": return REQUESTS_PENDING;
+                case "Approved": return REQUESTS_APPROVED;
+                case "Rejected": return REQUESTS_REJECTED;
+                default: return null;
+            }
+        }
+
+        /**
+         * Maps a user role to its counter
+         * @param role User role
+         * @return matching counter, or null if the role is unknown
+         */
+        public static Counter forUserRole(String role) {
+            if (role == null) {
+                return null;
+            }
+            switch (role) {
+                case "admin": return USERS_ADMIN;
+                case "adopter": return USERS_ADOPTER;
+                case "pet_owner": return USERS_PET_OWNER;
+                default: return null;
+            }
+        }
+    }
+
+    // One round trip: every derived table yields exactly one row, so the cross join yields one row
+    private static final String SNAPSHOT_SQL =
+        "SELECT * FROM " +
+        "(SELECT COUNT(*) AS pets_total, " +
+        "COALESCE(SUM(adoption_status = 'Available'), 0) AS pets_available, " +
+        "COALESCE(SUM(adoption_status = 'Pending'), 0) AS pets_pending, " +
+        "COALESCE(SUM(adoption_status = 'Adopted'), 0) AS pets_adopted FROM tbl_pet) p " +
+        "CROSS JOIN (SELECT COUNT(*) AS requests_total, " +
+        "COALESCE(SUM(status = 'Pending'), 0) AS requests_pending, " +
+        "COALESCE(SUM(status = 'Approved'), 0) AS requests_approved, " +
+        "COALESCE(SUM(status = 'Rejected'), 0) AS requests_rejected FROM tbl_adoption_request) r " +
+        "CROSS JOIN (SELECT COUNT(*) AS adopters_total FROM tbl_adopter) a " +
+        "CROSS JOIN (SELECT COUNT(*) AS pet_owners_total FROM tbl_pet_owner) o " +
+        "CROSS JOIN (SELECT COUNT(*) AS users_total, " +
+        "COALESCE(SUM(role = 'admin'), 0) AS users_admin, " +
+        "COALESCE(SUM(role = 'adopter'), 0) AS users_adopter, " +
+        "COALESCE(SUM(role = 'pet_owner'), 0) AS users_pet_owner FROM users) u " +
+        archiveSelect("tbl_pet_archive", Counter.ARCHIVED_PETS, "pa") +
+        archiveSelect("tbl_adoption_request_archive", Counter.ARCHIVED_REQUESTS, "ra") +
+        archiveSelect("tbl_adopter_archive", Counter.ARCHIVED_ADOPTERS, "aa") +
+        archiveSelect("tbl_pet_owner_archive", Counter.ARCHIVED_PET_OWNERS, "oa") +
+        archiveSelect("tbl_adoption_archive", Counter.ARCHIVED_ADOPTIONS, "da") +
+        archiveSelect("users_archive", Counter.ARCHIVED_USERS, "ua");
+
+    private static volatile StatisticsSnapshot instance = null;
+
+    private final AtomicLongArray counts = new AtomicLongArray(Counter.values().length);
+    private final AtomicReferenceArray<Timestamp> oldestArchived = new AtomicReferenceArray<>(Counter.values().length);
+    private final AtomicReferenceArray<Timestamp> newestArchived = new AtomicReferenceArray<>(Counter.values().length);
+    private final Object refreshLock = new Object();
+    private final ScheduledExecutorService reconciler;
+
+    private volatile boolean loaded = false;
+    private volatile boolean stale = false;
+    private volatile long lastRefreshMillis = 0;
+
+    /**
+     * Private constructor; use getInstance()
+     */
+    private StatisticsSnapshot() {
+        this.reconciler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "furever-statistics-reconciler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Gets the shared snapshot, starting periodic reconciliation on first use
+     * @return StatisticsSnapshot instance
+     */
+    public static StatisticsSnapshot getInstance() {
+        StatisticsSnapshot current = instance;
+        if (current != null) {
+            return current;
+        }
+
+        synchronized (StatisticsSnapshot.class) {
+            if (instance == null) {
+                StatisticsSnapshot snapshot = new StatisticsSnapshot();
+                snapshot.reconciler.scheduleWithFixedDelay(snapshot::refresh,
+                        RECONCILE_INTERVAL_MS, RECONCILE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                instance = snapshot;
+            }
+            return instance;
+        }
+    }
+
+    /**
+     * Gets the current value of a counter, loading the snapshot first if needed
+     * @param counter Counter to read
+     * @return counter value
+     */
+    public int getCount(Counter counter) {
+        ensureFresh();
+        return (int) Math.max(0, counts.get(counter.ordinal()));
+    }
+
+    /**
+     * Gets the oldest archived_date in an archive table
+     * @param counter Archive counter
+     * @return oldest archive date, or null if the table is empty
+     */
+    public Timestamp getOldestArchivedDate(Counter counter) {
+        ensureFresh();
+        return oldestArchived.get(counter.ordinal());
+    }
+
+    /**
+     * Gets the newest archived_date in an archive table
+     * @param counter Archive counter
+     * @return newest archive date, or null if the table is empty
+     */
+    public Timestamp getNewestArchivedDate(Counter counter) {
+        ensureFresh();
+        return newestArchived.get(counter.ordinal());
+    }
+
+    /**
+     * Gets the time of the last successful reconciliation
+     * @return epoch millis of the last refresh, or 0 if never loaded
+     */
+    public long getLastRefreshMillis() {
+        return lastRefreshMillis;
+    }
+
+    /**
+     * Adds a delta to a counter; null counters are ignored so callers can pass
+     * the result of Counter.forPetStatus and friends directly
+     * @param counter Counter to adjust
+     * @param delta Amount to add (negative to subtract)
+     */
+    public void adjust(Counter counter, long delta) {
+        if (counter == null || !loaded) {
+            // Nothing cached yet; the first read loads exact values
+            return;
+        }
+        counts.addAndGet(counter.ordinal(), delta);
+    }
+
+    /**
+     * Moves one record from a live table to its archive table
+     * @param liveCounter Total counter of the live table
+     * @param bucketCounter Status or role counter of the record (may be null)
+     * @param archiveCounter Counter of the archive table
+     */
+    public void recordArchived(Counter liveCounter, Counter bucketCounter, Counter archiveCounter) {
+        adjust(liveCounter, -1);
+        adjust(bucketCounter, -1);
+        adjust(archiveCounter, 1);
+        if (loaded && archiveCounter != null) {
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            newestArchived.set(archiveCounter.ordinal(), now);
+            oldestArchived.compareAndSet(archiveCounter.ordinal(), null, now);
+        }
+    }
+
+    /**
+     * Moves one record from an archive table back to its live table
+     * @param liveCounter Total counter of the live table
+     * @param bucketCounter Status or role counter of the record (may be null)
+     * @param archiveCounter Counter of the archive table
+     */
+    public void recordRestored(Counter liveCounter, Counter bucketCounter, Counter archiveCounter) {
+        adjust(liveCounter, 1);
+        adjust(bucketCounter, 1);
+        adjust(archiveCounter, -1);
+    }
+
+    /**
+     * Moves one unit between two bucket counters, e.g. a request going from Pending to Approved
+     * @param from Counter to decrement (null marks the snapshot stale, since the old bucket is unknown)
+     * @param to Counter to increment
+     */
+    public void recordTransition(Counter from, Counter to) {
+        if (from == null) {
+            markStale();
+            return;
+        }
+        adjust(from, -1);
+        adjust(to, 1);
+    }
+
+    /**
+     * Marks the cached values as unreliable so the next read reconciles first.
+     * Used by write paths that cannot cheaply tell which counters they changed.
+     */
+    public void markStale() {
+        stale = true;
+    }
+
+    /**
+     * Reloads every counter from the database in a single query
+     * @return true if the snapshot was refreshed, false otherwise
+     */
+    public boolean refresh() {
+        synchronized (refreshLock) {
+            // Cleared before reading so a markStale() issued during the query is not lost
+            stale = false;
+
+            // Shared by every caller, so the caller's own consistency hint does not apply
+            try (Connection conn = DbConnection.getReadConnection(DbConnection.ReadConsistency.READ_YOUR_WRITES);
+                 PreparedStatement pstmt = StatementCatalog.prepare(conn, SNAPSHOT_SQL);
+                 ResultSet rs = pstmt.executeQuery()) {
+
+                if (!rs.next()) {
+                    stale = true;
+                    return false;
+                }
+
+                // Deltas from writes that race this query may be counted twice or lost;
+                // the next reconciliation corrects them
+                for (Counter counter : Counter.values()) {
+                    counts.set(counter.ordinal(), rs.getLong(counter.column));
+                    if (counter.isArchive()) {
+                        oldestArchived.set(counter.ordinal(), rs.getTimestamp(counter.column + "_oldest"));
+                        newestArchived.set(counter.ordinal(), rs.getTimestamp(counter.column + "_newest"));
+                    }
+                }
+
+                loaded = true;
+                lastRefreshMillis = System.currentTimeMillis();
+                return true;
+
+            } catch (SQLException e) {
+                stale = true;
+                System.err.println("Error refreshing statistics snapshot: " + e.getMessage());
+                return false;
+            } catch (RuntimeException e) {
+                // Keep the scheduled reconciliation alive
+                stale = true;
+                System.err.println("Error refreshing statistics snapshot: " + e.getMessage());
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Loads the snapshot on first use and reconciles it after markStale()
+     */
+    private void ensureFresh() {
+        if (!loaded || stale) {
+            refresh();
+        }
+    }
+
+    /**
+     * Builds the derived table that reads count and date range for one archive table
+     * @param table Archive table name
+     * @param counter Counter the values are stored in
+     * @param alias Derived table alias
+     * @return SQL fragment starting with CROSS JOIN
+     */
+    private static String archiveSelect(String table, Counter counter, String alias) {
+        return "CROSS JOIN (SELECT COUNT(*) AS " + counter.column +
+               ", MIN(archived_date) AS " + counter.column + "_oldest" +
+               ", MAX(archived_date) AS " + counter.column + "_newest FROM " + table + ") " + alias + " ";
+    }
+}
@@ -13,17 +13,36 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 import com.furever.database.DbConnection;
+import com.furever.database.OperationMetrics;
 import com.furever.models.User;
+import com.furever.utils.EntityCache;
 
 /**
  * CRUD operations for User entity
+ * List, search and page methods return the summary projection without the password;
+ * single-user reads and authentication return the full record
  */
 public class UserCRUD {
     
+    /** Columns shown by user tables; the password is left out */
+    static final RowMapper<User> USER_SUMMARY = userColumns(new RowMapper<>(User::new));
+    
+    /** Every user column, used for single-user reads and authentication */
+    static final RowMapper<User> USER_DETAIL = userColumns(new RowMapper<>(User::new))
+            .column("password", (u, rs, i) -> u.setPassword(rs.getString(i)));
+    
+    // Shared by every UserCRUD instance; both caches are cleared for a user on each write to it
+    private static final EntityCache<Integer, User> USER_BY_ID_CACHE =
+            EntityCache.create("Users by ID", 1000, 5 * 60 * 1000L, User::new);
+    private static final EntityCache<String, User> USER_BY_USERNAME_CACHE =
+            EntityCache.create("Users by username", 1000, 5 * 60 * 1000L, User::new);
+    
     /**
      * Creates a new user in the database and automatically creates corresponding profile
      * @param user User object to create
@@ -40,7 +59,7 @@ public class UserCRUD {
             conn = DbConnection.getConnection();
             conn.setAutoCommit(false); // Start transaction
             
-            pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+            pstmt = StatementCatalog.prepare(conn, sql, Statement.RETURN_GENERATED_KEYS);
             pstmt.setString(1, user.getUsername());
             pstmt.setString(2, user.getEmail());
             pstmt.setString(3, user.getPassword());
@@ -64,6 +83,9 @@ public class UserCRUD {
                 
                 if (profileCreated) {
                     conn.commit(); // Commit transaction
+                    recordUserCreated(user.getRole());
+                    SearchIndexes.getInstance().indexUser(user.getId(), user.getUsername());
+                    SearchIndexes.getInstance().reindexProfilesForUsername(user.getUsername());
                     System.out.println("User created successfully with ID: " + user.getId());
                     if (!"admin".equals(user.getRole())) {
                         System.out.println("Corresponding " + user.getRole() + " profile created automatically.");
@@ -109,7 +131,7 @@ public class UserCRUD {
     private boolean createAdopterProfile(Connection conn, User user) throws SQLException {
         String sql = "INSERT INTO tbl_adopter (username, adopter_name, adopter_contact, adopter_email, adopter_address, adopter_username, adopter_password) VALUES (?, ?, ?, ?, ?, ?, ?)";
         
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             pstmt.setString(1, user.getUsername()); // Link to users.username
             pstmt.setString(2, user.getUsername()); // Use username as display name initially
             pstmt.setString(3, "09000000000"); // Default contact (user can update later)
@@ -132,7 +154,7 @@ public class UserCRUD {
     private boolean createPetOwnerProfile(Connection conn, User user) throws SQLException {
         String sql = "INSERT INTO tbl_pet_owner (username, pet_owner_name, pet_owner_contact, pet_owner_email, pet_owner_address, pet_owner_username, pet_owner_password) VALUES (?, ?, ?, ?, ?, ?, ?)";
         
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             pstmt.setString(1, user.getUsername()); // Link to users.username
             pstmt.setString(2, user.getUsername()); // Use username as display name initially
             pstmt.setString(3, "09000000000"); // Default contact (user can update later)
@@ -152,16 +174,25 @@ public class UserCRUD {
      * @return User object if found, null otherwise
      */
     public User getUserById(int userId) {
-        String sql = "SELECT * FROM users WHERE id = ?";
+        return USER_BY_ID_CACHE.get(userId, this::loadUserById);
+    }
+    
+    /**
+     * Reads a user from the database, bypassing the cache
+     * @param userId User ID to search for
+     * @return User object if found, null otherwise
+     */
+    private User loadUserById(int userId) {
+        String sql = StatementCatalog.USER_BY_ID;
         
         try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             
             pstmt.setInt(1, userId);
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return extractUserFromResultSet(rs);
+                    return USER_DETAIL.map(rs);
                 }
             }
             
@@ -178,16 +209,28 @@ public class UserCRUD {
      * @return User object if found, null otherwise
      */
     public User getUserByUsername(String username) {
-        String sql = "SELECT * FROM users WHERE username = ?";
+        if (username == null) {
+            return null;
+        }
+        return USER_BY_USERNAME_CACHE.get(username, this::loadUserByUsername);
+    }
+    
+    /**
+     * Reads a user by username from the database, bypassing the cache
+     * @param username Username to search for
+     * @return User object if found, null otherwise
+     */
+    private User loadUserByUsername(String username) {
+        String sql = StatementCatalog.USER_BY_USERNAME;
         
         try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             
             pstmt.setString(1, username);
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return extractUserFromResultSet(rs);
+                    return USER_DETAIL.map(rs);
                 }
             }
             
@@ -199,23 +242,30 @@ public class UserCRUD {
     }
     
     /**
-     * Searches users by username using LIKE pattern matching
-     * @param usernamePattern Username pattern to search for (supports wildcards)
+     * Searches users by username using the in-memory trigram index
+     * Matches substrings, prefixes and near misses, best match first
+     * @param usernamePattern Username text to search for
      * @return List of users matching the pattern
      */
     public List<User> searchUsersByUsername(String usernamePattern) {
+        SearchIndexes searchIndexes = SearchIndexes.getInstance();
+        if (searchIndexes.isReady()) {
+            return getUsersByRankedIds(searchIndexes.searchUserIds(usernamePattern));
+        }
+        
+        // Fallback when the in-memory index could not be loaded
         List<User> users = new ArrayList<>();
-        String sql = "SELECT * FROM users WHERE username LIKE ? ORDER BY username";
+        String sql = "SELECT " + USER_SUMMARY.columns() + " FROM users WHERE username LIKE ? ORDER BY username";
         
-        try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DbConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             
             // Add wildcards for partial matching
             pstmt.setString(1, "%" + usernamePattern + "%");
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    users.add(extractUserFromResultSet(rs));
+                    users.add(USER_SUMMARY.map(rs));
                 }
             }
             
@@ -226,20 +276,51 @@ public class UserCRUD {
         return users;
     }
     
+    /**
+     * Loads users for IDs ranked by the search index, keeping the ranking order
+     * @param ids Ranked IDs
+     * @return List of users in ranking order
+     */
+    private List<User> getUsersByRankedIds(List<Integer> ids) {
+        List<User> results = new ArrayList<>();
+        if (ids.isEmpty()) {
+            return results;
+        }
+        
+        String sql = "SELECT " + USER_SUMMARY.columns() + " FROM users WHERE " + SearchIndexes.rankedIdClause("id", ids);
+        
+        try (Connection conn = DbConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
+            
+            SearchIndexes.bindRankedIds(pstmt, ids);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    results.add(USER_SUMMARY.map(rs));
+                }
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error searching users by username: " + e.getMessage());
+        }
+        
+        return results;
+    }
+    
     /**
      * Retrieves all users from the database
      * @return List of all users
      */
     public List<User> getAllUsers() {
         List<User> users = new ArrayList<>();
-        String sql = "SELECT * FROM users ORDER BY id";
+        String sql = "SELECT " + USER_SUMMARY.columns() + " FROM users ORDER BY id";
         
-        try (Connection conn = DbConnection.getConnection();
+        try (Connection conn = DbConnection.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
             while (rs.next()) {
-                users.add(extractUserFromResultSet(rs));
+                users.add(USER_SUMMARY.map(rs));
             }
             
         } catch (SQLException e) {
@@ -271,7 +352,7 @@ public class UserCRUD {
             conn = DbConnection.getConnection();
             conn.setAutoCommit(false); // Start transaction
             
-            pstmt = conn.prepareStatement(sql);
+            pstmt = StatementCatalog.prepare(conn, sql);
             pstmt.setString(1, user.getUsername());
             pstmt.setString(2, user.getEmail());
             pstmt.setString(3, user.getPassword());
@@ -313,6 +394,14 @@ public class UserCRUD {
                 
                 if (profileHandled) {
                     conn.commit(); // Commit transaction
+                    invalidateUser(user.getId());
+                    AdopterCRUD.invalidateAdopterCache();
+                    PetOwnerCRUD.invalidatePetOwnerCache();
+                    recordUserRoleChanged(currentUser.getRole(), user.getRole());
+                    SearchIndexes.getInstance().indexUser(user.getId(), user.getUsername());
+                    if (!currentUser.getRole().equals(user.getRole())) {
+                        SearchIndexes.getInstance().reindexProfilesForUsername(user.getUsername());
+                    }
                     System.out.println("User updated successfully.");
                     return true;
                 } else {
@@ -356,7 +445,7 @@ public class UserCRUD {
     private boolean archiveAdopterProfile(Connection conn, String username) throws SQLException {
         String sql = "UPDATE tbl_adopter SET archived = 1, archived_date = NOW() WHERE username = ?";
         
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             pstmt.setString(1, username);
             pstmt.executeUpdate();
             System.out.println("Adopter profile archived for username: " + username);
@@ -373,7 +462,7 @@ public class UserCRUD {
     private boolean archivePetOwnerProfile(Connection conn, String username) throws SQLException {
         String sql = "UPDATE tbl_pet_owner SET archived = 1, archived_date = NOW() WHERE username = ?";
         
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             pstmt.setString(1, username);
             pstmt.executeUpdate();
             System.out.println("Pet owner profile archived for username: " + username);
@@ -390,7 +479,7 @@ public class UserCRUD {
     private boolean updateAdopterProfile(Connection conn, User user) throws SQLException {
         String sql = "UPDATE tbl_adopter SET adopter_email = ? WHERE username = ? AND archived = 0";
         
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             pstmt.setString(1, user.getEmail());
             pstmt.setString(2, user.getUsername());
             pstmt.executeUpdate();
@@ -407,7 +496,7 @@ public class UserCRUD {
     private boolean updatePetOwnerProfile(Connection conn, User user) throws SQLException {
         String sql = "UPDATE tbl_pet_owner SET pet_owner_email = ? WHERE username = ? AND archived = 0";
         
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             pstmt.setString(1, user.getEmail());
             pstmt.setString(2, user.getUsername());
             pstmt.executeUpdate();
@@ -431,17 +520,17 @@ public class UserCRUD {
      * @return User object if authentication successful, null otherwise
      */
     public User authenticateUser(String username, String password) {
-        String sql = "SELECT * FROM users WHERE username = ? AND password = ?";
+        String sql = StatementCatalog.USER_LOGIN;
         
         try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
             
             pstmt.setString(1, username);
             pstmt.setString(2, password);
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return extractUserFromResultSet(rs);
+                    return USER_DETAIL.map(rs);
                 }
             }
             
@@ -454,41 +543,81 @@ public class UserCRUD {
     
     /**
      * Counts total number of users
+     * Served from the shared statistics snapshot
      * @return Total count of users
      */
     public int getUserCount() {
-        String sql = "SELECT COUNT(*) FROM users";
-        
-        try (Connection conn = DbConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            if (rs.next()) {
-                return rs.getInt(1);
-            }
-            
-        } catch (SQLException e) {
-            System.err.println("Error counting users: " + e.getMessage());
+        return StatisticsSnapshot.getInstance().getCount(StatisticsSnapshot.Counter.USERS_TOTAL);
+    }
+    
+    /**
+     * Counts users with the given role
+     * Served from the shared statistics snapshot
+     * @param role Role to count (admin, adopter or pet_owner)
+     * @return Count of users with the specified role, or 0 for an unknown role
+     */
+    public int getUserCountByRole(String role) {
+        StatisticsSnapshot.Counter counter = StatisticsSnapshot.Counter.forUserRole(role);
+        return counter != null ? StatisticsSnapshot.getInstance().getCount(counter) : 0;
+    }
+    
+    /**
+     * Drops a user from both caches
+     * The username cache is matched by ID so a renamed user's old username is dropped as well
+     * @param userId ID of the user that was written
+     */
+    private static void invalidateUser(int userId) {
+        USER_BY_ID_CACHE.invalidate(userId);
+        USER_BY_USERNAME_CACHE.invalidateIf(cached -> cached.getId() == userId);
+    }
+    
+    /**
+     * Updates the statistics snapshot after a user and its profile were created
+     * @param role Role of the new user
+     */
+    private void recordUserCreated(String role) {
+        StatisticsSnapshot statistics = StatisticsSnapshot.getInstance();
+        statistics.adjust(StatisticsSnapshot.Counter.USERS_TOTAL, 1);
+        statistics.adjust(StatisticsSnapshot.Counter.forUserRole(role), 1);
+        if ("adopter".equals(role)) {
+            statistics.adjust(StatisticsSnapshot.Counter.ADOPTERS_TOTAL, 1);
+        } else if ("pet_owner".equals(role)) {
+            statistics.adjust(StatisticsSnapshot.Counter.PET_OWNERS_TOTAL, 1);
+        }
+    }
+    
+    /**
+     * Updates the statistics snapshot after a role change
+     * Old profiles are only flagged as archived, so only newly created profiles change the totals
+     * @param oldRole Role before the update
+     * @param newRole Role after the update
+     */
+    private void recordUserRoleChanged(String oldRole, String newRole) {
+        if (oldRole == null || oldRole.equals(newRole)) {
+            return;
         }
         
-        return 0;
+        StatisticsSnapshot statistics = StatisticsSnapshot.getInstance();
+        statistics.recordTransition(StatisticsSnapshot.Counter.forUserRole(oldRole), StatisticsSnapshot.Counter.forUserRole(newRole));
+        if ("adopter".equals(newRole)) {
+            statistics.adjust(StatisticsSnapshot.Counter.ADOPTERS_TOTAL, 1);
+        } else if ("pet_owner".equals(newRole)) {
+            statistics.adjust(StatisticsSnapshot.Counter.PET_OWNERS_TOTAL, 1);
+        }
     }
     
     /**
-     * Extracts User object from ResultSet
-     * @param rs ResultSet containing user data
-     * @return User object
-     * @throws SQLException if database access error occurs
+     * Adds the user columns shared by the summary and detail projections
+     * @param mapper Mapper to add the columns to
+     * @return the same mapper
      */
-    private User extractUserFromResultSet(ResultSet rs) throws SQLException {
-        User user = new User();
-        user.setId(rs.getInt("id"));
-        user.setUsername(rs.getString("username"));
-        user.setEmail(rs.getString("email"));
-        user.setPassword(rs.getString("password"));
-        user.setRole(rs.getString("role"));
-        user.setCreatedAt(rs.getTimestamp("created_at"));
-        return user;
+    private static RowMapper<User> userColumns(RowMapper<User> mapper) {
+        return mapper
+                .column("id", (u, rs, i) -> u.setId(rs.getInt(i)))
+                .column("username", (u, rs, i) -> u.setUsername(rs.getString(i)))
+                .column("email", (u, rs, i) -> u.setEmail(rs.getString(i)))
+                .column("role", (u, rs, i) -> u.setRole(rs.getString(i)))
+                .column("created_at", (u, rs, i) -> u.setCreatedAt(rs.getTimestamp(i)));
     }
     
     /**
@@ -502,14 +631,13 @@ public class UserCRUD {
         String selectUserSql = "SELECT * FROM users WHERE id = ?";
         String insertArchiveSql = "INSERT INTO users_archive (id, username, email, password, role, created_at, archived, archived_date, archived_by_user_id, archive_reason) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
         String deleteUserSql = "DELETE FROM users WHERE id = ?";
-        String logSql = "INSERT INTO tbl_archive_log (table_name, record_id, operation, performed_by_user_id, reason) VALUES (?, ?, ?, ?, ?)";
         
         try (Connection conn = DbConnection.getConnection()) {
             conn.setAutoCommit(false);
             
             // Get the user record to archive
             User user = null;
-            try (PreparedStatement selectStmt = conn.prepareStatement(selectUserSql)) {
+            try (PreparedStatement selectStmt = StatementCatalog.prepare(conn, selectUserSql)) {
                 selectStmt.setInt(1, userId);
                 try (ResultSet rs = selectStmt.executeQuery()) {
                     if (rs.next()) {
@@ -528,7 +656,7 @@ public class UserCRUD {
             }
             
             // Insert into archive table
-            try (PreparedStatement insertStmt = conn.prepareStatement(insertArchiveSql)) {
+            try (PreparedStatement insertStmt = StatementCatalog.prepare(conn, insertArchiveSql)) {
                 insertStmt.setInt(1, user.getId());
                 insertStmt.setString(2, user.getUsername());
                 insertStmt.setString(3, user.getEmail());
@@ -548,27 +676,21 @@ public class UserCRUD {
             }
             
             // Delete from main table
-            try (PreparedStatement deleteStmt = conn.prepareStatement(deleteUserSql)) {
+            try (PreparedStatement deleteStmt = StatementCatalog.prepare(conn, deleteUserSql)) {
                 deleteStmt.setInt(1, userId);
                 deleteStmt.executeUpdate();
             }
             
             // Log the operation
-            try (PreparedStatement logStmt = conn.prepareStatement(logSql)) {
-                logStmt.setString(1, "users");
-                logStmt.setInt(2, userId);
-                logStmt.setString(3, "ARCHIVE");
-                if (archivedByUserId != null) {
-                    logStmt.setInt(4, archivedByUserId);
-                } else {
-                    logStmt.setNull(4, java.sql.Types.INTEGER);
-                }
-                logStmt.setString(5, reason);
-                
-                logStmt.executeUpdate();
-            }
+            ArchiveLog.Entry logEntry = new ArchiveLog.Entry("users", userId, "ARCHIVE", archivedByUserId, reason);
+            ArchiveLog.getInstance().record(conn, logEntry);
             
             conn.commit();
+            ArchiveLog.getInstance().committed(logEntry);
+            StatisticsSnapshot.getInstance().recordArchived(StatisticsSnapshot.Counter.USERS_TOTAL,
+                    StatisticsSnapshot.Counter.forUserRole(user.getRole()), StatisticsSnapshot.Counter.ARCHIVED_USERS);
+            SearchIndexes.getInstance().removeUser(userId);
+            invalidateUser(userId);
             return true;
             
         } catch (SQLException e) {
@@ -588,14 +710,15 @@ public class UserCRUD {
         String selectArchiveSql = "SELECT * FROM users_archive WHERE id = ?";
         String insertMainSql = "INSERT INTO users (id, username, email, password, role, created_at, archived, archived_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
         String deleteArchiveSql = "DELETE FROM users_archive WHERE id = ?";
-        String logSql = "INSERT INTO tbl_archive_log (table_name, record_id, operation, performed_by_user_id, reason) VALUES (?, ?, ?, ?, ?)";
+        
+        ArchiveColdStorage.getInstance().rehydrate("users_archive", userId);
         
         try (Connection conn = DbConnection.getConnection()) {
             conn.setAutoCommit(false);
             
             // Get the user record from archive
             User user = null;
-            try (PreparedStatement selectStmt = conn.prepareStatement(selectArchiveSql)) {
+            try (PreparedStatement selectStmt = StatementCatalog.prepare(conn, selectArchiveSql)) {
                 selectStmt.setInt(1, userId);
                 try (ResultSet rs = selectStmt.executeQuery()) {
                     if (rs.next()) {
@@ -614,7 +737,7 @@ public class UserCRUD {
             }
             
             // Insert user back into main table
-            try (PreparedStatement insertStmt = conn.prepareStatement(insertMainSql)) {
+            try (PreparedStatement insertStmt = StatementCatalog.prepare(conn, insertMainSql)) {
                 insertStmt.setInt(1, user.getId());
                 insertStmt.setString(2, user.getUsername());
                 insertStmt.setString(3, user.getEmail());
@@ -628,27 +751,21 @@ public class UserCRUD {
             }
             
             // Delete from archive table
-            try (PreparedStatement deleteStmt = conn.prepareStatement(deleteArchiveSql)) {
+            try (PreparedStatement deleteStmt = StatementCatalog.prepare(conn, deleteArchiveSql)) {
                 deleteStmt.setInt(1, userId);
                 deleteStmt.executeUpdate();
             }
             
             // Log the operation
-            try (PreparedStatement logStmt = conn.prepareStatement(logSql)) {
-                logStmt.setString(1, "users");
-                logStmt.setInt(2, userId);
-                logStmt.setString(3, "RESTORE");
-                if (restoredByUserId != null) {
-                    logStmt.setInt(4, restoredByUserId);
-                } else {
-                    logStmt.setNull(4, java.sql.Types.INTEGER);
-                }
-                logStmt.setString(5, reason);
-                
-                logStmt.executeUpdate();
-            }
+            ArchiveLog.Entry logEntry = new ArchiveLog.Entry("users", userId, "RESTORE", restoredByUserId, reason);
+            ArchiveLog.getInstance().record(conn, logEntry);
             
             conn.commit();
+            ArchiveLog.getInstance().committed(logEntry);
+            StatisticsSnapshot.getInstance().recordRestored(StatisticsSnapshot.Counter.USERS_TOTAL,
+                    StatisticsSnapshot.Counter.forUserRole(user.getRole()), StatisticsSnapshot.Counter.ARCHIVED_USERS);
+            SearchIndexes.getInstance().indexUser(user.getId(), user.getUsername());
+            invalidateUser(userId);
             return true;
             
         } catch (SQLException e) {
@@ -666,13 +783,14 @@ public class UserCRUD {
      */
     public boolean permanentDeleteUser(int userId, Integer deletedByUserId, String reason) {
         String deleteUserSql = "DELETE FROM users_archive WHERE id = ?";
-        String logSql = "INSERT INTO tbl_archive_log (table_name, record_id, operation, performed_by_user_id, reason) VALUES (?, ?, ?, ?, ?)";
+        
+        ArchiveColdStorage.getInstance().rehydrate("users_archive", userId);
         
         try (Connection conn = DbConnection.getConnection()) {
             conn.setAutoCommit(false);
             
             // Delete user from archive table
-            try (PreparedStatement deleteStmt = conn.prepareStatement(deleteUserSql)) {
+            try (PreparedStatement deleteStmt = StatementCatalog.prepare(conn, deleteUserSql)) {
                 deleteStmt.setInt(1, userId);
                 int rowsAffected = deleteStmt.executeUpdate();
                 
@@ -683,21 +801,13 @@ public class UserCRUD {
             }
             
             // Log the operation
-            try (PreparedStatement logStmt = conn.prepareStatement(logSql)) {
-                logStmt.setString(1, "users");
-                logStmt.setInt(2, userId);
-                logStmt.setString(3, "PERMANENT_DELETE");
-                if (deletedByUserId != null) {
-                    logStmt.setInt(4, deletedByUserId);
-                } else {
-                    logStmt.setNull(4, java.sql.Types.INTEGER);
-                }
-                logStmt.setString(5, reason);
-                
-                logStmt.executeUpdate();
-            }
+            ArchiveLog.Entry logEntry = new ArchiveLog.Entry("users", userId, "PERMANENT_DELETE", deletedByUserId, reason);
+            ArchiveLog.getInstance().record(conn, logEntry);
             
             conn.commit();
+            ArchiveLog.getInstance().committed(logEntry);
+            StatisticsSnapshot.getInstance().adjust(StatisticsSnapshot.Counter.ARCHIVED_USERS, -1);
+            invalidateUser(userId);
             return true;
             
         } catch (SQLException e) {
@@ -712,27 +822,131 @@ public class UserCRUD {
      */
     public List<User> getAllArchivedUsers() {
         List<User> users = new ArrayList<>();
-        String sql = "SELECT * FROM users_archive ORDER BY archived_date DESC";
+        List<Timestamp> archivedDates = new ArrayList<>();
+        String sql = "SELECT " + USER_SUMMARY.columns() + ", archived_date FROM users_archive ORDER BY archived_date DESC, id DESC";
         
-        try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql);
+        try (Connection conn = DbConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql);
              ResultSet rs = pstmt.executeQuery()) {
             
             while (rs.next()) {
-                User user = new User();
-                user.setId(rs.getInt("id"));
-                user.setUsername(rs.getString("username"));
-                user.setEmail(rs.getString("email"));
-                user.setPassword(rs.getString("password"));
-                user.setRole(rs.getString("role"));
-                user.setCreatedAt(rs.getTimestamp("created_at"));
-                users.add(user);
+                archivedDates.add(rs.getTimestamp(USER_SUMMARY.width() + 1));
+                users.add(USER_SUMMARY.map(rs));
             }
             
         } catch (SQLException e) {
             System.err.println("Error retrieving archived users: " + e.getMessage());
         }
         
-        return users;
+        return ArchiveColdStorage.mergeArchiveList(users, archivedDates, User::getId,
+                ArchiveColdStorage.getInstance().readAll("users_archive"), UserCRUD::userFromColdRow);
+    }
+    
+    /**
+     * Maps a cold storage row to the same fields as USER_SUMMARY
+     */
+    private static User userFromColdRow(ArchiveColdStorage.ColdRow row) {
+        User user = new User();
+        user.setId(row.getInt("id"));
+        user.setUsername(row.getString("username"));
+        user.setEmail(row.getString("email"));
+        user.setRole(row.getString("role"));
+        user.setCreatedAt(row.getTimestamp("created_at"));
+        return user;
+    }
+    
+    // Keyset pagination and streaming for large lists
+    
+    /**
+     * Retrieves one page of users ordered by user ID
+     * @param after Cursor returned with the previous page, or PageCursor.FIRST
+     * @param pageSize Maximum number of users in the page
+     * @return Page of users
+     */
+    public Page<User> getUsersPage(PageCursor after, int pageSize) {
+        String sql = "SELECT " + USER_SUMMARY.columns() + " FROM users WHERE id > ? ORDER BY id LIMIT ?";
+        List<User> users = new ArrayList<>();
+        
+        try (Connection conn = DbConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
+            
+            pstmt.setInt(1, after.getLastId());
+            pstmt.setInt(2, pageSize + 1);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    users.add(USER_SUMMARY.map(rs));
+                }
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error retrieving users page: " + e.getMessage());
+        }
+        
+        return Page.ofIds(users, pageSize, User::getId);
+    }
+    
+    /**
+     * Retrieves one page of archived users from users_archive and cold storage, most recently
+     * archived first
+     * @param after Cursor returned with the previous page, or PageCursor.FIRST
+     * @param pageSize Maximum number of users in the page
+     * @return Page of archived users
+     */
+    public Page<User> getArchivedUsersPage(PageCursor after, int pageSize) {
+        String sql = "SELECT " + USER_SUMMARY.columns() + ", archived_date FROM users_archive WHERE " + after.descendingPredicate("archived_date", "id") +
+                     " ORDER BY archived_date DESC, id DESC LIMIT ?";
+        List<User> users = new ArrayList<>();
+        List<Timestamp> archivedDates = new ArrayList<>();
+        
+        try (Connection conn = DbConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql)) {
+            
+            int index = after.bindDescending(pstmt, 1);
+            pstmt.setInt(index, pageSize + 1);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    archivedDates.add(rs.getTimestamp(USER_SUMMARY.width() + 1));
+                    users.add(USER_SUMMARY.map(rs));
+                }
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error retrieving archived users page: " + e.getMessage());
+        }
+        
+        return ArchiveColdStorage.getInstance().mergeArchivePage("users_archive", users, archivedDates,
+                User::getId, UserCRUD::userFromColdRow, after, pageSize);
+    }
+    
+    /**
+     * Streams every user to the consumer one row at a time without buffering the table in memory
+     * @param consumer Callback invoked for each user in ID order
+     * @return number of users streamed
+     */
+    public int streamAllUsers(Consumer<User> consumer) {
+        String sql = "SELECT " + USER_DETAIL.columns() + " FROM users ORDER BY id";
+        int count = 0;
+        
+        try (Connection conn = DbConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCatalog.prepare(conn, sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            
+            // Integer.MIN_VALUE switches the MySQL driver to streaming mode
+            pstmt.setFetchSize(Integer.MIN_VALUE);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(USER_DETAIL.map(rs));
+                    count++;
+                }
+            }
+            OperationMetrics.addRows(count);
+            
+        } catch (SQLException e) {
+            System.err.println("Error streaming users: " + e.getMessage());
+        }
+        
+        return count;
     }
-}
\ No newline at end of file
+}
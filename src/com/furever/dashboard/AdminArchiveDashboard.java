@@ -8,14 +8,24 @@ package com.furever.dashboard;
  *
  * @author jerimiahtongco
  */
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.Map;
 
 import com.furever.crud.AdopterCRUD;
 import com.furever.crud.AdoptionRequestCRUD;
 import com.furever.crud.ArchiveCRUD;
+import com.furever.crud.ArchiveColdStorage;
+import com.furever.crud.ArchiveIntegrityScanner;
+import com.furever.crud.ArchiveLogRetention;
+import com.furever.crud.ChangeFeed;
+import com.furever.crud.OwnerArchiveCRUD;
+import com.furever.crud.Page;
+import com.furever.crud.PageCursor;
 import com.furever.crud.PetCRUD;
 import com.furever.crud.PetOwnerCRUD;
+import com.furever.crud.StatisticsSnapshot;
+import com.furever.database.OperationMetrics;
 import com.furever.models.Adopter;
 import com.furever.models.AdoptionRequest;
 import com.furever.models.Pet;
@@ -28,11 +38,16 @@ import com.furever.utils.InputValidator;
  */
 public class AdminArchiveDashboard {
     
+    private static final int PAGE_SIZE = 20;
+    private static final int MAX_PRINTED_VIOLATIONS = 200;
+    
     private final ArchiveCRUD archiveCRUD;
     private final AdoptionRequestCRUD adoptionRequestCRUD;
     private final PetCRUD petCRUD;
     private final AdopterCRUD adopterCRUD;
     private final PetOwnerCRUD petOwnerCRUD;
+    private final OwnerArchiveCRUD ownerArchiveCRUD;
+    private final ArchiveLogRetention archiveLogRetention;
     
     public AdminArchiveDashboard() {
         this.archiveCRUD = new ArchiveCRUD();
@@ -40,6 +55,8 @@ public class AdminArchiveDashboard {
         this.petCRUD = new PetCRUD();
         this.adopterCRUD = new AdopterCRUD();
         this.petOwnerCRUD = new PetOwnerCRUD();
+        this.ownerArchiveCRUD = new OwnerArchiveCRUD();
+        this.archiveLogRetention = new ArchiveLogRetention();
     }
     
     /**
@@ -57,10 +74,13 @@ public class AdminArchiveDashboard {
             System.out.println("7. View Recent Archive Operations");
             System.out.println("8. Auto-Archive Completed Records");
             System.out.println("9. Cleanup Archive Log");
-            System.out.println("10. Return to Admin Menu");
+            System.out.println("10. Move Old Archives to Cold Storage");
+            System.out.println("11. Validate Archive Integrity");
+            System.out.println("12. View Database Performance");
+            System.out.println("13. Return to Admin Menu");
             System.out.println("-".repeat(60));
             
-            int choice = InputValidator.getIntInput("Enter your choice (1-10): ", 1, 10);
+            int choice = InputValidator.getIntInput("Enter your choice (1-13): ", 1, 13);
             
             switch (choice) {
                 case 1:
@@ -91,6 +111,15 @@ public class AdminArchiveDashboard {
                     cleanupArchiveLog();
                     break;
                 case 10:
+                    moveArchivesToColdStorage();
+                    break;
+                case 11:
+                    validateArchiveIntegrity();
+                    break;
+                case 12:
+                    viewDatabasePerformance();
+                    break;
+                case 13:
                     return;
                 default:
                     InputValidator.displayError("Invalid choice. Please try again.");
@@ -125,6 +154,11 @@ public class AdminArchiveDashboard {
             int total = stats.values().stream().mapToInt(Integer::intValue).sum();
             System.out.printf("%-30s %10d%n", "Total Archived Records", total);
             
+            long refreshedAt = StatisticsSnapshot.getInstance().getLastRefreshMillis();
+            if (refreshedAt > 0) {
+                System.out.println("Last reconciled with database: " + new java.sql.Timestamp(refreshedAt).toString().substring(0, 19));
+            }
+            
         } catch (Exception e) {
             InputValidator.displayError("Error retrieving archive statistics: " + e.getMessage());
         }
@@ -141,8 +175,8 @@ public class AdminArchiveDashboard {
             
             System.out.println("Archive Summary with Date Information:");
             System.out.println("-".repeat(80));
-            System.out.printf("%-20s %10s %-15s %-15s%n", 
-                "Entity Type", "Count", "Oldest Record", "Newest Record");
+            System.out.printf("%-20s %10s %10s %-15s %-15s%n", 
+                "Entity Type", "Count", "In Cold", "Oldest Record", "Newest Record");
             System.out.println("-".repeat(80));
             
             for (ArchiveCRUD.ArchiveSummary summary : summaries) {
@@ -151,8 +185,8 @@ public class AdminArchiveDashboard {
                 String newest = summary.getNewestDate() != null ? 
                     summary.getNewestDate().toString().substring(0, 10) : "N/A";
                     
-                System.out.printf("%-20s %10d %-15s %-15s%n",
-                    summary.getEntityName(), summary.getCount(), oldest, newest);
+                System.out.printf("%-20s %10d %10d %-15s %-15s%n",
+                    summary.getEntityName(), summary.getCount(), summary.getColdCount(), oldest, newest);
             }
             
         } catch (Exception e) {
@@ -235,28 +269,40 @@ public class AdminArchiveDashboard {
         InputValidator.displayHeader("ARCHIVED PETS");
         
         try {
-            List<Pet> archivedPets = petCRUD.getAllArchivedPets();
-            
-            if (archivedPets.isEmpty()) {
-                InputValidator.displayWarning("No archived pets found.");
-                return;
-            }
-            
-            System.out.println("Found " + archivedPets.size() + " archived pets:");
-            System.out.println("-".repeat(100));
-            System.out.printf("%-5s %-20s %-10s %-10s %-15s %-20s%n", 
-                "ID", "Name", "Age", "Gender", "Status", "Owner ID");
-            System.out.println("-".repeat(100));
-            
-            for (Pet pet : archivedPets) {
-                System.out.printf("%-5d %-20s %-10s %-10s %-15s %-20d%n",
-                    pet.getPetId(),
-                    pet.getPetName(),
-                    pet.getAge(),
-                    pet.getGender(),
-                    pet.getAdoptionStatus(),
-                    pet.getPetOwnerId()
-                );
+            PageCursor cursor = PageCursor.FIRST;
+            int shown = 0;
+            while (true) {
+                Page<Pet> page = petCRUD.getArchivedPetsPage(cursor, PAGE_SIZE);
+                
+                if (page.isEmpty()) {
+                    if (cursor.isFirst()) {
+                        InputValidator.displayWarning("No archived pets found.");
+                    }
+                    return;
+                }
+                
+                System.out.println("Archived pets " + (shown + 1) + " to " + (shown + page.getItems().size()) + ":");
+                System.out.println("-".repeat(100));
+                System.out.printf("%-5s %-20s %-10s %-10s %-15s %-20s%n", 
+                    "ID", "Name", "Age", "Gender", "Status", "Owner ID");
+                System.out.println("-".repeat(100));
+                
+                for (Pet pet : page.getItems()) {
+                    System.out.printf("%-5d %-20s %-10s %-10s %-15s %-20d%n",
+                        pet.getPetId(),
+                        pet.getPetName(),
+                        pet.getAge(),
+                        pet.getGender(),
+                        pet.getAdoptionStatus(),
+                        pet.getPetOwnerId()
+                    );
+                }
+                shown += page.getItems().size();
+                
+                if (!page.hasMore() || !InputValidator.getConfirmation("Show next page?")) {
+                    return;
+                }
+                cursor = page.getNextCursor();
             }
             
         } catch (Exception e) {
@@ -271,31 +317,43 @@ public class AdminArchiveDashboard {
         InputValidator.displayHeader("ARCHIVED ADOPTION REQUESTS");
         
         try {
-            List<AdoptionRequest> archivedRequests = adoptionRequestCRUD.getAllArchivedAdoptionRequests();
-            
-            if (archivedRequests.isEmpty()) {
-                InputValidator.displayWarning("No archived adoption requests found.");
-                return;
-            }
-            
-            System.out.println("Found " + archivedRequests.size() + " archived adoption requests:");
-            System.out.println("-".repeat(100));
-            System.out.printf("%-5s %-10s %-12s %-15s %-10s %-20s%n", 
-                "ID", "Pet ID", "Adopter ID", "Status", "Date", "Remarks");
-            System.out.println("-".repeat(100));
-            
-            for (AdoptionRequest request : archivedRequests) {
-                System.out.printf("%-5d %-10d %-12d %-15s %-10s %-20s%n",
-                    request.getAdoptionRequestId(),
-                    request.getPetId(),
-                    request.getAdopterId(),
-                    request.getStatus(),
-                    request.getRequestDate() != null ? request.getRequestDate().toString() : "N/A",
-                    request.getRemarks() != null ? 
-                        (request.getRemarks().length() > 18 ? 
-                            request.getRemarks().substring(0, 18) + ".." : 
-                            request.getRemarks()) : "N/A"
-                );
+            PageCursor cursor = PageCursor.FIRST;
+            int shown = 0;
+            while (true) {
+                Page<AdoptionRequest> page = adoptionRequestCRUD.getArchivedAdoptionRequestsPage(cursor, PAGE_SIZE);
+                
+                if (page.isEmpty()) {
+                    if (cursor.isFirst()) {
+                        InputValidator.displayWarning("No archived adoption requests found.");
+                    }
+                    return;
+                }
+                
+                System.out.println("Archived adoption requests " + (shown + 1) + " to " + (shown + page.getItems().size()) + ":");
+                System.out.println("-".repeat(100));
+                System.out.printf("%-5s %-10s %-12s %-15s %-10s %-20s%n", 
+                    "ID", "Pet ID", "Adopter ID", "Status", "Date", "Remarks");
+                System.out.println("-".repeat(100));
+                
+                for (AdoptionRequest request : page.getItems()) {
+                    System.out.printf("%-5d %-10d %-12d %-15s %-10s %-20s%n",
+                        request.getAdoptionRequestId(),
+                        request.getPetId(),
+                        request.getAdopterId(),
+                        request.getStatus(),
+                        request.getRequestDate() != null ? request.getRequestDate().toString() : "N/A",
+                        request.getRemarks() != null ? 
+                            (request.getRemarks().length() > 18 ? 
+                                request.getRemarks().substring(0, 18) + ".." : 
+                                request.getRemarks()) : "N/A"
+                    );
+                }
+                shown += page.getItems().size();
+                
+                if (!page.hasMore() || !InputValidator.getConfirmation("Show next page?")) {
+                    return;
+                }
+                cursor = page.getNextCursor();
             }
             
         } catch (Exception e) {
@@ -474,11 +532,45 @@ public class AdminArchiveDashboard {
         InputValidator.displayHeader("CLEANUP ARCHIVE LOG");
         
         try {
+            if (archiveLogRetention.isPartitioned()) {
+                System.out.println("The archive log is partitioned by month; old months are dropped as whole partitions.");
+            } else {
+                System.out.println("The archive log is not partitioned; old entries are deleted in batches of "
+                        + ArchiveLogRetention.DELETE_BATCH_SIZE + ".");
+                if (InputValidator.getConfirmation("Convert the archive log to monthly partitions now? This rebuilds the table")) {
+                    if (archiveLogRetention.enablePartitioning(ArchiveLogRetention.DEFAULT_MONTHS_AHEAD)) {
+                        InputValidator.displaySuccess("Archive log is now partitioned by month.");
+                    } else {
+                        InputValidator.displayError("Failed to partition the archive log; batched deletes will be used.");
+                    }
+                }
+            }
+            
             int daysToKeep = InputValidator.getIntInput("Enter number of days to keep log entries (30-365): ", 30, 365);
             
             if (InputValidator.getConfirmation("This will delete archive log entries older than " + daysToKeep + " days. Continue?")) {
-                int deletedCount = archiveCRUD.cleanupArchiveLog(daysToKeep);
-                InputValidator.displaySuccess("Cleaned up " + deletedCount + " old archive log entries.");
+                ArchiveLogRetention.RetentionResult result = archiveLogRetention.enforceRetention(daysToKeep);
+                if (result.getErrorMessage() != null) {
+                    InputValidator.displayError("Archive log cleanup stopped: " + result.getErrorMessage());
+                }
+                InputValidator.displaySuccess("Cleaned up " + result.getTotalRemoved() + " old archive log entries.");
+                if (result.isPartitioned()) {
+                    System.out.println("Partitions dropped: " + result.getPartitionsDropped()
+                            + " (" + result.getRowsInDroppedPartitions() + " entries), future partitions created: "
+                            + result.getPartitionsCreated());
+                }
+                System.out.println("Entries deleted in batches: " + result.getRowsDeleted() + " in " + result.getDeleteBatches() + " batch(es)");
+                
+                // The change outbox follows the same retention
+                ChangeFeed changeFeed = ChangeFeed.getInstance();
+                if (changeFeed.isOutboxEnabled()) {
+                    int purged = changeFeed.purgeOutbox(daysToKeep);
+                    if (purged >= 0) {
+                        System.out.println("Change outbox events deleted: " + purged);
+                    } else {
+                        InputValidator.displayError("Failed to clean up the change outbox.");
+                    }
+                }
             } else {
                 System.out.println("Archive log cleanup cancelled.");
             }
@@ -488,6 +580,121 @@ public class AdminArchiveDashboard {
         }
     }
     
+    /**
+     * Moves archive rows older than a chosen age into compressed segment files on local disk
+     */
+    private void moveArchivesToColdStorage() {
+        InputValidator.displayHeader("MOVE OLD ARCHIVES TO COLD STORAGE");
+        
+        ArchiveColdStorage coldStorage = ArchiveColdStorage.getInstance();
+        System.out.println("Cold storage directory: " + coldStorage.getDirectory().toAbsolutePath());
+        System.out.println("Records in cold storage stay listed, restorable and deletable as before.");
+        
+        int days = InputValidator.getIntInput("Move records archived more than how many days ago (30-3650, suggested "
+                + ArchiveColdStorage.DEFAULT_TIER_AFTER_DAYS + "): ", 30, 3650);
+        
+        if (InputValidator.getConfirmation("Move archive records older than " + days + " days to cold storage?")) {
+            ArchiveColdStorage.TierResult result = coldStorage.tierAll(days);
+            if (result.getErrorMessage() != null) {
+                InputValidator.displayError("Cold storage move stopped: " + result.getErrorMessage());
+            }
+            InputValidator.displaySuccess("Moved " + result.getRowsMoved() + " archive records into "
+                    + result.getSegmentsWritten() + " segment(s), " + result.getBytesWritten() / 1024 + " KB, in "
+                    + result.getElapsedMillis() + " ms.");
+            for (Map.Entry<String, Integer> entry : result.getRowsByTable().entrySet()) {
+                System.out.println("  " + entry.getKey() + ": " + entry.getValue());
+            }
+        } else {
+            System.out.println("Cold storage move cancelled.");
+        }
+    }
+    
+    /**
+     * Scans the archive tables for rows whose references no longer exist, printing them as they are found
+     */
+    private void validateArchiveIntegrity() {
+        InputValidator.displayHeader("VALIDATE ARCHIVE INTEGRITY");
+        
+        ArchiveIntegrityScanner scanner = new ArchiveIntegrityScanner();
+        java.sql.Timestamp lastScan = scanner.getLastCompletedScan();
+        boolean incremental = false;
+        if (lastScan != null) {
+            System.out.println("Last completed scan: " + lastScan.toString().substring(0, 19));
+            incremental = InputValidator.getConfirmation("Check only records archived or orphaned since then?");
+        }
+        
+        int[] printed = {0};
+        ArchiveIntegrityScanner.ScanResult result = scanner.scan(incremental, violation -> {
+            if (printed[0]++ < MAX_PRINTED_VIOLATIONS) {
+                System.out.println(violation);
+                System.out.println("    Suggested repair: " + violation.getRepairSuggestion());
+            }
+        });
+        
+        if (printed[0] > MAX_PRINTED_VIOLATIONS) {
+            System.out.println("... " + (printed[0] - MAX_PRINTED_VIOLATIONS) + " more not shown");
+        }
+        for (String error : result.getErrors()) {
+            InputValidator.displayError("Integrity check failed: " + error);
+        }
+        
+        System.out.println("-".repeat(60));
+        for (Map.Entry<ArchiveIntegrityScanner.Check, Integer> entry : result.getViolations().entrySet()) {
+            System.out.printf("%-20s %6d%n", entry.getKey(), entry.getValue());
+        }
+        String scope = result.isIncremental() ? "incremental" : "full";
+        if (result.getTotalViolations() == 0 && result.getErrors().isEmpty()) {
+            InputValidator.displaySuccess("No integrity issues found (" + scope + " scan, " + result.getChunks()
+                    + " chunks in " + result.getElapsedMillis() + " ms).");
+        } else {
+            System.out.println(result.getTotalViolations() + " issue(s) found (" + scope + " scan, " + result.getChunks()
+                    + " chunks in " + result.getElapsedMillis() + " ms).");
+        }
+    }
+    
+    /**
+     * Shows latency, error and row counts per CRUD operation, with options to save or clear them
+     */
+    private void viewDatabasePerformance() {
+        InputValidator.displayHeader("DATABASE PERFORMANCE");
+        
+        OperationMetrics metrics = OperationMetrics.getInstance();
+        if (!OperationMetrics.isEnabled()) {
+            InputValidator.displayWarning("Operation metrics are turned off (enable with -Dfurever.metrics=true).");
+            return;
+        }
+        for (String line : metrics.describe()) {
+            System.out.println(line);
+        }
+        System.out.println();
+        System.out.println("Change feed: " + ChangeFeed.getInstance().describe());
+        
+        System.out.println("-".repeat(60));
+        System.out.println("1. Save Report to File");
+        System.out.println("2. Reset Metrics");
+        System.out.println("3. Return to Archive Management");
+        
+        int choice = InputValidator.getIntInput("Enter your choice (1-3): ", 1, 3);
+        switch (choice) {
+            case 1:
+                String path = InputValidator.getStringInput("Enter file path (e.g. furever-metrics.txt): ", false);
+                if (metrics.dumpToFile(Paths.get(path))) {
+                    InputValidator.displaySuccess("Report saved to " + Paths.get(path).toAbsolutePath());
+                } else {
+                    InputValidator.displayError("Failed to save the report.");
+                }
+                break;
+            case 2:
+                if (InputValidator.getConfirmation("Clear all recorded operation metrics?")) {
+                    metrics.reset();
+                    InputValidator.displaySuccess("Operation metrics reset.");
+                }
+                break;
+            default:
+                break;
+        }
+    }
+    
     /**
      * Manages archived adopters with view, restore, and delete options
      */
@@ -694,10 +901,16 @@ public class AdminArchiveDashboard {
             int petOwnerId = InputValidator.getIntInput("Enter pet owner ID to restore: ");
             String reason = InputValidator.getStringInput("Enter reason for restoration: ", false);
             
-            if (petOwnerCRUD.restorePetOwner(petOwnerId, 1, reason)) { // Using admin user ID 1
+            // Also brings back the pets and records that were archived together with the owner
+            OwnerArchiveCRUD.CascadeResult result = ownerArchiveCRUD.restorePetOwnerCascade(petOwnerId, 1, reason); // Using admin user ID 1
+            if (result.isSuccess()) {
                 InputValidator.displaySuccess("Pet owner restored successfully!");
+                System.out.println("Restored " + result);
+                if (result.getHeldBack() > 0) {
+                    InputValidator.displayWarning(result.getHeldBack() + " adoption record(s) stay archived because their adopter is archived.");
+                }
             } else {
-                InputValidator.displayError("Failed to restore pet owner. Pet owner may not exist in archives.");
+                InputValidator.displayError("Failed to restore pet owner. " + result.getErrorMessage());
             }
             
         } catch (Exception e) {
@@ -10,9 +10,15 @@ package com.furever.dashboard;
  */
 import java.sql.Date;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import com.furever.crud.AdopterCRUD;
+import com.furever.crud.AdoptionApprovalCRUD;
 import com.furever.crud.AdoptionRequestCRUD;
+import com.furever.crud.AsyncAdoptionRequestCRUD;
+import com.furever.crud.AsyncCRUD;
+import com.furever.crud.Page;
+import com.furever.crud.PageCursor;
 import com.furever.crud.PetCRUD;
 import com.furever.models.Adopter;
 import com.furever.models.AdoptionRequest;
@@ -24,12 +30,17 @@ import com.furever.utils.InputValidator;
  */
 public class AdoptionRequestDashboard {
     
+    private static final int PAGE_SIZE = 20;
+    
     private final AdoptionRequestCRUD adoptionRequestCRUD;
+    private final AsyncAdoptionRequestCRUD asyncAdoptionRequestCRUD;
     private final PetCRUD petCRUD;
     private final AdopterCRUD adopterCRUD;
+    private final AdoptionApprovalCRUD adoptionApprovalCRUD = new AdoptionApprovalCRUD();
     
     public AdoptionRequestDashboard() {
         this.adoptionRequestCRUD = new AdoptionRequestCRUD();
+        this.asyncAdoptionRequestCRUD = new AsyncAdoptionRequestCRUD(adoptionRequestCRUD, AsyncCRUD.DEFAULT_TIMEOUT_MS);
         this.petCRUD = new PetCRUD();
         this.adopterCRUD = new AdopterCRUD();
     }
@@ -174,15 +185,25 @@ public class AdoptionRequestDashboard {
         InputValidator.displayHeader("ALL ADOPTION REQUESTS");
         
         try {
-            List<AdoptionRequest> requests = adoptionRequestCRUD.getAllAdoptionRequests();
-            
-            if (requests.isEmpty()) {
-                System.out.println("No adoption requests found.");
-                return;
+            PageCursor cursor = PageCursor.FIRST;
+            while (true) {
+                Page<AdoptionRequestCRUD.RequestListing> page = adoptionRequestCRUD.getRequestListingsPage(cursor, PAGE_SIZE);
+                
+                if (page.isEmpty()) {
+                    if (cursor.isFirst()) {
+                        System.out.println("No adoption requests found.");
+                    }
+                    return;
+                }
+                
+                displayRequestsTable(page.getItems());
+                
+                if (!page.hasMore() || !InputValidator.getConfirmation("Show next page?")) {
+                    return;
+                }
+                cursor = page.getNextCursor();
             }
             
-            displayRequestsTable(requests);
-            
         } catch (Exception e) {
             InputValidator.displayError("An error occurred while retrieving adoption requests: " + e.getMessage());
         }
@@ -195,7 +216,7 @@ public class AdoptionRequestDashboard {
         InputValidator.displayHeader("ADOPTION REQUESTS - " + status.toUpperCase());
         
         try {
-            List<AdoptionRequest> requests = adoptionRequestCRUD.getAdoptionRequestsByStatus(status);
+            List<AdoptionRequestCRUD.RequestListing> requests = adoptionRequestCRUD.getRequestListingsByStatus(status);
             
             if (requests.isEmpty()) {
                 System.out.println("No " + status.toLowerCase() + " requests found.");
@@ -247,7 +268,7 @@ public class AdoptionRequestDashboard {
             
             System.out.println("Requests by: " + adopter.getAdopterName());
             
-            List<AdoptionRequest> requests = adoptionRequestCRUD.getAdoptionRequestsByAdopter(adopterId);
+            List<AdoptionRequestCRUD.RequestListing> requests = adoptionRequestCRUD.getRequestListingsByAdopter(adopterId);
             
             if (requests.isEmpty()) {
                 System.out.println("No requests found for this adopter.");
@@ -278,7 +299,7 @@ public class AdoptionRequestDashboard {
             
             System.out.println("Requests for: " + pet.getPetName());
             
-            List<AdoptionRequest> requests = adoptionRequestCRUD.getAdoptionRequestsByPet(petId);
+            List<AdoptionRequestCRUD.RequestListing> requests = adoptionRequestCRUD.getRequestListingsByPet(petId);
             
             if (requests.isEmpty()) {
                 System.out.println("No requests found for this pet.");
@@ -334,29 +355,21 @@ public class AdoptionRequestDashboard {
             String approvalDate = InputValidator.getDateInput("Enter approval date");
             String remarks = InputValidator.getStringInput("Enter approval remarks: ", false);
             
-            if (adoptionRequestCRUD.approveAdoptionRequest(requestId, Date.valueOf(approvalDate), remarks)) {
+            // Approval, sibling rejection, pet status and adoption record commit together
+            AdoptionApprovalCRUD.ApprovalResult result =
+                adoptionApprovalCRUD.approve(requestId, Date.valueOf(approvalDate), remarks, null);
+            
+            if (result.isApproved()) {
                 InputValidator.displaySuccess("Adoption request approved successfully!");
-                
-                // Update pet status to Adopted
-                Pet pet = petCRUD.getPetById(request.getPetId());
-                if (pet != null) {
-                    pet.setAdoptionStatus("Adopted");
-                    petCRUD.updatePet(pet);
-                    System.out.println("Pet status updated to Adopted.");
+                System.out.println("Pet status updated to Adopted.");
+                if (result.getRejectedSiblings() > 0) {
+                    System.out.println(result.getRejectedSiblings() + " other pending request(s) for this pet have been automatically rejected.");
                 }
-                
-                // Auto-reject other pending requests for the same pet
-                List<AdoptionRequest> otherPendingRequests = adoptionRequestCRUD.getAdoptionRequestsByPet(request.getPetId());
-                for (AdoptionRequest otherRequest : otherPendingRequests) {
-                    if (otherRequest.getAdoptionRequestId() != requestId && "Pending".equals(otherRequest.getStatus())) {
-                        adoptionRequestCRUD.rejectAdoptionRequest(otherRequest.getAdoptionRequestId(), 
-                            "Automatically rejected - pet adopted by another adopter");
-                    }
+                if (result.getArchivedSiblings() > 0) {
+                    System.out.println(result.getArchivedSiblings() + " other pending request(s) have been archived because the adopter had already been rejected for this pet.");
                 }
-                System.out.println("Other pending requests for this pet have been automatically rejected.");
-                
             } else {
-                InputValidator.displayError("Failed to approve adoption request.");
+                InputValidator.displayError("Failed to approve adoption request: " + result.getMessage());
             }
             
         } catch (Exception e) {
@@ -498,10 +511,17 @@ public class AdoptionRequestDashboard {
         InputValidator.displayHeader("ADOPTION REQUEST STATISTICS");
         
         try {
-            int totalRequests = adoptionRequestCRUD.getAdoptionRequestCount();
-            int pendingRequests = adoptionRequestCRUD.getAdoptionRequestCountByStatus("Pending");
-            int approvedRequests = adoptionRequestCRUD.getAdoptionRequestCountByStatus("Approved");
-            int rejectedRequests = adoptionRequestCRUD.getAdoptionRequestCountByStatus("Rejected");
+            // Independent counts; load them together and wait for the slowest
+            CompletableFuture<Integer> total = asyncAdoptionRequestCRUD.getAdoptionRequestCount();
+            CompletableFuture<Integer> pending = asyncAdoptionRequestCRUD.getAdoptionRequestCountByStatus("Pending");
+            CompletableFuture<Integer> approved = asyncAdoptionRequestCRUD.getAdoptionRequestCountByStatus("Approved");
+            CompletableFuture<Integer> rejected = asyncAdoptionRequestCRUD.getAdoptionRequestCountByStatus("Rejected");
+            AsyncCRUD.awaitAll(total, pending, approved, rejected);
+            
+            int totalRequests = total.join();
+            int pendingRequests = pending.join();
+            int approvedRequests = approved.join();
+            int rejectedRequests = rejected.join();
             
             System.out.println("Total Requests: " + totalRequests);
             System.out.println("Pending Requests: " + pendingRequests);
@@ -523,31 +543,17 @@ public class AdoptionRequestDashboard {
     
     /**
      * Displays adoption requests in table format
+     * The pet and adopter names come with the listing query rather than a lookup per row
      */
-    private void displayRequestsTable(List<AdoptionRequest> requests) {
+    private void displayRequestsTable(List<AdoptionRequestCRUD.RequestListing> listings) {
         System.out.printf("%-5s %-20s %-20s %-12s %-10s %-12s%n", 
             "ID", "Pet Name", "Adopter Name", "Date", "Status", "Approval");
         System.out.println("-".repeat(85));
         
-        for (AdoptionRequest request : requests) {
-            // Fetch pet and adopter details for better display
-            String petName = "Unknown";
-            String adopterName = "Unknown";
-            
-            try {
-                Pet pet = petCRUD.getPetById(request.getPetId());
-                if (pet != null) {
-                    petName = pet.getPetName();
-                }
-                
-                Adopter adopter = adopterCRUD.getAdopterById(request.getAdopterId());
-                if (adopter != null) {
-                    adopterName = adopter.getAdopterName();
-                }
-            } catch (Exception e) {
-                // If there's an error fetching names, we'll use "Unknown"
-                System.err.println("Error fetching pet/adopter details: " + e.getMessage());
-            }
+        for (AdoptionRequestCRUD.RequestListing listing : listings) {
+            AdoptionRequest request = listing.getRequest();
+            String petName = listing.getPetName() != null ? listing.getPetName() : "Unknown";
+            String adopterName = listing.getAdopterName() != null ? listing.getAdopterName() : "Unknown";
             
             System.out.printf("%-5d %-20s %-20s %-12s %-10s %-12s%n",
                 request.getAdoptionRequestId(),
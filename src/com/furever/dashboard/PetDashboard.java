@@ -8,11 +8,16 @@ package com.furever.dashboard;
  *
  * @author jerimiahtongco
  */
+import com.furever.crud.Page;
+import com.furever.crud.PageCursor;
 import com.furever.crud.PetCRUD;
+import com.furever.models.Pet;
 import com.furever.utils.InputValidator;
 
 public class PetDashboard {
     
+    private static final int PAGE_SIZE = 20;
+    
     private final PetCRUD petCRUD;
     
     public PetDashboard() {
@@ -74,11 +79,21 @@ public class PetDashboard {
         InputValidator.displayHeader("ALL PETS");
         
         try {
-            var pets = petCRUD.getAllPets();
-            if (pets.isEmpty()) {
-                InputValidator.displayWarning("No pets found in the system.");
-            } else {
-                petCRUD.displayPetsTable(pets);
+            PageCursor cursor = PageCursor.FIRST;
+            while (true) {
+                Page<Pet> page = petCRUD.getPetsPage(cursor, PAGE_SIZE);
+                if (page.isEmpty()) {
+                    if (cursor.isFirst()) {
+                        InputValidator.displayWarning("No pets found in the system.");
+                    }
+                    break;
+                }
+                
+                petCRUD.displayPetsTable(page.getItems());
+                if (!page.hasMore() || !InputValidator.getConfirmation("Show next page?")) {
+                    break;
+                }
+                cursor = page.getNextCursor();
             }
         } catch (Exception e) {
             InputValidator.displayError("An error occurred while retrieving pets: " + e.getMessage());
@@ -155,17 +170,24 @@ public class PetDashboard {
         InputValidator.displayHeader("ARCHIVED PETS");
         
         try {
-            var archivedPets = petCRUD.getAllArchivedPets();
-            if (archivedPets.isEmpty()) {
-                InputValidator.displayWarning("No archived pets found.");
-            } else {
-                System.out.println("Found " + archivedPets.size() + " archived pets:");
+            PageCursor cursor = PageCursor.FIRST;
+            int shown = 0;
+            while (true) {
+                Page<Pet> page = petCRUD.getArchivedPetsPage(cursor, PAGE_SIZE);
+                if (page.isEmpty()) {
+                    if (cursor.isFirst()) {
+                        InputValidator.displayWarning("No archived pets found.");
+                    }
+                    break;
+                }
+                
+                System.out.println("Archived pets " + (shown + 1) + " to " + (shown + page.getItems().size()) + ":");
                 System.out.println("-".repeat(100));
                 System.out.printf("%-5s %-20s %-15s %-10s %-15s %-20s%n", 
                     "ID", "Name", "Type", "Age", "Status", "Date Archived");
                 System.out.println("-".repeat(100));
                 
-                for (var pet : archivedPets) {
+                for (var pet : page.getItems()) {
                     System.out.printf("%-5d %-20s %-15s %-10d %-15s %-20s%n",
                         pet.getPetId(),
                         pet.getPetName(),
@@ -175,6 +197,12 @@ public class PetDashboard {
                         "Recently" // Would show archived_date from the archive table
                     );
                 }
+                shown += page.getItems().size();
+                
+                if (!page.hasMore() || !InputValidator.getConfirmation("Show next page?")) {
+                    break;
+                }
+                cursor = page.getNextCursor();
             }
         } catch (Exception e) {
             InputValidator.displayError("Error retrieving archived pets: " + e.getMessage());
@@ -8,13 +8,30 @@ package com.furever.dashboard;
  *
  * @author jerimiahtongco
  */
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
+import com.furever.crud.AsyncCRUD;
+import com.furever.crud.AsyncPetCRUD;
+import com.furever.crud.BulkImportCRUD;
+import com.furever.crud.OwnerArchiveCRUD;
+import com.furever.crud.PetCRUD;
 import com.furever.crud.PetOwnerCRUD;
 import com.furever.crud.UserCRUD;
+import com.furever.models.Pet;
 import com.furever.models.PetOwner;
 import com.furever.models.User;
 import com.furever.utils.InputValidator;
+import com.furever.utils.RecordReader;
 
 /**
  * Dashboard for managing Pet Owner operations (Admin perspective)
@@ -22,11 +39,21 @@ import com.furever.utils.InputValidator;
 public class PetOwnerDashboard {
     
     private final PetOwnerCRUD petOwnerCRUD;
+    private final OwnerArchiveCRUD ownerArchiveCRUD;
+    private final PetCRUD petCRUD;
+    private final AsyncPetCRUD asyncPetCRUD;
     private final UserCRUD userCRUD;
+    private final BulkImportCRUD bulkImportCRUD;
+    // Owner keys from the last owner import, so a pet file can refer to owners by their file ref
+    private Map<String, Integer> importedOwnerKeys;
     
     public PetOwnerDashboard() {
         this.petOwnerCRUD = new PetOwnerCRUD();
+        this.ownerArchiveCRUD = new OwnerArchiveCRUD();
+        this.petCRUD = new PetCRUD();
+        this.asyncPetCRUD = new AsyncPetCRUD(petCRUD, AsyncCRUD.DEFAULT_TIMEOUT_MS);
         this.userCRUD = new UserCRUD();
+        this.bulkImportCRUD = new BulkImportCRUD();
     }
     
     /**
@@ -42,10 +69,11 @@ public class PetOwnerDashboard {
             System.out.println("5. Update Pet Owner");
             System.out.println("6. Delete Pet Owner");
             System.out.println("7. View Pet Owner Statistics");
-            System.out.println("8. Return to Main Menu");
+            System.out.println("8. Bulk Import / Export");
+            System.out.println("9. Return to Main Menu");
             System.out.println("-".repeat(60));
             
-            int choice = InputValidator.getIntInput("Enter your choice (1-8): ", 1, 8);
+            int choice = InputValidator.getIntInput("Enter your choice (1-9): ", 1, 9);
             
             switch (choice) {
                 case 1:
@@ -70,6 +98,9 @@ public class PetOwnerDashboard {
                     viewPetOwnerStatistics();
                     break;
                 case 8:
+                    bulkImportExport();
+                    break;
+                case 9:
                     return;
                 default:
                     InputValidator.displayError("Invalid choice. Please try again.");
@@ -297,9 +328,12 @@ public class PetOwnerDashboard {
         try {
             int petOwnerId = InputValidator.getIntInput("Enter Pet Owner ID to delete: ", 1, Integer.MAX_VALUE);
             
+            // The owner's pets are loaded while the owner is looked up
+            CompletableFuture<List<Pet>> pets = asyncPetCRUD.getPetsByOwner(petOwnerId);
             PetOwner petOwner = petOwnerCRUD.getPetOwnerById(petOwnerId);
             
             if (petOwner == null) {
+                pets.cancel(true);
                 InputValidator.displayWarning("Pet owner with ID " + petOwnerId + " not found.");
                 return;
             }
@@ -307,6 +341,27 @@ public class PetOwnerDashboard {
             System.out.println("Pet Owner to be deleted:");
             displayPetOwnerDetails(petOwner);
             
+            // Owners with pets are archived together with their pets in one transaction
+            int petCount = AsyncCRUD.await(pets).size();
+            if (petCount > 0) {
+                System.out.println("\nThis pet owner has " + petCount + " pet(s). Their pets, pet media, adoption requests");
+                System.out.println("and adoptions will be archived together with the owner.");
+                String confirm = InputValidator.getStringInput("\nAre you sure you want to delete this pet owner and all of their pets? (yes/no): ", false);
+                
+                if ("yes".equalsIgnoreCase(confirm)) {
+                    OwnerArchiveCRUD.CascadeResult result = ownerArchiveCRUD.archivePetOwnerCascade(petOwnerId, null, "Pet owner deleted via admin dashboard");
+                    if (result.isSuccess()) {
+                        InputValidator.displaySuccess("Pet owner deleted successfully!");
+                        System.out.println("Archived " + result);
+                    } else {
+                        InputValidator.displayError("Failed to delete pet owner: " + result.getErrorMessage());
+                    }
+                } else {
+                    System.out.println("Deletion cancelled.");
+                }
+                return;
+            }
+            
             String confirm = InputValidator.getStringInput("\nAre you sure you want to delete this pet owner? (yes/no): ", false);
             
             if ("yes".equalsIgnoreCase(confirm)) {
@@ -346,6 +401,114 @@ public class PetOwnerDashboard {
         }
     }
     
+    /**
+     * Imports or exports pet owners, pets and adopters as CSV or JSON files
+     */
+    private void bulkImportExport() {
+        InputValidator.displayHeader("BULK IMPORT / EXPORT");
+        
+        System.out.println("1. Import Pet Owners");
+        System.out.println("2. Import Pets");
+        System.out.println("3. Import Adopters");
+        System.out.println("4. Export Pet Owners");
+        System.out.println("5. Export Pets");
+        System.out.println("6. Export Adopters");
+        System.out.println("7. Back");
+        System.out.println("\nFiles ending in .json or .jsonl are read as JSON, all others as CSV.");
+        
+        int choice = InputValidator.getIntInput("Enter your choice (1-7): ", 1, 7);
+        if (choice == 7) {
+            return;
+        }
+        
+        Path path;
+        try {
+            path = Paths.get(InputValidator.getStringInput("File path: ", false));
+        } catch (InvalidPathException e) {
+            InputValidator.displayError("Invalid file path: " + e.getMessage());
+            return;
+        }
+        RecordReader.Format format = RecordReader.Format.fromFileName(path.getFileName().toString());
+        
+        if (choice <= 3) {
+            if (!Files.isReadable(path)) {
+                InputValidator.displayError("File not found or not readable: " + path);
+                return;
+            }
+            if (choice == 2 && importedOwnerKeys != null) {
+                System.out.println("pet_owner_ref values are resolved against the " + importedOwnerKeys.size()
+                        + " owner(s) imported earlier in this session.");
+            }
+            
+            BulkImportCRUD.ImportResult result;
+            try (Reader in = Files.newBufferedReader(path, StandardCharsets.UTF_8);
+                 RecordReader reader = new RecordReader(in, format)) {
+                if (choice == 1) {
+                    result = bulkImportCRUD.importPetOwners(reader);
+                    importedOwnerKeys = result.getGeneratedKeys();
+                } else if (choice == 2) {
+                    result = bulkImportCRUD.importPets(reader, importedOwnerKeys);
+                } else {
+                    result = bulkImportCRUD.importAdopters(reader);
+                }
+            } catch (IOException e) {
+                InputValidator.displayError("Error reading file: " + e.getMessage());
+                return;
+            }
+            displayImportResult(result);
+            
+        } else {
+            if (Files.exists(path) && !InputValidator.getConfirmation("File exists. Overwrite?")) {
+                System.out.println("Export cancelled.");
+                return;
+            }
+            
+            long started = System.currentTimeMillis();
+            int count;
+            try (Writer out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+                if (choice == 4) {
+                    count = bulkImportCRUD.exportPetOwners(out, format);
+                } else if (choice == 5) {
+                    count = bulkImportCRUD.exportPets(out, format);
+                } else {
+                    count = bulkImportCRUD.exportAdopters(out, format);
+                }
+            } catch (IOException e) {
+                InputValidator.displayError("Error writing file: " + e.getMessage());
+                return;
+            }
+            
+            if (count < 0) {
+                InputValidator.displayError("Export failed. The file may be incomplete.");
+            } else {
+                InputValidator.displaySuccess("Exported " + count + " record(s) to " + path
+                        + " in " + (System.currentTimeMillis() - started) + " ms.");
+            }
+        }
+    }
+    
+    private void displayImportResult(BulkImportCRUD.ImportResult result) {
+        System.out.println("\nRecords read:     " + result.getRowsRead());
+        System.out.println("Records imported: " + result.getRowsImported());
+        System.out.println("Records rejected: " + result.getErrorCount());
+        System.out.println("Elapsed:          " + result.getElapsedMillis() + " ms");
+        
+        int shown = 0;
+        for (BulkImportCRUD.RowError error : result.getErrors()) {
+            if (shown++ == 20) {
+                System.out.println("... and " + (result.getErrorCount() - 20) + " more rejected record(s).");
+                break;
+            }
+            System.out.println("  " + error);
+        }
+        
+        if (result.getFatalError() != null) {
+            InputValidator.displayError("Import stopped: " + result.getFatalError());
+        } else if (result.getErrorCount() == 0) {
+            InputValidator.displaySuccess("Import completed.");
+        }
+    }
+    
     /**
      * Displays detailed information about a pet owner
      */
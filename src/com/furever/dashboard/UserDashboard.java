@@ -8,20 +8,29 @@ package com.furever.dashboard;
  *
  * @author jerimiahtongco
  */
+import com.furever.crud.AsyncCRUD;
+import com.furever.crud.AsyncUserCRUD;
+import com.furever.crud.Page;
+import com.furever.crud.PageCursor;
 import com.furever.crud.UserCRUD;
 import com.furever.models.User;
 import com.furever.utils.InputValidator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Dashboard for managing User operations
  */
 public class UserDashboard {
     
+    private static final int PAGE_SIZE = 20;
+    
     private final UserCRUD userCRUD;
+    private final AsyncUserCRUD asyncUserCRUD;
     
     public UserDashboard() {
         this.userCRUD = new UserCRUD();
+        this.asyncUserCRUD = new AsyncUserCRUD(userCRUD, AsyncCRUD.DEFAULT_TIMEOUT_MS);
     }
     
     /**
@@ -119,24 +128,34 @@ public class UserDashboard {
         InputValidator.displayHeader("ALL USERS");
         
         try {
-            List<User> users = userCRUD.getAllUsers();
-            
-            if (users.isEmpty()) {
-                System.out.println("No users found.");
-                return;
-            }
-            
-            System.out.printf("%-5s %-20s %-30s %-10s %-20s%n", 
-                "ID", "Username", "Email", "Role", "Created At");
-            System.out.println("-".repeat(85));
-            
-            for (User user : users) {
-                System.out.printf("%-5d %-20s %-30s %-10s %-20s%n",
-                    user.getId(),
-                    user.getUsername(),
-                    user.getEmail(),
-                    user.getRole(),
-                    user.getCreatedAt() != null ? user.getCreatedAt().toString() : "N/A");
+            PageCursor cursor = PageCursor.FIRST;
+            while (true) {
+                Page<User> page = userCRUD.getUsersPage(cursor, PAGE_SIZE);
+                
+                if (page.isEmpty()) {
+                    if (cursor.isFirst()) {
+                        System.out.println("No users found.");
+                    }
+                    return;
+                }
+                
+                System.out.printf("%-5s %-20s %-30s %-10s %-20s%n", 
+                    "ID", "Username", "Email", "Role", "Created At");
+                System.out.println("-".repeat(85));
+                
+                for (User user : page.getItems()) {
+                    System.out.printf("%-5d %-20s %-30s %-10s %-20s%n",
+                        user.getId(),
+                        user.getUsername(),
+                        user.getEmail(),
+                        user.getRole(),
+                        user.getCreatedAt() != null ? user.getCreatedAt().toString() : "N/A");
+                }
+                
+                if (!page.hasMore() || !InputValidator.getConfirmation("Show next page?")) {
+                    return;
+                }
+                cursor = page.getNextCursor();
             }
             
         } catch (Exception e) {
@@ -302,17 +321,18 @@ public class UserDashboard {
         InputValidator.displayHeader("USER STATISTICS");
         
         try {
-            int totalUsers = userCRUD.getUserCount();
-            System.out.println("Total Users: " + totalUsers);
-            
-            // Additional statistics can be added here
-            List<User> allUsers = userCRUD.getAllUsers();
-            
-            long adminCount = allUsers.stream().filter(u -> "admin".equals(u.getRole())).count();
-            long adopterCount = allUsers.stream().filter(u -> "adopter".equals(u.getRole())).count();
-            
-            System.out.println("Admin Users: " + adminCount);
-            System.out.println("Adopter Users: " + adopterCount);
+            // Role counts come from the statistics snapshot rather than loading every user;
+            // the counts are loaded together so a cold snapshot is only waited for once
+            CompletableFuture<Integer> totalUsers = asyncUserCRUD.getUserCount();
+            CompletableFuture<Integer> adminUsers = asyncUserCRUD.getUserCountByRole("admin");
+            CompletableFuture<Integer> adopterUsers = asyncUserCRUD.getUserCountByRole("adopter");
+            CompletableFuture<Integer> petOwnerUsers = asyncUserCRUD.getUserCountByRole("pet_owner");
+            AsyncCRUD.awaitAll(totalUsers, adminUsers, adopterUsers, petOwnerUsers);
+            
+            System.out.println("Total Users: " + totalUsers.join());
+            System.out.println("Admin Users: " + adminUsers.join());
+            System.out.println("Adopter Users: " + adopterUsers.join());
+            System.out.println("Pet Owner Users: " + petOwnerUsers.join());
             
         } catch (Exception e) {
             InputValidator.displayError("An error occurred while retrieving statistics: " + e.getMessage());
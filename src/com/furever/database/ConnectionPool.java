@@ -0,0 +1,560 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.furever.database;
+
+/**
+ *
+ * @author jerimiahtongco
+ */
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.ConnectionEvent;
+import javax.sql.ConnectionEventListener;
+import javax.sql.PooledConnection;
+
+import com.mysql.cj.jdbc.MysqlConnectionPoolDataSource;
+
+/**
+ * Bounded connection pool built on the connector's MysqlConnectionPoolDataSource.
+ * Connections handed out are logical handles; closing them (for example through
+ * try-with-resources in the CRUD classes) returns the physical connection to the pool.
+ * With a jdbc:mysql:replication:// URL every physical connection is the connector's
+ * replication proxy; read connections are switched to a replica with setReadOnly(true)
+ * and write connections back to the source.
+ */
+public class ConnectionPool implements ConnectionEventListener {
+
+    private final MysqlConnectionPoolDataSource dataSource;
+    private final int minSize;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final long leakThresholdMillis;
+    private final int validationTimeoutSeconds;
+    private final long housekeepingPeriodMillis;
+    private final boolean replicated;
+
+    private final LinkedBlockingDeque<PooledEntry> idleEntries = new LinkedBlockingDeque<>();
+    private final Map<PooledConnection, PooledEntry> allEntries = new ConcurrentHashMap<>();
+    private final Semaphore permits;
+    private final ScheduledExecutorService housekeeper;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+    private final AtomicLong lastWriteReturned = new AtomicLong(0);
+    private final AtomicLong replicaBorrows = new AtomicLong(0);
+    private final AtomicLong sourceBorrows = new AtomicLong(0);
+    private volatile ConnectionInitializer initializer;
+
+    /**
+     * Prepares a physical connection the first time it is handed out, for example by warming
+     * its statement cache
+     */
+    @FunctionalInterface
+    public interface ConnectionInitializer {
+        void initialize(Connection connection) throws SQLException;
+    }
+
+    /**
+     * Creates a connection pool, opens the minimum number of connections and starts housekeeping
+     * @param url JDBC URL of the database
+     * @param username Database username
+     * @param password Database password
+     * @param minSize Number of connections kept open even when idle
+     * @param maxSize Maximum number of connections open at the same time
+     * @param borrowTimeoutMillis How long a caller waits for a free connection
+     * @param idleTimeoutMillis How long a connection above minSize may stay idle before it is closed
+     * @param leakThresholdMillis How long a connection may be held before it is reported as a leak (0 disables)
+     * @param validationTimeoutSeconds Timeout used when validating a connection on borrow
+     * @return started connection pool
+     * @throws SQLException if the pool cannot be initialized
+     */
+    public static ConnectionPool create(String url, String username, String password, int minSize, int maxSize,
+                                        long borrowTimeoutMillis, long idleTimeoutMillis, long leakThresholdMillis,
+                                        int validationTimeoutSeconds) throws SQLException {
+        ConnectionPool pool = new ConnectionPool(url, username, password, minSize, maxSize,
+                borrowTimeoutMillis, idleTimeoutMillis, leakThresholdMillis, validationTimeoutSeconds);
+        // The pool registers itself as listener on every connection it opens, so nothing
+        // is opened or scheduled until construction has finished
+        pool.fillToMinimum();
+        pool.housekeeper.scheduleWithFixedDelay(pool::runHousekeeping, pool.housekeepingPeriodMillis,
+                pool.housekeepingPeriodMillis, TimeUnit.MILLISECONDS);
+        return pool;
+    }
+
+    private ConnectionPool(String url, String username, String password, int minSize, int maxSize,
+                           long borrowTimeoutMillis, long idleTimeoutMillis, long leakThresholdMillis,
+                           int validationTimeoutSeconds) {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+        }
+
+        this.dataSource = new MysqlConnectionPoolDataSource();
+        this.dataSource.setURL(url);
+        this.dataSource.setUser(username);
+        this.dataSource.setPassword(password);
+
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.housekeepingPeriodMillis = Math.max(1000, Math.min(idleTimeoutMillis, 30000));
+        this.replicated = url.startsWith("jdbc:mysql:replication:");
+        this.permits = new Semaphore(maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "furever-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Borrows a connection for reading and writing, routed to the source
+     * @return Validated logical connection; closing it returns it to the pool
+     * @throws SQLException if the pool is closed, the wait times out, or no connection can be opened
+     */
+    public Connection getConnection() throws SQLException {
+        return borrow(true, false);
+    }
+
+    /**
+     * Borrows a connection for reading only
+     * Closing it is not counted as a write, so it does not hold later reads on the source
+     * @param fromReplica true to route the connection to a replica (ignored unless the pool is replicated)
+     * @return Validated logical connection; closing it returns it to the pool
+     * @throws SQLException if the pool is closed, the wait times out, or no connection can be opened
+     */
+    public Connection getReadConnection(boolean fromReplica) throws SQLException {
+        return borrow(false, fromReplica && replicated);
+    }
+
+    /**
+     * Borrows a connection, waiting up to the borrow timeout for one to become free
+     */
+    private Connection borrow(boolean writer, boolean toReplica) throws SQLException {
+        if (closed.get()) {
+            throw new SQLException("Connection pool has been closed.");
+        }
+
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out after " + borrowTimeoutMillis + " ms waiting for a database connection ("
+                        + getActiveCount() + " of " + maxSize + " in use).");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection.", e);
+        }
+
+        try {
+            while (true) {
+                PooledEntry entry = idleEntries.pollFirst();
+                boolean fresh = entry == null;
+                if (fresh) {
+                    entry = openEntry();
+                }
+
+                // Handing out a logical connection resets the session, which fails on a dead connection
+                Connection connection;
+                try {
+                    connection = entry.pooledConnection.getConnection();
+                } catch (SQLException e) {
+                    discard(entry);
+                    if (fresh) {
+                        throw e;
+                    }
+                    continue;
+                }
+
+                if (!isUsable(connection) || !route(entry, connection, toReplica)) {
+                    discard(entry);
+                    if (fresh) {
+                        throw new SQLException("A newly opened database connection could not be validated.");
+                    }
+                    continue;
+                }
+
+                initialize(entry, connection, toReplica);
+                entry.markBorrowed(writer, leakThresholdMillis > 0);
+                (toReplica ? replicaBorrows : sourceBorrows).incrementAndGet();
+                return connection;
+            }
+        } catch (SQLException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Closes all pooled connections and stops the housekeeping thread
+     */
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+
+        housekeeper.shutdownNow();
+        for (PooledEntry entry : allEntries.values()) {
+            closePhysical(entry);
+        }
+        allEntries.clear();
+        idleEntries.clear();
+    }
+
+    /**
+     * Sets the initializer run on each physical connection the first time it is handed out
+     * Connections already handed out are initialized on their next borrow
+     * @param initializer Initializer, or null for none
+     */
+    public void setConnectionInitializer(ConnectionInitializer initializer) {
+        this.initializer = initializer;
+    }
+
+    /**
+     * Gets the number of connections currently borrowed
+     * @return number of connections in use
+     */
+    public int getActiveCount() {
+        return maxSize - permits.availablePermits();
+    }
+
+    /**
+     * Gets the number of open connections waiting in the pool
+     * @return number of idle connections
+     */
+    public int getIdleCount() {
+        return idleEntries.size();
+    }
+
+    /**
+     * Gets the total number of physical connections currently open
+     * @return number of open connections
+     */
+    public int getTotalCount() {
+        return allEntries.size();
+    }
+
+    /**
+     * Gets the maximum number of connections this pool may open
+     * @return maximum pool size
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Gets the number of callers currently waiting for a connection
+     * @return number of waiting callers
+     */
+    public int getWaitingCount() {
+        return permits.getQueueLength();
+    }
+
+    /**
+     * Tells whether the pool connects through a replication URL
+     * @return true if read connections can be served by replicas
+     */
+    public boolean isReplicated() {
+        return replicated;
+    }
+
+    /**
+     * Gets the time the last write connection was returned
+     * @return epoch milliseconds, or 0 if no write connection has been returned yet
+     */
+    public long getLastWriteMillis() {
+        return lastWriteReturned.get();
+    }
+
+    /**
+     * Gets the number of borrows routed to a replica
+     * @return replica borrow count since the pool was created
+     */
+    public long getReplicaBorrowCount() {
+        return replicaBorrows.get();
+    }
+
+    /**
+     * Gets the number of borrows routed to the source
+     * @return source borrow count since the pool was created
+     */
+    public long getSourceBorrowCount() {
+        return sourceBorrows.get();
+    }
+
+    @Override
+    public void connectionClosed(ConnectionEvent event) {
+        PooledEntry entry = allEntries.get((PooledConnection) event.getSource());
+        if (entry == null) {
+            return;
+        }
+        boolean writer = entry.writer;
+        if (!entry.markReturned()) {
+            return;
+        }
+        if (writer) {
+            lastWriteReturned.accumulateAndGet(System.currentTimeMillis(), Math::max);
+        }
+
+        if (closed.get()) {
+            discard(entry);
+        } else {
+            // LIFO keeps the most recently used connections warm and lets the rest age out
+            idleEntries.offerFirst(entry);
+        }
+        permits.release();
+    }
+
+    @Override
+    public void connectionErrorOccurred(ConnectionEvent event) {
+        PooledEntry entry = allEntries.get((PooledConnection) event.getSource());
+        if (entry == null) {
+            return;
+        }
+
+        boolean writer = entry.writer;
+        boolean wasBorrowed = entry.markReturned();
+        if (wasBorrowed && writer) {
+            lastWriteReturned.accumulateAndGet(System.currentTimeMillis(), Math::max);
+        }
+        discard(entry);
+        if (wasBorrowed) {
+            permits.release();
+        }
+    }
+
+    /**
+     * Opens a new physical connection and registers it with the pool
+     * @return new pool entry
+     * @throws SQLException if the connection cannot be opened
+     */
+    private PooledEntry openEntry() throws SQLException {
+        PooledConnection pooledConnection = dataSource.getPooledConnection();
+        pooledConnection.addConnectionEventListener(this);
+        PooledEntry entry = new PooledEntry(pooledConnection);
+        allEntries.put(pooledConnection, entry);
+        return entry;
+    }
+
+    /**
+     * Validates a logical connection and resets per-session state left behind by the previous borrower
+     * @param connection Logical connection to check
+     * @return true if the connection can be handed out
+     */
+    private boolean isUsable(Connection connection) {
+        try {
+            if (!connection.isValid(validationTimeoutSeconds)) {
+                return false;
+            }
+            if (!connection.getAutoCommit()) {
+                connection.setAutoCommit(true);
+            }
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Switches a replication connection between the source and a replica
+     * Only called when the routing changes, so plain connections never see setReadOnly
+     * @param entry Entry the connection belongs to
+     * @param connection Logical connection to route
+     * @param toReplica true for a replica, false for the source
+     * @return true if the connection could be routed
+     */
+    private boolean route(PooledEntry entry, Connection connection, boolean toReplica) {
+        if (entry.onReplica == toReplica) {
+            return true;
+        }
+        try {
+            connection.setReadOnly(toReplica);
+            entry.onReplica = toReplica;
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Runs the initializer once per route of a physical connection; a replication connection
+     * holds separate source and replica connections, each with its own statement cache
+     * A failing initializer is reported and not retried, the connection is still usable
+     */
+    private void initialize(PooledEntry entry, Connection connection, boolean toReplica) {
+        ConnectionInitializer current = initializer;
+        int routeBit = toReplica ? 2 : 1;
+        if (current == null || (entry.initializedRoutes & routeBit) != 0) {
+            return;
+        }
+        entry.initializedRoutes |= routeBit;
+        try {
+            current.initialize(connection);
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Error initializing pooled connection: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Removes an entry from the pool and closes its physical connection
+     * @param entry Entry to discard
+     */
+    private void discard(PooledEntry entry) {
+        allEntries.remove(entry.pooledConnection);
+        idleEntries.remove(entry);
+        closePhysical(entry);
+    }
+
+    /**
+     * Closes the physical connection behind an entry
+     * @param entry Entry whose connection should be closed
+     */
+    private void closePhysical(PooledEntry entry) {
+        try {
+            entry.pooledConnection.removeConnectionEventListener(this);
+            entry.pooledConnection.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing pooled connection: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Opens idle connections until the pool holds at least minSize connections
+     */
+    private void fillToMinimum() {
+        while (!closed.get() && allEntries.size() < minSize) {
+            try {
+                PooledEntry entry = openEntry();
+                entry.lastReturned = System.currentTimeMillis();
+                idleEntries.offerLast(entry);
+            } catch (SQLException e) {
+                System.err.println("Error opening pooled connection: " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Takes an idle connection out of the pool, checks that it still works and puts it back
+     * at the tail, or discards it
+     * @param entry Idle entry to test
+     * @param now Current time in epoch milliseconds
+     */
+    private void testIdle(PooledEntry entry, long now) {
+        // A borrower may have taken the entry in the meantime
+        if (!idleEntries.removeFirstOccurrence(entry)) {
+            return;
+        }
+        entry.lastTested = now;
+
+        boolean usable;
+        try (Connection connection = entry.pooledConnection.getConnection()) {
+            usable = connection.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            usable = false;
+        }
+
+        if (usable && !closed.get()) {
+            idleEntries.offerLast(entry);
+        } else {
+            discard(entry);
+        }
+    }
+
+    /**
+     * Periodic maintenance: evicts long-idle connections, tests the remaining idle ones,
+     * tops the pool back up to its minimum size and reports connections held past the leak threshold
+     */
+    private void runHousekeeping() {
+        try {
+            long now = System.currentTimeMillis();
+
+            // Oldest idle connections sit at the tail of the deque
+            PooledEntry candidate;
+            while (allEntries.size() > minSize
+                    && (candidate = idleEntries.peekLast()) != null
+                    && now - candidate.lastReturned > idleTimeoutMillis) {
+                if (idleEntries.removeLastOccurrence(candidate)) {
+                    discard(candidate);
+                }
+            }
+
+            // Newest first, so the entries put back at the tail keep their age order; an entry
+            // the iterator meets again after being put back was just tested and is skipped
+            for (PooledEntry entry : idleEntries) {
+                if (now - Math.max(entry.lastReturned, entry.lastTested) > housekeepingPeriodMillis) {
+                    testIdle(entry, now);
+                }
+            }
+
+            fillToMinimum();
+
+            if (leakThresholdMillis > 0) {
+                for (PooledEntry entry : allEntries.values()) {
+                    long borrowedAt = entry.borrowedAt;
+                    if (borrowedAt > 0 && !entry.leakReported && now - borrowedAt > leakThresholdMillis) {
+                        entry.leakReported = true;
+                        System.err.println("Possible connection leak: connection held for " + (now - borrowedAt) + " ms");
+                        if (entry.borrowSite != null) {
+                            entry.borrowSite.printStackTrace();
+                        }
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Error during connection pool housekeeping: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Bookkeeping for one physical connection owned by the pool
+     */
+    private static class PooledEntry {
+        private final PooledConnection pooledConnection;
+        private final AtomicBoolean inUse = new AtomicBoolean(false);
+        private volatile long borrowedAt;
+        private volatile long lastReturned;
+        private volatile long lastTested;
+        private volatile boolean leakReported;
+        private volatile Throwable borrowSite;
+        private volatile boolean writer;
+        // Only touched by the thread holding the connection
+        private boolean onReplica;
+        private int initializedRoutes;
+
+        PooledEntry(PooledConnection pooledConnection) {
+            this.pooledConnection = pooledConnection;
+        }
+
+        void markBorrowed(boolean writer, boolean captureBorrowSite) {
+            this.writer = writer;
+            inUse.set(true);
+            leakReported = false;
+            borrowSite = captureBorrowSite ? new Throwable("Connection borrowed here") : null;
+            borrowedAt = System.currentTimeMillis();
+        }
+
+        boolean markReturned() {
+            if (!inUse.compareAndSet(true, false)) {
+                return false;
+            }
+            borrowedAt = 0;
+            borrowSite = null;
+            lastReturned = System.currentTimeMillis();
+            return true;
+        }
+    }
+}
@@ -9,22 +9,78 @@ package com.furever.database;
  * @author jerimiahtongco
  */
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Database connection class for the Pet Adoption System
  * Handles database connection establishment and management
+ * Connections are served from a bounded pool; closing a connection returns it to the pool
+ *
+ * Read/write splitting: when replicas are listed in the furever.db.replicas system property
+ * (comma-separated host:port), the pool connects through the connector's replication URL.
+ * getConnection() always goes to the source; getReadConnection() may be served by a replica,
+ * depending on the read consistency in effect:
+ * - EVENTUAL: any replica, possibly a little behind the source
+ * - READ_YOUR_WRITES (default): a replica, unless a write connection was returned within
+ *   furever.db.replicaLagMs milliseconds (default 2000), so the user sees their own changes
+ * - PRIMARY: always the source
+ * The consistency can be set for a single call with withReadConsistency().
+ *
+ * When OperationMetrics is enabled, every connection handed out is instrumented by it,
+ * which times the CRUD operation that borrowed it.
  */
 public class DbConnection {
     
     // Database configuration
-    private static final String DB_URL = "jdbc:mysql://localhost:3306/furever";
+    private static final String DB_HOST = "localhost:3306";
+    private static final String DB_NAME = "furever";
+    private static final String DB_URL = buildUrl(System.getProperty("furever.db.replicas", "").trim());
     private static final String DB_USERNAME = "root";
     private static final String DB_PASSWORD = "";
     private static final String DRIVER = "com.mysql.cj.jdbc.Driver";
     
-    private static Connection connection = null;
+    // Connection pool configuration
+    private static final int POOL_MIN_SIZE = 2;
+    private static final int POOL_MAX_SIZE = 10;
+    private static final long POOL_BORROW_TIMEOUT_MS = 10_000;
+    private static final long POOL_IDLE_TIMEOUT_MS = 300_000;
+    private static final long POOL_LEAK_THRESHOLD_MS = 60_000;
+    private static final int POOL_VALIDATION_TIMEOUT_SECONDS = 2;
+    
+    // Client-side statement cache, kept per physical connection and reused across borrows.
+    // Server-side prepared statements are not used: the pool resets the session on every
+    // borrow (COM_RESET_CONNECTION), which deallocates them on the server
+    private static final String STATEMENT_CACHE_PROPERTIES =
+            "cachePrepStmts=true&prepStmtCacheSize=250&prepStmtCacheSqlLimit=2048";
+    // Statement executions are timed by the driver itself rather than by wrapping statements;
+    // a constant, because DB_URL is built before the other static fields are initialized
+    private static final String INTERCEPTOR_PROPERTIES =
+            "queryInterceptors=com.furever.database.ExecutionInterceptor";
+    
+    private static final long REPLICA_LAG_WINDOW_MS = Long.getLong("furever.db.replicaLagMs", 2000L);
+    
+    private static volatile ConnectionPool pool = null;
+    // Run in order on each physical connection; the telemetry bridge is always first
+    private static final List<ConnectionPool.ConnectionInitializer> CONNECTION_INITIALIZERS =
+            new CopyOnWriteArrayList<>(List.of(DriverTelemetryBridge::install));
+    private static final ThreadLocal<ReadConsistency> READ_CONSISTENCY = new ThreadLocal<>();
+    
+    /**
+     * How fresh the data returned by a read connection must be
+     */
+    public enum ReadConsistency {
+        EVENTUAL, READ_YOUR_WRITES, PRIMARY
+    }
+    
+    /**
+     * Work run under a read consistency; may throw the caller's checked exception
+     */
+    @FunctionalInterface
+    public interface ReadAction<T, E extends Exception> {
+        T run() throws E;
+    }
     
     /**
      * Private constructor to prevent instantiation
@@ -32,41 +88,158 @@ public class DbConnection {
     private DbConnection() {}
     
     /**
-     * Establishes and returns a database connection
-     * @return Connection object
+     * Borrows a connection from the connection pool, creating the pool on first use
+     * @return Connection object; close it to return it to the pool
      * @throws SQLException if connection fails
      */
     public static Connection getConnection() throws SQLException {
+        long borrowStart = System.nanoTime();
         try {
-            // Load MySQL JDBC driver
-            Class.forName(DRIVER);
-            
-            // Create connection if it doesn't exist or is closed
-            if (connection == null || connection.isClosed()) {
-                connection = DriverManager.getConnection(DB_URL, DB_USERNAME, DB_PASSWORD);
-                // Connection established - ready for database operations
-            }
-            
-            return connection;
-            
-        } catch (ClassNotFoundException e) {
-            throw new SQLException("MySQL JDBC Driver not found. Please add mysql-connector-java to your classpath.", e);
+            return OperationMetrics.instrument(getPool().getConnection(), borrowStart);
         } catch (SQLException e) {
+            OperationMetrics.borrowFailed(borrowStart);
             throw new SQLException("Failed to establish database connection: " + e.getMessage(), e);
         }
     }
     
     /**
-     * Closes the database connection
+     * Borrows a read-only connection using the consistency set by withReadConsistency(),
+     * or READ_YOUR_WRITES if none is set
+     * @return Connection object; close it to return it to the pool
+     * @throws SQLException if connection fails
      */
-    public static void closeConnection() {
+    public static Connection getReadConnection() throws SQLException {
+        return getReadConnection(getReadConsistency());
+    }
+    
+    /**
+     * Gets the read consistency in effect on this thread
+     * Lets work handed to another thread keep the consistency of the thread that started it
+     * @return consistency set by withReadConsistency(), or READ_YOUR_WRITES if none is set
+     */
+    public static ReadConsistency getReadConsistency() {
+        ReadConsistency consistency = READ_CONSISTENCY.get();
+        return consistency != null ? consistency : ReadConsistency.READ_YOUR_WRITES;
+    }
+    
+    /**
+     * Borrows a read-only connection, from a replica when the consistency allows it
+     * The connection must only be used for reading
+     * @param consistency Required freshness of the data
+     * @return Connection object; close it to return it to the pool
+     * @throws SQLException if connection fails
+     */
+    public static Connection getReadConnection(ReadConsistency consistency) throws SQLException {
+        long borrowStart = System.nanoTime();
         try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                // Connection closed successfully
-            }
+            ConnectionPool current = getPool();
+            return OperationMetrics.instrument(current.getReadConnection(isReplicaAllowed(current, consistency)), borrowStart);
         } catch (SQLException e) {
-            System.err.println("Error closing database connection: " + e.getMessage());
+            OperationMetrics.borrowFailed(borrowStart);
+            throw new SQLException("Failed to establish database connection: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Runs an action with a read consistency for every getReadConnection() it makes on this thread
+     * @param consistency Read consistency to apply
+     * @param action Action to run, typically one or more CRUD reads
+     * @return the action's result
+     * @throws E if the action throws
+     */
+    public static <T, E extends Exception> T withReadConsistency(ReadConsistency consistency, ReadAction<T, E> action) throws E {
+        ReadConsistency previous = READ_CONSISTENCY.get();
+        READ_CONSISTENCY.set(consistency);
+        try {
+            return action.run();
+        } finally {
+            if (previous != null) {
+                READ_CONSISTENCY.set(previous);
+            } else {
+                READ_CONSISTENCY.remove();
+            }
+        }
+    }
+    
+    /**
+     * Gets the consistency to use for reads that follow a write made at the given time
+     * Lets callers that track their own writes (such as API sessions) keep read-your-writes
+     * without being held back by other users' writes
+     * @param lastWriteMillis Time of the caller's last write, or 0 if none
+     * @return PRIMARY within the replica lag window of that write, EVENTUAL after it
+     */
+    public static ReadConsistency consistencyAfterWrite(long lastWriteMillis) {
+        return System.currentTimeMillis() - lastWriteMillis < REPLICA_LAG_WINDOW_MS
+                ? ReadConsistency.PRIMARY : ReadConsistency.EVENTUAL;
+    }
+    
+    private static boolean isReplicaAllowed(ConnectionPool current, ReadConsistency consistency) {
+        if (!current.isReplicated()) {
+            return false;
+        }
+        switch (consistency) {
+            case EVENTUAL:
+                return true;
+            case PRIMARY:
+                return false;
+            default:
+                return consistencyAfterWrite(current.getLastWriteMillis()) == ReadConsistency.EVENTUAL;
+        }
+    }
+    
+    /**
+     * Gets the connection pool, creating it if it doesn't exist or was closed
+     * @return ConnectionPool instance
+     * @throws SQLException if the pool cannot be created
+     */
+    public static ConnectionPool getPool() throws SQLException {
+        ConnectionPool current = pool;
+        if (current != null) {
+            return current;
+        }
+        
+        synchronized (DbConnection.class) {
+            if (pool == null) {
+                try {
+                    // Load MySQL JDBC driver
+                    Class.forName(DRIVER);
+                } catch (ClassNotFoundException e) {
+                    throw new SQLException("MySQL JDBC Driver not found. Please add mysql-connector-java to your classpath.", e);
+                }
+                
+                pool = ConnectionPool.create(DB_URL, DB_USERNAME, DB_PASSWORD,
+                        POOL_MIN_SIZE, POOL_MAX_SIZE, POOL_BORROW_TIMEOUT_MS,
+                        POOL_IDLE_TIMEOUT_MS, POOL_LEAK_THRESHOLD_MS, POOL_VALIDATION_TIMEOUT_SECONDS);
+                pool.setConnectionInitializer(DbConnection::initializeConnection);
+            }
+            return pool;
+        }
+    }
+    
+    /**
+     * Adds an initializer run on each pooled connection the first time it is handed out,
+     * after the initializers added before it; kept for pools created later
+     * @param initializer Initializer to add
+     */
+    public static void addConnectionInitializer(ConnectionPool.ConnectionInitializer initializer) {
+        CONNECTION_INITIALIZERS.add(initializer);
+    }
+    
+    private static void initializeConnection(Connection connection) throws SQLException {
+        for (ConnectionPool.ConnectionInitializer initializer : CONNECTION_INITIALIZERS) {
+            initializer.initialize(connection);
+        }
+    }
+    
+    /**
+     * Closes the connection pool and all of its connections
+     */
+    public static void closeConnection() {
+        synchronized (DbConnection.class) {
+            if (pool != null) {
+                pool.close();
+                pool = null;
+            }
         }
     }
     
@@ -75,8 +248,7 @@ public class DbConnection {
      * @return true if connection is successful, false otherwise
      */
     public static boolean testConnection() {
-        try {
-            Connection testConn = getConnection();
+        try (Connection testConn = getConnection()) {
             return testConn != null && !testConn.isClosed();
         } catch (SQLException e) {
             System.err.println("Database connection test failed: " + e.getMessage());
@@ -92,6 +264,29 @@ public class DbConnection {
         return DB_URL;
     }
     
+    /**
+     * Tells whether reads can be served by replicas
+     * @return true if replicas are configured
+     */
+    public static boolean isReplicated() {
+        return DB_URL.startsWith("jdbc:mysql:replication:");
+    }
+    
+    /**
+     * Builds the JDBC URL: a plain URL without replicas, otherwise a replication URL
+     * whose first host is the source
+     * @param replicas Comma-separated replica host:port list, or empty
+     * @return JDBC URL
+     */
+    private static String buildUrl(String replicas) {
+        if (replicas.isEmpty()) {
+            return "jdbc:mysql://" + DB_HOST + "/" + DB_NAME + "?" + STATEMENT_CACHE_PROPERTIES + "&" + INTERCEPTOR_PROPERTIES;
+        }
+        // Fall back to the source for reads while no replica is reachable
+        return "jdbc:mysql:replication://" + DB_HOST + "," + replicas.replaceAll("\\s+", "") + "/" + DB_NAME
+                + "?readFromSourceWhenNoReplicas=true&" + STATEMENT_CACHE_PROPERTIES + "&" + INTERCEPTOR_PROPERTIES;
+    }
+    
     /**
      * Gets the database username
      * @return database username
@@ -0,0 +1,146 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.furever.database;
+
+/**
+ *
+ * @author jerimiahtongco
+ */
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+import com.mysql.cj.Session;
+import com.mysql.cj.jdbc.JdbcConnection;
+import com.mysql.cj.telemetry.NoopTelemetryHandler;
+import com.mysql.cj.telemetry.TelemetryAttribute;
+import com.mysql.cj.telemetry.TelemetryHandler;
+import com.mysql.cj.telemetry.TelemetryScope;
+import com.mysql.cj.telemetry.TelemetrySpan;
+import com.mysql.cj.telemetry.TelemetrySpanName;
+
+/**
+ * Connector telemetry handler that records the driver's own spans (prepare, execute,
+ * fetch, commit, ...) under the CRUD operation running on the same thread
+ * Wraps the handler the connector chose for the session, so spans still reach
+ * OpenTelemetry when it is on the classpath.
+ */
+final class DriverTelemetryBridge implements TelemetryHandler {
+
+    private final TelemetryHandler delegate;
+
+    private DriverTelemetryBridge(TelemetryHandler delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Installs the bridge on the session behind a pooled connection
+     * Run by the pool once per route of each physical connection
+     * @param connection Connection handed out by the pool
+     * @throws SQLException if the connection is not a Connector/J connection
+     */
+    static void install(Connection connection) throws SQLException {
+        if (!OperationMetrics.isEnabled()) {
+            return;
+        }
+        Session session = connection.unwrap(JdbcConnection.class).getSession();
+        TelemetryHandler current = session.getTelemetryHandler();
+        if (!(current instanceof DriverTelemetryBridge)) {
+            session.setTelemetryHandler(new DriverTelemetryBridge(current != null ? current : NoopTelemetryHandler.getInstance()));
+        }
+    }
+
+    @Override
+    public TelemetrySpan startSpan(TelemetrySpanName spanName, Object... args) {
+        OperationMetrics metrics = OperationMetrics.getInstance();
+        return new BridgeSpan(delegate.startSpan(spanName, args), spanName.name(), metrics, metrics.getCurrentSpan());
+    }
+
+    @Override
+    public void addLinkTarget(TelemetrySpan span) {
+        delegate.addLinkTarget(unwrap(span));
+    }
+
+    @Override
+    public void removeLinkTarget(TelemetrySpan span) {
+        delegate.removeLinkTarget(unwrap(span));
+    }
+
+    @Override
+    public void propagateContext(BiConsumer<String, String> traceparentConsumer) {
+        delegate.propagateContext(traceparentConsumer);
+    }
+
+    @Override
+    public String getContextPropagationKey() {
+        return delegate.getContextPropagationKey();
+    }
+
+    private static TelemetrySpan unwrap(TelemetrySpan span) {
+        return span instanceof BridgeSpan ? ((BridgeSpan) span).delegate : span;
+    }
+
+    /**
+     * Driver span that times itself and forwards everything to the wrapped span
+     */
+    private static final class BridgeSpan implements TelemetrySpan {
+        private final TelemetrySpan delegate;
+        private final String name;
+        private final OperationMetrics metrics;
+        private final OperationMetrics.Span parent;
+        private final long startNanos = System.nanoTime();
+        private boolean ended = false;
+
+        BridgeSpan(TelemetrySpan delegate, String name, OperationMetrics metrics, OperationMetrics.Span parent) {
+            this.delegate = delegate;
+            this.name = name;
+            this.metrics = metrics;
+            this.parent = parent;
+        }
+
+        @Override
+        public TelemetryScope makeCurrent() {
+            return delegate.makeCurrent();
+        }
+
+        @Override
+        public void setAttribute(TelemetryAttribute key, String value) {
+            delegate.setAttribute(key, value);
+        }
+
+        @Override
+        public void setAttribute(TelemetryAttribute key, long value) {
+            delegate.setAttribute(key, value);
+        }
+
+        @Override
+        public <T> void setAttribute(TelemetryAttribute key, Supplier<T> valueSupplier) {
+            delegate.setAttribute(key, valueSupplier);
+        }
+
+        @Override
+        public void setError(Throwable cause) {
+            if (parent != null) {
+                parent.fail();
+            }
+            delegate.setError(cause);
+        }
+
+        @Override
+        public void end() {
+            if (!ended) {
+                ended = true;
+                metrics.recordDriverSpan(parent, name, (System.nanoTime() - startNanos) / 1000);
+            }
+            delegate.end();
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+}
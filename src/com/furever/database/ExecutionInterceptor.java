@@ -0,0 +1,105 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.furever.database;
+
+/**
+ *
+ * @author jerimiahtongco
+ */
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+import com.mysql.cj.MysqlConnection;
+import com.mysql.cj.PreparedQuery;
+import com.mysql.cj.Query;
+import com.mysql.cj.interceptors.QueryInterceptor;
+import com.mysql.cj.log.Log;
+import com.mysql.cj.protocol.Resultset;
+import com.mysql.cj.protocol.ServerSession;
+
+/**
+ * Connector query interceptor that times every prepared statement execution and reports
+ * the rows it returned or changed to OperationMetrics
+ * Enabled through the queryInterceptors property of the connection URL; the connector
+ * creates one instance per physical connection and calls it on the executing thread,
+ * around the round trip to the server. A failed execution reaches postProcess without
+ * a result. Listeners must be cheap, they run on every execution.
+ */
+public final class ExecutionInterceptor implements QueryInterceptor {
+
+    private static final List<ExecutionListener> LISTENERS = new CopyOnWriteArrayList<>();
+
+    private long startNanos;
+
+    /**
+     * Receives the SQL text and duration of each prepared statement execution
+     */
+    @FunctionalInterface
+    public interface ExecutionListener {
+        void executed(String sql, long elapsedNanos, boolean failed);
+    }
+
+    /**
+     * Created by the connector for each connection
+     */
+    public ExecutionInterceptor() {}
+
+    /**
+     * Adds a listener called after every prepared statement execution on any connection
+     * @param listener Listener to add
+     */
+    public static void addListener(ExecutionListener listener) {
+        LISTENERS.add(listener);
+    }
+
+    @Override
+    public QueryInterceptor init(MysqlConnection conn, Properties props, Log log) {
+        return this;
+    }
+
+    @Override
+    public <T extends Resultset> T preProcess(Supplier<String> sql, Query interceptedQuery) {
+        startNanos = System.nanoTime();
+        return null;
+    }
+
+    @Override
+    public boolean executeTopLevelOnly() {
+        return true;
+    }
+
+    @Override
+    public void destroy() {}
+
+    @Override
+    public <T extends Resultset> T postProcess(Supplier<String> sql, Query interceptedQuery, T originalResultSet, ServerSession serverSession) {
+        if (interceptedQuery == null) {
+            // Issued by the driver itself, not by a statement
+            return null;
+        }
+        OperationMetrics.recordExecution(rowsOf(originalResultSet), originalResultSet == null);
+        if (interceptedQuery instanceof PreparedQuery) {
+            long elapsedNanos = System.nanoTime() - startNanos;
+            String originalSql = ((PreparedQuery) interceptedQuery).getOriginalSql();
+            for (ExecutionListener listener : LISTENERS) {
+                listener.executed(originalSql, elapsedNanos, originalResultSet == null);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the rows a result returned or changed; streamed results report -1 rows here
+     */
+    private static long rowsOf(Resultset result) {
+        if (result == null) {
+            return 0;
+        }
+        long rows = result.hasRows() ? result.getRows().size() : result.getUpdateCount();
+        return Math.max(0, rows);
+    }
+}
@@ -0,0 +1,552 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.furever.database;
+
+/**
+ *
+ * @author jerimiahtongco
+ */
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import com.furever.utils.LatencyHistogram;
+
+/**
+ * Latency, throughput, error and row metrics for every CRUD operation
+ *
+ * Every connection handed out by DbConnection is tracked as part of an operation span. The
+ * operation is named after the outermost com.furever.crud method on the borrowing thread's
+ * stack, so a cascade that calls other CRUD classes is counted once under its own name.
+ * Connections borrowed while a span is open join that span, and the span ends when the
+ * last of them is closed. Each span records its latency, the time spent waiting for a
+ * pooled connection, the rows read or changed, and whether any JDBC call failed.
+ * Only the connection is wrapped: rows and failed executions are reported by the driver
+ * through ExecutionInterceptor, and driver-level spans through DriverTelemetryBridge, both
+ * recorded under the operation open on the executing thread. Streamed results have no row
+ * count until they are read, so streaming readers report their rows with addRows().
+ *
+ * Naming an operation walks the borrowing thread's stack, so recording is off by default.
+ * Operations that are answered from a cache never borrow a connection and are not recorded.
+ * Enable with -Dfurever.metrics=true. Exposed over JMX as com.furever:type=OperationMetrics.
+ */
+public final class OperationMetrics implements OperationMetricsMXBean {
+
+    private static final boolean ENABLED = Boolean.getBoolean("furever.metrics");
+    private static final String OBJECT_NAME = "com.furever:type=OperationMetrics";
+    private static final String CRUD_PACKAGE = "com.furever.crud.";
+    // Plumbing classes in the CRUD package that never name an operation themselves
+    private static final List<String> CRUD_INFRASTRUCTURE = List.of(
+            CRUD_PACKAGE + "StatementCatalog", CRUD_PACKAGE + "AsyncCRUD", CRUD_PACKAGE + "RowMapper");
+    private static final int MAX_OPERATIONS = 500;
+    private static final String OVERFLOW_OPERATION = "(other)";
+    private static final String NO_OPERATION = "(outside operations)";
+
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+    private static volatile OperationMetrics instance = null;
+
+    private final Map<String, OperationStats> operations = new ConcurrentHashMap<>();
+    private final LatencyHistogram connectionWait = new LatencyHistogram();
+    private final LongAdder borrowFailures = new LongAdder();
+    private final ThreadLocal<Span> currentSpan = new ThreadLocal<>();
+    private volatile long sinceMillis = System.currentTimeMillis();
+
+    private OperationMetrics() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            System.err.println("Error registering operation metrics with JMX: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Gets the metrics of this process, registering them with JMX on first use
+     * @return OperationMetrics instance
+     */
+    public static OperationMetrics getInstance() {
+        OperationMetrics current = instance;
+        if (current != null) {
+            return current;
+        }
+        synchronized (OperationMetrics.class) {
+            if (instance == null) {
+                instance = new OperationMetrics();
+            }
+            return instance;
+        }
+    }
+
+    /**
+     * Tells whether connections are instrumented
+     * @return true if enabled with -Dfurever.metrics=true
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    // ==================== RECORDING ====================
+
+    /**
+     * Wraps a freshly borrowed connection so that its use is recorded
+     * @param connection Connection returned by the pool
+     * @param borrowStartNanos System.nanoTime() when the borrow started
+     * @return instrumented connection, or the connection itself if metrics are disabled
+     */
+    static Connection instrument(Connection connection, long borrowStartNanos) {
+        return ENABLED ? getInstance().track(connection, borrowStartNanos) : connection;
+    }
+
+    /**
+     * Records a borrow that failed, counting it as an error of the borrowing operation
+     * @param borrowStartNanos System.nanoTime() when the borrow started
+     */
+    static void borrowFailed(long borrowStartNanos) {
+        if (!ENABLED) {
+            return;
+        }
+        OperationMetrics metrics = getInstance();
+        long elapsedNanos = System.nanoTime() - borrowStartNanos;
+        metrics.borrowFailures.increment();
+        metrics.connectionWait.record(elapsedNanos / 1000);
+
+        Span span = metrics.currentSpan.get();
+        if (span != null) {
+            span.failed = true;
+        } else {
+            OperationStats stats = metrics.stats(resolveOperation());
+            stats.latency.record(elapsedNanos / 1000);
+            stats.waitMicros.add(elapsedNanos / 1000);
+            stats.errors.increment();
+        }
+    }
+
+    /**
+     * Adds rows read from a streamed result to the operation open on this thread
+     * The driver cannot count a streamed result, so streaming readers report it when done
+     * @param rows Rows read
+     */
+    public static void addRows(long rows) {
+        OperationMetrics current = instance;
+        Span span = ENABLED && current != null ? current.currentSpan.get() : null;
+        if (span != null) {
+            span.rows += rows;
+        }
+    }
+
+    /**
+     * Records one statement execution under the operation open on this thread
+     * @param rows Rows returned or changed, 0 if unknown
+     * @param failed Whether the execution failed
+     */
+    static void recordExecution(long rows, boolean failed) {
+        OperationMetrics current = instance;
+        Span span = ENABLED && current != null ? current.currentSpan.get() : null;
+        if (span != null) {
+            span.rows += rows;
+            if (failed) {
+                span.fail();
+            }
+        }
+    }
+
+    /**
+     * Gets the span open on this thread, for driver spans to nest under
+     * @return current span, or null outside an operation
+     */
+    Span getCurrentSpan() {
+        return currentSpan.get();
+    }
+
+    /**
+     * Records a driver-level span under an operation
+     * @param parent Operation span that was open when the driver span started, or null
+     * @param name Driver span name
+     * @param micros Duration of the driver span
+     */
+    void recordDriverSpan(Span parent, String name, long micros) {
+        OperationStats stats = parent != null ? parent.stats : stats(NO_OPERATION);
+        stats.driverSpans.computeIfAbsent(name, k -> new LatencyHistogram()).record(micros);
+    }
+
+    private Connection track(Connection connection, long borrowStartNanos) {
+        long waitNanos = System.nanoTime() - borrowStartNanos;
+        connectionWait.record(waitNanos / 1000);
+
+        Span span = currentSpan.get();
+        if (span == null) {
+            span = new Span(stats(resolveOperation()), borrowStartNanos);
+            currentSpan.set(span);
+        }
+        span.depth++;
+        span.waitNanos += waitNanos;
+        return proxy(Connection.class, new ConnectionHandler(connection, span));
+    }
+
+    private void release(Span span) {
+        if (--span.depth > 0) {
+            return;
+        }
+        long elapsedMicros = (System.nanoTime() - span.startNanos) / 1000;
+        OperationStats stats = span.stats;
+        stats.latency.record(elapsedMicros);
+        stats.waitMicros.add(span.waitNanos / 1000);
+        stats.rows.add(span.rows);
+        if (span.failed) {
+            stats.errors.increment();
+        }
+        if (currentSpan.get() == span) {
+            currentSpan.remove();
+        }
+    }
+
+    private OperationStats stats(String operation) {
+        OperationStats stats = operations.get(operation);
+        if (stats != null) {
+            return stats;
+        }
+        if (operations.size() >= MAX_OPERATIONS) {
+            operation = OVERFLOW_OPERATION;
+        }
+        return operations.computeIfAbsent(operation, OperationStats::new);
+    }
+
+    /**
+     * Names the operation after the outermost CRUD method on the stack, or the nearest
+     * caller outside this package if no CRUD method is involved
+     */
+    private static String resolveOperation() {
+        return STACK_WALKER.walk(frames -> {
+            String crudOperation = null;
+            String caller = null;
+            Iterator<StackWalker.StackFrame> it = frames.iterator();
+            while (it.hasNext()) {
+                StackWalker.StackFrame frame = it.next();
+                String className = frame.getClassName();
+                String methodName = frame.getMethodName();
+                if (methodName.startsWith("lambda$") || className.startsWith("java.")
+                        || className.equals(DbConnection.class.getName())
+                        || className.equals(OperationMetrics.class.getName())) {
+                    continue;
+                }
+                if (className.startsWith(CRUD_PACKAGE)) {
+                    if (!CRUD_INFRASTRUCTURE.contains(className)) {
+                        crudOperation = label(className, methodName);
+                    }
+                } else if (caller == null) {
+                    caller = label(className, methodName);
+                }
+            }
+            return crudOperation != null ? crudOperation : caller != null ? caller : NO_OPERATION;
+        });
+    }
+
+    private static String label(String className, String methodName) {
+        return className.substring(className.lastIndexOf('.') + 1) + "." + methodName;
+    }
+
+    // ==================== READING ====================
+
+    /**
+     * Gets the statistics of every recorded operation
+     * @return operations, most total time first
+     */
+    public List<OperationStats> getOperations() {
+        List<OperationStats> result = new ArrayList<>(operations.values());
+        result.sort(Comparator.comparingLong(OperationStats::getTotalMicros).reversed());
+        return result;
+    }
+
+    /**
+     * Gets the time borrows waited for a pooled connection, in microseconds
+     * @return connection wait histogram
+     */
+    public LatencyHistogram getConnectionWait() {
+        return connectionWait;
+    }
+
+    /**
+     * Gets the time the metrics were started or last reset
+     * @return epoch milliseconds
+     */
+    public long getSinceMillis() {
+        return sinceMillis;
+    }
+
+    /**
+     * Builds a text report of every operation and its driver spans
+     * @return report lines
+     */
+    public List<String> describe() {
+        List<String> lines = new ArrayList<>();
+        List<OperationStats> stats = getOperations();
+        lines.add("Operation metrics since " + new Timestamp(sinceMillis).toString().substring(0, 19)
+                + ": " + stats.size() + " operation(s), " + getTotalCalls() + " call(s), " + getTotalErrors() + " error(s)");
+        lines.add(String.format("Connection wait: avg %.0f us, p50 %d us, p99 %d us, max %d us, %d failed borrow(s)",
+                connectionWait.getMean(), connectionWait.getPercentile(50), connectionWait.getPercentile(99),
+                connectionWait.getMax(), borrowFailures.sum()));
+        lines.add("");
+        lines.add(String.format("%-48s %8s %6s %9s %9s %9s %9s %9s %10s",
+                "Operation", "Calls", "Err%", "Avg ms", "p50 ms", "p99 ms", "Max ms", "Wait ms", "Rows"));
+        lines.add("-".repeat(124));
+        for (OperationStats operation : stats) {
+            lines.add(String.format("%-48s %8d %6.1f %9.2f %9.2f %9.2f %9.2f %9.2f %10d",
+                    operation.getLabel(48), operation.getCount(), operation.getErrorRate() * 100,
+                    operation.getAverageMicros() / 1000.0, operation.getPercentileMicros(50) / 1000.0,
+                    operation.getPercentileMicros(99) / 1000.0, operation.getMaxMicros() / 1000.0,
+                    operation.getAverageWaitMicros() / 1000.0, operation.getRows()));
+            for (Map.Entry<String, LatencyHistogram> driver : operation.getDriverSpans().entrySet()) {
+                LatencyHistogram histogram = driver.getValue();
+                lines.add(String.format("    %-44s %8d %6s %9.2f %9.2f %9.2f %9.2f",
+                        driver.getKey(), histogram.getCount(), "",
+                        histogram.getMean() / 1000.0, histogram.getPercentile(50) / 1000.0,
+                        histogram.getPercentile(99) / 1000.0, histogram.getMax() / 1000.0));
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Writes the report to a file, replacing it if it exists
+     * @param path File to write
+     * @return true if the file was written
+     */
+    public boolean dumpToFile(Path path) {
+        try {
+            Files.write(path, describe());
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error writing operation metrics to " + path + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    // ==================== JMX ====================
+
+    @Override
+    public long getOperationCount() {
+        return operations.size();
+    }
+
+    @Override
+    public long getTotalCalls() {
+        long total = 0;
+        for (OperationStats stats : operations.values()) {
+            total += stats.getCount();
+        }
+        return total;
+    }
+
+    @Override
+    public long getTotalErrors() {
+        long total = 0;
+        for (OperationStats stats : operations.values()) {
+            total += stats.getErrorCount();
+        }
+        return total;
+    }
+
+    @Override
+    public long getTotalRows() {
+        long total = 0;
+        for (OperationStats stats : operations.values()) {
+            total += stats.getRows();
+        }
+        return total;
+    }
+
+    @Override
+    public double getConnectionWaitAverageMicros() {
+        return connectionWait.getMean();
+    }
+
+    @Override
+    public long getConnectionWaitP99Micros() {
+        return connectionWait.getPercentile(99);
+    }
+
+    @Override
+    public long getConnectionWaitMaxMicros() {
+        return connectionWait.getMax();
+    }
+
+    @Override
+    public long getBorrowFailures() {
+        return borrowFailures.sum();
+    }
+
+    @Override
+    public String[] getOperationSummaries() {
+        List<OperationStats> stats = getOperations();
+        String[] summaries = new String[stats.size()];
+        for (int i = 0; i < summaries.length; i++) {
+            OperationStats operation = stats.get(i);
+            summaries[i] = String.format("%s calls=%d errors=%d avgMs=%.2f p99Ms=%.2f maxMs=%.2f rows=%d",
+                    operation.getName(), operation.getCount(), operation.getErrorCount(),
+                    operation.getAverageMicros() / 1000.0, operation.getPercentileMicros(99) / 1000.0,
+                    operation.getMaxMicros() / 1000.0, operation.getRows());
+        }
+        return summaries;
+    }
+
+    @Override
+    public boolean dumpToFile(String path) {
+        return dumpToFile(Paths.get(path));
+    }
+
+    /**
+     * Clears every recorded operation and the connection wait histogram
+     * Spans open during the reset are not counted
+     */
+    @Override
+    public void reset() {
+        operations.clear();
+        connectionWait.reset();
+        borrowFailures.reset();
+        sinceMillis = System.currentTimeMillis();
+    }
+
+    // ==================== INSTRUMENTED CONNECTION ====================
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(OperationMetrics.class.getClassLoader(), new Class<?>[] { type }, handler);
+    }
+
+    /**
+     * Calls the real JDBC object, marking the span failed if the call throws an SQLException
+     */
+    private static Object call(Span span, Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof SQLException) {
+                span.failed = true;
+            }
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Connection handed to CRUD code; closing it ends its part of the span
+     */
+    private final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+        private final Span span;
+        private boolean closed = false;
+
+        ConnectionHandler(Connection target, Span span) {
+            this.target = target;
+            this.span = span;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if ("close".equals(name)) {
+                if (closed) {
+                    return null;
+                }
+                closed = true;
+                try {
+                    target.close();
+                } finally {
+                    release(span);
+                }
+                return null;
+            }
+            if ("isClosed".equals(name) && closed) {
+                return true;
+            }
+            return call(span, target, method, args);
+        }
+    }
+
+    /**
+     * One run of an operation on one thread, from its first borrow to its last close
+     */
+    static final class Span {
+        private final OperationStats stats;
+        private final long startNanos;
+        private int depth = 0;
+        private long waitNanos = 0;
+        private long rows = 0;
+        private volatile boolean failed = false;
+
+        Span(OperationStats stats, long startNanos) {
+            this.stats = stats;
+            this.startNanos = startNanos;
+        }
+
+        void fail() {
+            failed = true;
+        }
+    }
+
+    /**
+     * Inner class to represent the statistics of one operation
+     * Latencies are in microseconds and include the wait for a pooled connection
+     */
+    public static class OperationStats {
+        private final String name;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder waitMicros = new LongAdder();
+        private final Map<String, LatencyHistogram> driverSpans = new ConcurrentHashMap<>();
+
+        OperationStats(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Gets the operation name cut to a column width
+         * @param maxLength Maximum length
+         * @return name, with "..." when cut
+         */
+        public String getLabel(int maxLength) {
+            return name.length() <= maxLength ? name : name.substring(0, maxLength - 3) + "...";
+        }
+
+        public double getErrorRate() {
+            long count = latency.getCount();
+            return count == 0 ? 0 : (double) errors.sum() / count;
+        }
+
+        public double getAverageWaitMicros() {
+            long count = latency.getCount();
+            return count == 0 ? 0 : (double) waitMicros.sum() / count;
+        }
+
+        // Getters
+        public String getName() { return name; }
+        public long getCount() { return latency.getCount(); }
+        public long getErrorCount() { return errors.sum(); }
+        public long getRows() { return rows.sum(); }
+        public long getTotalMicros() { return latency.getTotal(); }
+        public double getAverageMicros() { return latency.getMean(); }
+        public long getPercentileMicros(double percentile) { return latency.getPercentile(percentile); }
+        public long getMaxMicros() { return latency.getMax(); }
+        public Map<String, LatencyHistogram> getDriverSpans() { return driverSpans; }
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.furever.database;
+
+/**
+ *
+ * @author jerimiahtongco
+ */
+
+/**
+ * JMX view of OperationMetrics, registered as com.furever:type=OperationMetrics
+ */
+public interface OperationMetricsMXBean {
+
+    long getOperationCount();
+
+    long getTotalCalls();
+
+    long getTotalErrors();
+
+    long getTotalRows();
+
+    double getConnectionWaitAverageMicros();
+
+    long getConnectionWaitP99Micros();
+
+    long getConnectionWaitMaxMicros();
+
+    long getBorrowFailures();
+
+    /**
+     * One line per operation, slowest total time first
+     */
+    String[] getOperationSummaries();
+
+    /**
+     * Writes the full report to a file
+     * @return true if the file was written
+     */
+    boolean dumpToFile(String path);
+
+    void reset();
+}
@@ -0,0 +1,289 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.furever.database;
+
+/**
+ *
+ * @author jerimiahtongco
+ */
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Versioned schema migrations applied on top of the furever.sql baseline
+ *
+ * Applied versions are recorded in tbl_schema_version. Migrations run in version order, each
+ * at most once, under a named lock so that two starting clients do not migrate at the same
+ * time. MySQL commits DDL implicitly, so every step checks whether its change is already in
+ * place; a migration interrupted half way is simply run again.
+ *
+ *   java com.furever.database.SchemaMigrator
+ */
+public class SchemaMigrator {
+
+    private static final String VERSION_TABLE = "tbl_schema_version";
+    private static final String LOCK_NAME = "furever_schema_migration";
+    private static final int LOCK_TIMEOUT_SECONDS = 60;
+
+    /**
+     * Every migration, in version order
+     */
+    private static final List<Migration> MIGRATIONS = List.of(
+        new Migration(1, "Composite indexes for the compound predicates of the CRUD queries",
+            // adoption_status = ? AND archived = false ORDER BY pet_id (lists and pages)
+            addIndex("tbl_pet", "idx_pet_status_archived", "adoption_status", "archived", "pet_id"),
+            dropIndex("tbl_pet", "idx_pet_adoption_status"),
+            // pet_owner_id = ? AND archived = false ORDER BY pet_id
+            addIndex("tbl_pet", "idx_pet_owner_archived", "pet_owner_id", "archived", "pet_id"),
+            dropIndex("tbl_pet", "idx_pet_owner"),
+            // status = ? ORDER BY request_date DESC
+            addIndex("tbl_adoption_request", "idx_request_status_date", "status", "request_date"),
+            dropIndex("tbl_adoption_request", "idx_request_status"),
+            // adopter_id = ? / pet_id = ? ORDER BY request_date DESC
+            addIndex("tbl_adoption_request", "idx_request_adopter_date", "adopter_id", "request_date"),
+            addIndex("tbl_adoption_request", "idx_request_pet_date", "pet_id", "request_date"),
+            // table_name = ? ORDER BY operation_date DESC LIMIT ?
+            addIndex("tbl_archive_log", "idx_archive_log_table_date", "table_name", "operation_date"),
+            dropIndex("tbl_archive_log", "idx_archive_log_table"),
+            // table_name = ? AND operation = 'PERMANENT_DELETE' AND operation_date >= ? (integrity scan)
+            addIndex("tbl_archive_log", "idx_archive_log_table_operation", "table_name", "operation", "operation_date"),
+            // pet_owner_id = ? ORDER BY archived_date DESC
+            addIndex("tbl_pet_archive", "idx_pet_archive_owner_date", "pet_owner_id", "archived_date"),
+            dropIndex("tbl_pet_archive", "idx_pet_archive_owner"),
+            // adopter_id = ? ORDER BY archived_date DESC
+            addIndex("tbl_adoption_request_archive", "idx_request_archive_adopter_date", "adopter_id", "archived_date"),
+            dropIndex("tbl_adoption_request_archive", "idx_request_archive_adopter")),
+        new Migration(2, "Change outbox tailed by other clients of the change feed",
+            // outbox_id > ? ORDER BY outbox_id LIMIT ? (tailing); created_at < ? (retention)
+            createTable("tbl_change_outbox",
+                "outbox_id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY, " +
+                "event_type VARCHAR(32) NOT NULL, " +
+                "entity_id INT NOT NULL, " +
+                "pet_id INT NOT NULL, " +
+                "adopter_id INT NULL, " +
+                "status VARCHAR(20) NULL, " +
+                "created_at DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3), " +
+                "INDEX idx_change_outbox_created (created_at)"))
+    );
+
+    /**
+     * One change made by a migration
+     */
+    @FunctionalInterface
+    interface Step {
+        /**
+         * Applies the change unless it is already in place
+         * @return description of the change made, or null if there was nothing to do
+         */
+        String apply(Connection conn) throws SQLException;
+    }
+
+    /**
+     * A numbered set of schema changes
+     */
+    public static class Migration {
+        private final int version;
+        private final String description;
+        private final List<Step> steps;
+
+        Migration(int version, String description, Step... steps) {
+            this.version = version;
+            this.description = description;
+            this.steps = List.of(steps);
+        }
+
+        // Getters
+        public int getVersion() { return version; }
+        public String getDescription() { return description; }
+    }
+
+    public static void main(String[] args) {
+        SchemaMigrator migrator = new SchemaMigrator();
+        int applied = migrator.migrate();
+        DbConnection.closeConnection();
+        if (applied < 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Applies every pending migration
+     * @return number of migrations applied, or -1 if a migration failed
+     */
+    public int migrate() {
+        try (Connection conn = DbConnection.getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            if (!acquireLock(conn)) {
+                System.err.println("Another client is migrating the schema; try again later.");
+                return -1;
+            }
+            try {
+                stmt.executeUpdate("CREATE TABLE IF NOT EXISTS " + VERSION_TABLE + " (" +
+                                   "version INT NOT NULL PRIMARY KEY, " +
+                                   "description VARCHAR(255) NOT NULL, " +
+                                   "applied_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP" +
+                                   ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4");
+
+                int current = getCurrentVersion(conn);
+                int applied = 0;
+                for (Migration migration : MIGRATIONS) {
+                    if (migration.version <= current) {
+                        continue;
+                    }
+                    System.out.println("Applying schema migration " + migration.version + ": " + migration.description);
+                    for (Step step : migration.steps) {
+                        String change = step.apply(conn);
+                        if (change != null) {
+                            System.out.println("  " + change);
+                        }
+                    }
+                    try (PreparedStatement pstmt = conn.prepareStatement(
+                            "INSERT INTO " + VERSION_TABLE + " (version, description) VALUES (?, ?)")) {
+                        pstmt.setInt(1, migration.version);
+                        pstmt.setString(2, migration.description);
+                        pstmt.executeUpdate();
+                    }
+                    applied++;
+                }
+                return applied;
+
+            } finally {
+                releaseLock(conn);
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error migrating schema: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Gets the versions that have not been applied yet
+     * @return pending migrations in version order, or an empty list if the version cannot be read
+     */
+    public List<Migration> getPendingMigrations() {
+        List<Migration> pending = new ArrayList<>();
+        try (Connection conn = DbConnection.getConnection()) {
+            int current = tableExists(conn, VERSION_TABLE) ? getCurrentVersion(conn) : 0;
+            for (Migration migration : MIGRATIONS) {
+                if (migration.version > current) {
+                    pending.add(migration);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error reading schema version: " + e.getMessage());
+        }
+        return pending;
+    }
+
+    /**
+     * Gets the latest migration version known to this build
+     * @return latest version
+     */
+    public static int getLatestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).version;
+    }
+
+    private static int getCurrentVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM " + VERSION_TABLE)) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static boolean acquireLock(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            pstmt.setString(1, LOCK_NAME);
+            pstmt.setInt(2, LOCK_TIMEOUT_SECONDS);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private static void releaseLock(Connection conn) {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            pstmt.setString(1, LOCK_NAME);
+            pstmt.executeQuery().close();
+        } catch (SQLException e) {
+            System.err.println("Error releasing schema migration lock: " + e.getMessage());
+        }
+    }
+
+    // ==================== STEPS ====================
+
+    /**
+     * Creates a table unless a table with that name exists
+     */
+    static Step createTable(String table, String definition) {
+        return conn -> {
+            if (tableExists(conn, table)) {
+                return null;
+            }
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("CREATE TABLE " + table + " (" + definition + ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4");
+            }
+            return "Created table " + table;
+        };
+    }
+
+    /**
+     * Adds a secondary index unless an index with that name exists
+     */
+    static Step addIndex(String table, String index, String... columns) {
+        return conn -> {
+            if (indexExists(conn, table, index)) {
+                return null;
+            }
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("ALTER TABLE " + table + " ADD INDEX " + index + " (" + String.join(", ", columns) + ")");
+            }
+            return "Added index " + table + "." + index + " (" + String.join(", ", columns) + ")";
+        };
+    }
+
+    /**
+     * Drops a secondary index made redundant by a composite index that starts with its columns
+     */
+    static Step dropIndex(String table, String index) {
+        return conn -> {
+            if (!indexExists(conn, table, index)) {
+                return null;
+            }
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("ALTER TABLE " + table + " DROP INDEX " + index);
+            }
+            return "Dropped index " + table + "." + index;
+        };
+    }
+
+    private static boolean indexExists(Connection conn, String table, String index) throws SQLException {
+        String sql = "SELECT 1 FROM information_schema.STATISTICS " +
+                     "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND INDEX_NAME = ? LIMIT 1";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, table);
+            pstmt.setString(2, index);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private static boolean tableExists(Connection conn, String table) throws SQLException {
+        String sql = "SELECT 1 FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, table);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+}
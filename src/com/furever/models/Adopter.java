@@ -46,6 +46,12 @@ public class Adopter {
         this.adopterPassword = adopterPassword;
     }
     
+    // Copy constructor
+    public Adopter(Adopter other) {
+        this(other.adopterId, other.adopterName, other.adopterContact, other.adopterEmail,
+             other.adopterAddress, other.adopterProfile, other.adopterUsername, other.adopterPassword);
+    }
+    
     // Getters and Setters
     public int getAdopterId() {
         return adopterId;
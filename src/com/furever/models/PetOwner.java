@@ -46,6 +46,12 @@ public class PetOwner {
         this.petOwnerPassword = petOwnerPassword;
     }
     
+    // Copy constructor
+    public PetOwner(PetOwner other) {
+        this(other.petOwnerId, other.petOwnerName, other.petOwnerContact, other.petOwnerEmail,
+             other.petOwnerAddress, other.petOwnerProfile, other.petOwnerUsername, other.petOwnerPassword);
+    }
+    
     // Getters and Setters
     public int getPetOwnerId() {
         return petOwnerId;
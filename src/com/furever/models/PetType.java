@@ -30,6 +30,11 @@ public class PetType {
         this.petTypeName = petTypeName;
     }
     
+    // Copy constructor
+    public PetType(PetType other) {
+        this(other.petTypeId, other.petTypeName);
+    }
+    
     // Getters and Setters
     public int getPetTypeId() {
         return petTypeId;
@@ -43,6 +43,12 @@ public class User {
         this.createdAt = createdAt;
     }
     
+    // Copy constructor
+    public User(User other) {
+        this(other.id, other.username, other.email, other.password, other.role,
+             other.createdAt != null ? new Timestamp(other.createdAt.getTime()) : null);
+    }
+    
     // Getters and Setters
     public int getId() {
         return id;
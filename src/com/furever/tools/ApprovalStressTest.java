@@ -0,0 +1,295 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.furever.tools;
+
+/**
+ *
+ * @author jerimiahtongco
+ */
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.furever.crud.AdoptionApprovalCRUD;
+import com.furever.database.DbConnection;
+
+/**
+ * Concurrent stress run for AdoptionApprovalCRUD
+ * Seeds a set of pets that each have several pending requests, lets many threads
+ * approve requests at random at the same time, then checks that every pet ended
+ * with exactly one approval and one adoption record. The seeded rows are removed
+ * afterwards. Run it against a development database:
+ *
+ *   java com.furever.tools.ApprovalStressTest [pets=10] [threads=16] [adopters=8] [skipLocked=false]
+ */
+public class ApprovalStressTest {
+
+    private static final String PET_NAME_PREFIX = "stress-approval-";
+
+    public static void main(String[] args) {
+        int petCount = intArg(args, "pets", 10);
+        int threadCount = intArg(args, "threads", 16);
+        int adoptersPerPet = intArg(args, "adopters", 8);
+        boolean skipLocked = Boolean.parseBoolean(stringArg(args, "skipLocked", "false"));
+
+        List<Integer> petIds = new ArrayList<>();
+        try {
+            List<Integer> requestIds = seed(petCount, adoptersPerPet, petIds);
+            System.out.println("Seeded " + petIds.size() + " pets with " + requestIds.size() + " pending requests");
+            run(requestIds, threadCount, skipLocked);
+            verify(petIds);
+        } catch (SQLException e) {
+            System.err.println("Error running approval stress test: " + e.getMessage());
+        } finally {
+            cleanup(petIds);
+            DbConnection.closeConnection();
+        }
+    }
+
+    /**
+     * Approves every seeded request from a pool of threads and prints throughput and latency
+     */
+    private static void run(List<Integer> requestIds, int threadCount, boolean skipLocked) {
+        Collections.shuffle(requestIds);
+        ConcurrentLinkedQueue<Integer> queue = new ConcurrentLinkedQueue<>(requestIds);
+        long[] latencies = new long[requestIds.size()];
+        Map<AdoptionApprovalCRUD.Outcome, Integer> outcomes = Collections.synchronizedMap(new EnumMap<>(AdoptionApprovalCRUD.Outcome.class));
+        long retriesBefore = AdoptionApprovalCRUD.getRetryCount();
+        Object latencyLock = new Object();
+        int[] completed = {0};
+
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch start = new CountDownLatch(1);
+        Date today = new Date(System.currentTimeMillis());
+
+        for (int t = 0; t < threadCount; t++) {
+            executor.submit(() -> {
+                AdoptionApprovalCRUD approvals = new AdoptionApprovalCRUD();
+                start.await();
+                Integer requestId;
+                while ((requestId = queue.poll()) != null) {
+                    long began = System.nanoTime();
+                    AdoptionApprovalCRUD.ApprovalResult result = skipLocked
+                            ? approvals.tryApprove(requestId, today, "Stress test approval", null)
+                            : approvals.approve(requestId, today, "Stress test approval", null);
+                    long elapsed = System.nanoTime() - began;
+                    outcomes.merge(result.getOutcome(), 1, Integer::sum);
+                    synchronized (latencyLock) {
+                        latencies[completed[0]++] = elapsed;
+                    }
+                }
+                return null;
+            });
+        }
+
+        long began = System.nanoTime();
+        start.countDown();
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        double seconds = (System.nanoTime() - began) / 1_000_000_000.0;
+
+        long[] sorted = Arrays.copyOf(latencies, completed[0]);
+        Arrays.sort(sorted);
+
+        System.out.println("\n=== APPROVAL STRESS RESULTS ===");
+        System.out.printf("Threads: %d, mode: %s%n", threadCount, skipLocked ? "FOR UPDATE SKIP LOCKED" : "FOR UPDATE");
+        System.out.printf("Attempts: %d in %.2f s (%.1f approvals attempted/s)%n", sorted.length, seconds, sorted.length / seconds);
+        for (Map.Entry<AdoptionApprovalCRUD.Outcome, Integer> entry : outcomes.entrySet()) {
+            System.out.printf("  %-20s %d%n", entry.getKey(), entry.getValue());
+        }
+        System.out.println("Deadlock/lock-wait retries: " + (AdoptionApprovalCRUD.getRetryCount() - retriesBefore));
+        System.out.printf("Latency p50 %.1f ms, p95 %.1f ms, p99 %.1f ms, max %.1f ms%n",
+                percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99), percentile(sorted, 1.0));
+    }
+
+    /**
+     * Checks that every seeded pet has exactly one approved request, no pending ones and one adoption record
+     */
+    private static void verify(List<Integer> petIds) throws SQLException {
+        String sql = "SELECT p.pet_id, p.adoption_status, " +
+                     "(SELECT COUNT(*) FROM tbl_adoption_request r WHERE r.pet_id = p.pet_id AND r.status = 'Approved') AS approved, " +
+                     "(SELECT COUNT(*) FROM tbl_adoption_request r WHERE r.pet_id = p.pet_id AND r.status = 'Pending') AS pending, " +
+                     "(SELECT COUNT(*) FROM tbl_adoption a WHERE a.pet_id = p.pet_id) AS adoptions " +
+                     "FROM tbl_pet p WHERE p.pet_id = ?";
+
+        int violations = 0;
+        try (Connection conn = DbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int petId : petIds) {
+                pstmt.setInt(1, petId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) {
+                        continue;
+                    }
+                    boolean ok = "Adopted".equals(rs.getString("adoption_status"))
+                            && rs.getInt("approved") == 1
+                            && rs.getInt("pending") == 0
+                            && rs.getInt("adoptions") == 1;
+                    if (!ok) {
+                        violations++;
+                        System.err.printf("Pet %d: status %s, %d approved, %d pending, %d adoption records%n",
+                                petId, rs.getString("adoption_status"), rs.getInt("approved"), rs.getInt("pending"), rs.getInt("adoptions"));
+                    }
+                }
+            }
+        }
+
+        if (violations == 0) {
+            System.out.println("Invariants held for all " + petIds.size() + " pets.");
+        } else {
+            System.err.println(violations + " pet(s) violated the one-approval invariant.");
+        }
+    }
+
+    /**
+     * Creates the pets and one pending request per adopter for each pet
+     * @param petIds Receives the IDs of the seeded pets, also on failure so they can be cleaned up
+     * @return IDs of the seeded requests
+     */
+    private static List<Integer> seed(int petCount, int adoptersPerPet, List<Integer> petIds) throws SQLException {
+        List<Integer> requestIds = new ArrayList<>();
+
+        try (Connection conn = DbConnection.getConnection()) {
+            int petOwnerId = firstId(conn, "SELECT pet_owner_id FROM tbl_pet_owner WHERE archived = 0 ORDER BY pet_owner_id LIMIT 1");
+            int petTypeId = firstId(conn, "SELECT pet_type_id FROM tbl_pet_type ORDER BY pet_type_id LIMIT 1");
+
+            List<Integer> adopterIds = new ArrayList<>();
+            try (PreparedStatement pstmt = conn.prepareStatement("SELECT adopter_id FROM tbl_adopter WHERE archived = 0 ORDER BY adopter_id LIMIT ?")) {
+                pstmt.setInt(1, adoptersPerPet);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        adopterIds.add(rs.getInt(1));
+                    }
+                }
+            }
+            if (adopterIds.size() < 2) {
+                throw new SQLException("At least two active adopters are needed to create contention");
+            }
+
+            String petSql = "INSERT INTO tbl_pet (pet_owner_id, pet_name, pet_type_id, adoption_status, date_registered) VALUES (?, ?, ?, 'Available', CURDATE())";
+            try (PreparedStatement pstmt = conn.prepareStatement(petSql, Statement.RETURN_GENERATED_KEYS)) {
+                long runId = System.currentTimeMillis();
+                for (int i = 0; i < petCount; i++) {
+                    pstmt.setInt(1, petOwnerId);
+                    pstmt.setString(2, PET_NAME_PREFIX + runId + "-" + i);
+                    pstmt.setInt(3, petTypeId);
+                    pstmt.executeUpdate();
+                    try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                        if (keys.next()) {
+                            petIds.add(keys.getInt(1));
+                        }
+                    }
+                }
+            }
+
+            String requestSql = "INSERT INTO tbl_adoption_request (pet_id, adopter_id, request_date, status) VALUES (?, ?, CURDATE(), 'Pending')";
+            try (PreparedStatement pstmt = conn.prepareStatement(requestSql, Statement.RETURN_GENERATED_KEYS)) {
+                for (int petId : petIds) {
+                    for (int adopterId : adopterIds) {
+                        pstmt.setInt(1, petId);
+                        pstmt.setInt(2, adopterId);
+                        pstmt.executeUpdate();
+                        try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                            if (keys.next()) {
+                                requestIds.add(keys.getInt(1));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        return requestIds;
+    }
+
+    /**
+     * Removes the seeded pets together with their requests and adoption records
+     */
+    private static void cleanup(List<Integer> petIds) {
+        if (petIds.isEmpty()) {
+            return;
+        }
+
+        StringBuilder in = new StringBuilder();
+        for (int i = 0; i < petIds.size(); i++) {
+            in.append(i == 0 ? "?" : ", ?");
+        }
+
+        String[] sqls = {
+            "DELETE FROM tbl_adoption WHERE pet_id IN (" + in + ")",
+            "DELETE FROM tbl_adoption_request WHERE pet_id IN (" + in + ")",
+            "DELETE FROM tbl_pet WHERE pet_id IN (" + in + ")"
+        };
+
+        try (Connection conn = DbConnection.getConnection()) {
+            for (String sql : sqls) {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < petIds.size(); i++) {
+                        pstmt.setInt(i + 1, petIds.get(i));
+                    }
+                    pstmt.executeUpdate();
+                }
+            }
+            System.out.println("Removed the seeded stress test data.");
+        } catch (SQLException e) {
+            System.err.println("Error removing stress test data (pet names start with " + PET_NAME_PREFIX + "): " + e.getMessage());
+        }
+    }
+
+    private static int firstId(Connection conn, String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            if (!rs.next()) {
+                throw new SQLException("No rows for: " + sql);
+            }
+            return rs.getInt(1);
+        }
+    }
+
+    private static double percentile(long[] sortedNanos, double fraction) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(fraction * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, Math.min(index, sortedNanos.length - 1))] / 1_000_000.0;
+    }
+
+    private static int intArg(String[] args, String name, int defaultValue) {
+        String value = stringArg(args, name, null);
+        try {
+            return value != null ? Integer.parseInt(value) : defaultValue;
+        } catch (NumberFormatException e) {
+            System.err.println("Ignoring invalid value for " + name + ": " + value);
+            return defaultValue;
+        }
+    }
+
+    private static String stringArg(String[] args, String name, String defaultValue) {
+        for (String arg : args) {
+            if (arg.startsWith(name + "=")) {
+                return arg.substring(name.length() + 1);
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -0,0 +1,415 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.furever.tools;
+
+/**
+ *
+ * @author jerimiahtongco
+ */
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.furever.crud.AdoptionRequestCRUD;
+import com.furever.crud.ArchiveCRUD;
+import com.furever.crud.ArchiveLog;
+import com.furever.crud.PageCursor;
+import com.furever.crud.PetCRUD;
+import com.furever.crud.SearchIndexes;
+import com.furever.crud.UserCRUD;
+import com.furever.database.DbConnection;
+import com.furever.models.AdoptionRequest;
+
+/**
+ * Micro-benchmarks for the CRUD layer against a local database seeded from furever.sql
+ * Each benchmark is warmed up, then run for a fixed time on one or more threads while
+ * every call is timed. The report shows ops/s, p50/p99 latency and bytes allocated per
+ * operation, and can be saved and compared against an earlier run to catch regressions:
+ *
+ *   java com.furever.tools.CrudBenchmark [warmup=3] [measure=10] [threads=1] [only=pet.]
+ *        [writes=false] [out=bench.csv] [baseline=previous.csv]
+ */
+public class CrudBenchmark {
+
+    // A benchmark whose ops/s fell by more than this fraction against the baseline is flagged
+    private static final double REGRESSION_THRESHOLD = 0.10;
+
+    /**
+     * One benchmarked operation
+     */
+    @FunctionalInterface
+    interface Operation {
+        void run() throws Exception;
+    }
+
+    private final Map<String, Operation> benchmarks = new LinkedHashMap<>();
+    private final PrintStream out = System.out;
+
+    public static void main(String[] args) {
+        CrudBenchmark benchmark = new CrudBenchmark();
+        int warmupSeconds = intArg(args, "warmup", 3);
+        int measureSeconds = intArg(args, "measure", 10);
+        int threads = intArg(args, "threads", 1);
+        String only = stringArg(args, "only", "");
+        boolean writes = Boolean.parseBoolean(stringArg(args, "writes", "false"));
+
+        try {
+            benchmark.register(writes);
+        } catch (SQLException e) {
+            System.err.println("Error preparing benchmark data: " + e.getMessage());
+            DbConnection.closeConnection();
+            return;
+        }
+
+        List<Result> results = new ArrayList<>();
+        for (Map.Entry<String, Operation> entry : benchmark.benchmarks.entrySet()) {
+            if (entry.getKey().contains(only)) {
+                results.add(benchmark.measure(entry.getKey(), entry.getValue(), threads, warmupSeconds, measureSeconds));
+            }
+        }
+
+        benchmark.report(results, stringArg(args, "baseline", null));
+        String outFile = stringArg(args, "out", null);
+        if (outFile != null) {
+            save(results, outFile);
+        }
+        ArchiveLog.getInstance().shutdown();
+        DbConnection.closeConnection();
+    }
+
+    /**
+     * Registers the benchmarks, sampling real IDs and credentials from the database
+     * @param writes Whether to include benchmarks that insert, delete or archive rows
+     */
+    private void register(boolean writes) throws SQLException {
+        PetCRUD petCRUD = new PetCRUD();
+        UserCRUD userCRUD = new UserCRUD();
+        AdoptionRequestCRUD requestCRUD = new AdoptionRequestCRUD();
+        ArchiveCRUD archiveCRUD = new ArchiveCRUD();
+
+        int[] petIds = sampleIds("SELECT pet_id FROM tbl_pet WHERE archived = 0 LIMIT 1000");
+        int[] requestIds = sampleIds("SELECT adoption_request_id FROM tbl_adoption_request LIMIT 1000");
+        String[] petNames = sampleStrings("SELECT pet_name FROM tbl_pet WHERE archived = 0 LIMIT 1000");
+        String[] credentials = sampleStrings("SELECT CONCAT(username, CHAR(0), password) FROM users LIMIT 100");
+        SearchIndexes.getInstance().warm();
+
+        benchmarks.put("pet.getPetById", () -> petCRUD.getPetById(pick(petIds)));
+        benchmarks.put("pet.getPetsPage", () -> petCRUD.getPetsPage(PageCursor.FIRST, 20));
+        benchmarks.put("pet.getPetsByAdoptionStatus", () -> petCRUD.getPetsByAdoptionStatus("Available"));
+        benchmarks.put("pet.searchPetsByName", () -> {
+            String name = pick(petNames);
+            petCRUD.searchPetsByName(name.substring(0, Math.min(4, name.length())));
+        });
+        benchmarks.put("user.authenticateUser", () -> {
+            String[] credential = pick(credentials).split("\0", 2);
+            userCRUD.authenticateUser(credential[0], credential.length > 1 ? credential[1] : "");
+        });
+        benchmarks.put("request.getAdoptionRequestById", () -> requestCRUD.getAdoptionRequestById(pick(requestIds)));
+        benchmarks.put("request.getAdoptionRequestsPage", () -> requestCRUD.getAdoptionRequestsPage(PageCursor.FIRST, 20));
+        benchmarks.put("request.getAdoptionRequestsByStatus", () -> requestCRUD.getAdoptionRequestsByStatus("Pending"));
+        benchmarks.put("archive.getRecentArchiveOperations", () -> archiveCRUD.getRecentArchiveOperations(50));
+        benchmarks.put("archive.getArchiveSummary", archiveCRUD::getArchiveSummary);
+
+        if (!writes) {
+            return;
+        }
+
+        // A pet and adopter with no pending request between them, so create/delete never collides
+        int[] pair = samplePendingFreePair();
+        if (pair != null) {
+            benchmarks.put("request.createAndDelete", () -> {
+                AdoptionRequest request = new AdoptionRequest();
+                request.setPetId(pair[0]);
+                request.setAdopterId(pair[1]);
+                request.setRequestDate(new Date(System.currentTimeMillis()));
+                request.setStatus("Pending");
+                if (requestCRUD.createAdoptionRequest(request)) {
+                    requestCRUD.deleteAdoptionRequest(request.getAdoptionRequestId());
+                }
+            });
+        }
+        benchmarks.put("archive.autoArchiveCompletedAdoptionRequests", () -> archiveCRUD.autoArchiveCompletedAdoptionRequests(null));
+        benchmarks.put("archive.autoArchiveAdoptedPets", () -> archiveCRUD.autoArchiveAdoptedPets(null));
+    }
+
+    /**
+     * Warms up and measures one benchmark
+     */
+    private Result measure(String name, Operation operation, int threads, int warmupSeconds, int measureSeconds) {
+        out.print("Running " + name + " ... ");
+        PrintStream quiet = new PrintStream(OutputStream.nullOutputStream());
+        System.setOut(quiet);
+        try {
+            runFor(operation, threads, warmupSeconds, null);
+            Result result = new Result(name);
+            runFor(operation, threads, measureSeconds, result);
+            out.println(String.format("%.1f ops/s", result.opsPerSecond()));
+            return result;
+        } finally {
+            System.setOut(out);
+        }
+    }
+
+    /**
+     * Calls the operation in a loop on every thread until the time is up
+     * @param result Collects timings, or null during warm-up
+     */
+    private void runFor(Operation operation, int threads, int seconds, Result result) {
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch done = new CountDownLatch(threads);
+        List<long[]> latencies = new ArrayList<>();
+        long[] allocated = new long[threads];
+        int[] counts = new int[threads];
+
+        for (int t = 0; t < threads; t++) {
+            int slot = t;
+            long[] samples = new long[1 << 16];
+            latencies.add(samples);
+            Thread worker = new Thread(() -> {
+                long allocatedBefore = threadAllocatedBytes();
+                long[] buffer = samples;
+                int count = 0;
+                while (running.get()) {
+                    long began = System.nanoTime();
+                    try {
+                        operation.run();
+                    } catch (Exception e) {
+                        System.err.println("Benchmark operation failed: " + e.getMessage());
+                    }
+                    if (count == buffer.length) {
+                        buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                    }
+                    buffer[count++] = System.nanoTime() - began;
+                }
+                synchronized (latencies) {
+                    latencies.set(slot, buffer);
+                }
+                allocated[slot] = threadAllocatedBytes() - allocatedBefore;
+                counts[slot] = count;
+                done.countDown();
+            }, "furever-benchmark-" + t);
+            worker.setDaemon(true);
+            worker.start();
+        }
+
+        long began = System.nanoTime();
+        try {
+            Thread.sleep(seconds * 1000L);
+            running.set(false);
+            done.await();
+        } catch (InterruptedException e) {
+            running.set(false);
+            Thread.currentThread().interrupt();
+        }
+
+        if (result != null) {
+            result.elapsedNanos = System.nanoTime() - began;
+            int total = 0;
+            for (int count : counts) {
+                total += count;
+            }
+            long[] merged = new long[total];
+            int offset = 0;
+            for (int t = 0; t < threads; t++) {
+                System.arraycopy(latencies.get(t), 0, merged, offset, counts[t]);
+                offset += counts[t];
+                result.allocatedBytes += Math.max(0, allocated[t]);
+            }
+            Arrays.sort(merged);
+            result.latencies = merged;
+        }
+    }
+
+    /**
+     * Prints the results table and, when a baseline is given, the change per benchmark
+     */
+    private void report(List<Result> results, String baselineFile) {
+        Map<String, Double> baseline = baselineFile != null ? load(baselineFile) : new HashMap<>();
+
+        out.println("\n" + "=".repeat(112));
+        out.printf("%-44s %12s %10s %10s %14s %14s%n", "Benchmark", "ops/s", "p50 ms", "p99 ms", "bytes/op", "vs baseline");
+        out.println("-".repeat(112));
+        int regressions = 0;
+        for (Result result : results) {
+            String change = "";
+            Double previous = baseline.get(result.name);
+            if (previous != null && previous > 0) {
+                double delta = (result.opsPerSecond() - previous) / previous;
+                change = String.format("%+.1f%%", delta * 100);
+                if (delta < -REGRESSION_THRESHOLD) {
+                    change += " !";
+                    regressions++;
+                }
+            }
+            out.printf("%-44s %12.1f %10.3f %10.3f %14d %14s%n",
+                    result.name, result.opsPerSecond(), result.percentileMillis(0.50), result.percentileMillis(0.99),
+                    result.bytesPerOp(), change);
+        }
+        out.println("=".repeat(112));
+        if (!baseline.isEmpty()) {
+            out.println(regressions == 0
+                    ? "No regressions beyond " + (int) (REGRESSION_THRESHOLD * 100) + "% against " + baselineFile
+                    : regressions + " benchmark(s) regressed by more than " + (int) (REGRESSION_THRESHOLD * 100) + "% (marked !)");
+        }
+    }
+
+    private static void save(List<Result> results, String file) {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
+            writer.println("benchmark,ops_per_second,p50_ms,p99_ms,bytes_per_op");
+            for (Result result : results) {
+                writer.printf(Locale.ROOT, "%s,%.3f,%.4f,%.4f,%d%n", result.name, result.opsPerSecond(),
+                        result.percentileMillis(0.50), result.percentileMillis(0.99), result.bytesPerOp());
+            }
+            System.out.println("Results saved to " + file);
+        } catch (IOException e) {
+            System.err.println("Error saving benchmark results: " + e.getMessage());
+        }
+    }
+
+    private static Map<String, Double> load(String file) {
+        Map<String, Double> opsPerSecond = new HashMap<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line = reader.readLine();
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(",");
+                if (fields.length >= 2) {
+                    opsPerSecond.put(fields[0], Double.parseDouble(fields[1]));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("Error reading baseline " + file + ": " + e.getMessage());
+        }
+        return opsPerSecond;
+    }
+
+    private static int[] sampleIds(String sql) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        try (Connection conn = DbConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                ids.add(rs.getInt(1));
+            }
+        }
+        if (ids.isEmpty()) {
+            throw new SQLException("No rows for: " + sql);
+        }
+        return ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static String[] sampleStrings(String sql) throws SQLException {
+        List<String> values = new ArrayList<>();
+        try (Connection conn = DbConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                values.add(rs.getString(1) != null ? rs.getString(1) : "");
+            }
+        }
+        if (values.isEmpty()) {
+            throw new SQLException("No rows for: " + sql);
+        }
+        return values.toArray(new String[0]);
+    }
+
+    private static int[] samplePendingFreePair() throws SQLException {
+        String sql = "SELECT p.pet_id, a.adopter_id FROM tbl_pet p CROSS JOIN tbl_adopter a " +
+                     "WHERE p.archived = 0 AND a.archived = 0 AND NOT EXISTS (SELECT 1 FROM tbl_adoption_request r " +
+                     "WHERE r.pet_id = p.pet_id AND r.adopter_id = a.adopter_id AND r.status = 'Pending') LIMIT 1";
+        try (Connection conn = DbConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? new int[] {rs.getInt(1), rs.getInt(2)} : null;
+        }
+    }
+
+    private static int pick(int[] values) {
+        return values[ThreadLocalRandom.current().nextInt(values.length)];
+    }
+
+    private static String pick(String[] values) {
+        return values[ThreadLocalRandom.current().nextInt(values.length)];
+    }
+
+    /**
+     * Bytes allocated so far by the current thread, or 0 if the JVM cannot tell
+     */
+    private static long threadAllocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().threadId());
+        }
+        return 0;
+    }
+
+    private static int intArg(String[] args, String name, int defaultValue) {
+        String value = stringArg(args, name, null);
+        try {
+            return value != null ? Integer.parseInt(value) : defaultValue;
+        } catch (NumberFormatException e) {
+            System.err.println("Ignoring invalid value for " + name + ": " + value);
+            return defaultValue;
+        }
+    }
+
+    private static String stringArg(String[] args, String name, String defaultValue) {
+        for (String arg : args) {
+            if (arg.startsWith(name + "=")) {
+                return arg.substring(name.length() + 1);
+            }
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Timings of one measured benchmark
+     */
+    private static class Result {
+        private final String name;
+        private long[] latencies = new long[0];
+        private long elapsedNanos;
+        private long allocatedBytes;
+
+        Result(String name) {
+            this.name = name;
+        }
+
+        double opsPerSecond() {
+            return elapsedNanos == 0 ? 0 : latencies.length * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        double percentileMillis(double fraction) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(fraction * latencies.length) - 1;
+            return latencies[Math.max(0, Math.min(index, latencies.length - 1))] / 1_000_000.0;
+        }
+
+        long bytesPerOp() {
+            return latencies.length == 0 ? 0 : allocatedBytes / latencies.length;
+        }
+    }
+}
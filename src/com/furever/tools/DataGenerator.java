@@ -0,0 +1,779 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.furever.tools;
+
+/**
+ *
+ * @author jerimiahtongco
+ */
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.furever.database.DbConnection;
+
+/**
+ * Fills every furever table with a large, consistent and reproducible data set
+ * Every row is derived from the seed and its own position only, so the same seed and sizes
+ * always give the same rows and each table can be loaded in parallel on its own connection
+ * while still agreeing with the others: a pet's requests, adoption record, media and archive
+ * entries always match its adoption status. Rows go in as multi-row INSERTs of BATCH_SIZE
+ * rows, one commit per batch, with foreign key and unique checks switched off for the
+ * loading sessions; the generator itself keeps references and unique keys valid.
+ *
+ * IDs continue after the highest ID already in each table (archives included), so a run
+ * against the same starting database is repeatable. Generated usernames start with the
+ * prefix, which is also how a generated data set is removed again:
+ *
+ *   java com.furever.tools.DataGenerator [seed=42] [owners=20000] [adopters=200000] [pets=1000000]
+ *        [admins=5] [archived=0.3] [threads=4] [prefix=gen] [from=2022-01-01] [to=2025-10-01]
+ *   java com.furever.tools.DataGenerator action=purge [prefix=gen]
+ */
+public class DataGenerator {
+
+    public static final int BATCH_SIZE = 1000;
+
+    // Entities handed to one loading task; keeps every thread busy until the end
+    private static final int CHUNK_SIZE = 50_000;
+    private static final int PURGE_BATCH_SIZE = 10_000;
+
+    // ID slots reserved per pet, so dependent IDs follow from the pet's position
+    private static final int REQUEST_SLOTS = 4;
+    private static final int MEDIA_SLOTS = 3;
+
+    // Adopted pets are only archived once the adoption is this old, as BulkArchiveCRUD does
+    private static final int ARCHIVE_AFTER_DAYS = 60;
+
+    private static final long SALT_PERSON = 1;
+    private static final long SALT_PET = 2;
+
+    private static final String[] FIRST_NAMES = { "Maria", "Jose", "Ana", "Juan", "Andrea", "Mark", "Angela", "John",
+            "Patricia", "Miguel", "Kristine", "Paolo", "Camille", "Carlo", "Bea", "Rafael", "Nicole", "Gabriel",
+            "Isabel", "Daniel", "Sofia", "Luis", "Erika", "Vincent" };
+    private static final String[] LAST_NAMES = { "Santos", "Reyes", "Cruz", "Bautista", "Garcia", "Mendoza", "Torres",
+            "Flores", "Villanueva", "Ramos", "Aquino", "Castillo", "Dela Cruz", "Navarro", "Fernandez", "Lopez",
+            "Gonzales", "Rivera", "Morales", "Domingo" };
+    private static final String[] STREETS = { "Rizal St.", "Mabini Ave.", "Bonifacio Rd.", "Luna St.", "Quezon Blvd.",
+            "Del Pilar St.", "Roxas Blvd.", "Burgos St.", "Aguinaldo Hwy.", "Magsaysay Ave." };
+    private static final String[] CITIES = { "Manila", "Quezon City", "Makati", "Pasig", "Taguig", "Cebu City",
+            "Davao City", "Baguio", "Iloilo City", "Cagayan de Oro" };
+    private static final String[] PET_NAMES = { "Buddy", "Mittens", "Max", "Luna", "Bella", "Charlie", "Coco", "Milo",
+            "Lucy", "Rocky", "Daisy", "Oreo", "Bantay", "Muning", "Choco", "Peanut", "Shadow", "Ginger", "Toby",
+            "Nala", "Simba", "Pepper", "Mocha", "Snow", "Bruno", "Cookie", "Loki", "Kitkat", "Ash", "Tiger" };
+    private static final String[] TEMPERAMENTS = { "Friendly", "Playful", "Calm", "Shy", "Energetic", "Gentle",
+            "Curious", "Loyal", "Affectionate", "Independent" };
+    private static final String[] TRAITS = { "loves long walks", "good with children", "house-trained",
+            "enjoys naps in the sun", "gets along with other pets", "needs a quiet home", "very food-motivated",
+            "rescued from the street", "knows basic commands", "likes to be brushed" };
+    private static final String[] APPROVAL_REMARKS = { "Home visit passed", "Approved after interview",
+            "Good fit for the pet", "All requirements submitted" };
+    private static final String[] REJECTION_REMARKS = { "Incomplete requirements", "Living space not suitable",
+            "Could not be reached for interview", "Withdrawn by adopter" };
+    private static final String SIBLING_REJECTION_REMARKS = "Automatically rejected - pet adopted by another adopter";
+
+    private static final String[] USER_COLUMNS = { "id", "username", "email", "password", "role", "created_at" };
+    private static final String[] OWNER_COLUMNS = { "pet_owner_id", "pet_owner_name", "pet_owner_contact",
+            "pet_owner_email", "pet_owner_address", "pet_owner_username", "pet_owner_password", "username" };
+    private static final String[] ADOPTER_COLUMNS = { "adopter_id", "username", "adopter_name", "adopter_contact",
+            "adopter_email", "adopter_address", "adopter_username", "adopter_password" };
+    private static final String[] PET_COLUMNS = { "pet_id", "pet_owner_id", "pet_name", "pet_type_id", "description",
+            "age", "gender", "health_status", "vaccination_status", "adoption_status", "date_registered" };
+    private static final String[] PET_ARCHIVE_COLUMNS = { "pet_id", "pet_owner_id", "pet_name", "pet_type_id",
+            "description", "age", "gender", "health_status", "vaccination_status", "adoption_status", "date_registered",
+            "archived_date", "archived_by_user_id", "archive_reason" };
+    private static final String[] MEDIA_COLUMNS = { "pet_media_id", "pet_id", "pet_media_name", "pet_media_url" };
+    private static final String[] MEDIA_ARCHIVE_COLUMNS = { "pet_media_id", "pet_id", "pet_media_name", "pet_media_url",
+            "archived_date", "archived_by_user_id", "archive_reason" };
+    private static final String[] REQUEST_COLUMNS = { "adoption_request_id", "pet_id", "adopter_id", "request_date",
+            "status", "approval_date", "remarks" };
+    private static final String[] REQUEST_ARCHIVE_COLUMNS = { "adoption_request_id", "pet_id", "adopter_id",
+            "request_date", "status", "approval_date", "remarks", "archived_date", "archived_by_user_id", "archive_reason" };
+    private static final String[] ADOPTION_COLUMNS = { "adoption_id", "pet_id", "adopter_id", "adoption_date", "remarks" };
+    private static final String[] ADOPTION_ARCHIVE_COLUMNS = { "adoption_id", "pet_id", "adopter_id", "adoption_date",
+            "remarks", "archived_date", "archived_by_user_id", "archive_reason" };
+    private static final String[] ARCHIVE_LOG_COLUMNS = { "table_name", "record_id", "operation",
+            "performed_by_user_id", "operation_date", "reason" };
+
+    /**
+     * Table group loaded by one kind of task; every kind walks its own entities
+     */
+    private enum Kind { USERS, OWNERS, ADOPTERS, PETS, MEDIA, REQUESTS, ADOPTIONS, ARCHIVE_LOG }
+
+    private final long seed;
+    private final int admins;
+    private final int owners;
+    private final int adopters;
+    private final int pets;
+    private final double archivedShare;
+    private final String prefix;
+    private final LocalDate from;
+    private final int days;
+
+    private int[] petTypeIds;
+    private int userBase;
+    private int ownerBase;
+    private int adopterBase;
+    private int petBase;
+    private int mediaBase;
+    private int requestBase;
+    private int adoptionBase;
+
+    private final Map<String, LongAdder> rowsByTable = new ConcurrentHashMap<>();
+    private final LongAdder rowsInserted = new LongAdder();
+
+    private DataGenerator(long seed, int admins, int owners, int adopters, int pets, double archivedShare,
+                          String prefix, LocalDate from, LocalDate to) {
+        this.seed = seed;
+        this.admins = admins;
+        this.owners = owners;
+        this.adopters = adopters;
+        this.pets = pets;
+        this.archivedShare = archivedShare;
+        this.prefix = prefix;
+        this.from = from;
+        this.days = (int) Math.max(1, to.toEpochDay() - from.toEpochDay());
+    }
+
+    public static void main(String[] args) {
+        String prefix = stringArg(args, "prefix", "gen");
+        if (!prefix.matches("[a-z0-9]{1,12}")) {
+            System.err.println("The prefix must be 1-12 lowercase letters or digits: " + prefix);
+            return;
+        }
+
+        try {
+            if ("purge".equals(stringArg(args, "action", "generate"))) {
+                purge(prefix);
+                return;
+            }
+
+            LocalDate from = LocalDate.parse(stringArg(args, "from", "2022-01-01"));
+            LocalDate to = LocalDate.parse(stringArg(args, "to", "2025-10-01"));
+            DataGenerator generator = new DataGenerator(
+                    Long.parseLong(stringArg(args, "seed", "42")),
+                    Math.max(0, intArg(args, "admins", 5)),
+                    Math.max(1, intArg(args, "owners", 20_000)),
+                    Math.max(REQUEST_SLOTS, intArg(args, "adopters", 200_000)),
+                    Math.max(0, intArg(args, "pets", 1_000_000)),
+                    Math.min(1.0, Math.max(0.0, Double.parseDouble(stringArg(args, "archived", "0.3")))),
+                    prefix, from, to);
+            generator.generate(Math.max(1, intArg(args, "threads", 4)));
+
+        } catch (SQLException e) {
+            System.err.println("Error generating data: " + e.getMessage());
+        } catch (RuntimeException e) {
+            System.err.println("Invalid argument: " + e.getMessage());
+        } finally {
+            DbConnection.closeConnection();
+        }
+    }
+
+    /**
+     * Loads the whole data set, one task per kind and chunk of entities
+     * @param threads Number of tasks loading at the same time, each on its own connection
+     */
+    private void generate(int threads) throws SQLException {
+        prepare();
+        System.out.println("Seed " + seed + ": " + admins + " admins, " + owners + " pet owners, " + adopters
+                + " adopters and " + pets + " pets, loaded on " + threads + " thread(s)");
+
+        List<Kind> kinds = new ArrayList<>();
+        List<int[]> ranges = new ArrayList<>();
+        addChunks(kinds, ranges, Kind.USERS, admins + owners + adopters);
+        addChunks(kinds, ranges, Kind.OWNERS, owners);
+        addChunks(kinds, ranges, Kind.ADOPTERS, adopters);
+        for (Kind kind : new Kind[] { Kind.PETS, Kind.MEDIA, Kind.REQUESTS, Kind.ADOPTIONS, Kind.ARCHIVE_LOG }) {
+            addChunks(kinds, ranges, kind, pets);
+        }
+
+        long started = System.currentTimeMillis();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < kinds.size(); i++) {
+            Kind kind = kinds.get(i);
+            int[] range = ranges.get(i);
+            futures.add(executor.submit(() -> {
+                load(kind, range[0], range[1]);
+                return null;
+            }));
+        }
+        executor.shutdown();
+
+        String failure = null;
+        try {
+            while (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                printProgress(started);
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            failure = e.getCause().getMessage();
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+            failure = "interrupted";
+        }
+
+        finish();
+        long elapsed = Math.max(1, System.currentTimeMillis() - started);
+        System.out.println("\n=== GENERATED ROWS ===");
+        for (Map.Entry<String, LongAdder> entry : new TreeMap<>(rowsByTable).entrySet()) {
+            System.out.printf("%-32s %12d%n", entry.getKey(), entry.getValue().sum());
+        }
+        System.out.printf("%-32s %12d in %.1f s (%.0f rows/s)%n", "Total", rowsInserted.sum(), elapsed / 1000.0,
+                rowsInserted.sum() * 1000.0 / elapsed);
+        if (failure != null) {
+            System.err.println("Generation stopped early: " + failure);
+            System.err.println("Remove the partial data set with action=purge prefix=" + prefix + " before running again.");
+        }
+    }
+
+    private static void addChunks(List<Kind> kinds, List<int[]> ranges, Kind kind, int count) {
+        for (int start = 0; start < count; start += CHUNK_SIZE) {
+            kinds.add(kind);
+            ranges.add(new int[] { start, Math.min(count, start + CHUNK_SIZE) });
+        }
+    }
+
+    private void printProgress(long started) {
+        long elapsed = Math.max(1, System.currentTimeMillis() - started);
+        System.out.printf("  %,d rows in %d s (%.0f rows/s)%n", rowsInserted.sum(), elapsed / 1000,
+                rowsInserted.sum() * 1000.0 / elapsed);
+    }
+
+    /**
+     * Reads the pet types and the first free ID of every table, and refuses to run twice
+     * with the same prefix
+     */
+    private void prepare() throws SQLException {
+        try (Connection conn = DbConnection.getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM users WHERE username LIKE '" + prefix + "-%'")) {
+                if (rs.next() && rs.getInt(1) > 0) {
+                    throw new SQLException("Users with the prefix '" + prefix + "' already exist; remove them with "
+                            + "action=purge prefix=" + prefix + " or choose another prefix");
+                }
+            }
+
+            List<Integer> types = new ArrayList<>();
+            try (ResultSet rs = stmt.executeQuery("SELECT pet_type_id FROM tbl_pet_type ORDER BY pet_type_id")) {
+                while (rs.next()) {
+                    types.add(rs.getInt(1));
+                }
+            }
+            if (types.isEmpty()) {
+                throw new SQLException("tbl_pet_type is empty; add at least one pet type first");
+            }
+            petTypeIds = types.stream().mapToInt(Integer::intValue).toArray();
+
+            userBase = nextId(stmt, "id", "users", "users_archive");
+            ownerBase = nextId(stmt, "pet_owner_id", "tbl_pet_owner", "tbl_pet_owner_archive");
+            adopterBase = nextId(stmt, "adopter_id", "tbl_adopter", "tbl_adopter_archive");
+            petBase = nextId(stmt, "pet_id", "tbl_pet", "tbl_pet_archive");
+            mediaBase = nextId(stmt, "pet_media_id", "tbl_pet_media", "tbl_pet_media_archive");
+            requestBase = nextId(stmt, "adoption_request_id", "tbl_adoption_request", "tbl_adoption_request_archive");
+            adoptionBase = nextId(stmt, "adoption_id", "tbl_adoption", "tbl_adoption_archive");
+        }
+
+        if ((long) requestBase + (long) pets * REQUEST_SLOTS > Integer.MAX_VALUE
+                || (long) mediaBase + (long) pets * MEDIA_SLOTS > Integer.MAX_VALUE) {
+            throw new SQLException("Too many pets for the INT ID columns: " + pets);
+        }
+    }
+
+    private static int nextId(Statement stmt, String column, String table, String archiveTable) throws SQLException {
+        String sql = "SELECT GREATEST((SELECT COALESCE(MAX(" + column + "), 0) FROM " + table + "), " +
+                     "(SELECT COALESCE(MAX(" + column + "), 0) FROM " + archiveTable + ")) + 1";
+        try (ResultSet rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    /**
+     * Moves the auto-increment counters past the reserved ID slots and refreshes the optimizer
+     * statistics of the loaded tables
+     */
+    private void finish() {
+        String[][] counters = {
+            { "tbl_pet", String.valueOf(petBase + pets) },
+            { "tbl_pet_media", String.valueOf(mediaBase + pets * MEDIA_SLOTS) },
+            { "tbl_adoption_request", String.valueOf(requestBase + pets * REQUEST_SLOTS) },
+            { "tbl_adoption", String.valueOf(adoptionBase + pets) }
+        };
+        try (Connection conn = DbConnection.getConnection();
+             Statement stmt = conn.createStatement()) {
+            for (String[] counter : counters) {
+                stmt.executeUpdate("ALTER TABLE " + counter[0] + " AUTO_INCREMENT = " + counter[1]);
+            }
+            if (!rowsByTable.isEmpty()) {
+                stmt.execute("ANALYZE TABLE " + String.join(", ", new TreeMap<>(rowsByTable).keySet()));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error updating table counters after generation: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Loads one chunk of one kind on its own connection
+     */
+    private void load(Kind kind, int start, int end) throws SQLException {
+        try (Connection conn = DbConnection.getConnection()) {
+            setBulkSession(conn, true);
+            conn.setAutoCommit(false);
+            try {
+                switch (kind) {
+                    case USERS: loadUsers(conn, start, end); break;
+                    case OWNERS: loadOwners(conn, start, end); break;
+                    case ADOPTERS: loadAdopters(conn, start, end); break;
+                    case PETS: loadPets(conn, start, end); break;
+                    case MEDIA: loadMedia(conn, start, end); break;
+                    case REQUESTS: loadRequests(conn, start, end); break;
+                    case ADOPTIONS: loadAdoptions(conn, start, end); break;
+                    case ARCHIVE_LOG: loadArchiveLog(conn, start, end); break;
+                }
+            } catch (SQLException e) {
+                conn.rollback();
+                throw new SQLException("Error loading " + kind + " " + start + "-" + end + ": " + e.getMessage(), e);
+            } finally {
+                // The connection goes back to the pool; never hand it on without the checks
+                conn.setAutoCommit(true);
+                setBulkSession(conn, false);
+            }
+        }
+    }
+
+    private static void setBulkSession(Connection conn, boolean bulk) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            int checks = bulk ? 0 : 1;
+            stmt.execute("SET SESSION foreign_key_checks = " + checks + ", unique_checks = " + checks);
+        }
+    }
+
+    private void loadUsers(Connection conn, int start, int end) throws SQLException {
+        try (BatchInsert users = new BatchInsert(conn, "users", USER_COLUMNS)) {
+            for (int i = start; i < end; i++) {
+                Person person = new Person(i);
+                users.add(userBase + i, person.username, person.email, person.password, person.role, person.createdAt);
+            }
+        }
+    }
+
+    private void loadOwners(Connection conn, int start, int end) throws SQLException {
+        try (BatchInsert owners = new BatchInsert(conn, "tbl_pet_owner", OWNER_COLUMNS)) {
+            for (int i = start; i < end; i++) {
+                Person person = new Person(admins + i);
+                owners.add(ownerBase + i, person.name, person.contact, person.email, person.address,
+                        person.username, person.password, person.username);
+            }
+        }
+    }
+
+    private void loadAdopters(Connection conn, int start, int end) throws SQLException {
+        try (BatchInsert adopters = new BatchInsert(conn, "tbl_adopter", ADOPTER_COLUMNS)) {
+            for (int i = start; i < end; i++) {
+                Person person = new Person(admins + owners + i);
+                adopters.add(adopterBase + i, person.username, person.name, person.contact, person.email,
+                        person.address, person.username, person.password);
+            }
+        }
+    }
+
+    private void loadPets(Connection conn, int start, int end) throws SQLException {
+        try (BatchInsert active = new BatchInsert(conn, "tbl_pet", PET_COLUMNS);
+             BatchInsert archived = new BatchInsert(conn, "tbl_pet_archive", PET_ARCHIVE_COLUMNS)) {
+            for (int i = start; i < end; i++) {
+                PetPlan plan = new PetPlan(i);
+                SplittableRandom random = plan.random;
+                String name = PET_NAMES[random.nextInt(PET_NAMES.length)];
+                String description = TEMPERAMENTS[random.nextInt(TEMPERAMENTS.length)] + ", "
+                        + TRAITS[random.nextInt(TRAITS.length)];
+                int age = random.nextInt(16);
+                String gender = random.nextBoolean() ? "Male" : "Female";
+                String health = random.nextInt(100) < 85 ? "Healthy" : "Needs Treatment";
+                String vaccination = random.nextInt(100) < 70 ? "Vaccinated" : "Not Vaccinated";
+
+                if (plan.archived) {
+                    archived.add(plan.petId, plan.ownerId, name, plan.petTypeId, description, age, gender, health,
+                            vaccination, plan.status, Date.valueOf(plan.registered), plan.archivedAt,
+                            plan.archivedBy, plan.archiveReason());
+                } else {
+                    active.add(plan.petId, plan.ownerId, name, plan.petTypeId, description, age, gender, health,
+                            vaccination, plan.status, Date.valueOf(plan.registered));
+                }
+            }
+        }
+    }
+
+    private void loadMedia(Connection conn, int start, int end) throws SQLException {
+        try (BatchInsert active = new BatchInsert(conn, "tbl_pet_media", MEDIA_COLUMNS);
+             BatchInsert archived = new BatchInsert(conn, "tbl_pet_media_archive", MEDIA_ARCHIVE_COLUMNS)) {
+            for (int i = start; i < end; i++) {
+                PetPlan plan = new PetPlan(i);
+                for (int slot = 0; slot < plan.mediaCount; slot++) {
+                    int mediaId = mediaBase + i * MEDIA_SLOTS + slot;
+                    String mediaName = "Photo " + (slot + 1);
+                    String url = "uploads/" + prefix + "/pet-" + plan.petId + "-" + (slot + 1) + ".jpg";
+                    if (plan.archived) {
+                        archived.add(mediaId, plan.petId, mediaName, url, plan.archivedAt, plan.archivedBy, plan.archiveReason());
+                    } else {
+                        active.add(mediaId, plan.petId, mediaName, url);
+                    }
+                }
+            }
+        }
+    }
+
+    private void loadRequests(Connection conn, int start, int end) throws SQLException {
+        try (BatchInsert active = new BatchInsert(conn, "tbl_adoption_request", REQUEST_COLUMNS);
+             BatchInsert archived = new BatchInsert(conn, "tbl_adoption_request_archive", REQUEST_ARCHIVE_COLUMNS)) {
+            for (int i = start; i < end; i++) {
+                PetPlan plan = new PetPlan(i);
+                for (int slot = 0; slot < plan.requestCount; slot++) {
+                    int requestId = requestBase + i * REQUEST_SLOTS + slot;
+                    Date approval = "Approved".equals(plan.requestStatus[slot]) ? Date.valueOf(plan.approvalDate) : null;
+                    if (plan.archived) {
+                        archived.add(requestId, plan.petId, plan.requestAdopter[slot], Date.valueOf(plan.requestDate[slot]),
+                                plan.requestStatus[slot], approval, plan.requestRemarks[slot], plan.archivedAt,
+                                plan.archivedBy, plan.archiveReason());
+                    } else {
+                        active.add(requestId, plan.petId, plan.requestAdopter[slot], Date.valueOf(plan.requestDate[slot]),
+                                plan.requestStatus[slot], approval, plan.requestRemarks[slot]);
+                    }
+                }
+            }
+        }
+    }
+
+    private void loadAdoptions(Connection conn, int start, int end) throws SQLException {
+        try (BatchInsert active = new BatchInsert(conn, "tbl_adoption", ADOPTION_COLUMNS);
+             BatchInsert archived = new BatchInsert(conn, "tbl_adoption_archive", ADOPTION_ARCHIVE_COLUMNS)) {
+            for (int i = start; i < end; i++) {
+                PetPlan plan = new PetPlan(i);
+                if (!"Adopted".equals(plan.status)) {
+                    continue;
+                }
+                // The approved request is always in the first slot
+                if (plan.archived) {
+                    archived.add(adoptionBase + i, plan.petId, plan.requestAdopter[0], Date.valueOf(plan.approvalDate),
+                            plan.requestRemarks[0], plan.archivedAt, plan.archivedBy, plan.archiveReason());
+                } else {
+                    active.add(adoptionBase + i, plan.petId, plan.requestAdopter[0], Date.valueOf(plan.approvalDate),
+                            plan.requestRemarks[0]);
+                }
+            }
+        }
+    }
+
+    private void loadArchiveLog(Connection conn, int start, int end) throws SQLException {
+        try (BatchInsert log = new BatchInsert(conn, "tbl_archive_log", ARCHIVE_LOG_COLUMNS)) {
+            for (int i = start; i < end; i++) {
+                PetPlan plan = new PetPlan(i);
+                if (!plan.archived) {
+                    continue;
+                }
+                String reason = plan.archiveReason();
+                log.add("tbl_pet", plan.petId, "ARCHIVE", plan.archivedBy, plan.archivedAt, reason);
+                for (int slot = 0; slot < plan.requestCount; slot++) {
+                    log.add("tbl_adoption_request", requestBase + i * REQUEST_SLOTS + slot, "ARCHIVE",
+                            plan.archivedBy, plan.archivedAt, reason);
+                }
+                log.add("tbl_adoption", adoptionBase + i, "ARCHIVE", plan.archivedBy, plan.archivedAt, reason);
+            }
+        }
+    }
+
+    /**
+     * Removes a generated data set: everything owned by or linked to the prefixed users,
+     * children first, in batches so no single statement holds locks for long
+     */
+    private static void purge(String prefix) throws SQLException {
+        String owners = "SELECT pet_owner_id FROM tbl_pet_owner WHERE username LIKE ?";
+        String adopters = "SELECT adopter_id FROM tbl_adopter WHERE username LIKE ?";
+        String activePets = "SELECT pet_id FROM tbl_pet WHERE pet_owner_id IN (" + owners + ")";
+        String archivedPets = "SELECT pet_id FROM tbl_pet_archive WHERE pet_owner_id IN (" + owners + ")";
+        String[][] steps = {
+            { "tbl_archive_log", "reason LIKE ?" },
+            { "tbl_adoption_request", "pet_id IN (" + activePets + ") OR adopter_id IN (" + adopters + ")" },
+            { "tbl_adoption", "pet_id IN (" + activePets + ") OR adopter_id IN (" + adopters + ")" },
+            { "tbl_pet_media", "pet_id IN (" + activePets + ")" },
+            { "tbl_adoption_request_archive", "pet_id IN (" + archivedPets + ") OR adopter_id IN (" + adopters + ")" },
+            { "tbl_adoption_archive", "pet_id IN (" + archivedPets + ") OR adopter_id IN (" + adopters + ")" },
+            { "tbl_pet_media_archive", "pet_id IN (" + archivedPets + ")" },
+            { "tbl_pet", "pet_owner_id IN (" + owners + ")" },
+            { "tbl_pet_archive", "pet_owner_id IN (" + owners + ")" },
+            { "tbl_adopter", "username LIKE ?" },
+            { "tbl_adopter_archive", "username LIKE ?" },
+            { "tbl_pet_owner", "username LIKE ?" },
+            { "tbl_pet_owner_archive", "username LIKE ?" },
+            { "users", "username LIKE ?" },
+            { "users_archive", "username LIKE ?" }
+        };
+
+        long started = System.currentTimeMillis();
+        long total = 0;
+        try (Connection conn = DbConnection.getConnection()) {
+            setBulkSession(conn, true);
+            try {
+                for (String[] step : steps) {
+                    String pattern = "tbl_archive_log".equals(step[0]) ? "[" + prefix + "] %" : prefix + "-%";
+                    String sql = "DELETE FROM " + step[0] + " WHERE " + step[1] + " LIMIT " + PURGE_BATCH_SIZE;
+                    int parameters = (int) step[1].chars().filter(c -> c == '?').count();
+                    long removed = 0;
+                    try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                        for (int i = 1; i <= parameters; i++) {
+                            pstmt.setString(i, pattern);
+                        }
+                        int deleted;
+                        do {
+                            deleted = pstmt.executeUpdate();
+                            removed += deleted;
+                        } while (deleted == PURGE_BATCH_SIZE);
+                    }
+                    if (removed > 0) {
+                        System.out.printf("%-32s %12d removed%n", step[0], removed);
+                    }
+                    total += removed;
+                }
+            } finally {
+                setBulkSession(conn, false);
+            }
+        }
+        System.out.printf("Removed %d generated rows in %.1f s%n", total, (System.currentTimeMillis() - started) / 1000.0);
+    }
+
+    /**
+     * Random numbers for one entity, fixed by the seed and the entity's position
+     */
+    private SplittableRandom random(long salt, long index) {
+        long z = seed + salt * 0x9E3779B97F4A7C15L + index * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return new SplittableRandom(z ^ (z >>> 31));
+    }
+
+    private LocalDate dayBetween(SplittableRandom random, LocalDate earliest, int maxDays) {
+        LocalDate last = from.plusDays(days);
+        LocalDate day = earliest.plusDays(random.nextInt(Math.max(1, maxDays + 1)));
+        return day.isAfter(last) ? last : day;
+    }
+
+    /**
+     * A user account and the profile linked to it
+     * Positions run over admins, then pet owners, then adopters, as in the users table
+     */
+    private final class Person {
+        final String username;
+        final String role;
+        final String name;
+        final String email;
+        final String password;
+        final String contact;
+        final String address;
+        final Timestamp createdAt;
+
+        Person(int index) {
+            SplittableRandom random = random(SALT_PERSON, index);
+            if (index < admins) {
+                role = "admin";
+                username = prefix + "-admin-" + index;
+            } else if (index < admins + owners) {
+                role = "pet_owner";
+                username = prefix + "-owner-" + (index - admins);
+            } else {
+                role = "adopter";
+                username = prefix + "-adopter-" + (index - admins - owners);
+            }
+            name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            email = username + "@example.com";
+            password = "pw" + Long.toString(random.nextLong() >>> 16, 36);
+            contact = String.format("09%09d", random.nextInt(1_000_000_000));
+            address = (1 + random.nextInt(999)) + " " + STREETS[random.nextInt(STREETS.length)] + ", "
+                    + CITIES[random.nextInt(CITIES.length)];
+            createdAt = Timestamp.valueOf(from.atStartOfDay().plusSeconds(random.nextLong((long) days * 86_400)));
+        }
+    }
+
+    /**
+     * Everything about a pet that more than one table depends on
+     * The random source is left positioned after the plan for the pet row's own details.
+     */
+    private final class PetPlan {
+        final SplittableRandom random;
+        final int petId;
+        final int ownerId;
+        final int petTypeId;
+        final String status;
+        final LocalDate registered;
+        final int mediaCount;
+        final int requestCount;
+        final String[] requestStatus = new String[REQUEST_SLOTS];
+        final int[] requestAdopter = new int[REQUEST_SLOTS];
+        final LocalDate[] requestDate = new LocalDate[REQUEST_SLOTS];
+        final String[] requestRemarks = new String[REQUEST_SLOTS];
+        final LocalDate approvalDate;
+        final boolean archived;
+        final Timestamp archivedAt;
+        final Integer archivedBy;
+
+        PetPlan(int index) {
+            random = random(SALT_PET, index);
+            petId = petBase + index;
+            // Squaring skews pets toward the first owners, who act like shelters with many pets
+            double ownerShare = random.nextDouble();
+            ownerId = ownerBase + (int) (ownerShare * ownerShare * owners);
+            petTypeId = petTypeIds[random.nextInt(petTypeIds.length)];
+            registered = dayBetween(random, from, days);
+            mediaCount = random.nextInt(MEDIA_SLOTS + 1);
+
+            int roll = random.nextInt(100);
+            status = roll < 55 ? "Available" : roll < 65 ? "Pending" : "Adopted";
+
+            // Approved first, then pending, then rejected; at most REQUEST_SLOTS in total
+            int approved = "Adopted".equals(status) ? 1 : 0;
+            int pending = "Available".equals(status) ? random.nextInt(3) : "Pending".equals(status) ? 1 + random.nextInt(3) : 0;
+            int rejected = approved == 1 ? random.nextInt(4) : random.nextInt(2);
+            requestCount = approved + pending + rejected;
+
+            int firstAdopter = random.nextInt(adopters);
+            LocalDate lastRequest = registered;
+            for (int slot = 0; slot < requestCount; slot++) {
+                // Consecutive adopters, so no adopter asks for the same pet twice
+                requestAdopter[slot] = adopterBase + (firstAdopter + slot) % adopters;
+                requestDate[slot] = dayBetween(random, registered, 90);
+                if (requestDate[slot].isAfter(lastRequest)) {
+                    lastRequest = requestDate[slot];
+                }
+                if (slot < approved) {
+                    requestStatus[slot] = "Approved";
+                    requestRemarks[slot] = APPROVAL_REMARKS[random.nextInt(APPROVAL_REMARKS.length)];
+                } else if (slot < approved + pending) {
+                    requestStatus[slot] = "Pending";
+                } else {
+                    requestStatus[slot] = "Rejected";
+                    requestRemarks[slot] = approved == 1 ? SIBLING_REJECTION_REMARKS
+                            : REJECTION_REMARKS[random.nextInt(REJECTION_REMARKS.length)];
+                }
+            }
+
+            if (approved == 1) {
+                approvalDate = dayBetween(random, lastRequest, 14);
+                LocalDate archiveDay = approvalDate.plusDays(ARCHIVE_AFTER_DAYS + random.nextInt(120));
+                archived = random.nextDouble() < archivedShare && !archiveDay.isAfter(from.plusDays(days));
+                LocalDateTime archivedTime = archiveDay.atStartOfDay().plusSeconds(random.nextInt(86_400));
+                archivedAt = archived ? Timestamp.valueOf(archivedTime) : null;
+                archivedBy = archived && admins > 0 ? userBase + random.nextInt(admins) : null;
+            } else {
+                approvalDate = null;
+                archived = false;
+                archivedAt = null;
+                archivedBy = null;
+            }
+        }
+
+        String archiveReason() {
+            return "[" + prefix + "] Auto-archived: Pet adopted over " + ARCHIVE_AFTER_DAYS + " days ago";
+        }
+    }
+
+    /**
+     * Multi-row INSERT buffer; each full batch is one statement and one commit
+     */
+    private final class BatchInsert implements AutoCloseable {
+        private final Connection conn;
+        private final String table;
+        private final String[] columns;
+        private final String batchSql;
+        private final List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+
+        BatchInsert(Connection conn, String table, String[] columns) {
+            this.conn = conn;
+            this.table = table;
+            this.columns = columns;
+            this.batchSql = insertSql(table, columns, BATCH_SIZE);
+        }
+
+        void add(Object... values) throws SQLException {
+            rows.add(values);
+            if (rows.size() == BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        private void flush() throws SQLException {
+            if (rows.isEmpty()) {
+                return;
+            }
+            String sql = rows.size() == BATCH_SIZE ? batchSql : insertSql(table, columns, rows.size());
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                int index = 1;
+                for (Object[] row : rows) {
+                    for (Object value : row) {
+                        pstmt.setObject(index++, value);
+                    }
+                }
+                pstmt.executeUpdate();
+            }
+            conn.commit();
+            rowsByTable.computeIfAbsent(table, t -> new LongAdder()).add(rows.size());
+            rowsInserted.add(rows.size());
+            rows.clear();
+        }
+
+        @Override
+        public void close() throws SQLException {
+            flush();
+        }
+    }
+
+    private static String insertSql(String table, String[] columns, int rowCount) {
+        String row = "(" + "?, ".repeat(columns.length - 1) + "?)";
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(table)
+                .append(" (").append(String.join(", ", columns)).append(") VALUES ");
+        for (int i = 0; i < rowCount; i++) {
+            sql.append(i == 0 ? "" : ", ").append(row);
+        }
+        return sql.toString();
+    }
+
+    private static int intArg(String[] args, String name, int defaultValue) {
+        String value = stringArg(args, name, null);
+        try {
+            return value != null ? Integer.parseInt(value) : defaultValue;
+        } catch (NumberFormatException e) {
+            System.err.println("Ignoring invalid value for " + name + ": " + value);
+            return defaultValue;
+        }
+    }
+
+    private static String stringArg(String[] args, String name, String defaultValue) {
+        for (String arg : args) {
+            if (arg.startsWith(name + "=")) {
+                return arg.substring(name.length() + 1);
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -0,0 +1,258 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.furever.tools;
+
+/**
+ *
+ * @author jerimiahtongco
+ */
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.furever.crud.StatementCatalog;
+import com.furever.database.DbConnection;
+import com.furever.database.SchemaMigrator;
+
+/**
+ * Query plan regression check for the statements in StatementCatalog
+ * Runs EXPLAIN FORMAT=JSON on every catalogued statement and fails when a plan reads a
+ * whole table (access type ALL), scans a whole index without a LIMIT, or sorts with a
+ * filesort. Plans on tables smaller than minRows are reported but not failed, because the
+ * optimizer rightly prefers a scan there; run the check against a seeded database.
+ * Exits with status 1 when any statement fails, so it can gate a build.
+ *
+ *   java com.furever.tools.QueryPlanCheck [migrate=true] [analyze=true] [minRows=1000] [only=pet.]
+ */
+public class QueryPlanCheck {
+
+    private static final Pattern TABLE_NAME = Pattern.compile("\"table_name\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern ACCESS_TYPE = Pattern.compile("\"access_type\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern KEY = Pattern.compile("\"key\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern FILESORT = Pattern.compile("\"using_filesort\"\\s*:\\s*true");
+
+    /** Parameter values bound for each catalogued statement; statements not listed get 1 for every parameter */
+    private static final Map<String, Object[]> SAMPLE_PARAMETERS = new HashMap<>();
+
+    static {
+        SAMPLE_PARAMETERS.put("pet.byStatus", new Object[] { "Available" });
+        SAMPLE_PARAMETERS.put("pet.page", new Object[] { 0, 21 });
+        SAMPLE_PARAMETERS.put("pet.byStatusPage", new Object[] { "Available", 0, 21 });
+        SAMPLE_PARAMETERS.put("user.byUsername", new Object[] { "admin" });
+        SAMPLE_PARAMETERS.put("user.login", new Object[] { "admin", "admin" });
+        SAMPLE_PARAMETERS.put("petOwner.byUsername", new Object[] { "owner", "owner" });
+        SAMPLE_PARAMETERS.put("adopter.byUsername", new Object[] { "adopter" });
+        SAMPLE_PARAMETERS.put("adopter.byLinkedUsername", new Object[] { "adopter" });
+        SAMPLE_PARAMETERS.put("adoptionRequest.byStatus", new Object[] { "Pending" });
+        SAMPLE_PARAMETERS.put("adoptionRequest.page", new Object[] { 0, 21 });
+        SAMPLE_PARAMETERS.put("adoptionRequest.listingsByStatus", new Object[] { "Pending" });
+        SAMPLE_PARAMETERS.put("adoptionRequest.listingsPage", new Object[] { 0, 21 });
+        SAMPLE_PARAMETERS.put("archiveLog.recent", new Object[] { 50 });
+        SAMPLE_PARAMETERS.put("archiveLog.byTable", new Object[] { "tbl_pet", 50 });
+    }
+
+    public static void main(String[] args) {
+        boolean migrate = Boolean.parseBoolean(stringArg(args, "migrate", "true"));
+        boolean analyze = Boolean.parseBoolean(stringArg(args, "analyze", "true"));
+        long minRows = intArg(args, "minRows", 1000);
+        String only = stringArg(args, "only", "");
+
+        if (migrate && new SchemaMigrator().migrate() < 0) {
+            DbConnection.closeConnection();
+            System.exit(1);
+        }
+
+        int failures = 0;
+        try (Connection conn = DbConnection.getConnection()) {
+            Map<String, String> statements = new LinkedHashMap<>();
+            for (Map.Entry<String, String> entry : StatementCatalog.getHotStatements().entrySet()) {
+                if (entry.getKey().contains(only)) {
+                    statements.put(entry.getKey(), entry.getValue());
+                }
+            }
+
+            Map<String, Long> tableRows = loadTableRows(conn);
+            if (analyze) {
+                analyzeTables(conn, statements.values(), tableRows.keySet());
+                tableRows = loadTableRows(conn);
+            }
+
+            System.out.printf("%-36s %-6s %s%n", "Statement", "Result", "Plan");
+            System.out.println("-".repeat(100));
+            for (Map.Entry<String, String> entry : statements.entrySet()) {
+                if (!check(conn, entry.getKey(), entry.getValue(), tableRows, minRows)) {
+                    failures++;
+                }
+            }
+            System.out.println("-".repeat(100));
+            System.out.println(statements.size() + " statement(s) checked, " + failures + " failed.");
+
+        } catch (SQLException e) {
+            System.err.println("Error checking query plans: " + e.getMessage());
+            failures++;
+        }
+
+        DbConnection.closeConnection();
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Explains one statement and prints its verdict
+     * @return false if the plan has a full scan or filesort on a table of at least minRows rows
+     */
+    private static boolean check(Connection conn, String name, String sql, Map<String, Long> tableRows, long minRows) {
+        String plan;
+        try (PreparedStatement pstmt = conn.prepareStatement("EXPLAIN FORMAT=JSON " + sql)) {
+            bindSamples(pstmt, name, countParameters(sql));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                plan = rs.next() ? rs.getString(1) : "";
+            }
+        } catch (SQLException e) {
+            System.out.printf("%-36s %-6s %s%n", name, "ERROR", e.getMessage());
+            return false;
+        }
+
+        List<String> problems = new ArrayList<>();
+        List<String> accesses = new ArrayList<>();
+        long largestTable = 0;
+        boolean limited = sql.toUpperCase().contains(" LIMIT ");
+
+        // Each table access block runs from its table_name to the next one
+        Matcher tables = TABLE_NAME.matcher(plan);
+        List<Integer> starts = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        while (tables.find()) {
+            names.add(tables.group(1));
+            starts.add(tables.start());
+        }
+        for (int i = 0; i < starts.size(); i++) {
+            int end = i + 1 < starts.size() ? starts.get(i + 1) : plan.length();
+            String block = plan.substring(starts.get(i), end);
+            String table = names.get(i);
+            largestTable = Math.max(largestTable, tableRows.getOrDefault(table, 0L));
+
+            Matcher access = ACCESS_TYPE.matcher(block);
+            Matcher key = KEY.matcher(block);
+            String accessType = access.find() ? access.group(1) : "?";
+            String keyName = key.find() ? key.group(1) : null;
+            accesses.add(table + ":" + accessType + (keyName != null ? "(" + keyName + ")" : ""));
+
+            if ("ALL".equals(accessType)) {
+                problems.add("full scan of " + table);
+            } else if ("index".equals(accessType) && !limited) {
+                problems.add("full index scan of " + table);
+            }
+        }
+        if (FILESORT.matcher(plan).find()) {
+            problems.add("filesort");
+        }
+
+        String summary = String.join(", ", accesses);
+        if (problems.isEmpty()) {
+            System.out.printf("%-36s %-6s %s%n", name, "OK", summary);
+            return true;
+        }
+        if (largestTable < minRows) {
+            System.out.printf("%-36s %-6s %s; %s (tables under %d rows)%n", name, "SKIP", summary,
+                    String.join(", ", problems), minRows);
+            return true;
+        }
+        System.out.printf("%-36s %-6s %s; %s%n", name, "FAIL", summary, String.join(", ", problems));
+        return false;
+    }
+
+    private static void bindSamples(PreparedStatement pstmt, String name, int count) throws SQLException {
+        Object[] samples = SAMPLE_PARAMETERS.get(name);
+        for (int i = 0; i < count; i++) {
+            Object value = samples != null && i < samples.length ? samples[i] : 1;
+            if (value instanceof Integer) {
+                pstmt.setInt(i + 1, (Integer) value);
+            } else {
+                pstmt.setString(i + 1, value.toString());
+            }
+        }
+    }
+
+    /**
+     * Counts the ? placeholders outside string literals
+     */
+    private static int countParameters(String sql) {
+        int count = 0;
+        boolean quoted = false;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                quoted = !quoted;
+            } else if (c == '?' && !quoted) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static Map<String, Long> loadTableRows(Connection conn) throws SQLException {
+        Map<String, Long> rows = new HashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT TABLE_NAME, TABLE_ROWS FROM information_schema.TABLES " +
+                                              "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_TYPE = 'BASE TABLE'")) {
+            while (rs.next()) {
+                rows.put(rs.getString(1), rs.getLong(2));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Refreshes index statistics of the tables the statements read, so plans reflect the current data
+     */
+    private static void analyzeTables(Connection conn, Iterable<String> statements, Set<String> knownTables) throws SQLException {
+        Set<String> tables = new LinkedHashSet<>();
+        for (String sql : statements) {
+            for (String table : knownTables) {
+                if (sql.contains(" " + table + " ") || sql.endsWith(" " + table)) {
+                    tables.add(table);
+                }
+            }
+        }
+        if (tables.isEmpty()) {
+            return;
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ANALYZE TABLE " + String.join(", ", tables));
+        }
+    }
+
+    private static int intArg(String[] args, String name, int defaultValue) {
+        String value = stringArg(args, name, null);
+        try {
+            return value != null ? Integer.parseInt(value) : defaultValue;
+        } catch (NumberFormatException e) {
+            System.err.println("Ignoring invalid value for " + name + ": " + value);
+            return defaultValue;
+        }
+    }
+
+    private static String stringArg(String[] args, String name, String defaultValue) {
+        for (String arg : args) {
+            if (arg.startsWith(name + "=")) {
+                return arg.substring(name.length() + 1);
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -0,0 +1,633 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.furever.tools;
+
+/**
+ *
+ * @author jerimiahtongco
+ */
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import com.furever.crud.AdopterCRUD;
+import com.furever.crud.AdoptionRequestCRUD;
+import com.furever.crud.ArchiveLog;
+import com.furever.crud.Page;
+import com.furever.crud.PageCursor;
+import com.furever.crud.PetCRUD;
+import com.furever.crud.UserCRUD;
+import com.furever.database.DbConnection;
+import com.furever.database.OperationMetrics;
+import com.furever.models.Adopter;
+import com.furever.models.AdoptionRequest;
+import com.furever.models.Pet;
+import com.furever.utils.LatencyHistogram;
+
+/**
+ * Replays a mix of the MainMenu flows from many threads and reports throughput and tail latency
+ * Each flow makes the same CRUD calls as the screen it stands for: guests browsing and
+ * searching pets, adopters logging in to check or submit requests, pet owners approving or
+ * rejecting requests for their pets, and admins archiving adopted pets. Run it against a
+ * database filled by DataGenerator to see how the application holds up at size.
+ *
+ * Without a rate every thread runs flows back to back, with optional think time between them.
+ * With rate=N the load is open: flows start on a fixed schedule of N per second in total and
+ * latency counts from the scheduled start, so a stall shows up in the tail instead of quietly
+ * lowering the load. Everything is timed after the warm-up only:
+ *
+ *   java com.furever.tools.WorkloadSimulator [threads=8] [warmup=10] [duration=60] [rate=0] [thinkMs=0]
+ *        [seed=42] [mix=browse:40,search:25,myRequests:10,request:15,review:8,archive:2] [out=workload.csv]
+ */
+public class WorkloadSimulator {
+
+    private static final String DEFAULT_MIX = "browse:40,search:25,myRequests:10,request:15,review:8,archive:2";
+    private static final int PAGE_SIZE = 20;
+    private static final int MAX_BROWSED_PAGES = 3;
+    private static final int SAMPLE_SIZE = 2000;
+    private static final int SAMPLE_PROBE_ROWS = 50;
+    private static final int REPORTED_OPERATIONS = 10;
+    private static final double APPROVAL_SHARE = 0.7;
+
+    /**
+     * One user flow, named after the key used in the mix argument
+     */
+    enum Flow {
+        BROWSE("browse"), SEARCH("search"), MY_REQUESTS("myRequests"), REQUEST("request"), REVIEW("review"), ARCHIVE("archive");
+
+        private final String key;
+
+        Flow(String key) {
+            this.key = key;
+        }
+    }
+
+    /**
+     * How a flow ended; skipped flows found no work, such as no pending request left to review
+     */
+    enum Outcome { OK, FAILED, SKIPPED }
+
+    private final PetCRUD petCRUD = new PetCRUD();
+    private final UserCRUD userCRUD = new UserCRUD();
+    private final AdopterCRUD adopterCRUD = new AdopterCRUD();
+    private final AdoptionRequestCRUD requestCRUD = new AdoptionRequestCRUD();
+
+    private final Map<Flow, Integer> weights;
+    private final Map<Flow, FlowStats> stats = new EnumMap<>(Flow.class);
+    private final FlowStats total = new FlowStats();
+    private volatile boolean recording = false;
+
+    private int[] availablePetIds = new int[0];
+    private String[] petNames = new String[0];
+    private final List<Account> adopters = new ArrayList<>();
+    private final List<Account> admins = new ArrayList<>();
+    private final ConcurrentLinkedQueue<Review> pendingReviews = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Integer> adoptedPetIds = new ConcurrentLinkedQueue<>();
+
+    private WorkloadSimulator(Map<Flow, Integer> weights) {
+        this.weights = weights;
+        for (Flow flow : Flow.values()) {
+            stats.put(flow, new FlowStats());
+        }
+    }
+
+    public static void main(String[] args) {
+        int threads = Math.max(1, intArg(args, "threads", 8));
+        int warmupSeconds = Math.max(0, intArg(args, "warmup", 10));
+        int durationSeconds = Math.max(1, intArg(args, "duration", 60));
+        int rate = Math.max(0, intArg(args, "rate", 0));
+        int thinkMillis = Math.max(0, intArg(args, "thinkMs", 0));
+        long seed = Long.parseLong(stringArg(args, "seed", "42"));
+
+        Map<Flow, Integer> weights = parseMix(stringArg(args, "mix", DEFAULT_MIX));
+        if (weights == null) {
+            return;
+        }
+
+        WorkloadSimulator simulator = new WorkloadSimulator(weights);
+        try {
+            simulator.sample(new SplittableRandom(seed));
+            simulator.run(threads, warmupSeconds, durationSeconds, rate, thinkMillis, seed);
+            simulator.report(threads, durationSeconds, rate);
+            String outFile = stringArg(args, "out", null);
+            if (outFile != null) {
+                simulator.save(outFile, durationSeconds);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error preparing workload data: " + e.getMessage());
+        } finally {
+            ArchiveLog.getInstance().shutdown();
+            DbConnection.closeConnection();
+        }
+    }
+
+    private static Map<Flow, Integer> parseMix(String mix) {
+        Map<Flow, Integer> weights = new EnumMap<>(Flow.class);
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split(":");
+            Flow match = null;
+            for (Flow flow : Flow.values()) {
+                if (flow.key.equalsIgnoreCase(pair[0])) {
+                    match = flow;
+                }
+            }
+            int weight = -1;
+            if (match != null && pair.length == 2) {
+                try {
+                    weight = Integer.parseInt(pair[1].trim());
+                } catch (NumberFormatException e) {
+                    weight = -1;
+                }
+            }
+            if (weight < 0) {
+                System.err.println("Invalid mix entry '" + part + "'; expected flow:weight with a flow out of "
+                        + "browse, search, myRequests, request, review, archive");
+                return null;
+            }
+            weights.put(match, weight);
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            System.err.println("The mix needs at least one flow with a positive weight");
+            return null;
+        }
+        return weights;
+    }
+
+    /**
+     * Samples the pets, accounts and pending requests the flows pick from
+     * Rows are read from random points of each table so large tables are covered evenly.
+     */
+    private void sample(SplittableRandom random) throws SQLException {
+        List<Integer> petIds = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        sample(random, "tbl_pet", "pet_id",
+                "SELECT pet_id, pet_name FROM tbl_pet WHERE pet_id >= ? AND adoption_status = 'Available' AND archived = 0 " +
+                "ORDER BY pet_id LIMIT " + SAMPLE_PROBE_ROWS,
+                rs -> {
+                    petIds.add(rs.getInt(1));
+                    names.add(rs.getString(2));
+                });
+        availablePetIds = petIds.stream().mapToInt(Integer::intValue).toArray();
+        petNames = names.toArray(new String[0]);
+
+        sample(random, "users", "id",
+                "SELECT u.username, u.password, a.adopter_id FROM users u JOIN tbl_adopter a ON a.username = u.username " +
+                "WHERE u.id >= ? AND u.role = 'adopter' AND u.archived = 0 AND a.archived = 0 ORDER BY u.id LIMIT " + SAMPLE_PROBE_ROWS,
+                rs -> adopters.add(new Account(rs.getString(1), rs.getString(2), rs.getInt(3))));
+        try (Connection conn = DbConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT username, password, id FROM users WHERE role = 'admin' AND archived = 0")) {
+            while (rs.next()) {
+                admins.add(new Account(rs.getString(1), rs.getString(2), rs.getInt(3)));
+            }
+        }
+
+        sample(random, "tbl_adoption_request", "adoption_request_id",
+                "SELECT r.adoption_request_id, u.username, u.password, o.pet_owner_id FROM tbl_adoption_request r " +
+                "JOIN tbl_pet p ON p.pet_id = r.pet_id JOIN tbl_pet_owner o ON o.pet_owner_id = p.pet_owner_id " +
+                "JOIN users u ON u.username = o.username " +
+                "WHERE r.adoption_request_id >= ? AND r.status = 'Pending' ORDER BY r.adoption_request_id LIMIT " + SAMPLE_PROBE_ROWS,
+                rs -> pendingReviews.add(new Review(rs.getInt(1), new Account(rs.getString(2), rs.getString(3), rs.getInt(4)))));
+
+        List<Integer> adopted = new ArrayList<>();
+        sample(random, "tbl_pet", "pet_id",
+                "SELECT pet_id FROM tbl_pet WHERE pet_id >= ? AND adoption_status = 'Adopted' AND archived = 0 " +
+                "ORDER BY pet_id LIMIT " + SAMPLE_PROBE_ROWS,
+                rs -> adopted.add(rs.getInt(1)));
+        adoptedPetIds.addAll(adopted);
+
+        System.out.println("Sampled " + availablePetIds.length + " available pets, " + adopters.size() + " adopters, "
+                + admins.size() + " admins, " + pendingReviews.size() + " pending requests with owner logins and "
+                + adoptedPetIds.size() + " adopted pets");
+        if (availablePetIds.length == 0 || adopters.isEmpty()) {
+            throw new SQLException("The database needs available pets and adopter accounts; fill it with DataGenerator first");
+        }
+    }
+
+    /**
+     * Reads up to SAMPLE_SIZE rows, SAMPLE_PROBE_ROWS at a time from random starting IDs
+     * @param sql Query taking the starting ID as its only parameter
+     */
+    private static void sample(SplittableRandom random, String table, String idColumn, String sql, RowHandler handler)
+            throws SQLException {
+        try (Connection conn = DbConnection.getConnection()) {
+            int minId;
+            int maxId;
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT COALESCE(MIN(" + idColumn + "), 0), COALESCE(MAX(" + idColumn + "), 0) FROM " + table)) {
+                rs.next();
+                minId = rs.getInt(1);
+                maxId = rs.getInt(2);
+            }
+
+            int rows = 0;
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (int probe = 0; probe < SAMPLE_SIZE / SAMPLE_PROBE_ROWS * 2 && rows < SAMPLE_SIZE; probe++) {
+                    pstmt.setInt(1, minId + random.nextInt(Math.max(1, maxId - minId + 1)));
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            handler.handle(rs);
+                            rows++;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs the workers through the warm-up and the measured period
+     */
+    private void run(int threads, int warmupSeconds, int durationSeconds, int rate, int thinkMillis, long seed) {
+        PrintStream out = System.out;
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch done = new CountDownLatch(threads);
+        long intervalNanos = rate > 0 ? (long) (threads * 1_000_000_000.0 / rate) : 0;
+        int totalWeight = weights.values().stream().mapToInt(Integer::intValue).sum();
+
+        out.println("Running " + threads + " thread(s), " + (rate > 0 ? rate + " flows/s" : "closed loop")
+                + ", warm-up " + warmupSeconds + " s, measuring " + durationSeconds + " s");
+        // The CRUD layer reports every row it writes on stdout
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            for (int t = 0; t < threads; t++) {
+                SplittableRandom random = new SplittableRandom(seed + t);
+                Thread worker = new Thread(() -> {
+                    long next = System.nanoTime() + random.nextLong(Math.max(1, intervalNanos));
+                    while (running.get()) {
+                        long start = System.nanoTime();
+                        if (intervalNanos > 0) {
+                            if (next > start) {
+                                LockSupport.parkNanos(next - start);
+                            }
+                            start = next;
+                            next += intervalNanos;
+                        }
+                        Flow flow = pick(random, totalWeight);
+                        Outcome outcome;
+                        try {
+                            outcome = execute(flow, random);
+                        } catch (RuntimeException e) {
+                            outcome = Outcome.FAILED;
+                        }
+                        if (recording) {
+                            long micros = (System.nanoTime() - start) / 1000;
+                            stats.get(flow).record(outcome, micros);
+                            total.record(outcome, micros);
+                        }
+                        if (thinkMillis > 0) {
+                            LockSupport.parkNanos(thinkMillis * 1_000_000L);
+                        }
+                    }
+                    done.countDown();
+                }, "furever-workload-" + t);
+                worker.setDaemon(true);
+                worker.start();
+            }
+
+            pause(warmupSeconds * 1000L);
+            OperationMetrics.getInstance().reset();
+            recording = true;
+            long began = System.currentTimeMillis();
+            long end = began + durationSeconds * 1000L;
+            while (System.currentTimeMillis() < end) {
+                pause(Math.min(10_000, end - System.currentTimeMillis()));
+                long elapsed = Math.max(1, System.currentTimeMillis() - began);
+                out.printf("  %3d s: %,d flows (%.1f/s), %d failed%n", elapsed / 1000, total.completed.sum(),
+                        total.completed.sum() * 1000.0 / elapsed, total.failed.sum());
+            }
+            recording = false;
+            running.set(false);
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        } finally {
+            System.setOut(out);
+        }
+    }
+
+    private Flow pick(SplittableRandom random, int totalWeight) {
+        int roll = random.nextInt(totalWeight);
+        for (Map.Entry<Flow, Integer> entry : weights.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        return Flow.BROWSE;
+    }
+
+    private Outcome execute(Flow flow, SplittableRandom random) {
+        switch (flow) {
+            case BROWSE:
+                return browse(random);
+            case SEARCH:
+                return search(random);
+            case MY_REQUESTS:
+                return viewMyRequests(random);
+            case REQUEST:
+                return submitRequest(random);
+            case REVIEW:
+                return reviewRequest(random);
+            case ARCHIVE:
+                return archiveAdoptedPet(random);
+            default:
+                return Outcome.SKIPPED;
+        }
+    }
+
+    /**
+     * Guest browsing available pets a few pages deep, then opening one of them
+     */
+    private Outcome browse(SplittableRandom random) {
+        PageCursor cursor = PageCursor.FIRST;
+        List<Pet> seen = new ArrayList<>();
+        int pages = 1 + random.nextInt(MAX_BROWSED_PAGES);
+        for (int i = 0; i < pages; i++) {
+            Page<Pet> page = petCRUD.getPetsByAdoptionStatusPage("Available", cursor, PAGE_SIZE);
+            if (page == null) {
+                return Outcome.FAILED;
+            }
+            seen.addAll(page.getItems());
+            if (!page.hasMore()) {
+                break;
+            }
+            cursor = page.getNextCursor();
+        }
+        if (!seen.isEmpty()) {
+            petCRUD.getPetById(seen.get(random.nextInt(seen.size())).getPetId());
+        }
+        return Outcome.OK;
+    }
+
+    /**
+     * Guest searching pets by the start of a name
+     */
+    private Outcome search(SplittableRandom random) {
+        String name = petNames[random.nextInt(petNames.length)];
+        return petCRUD.searchPetsByName(name.substring(0, Math.min(3, name.length()))) != null ? Outcome.OK : Outcome.FAILED;
+    }
+
+    /**
+     * Adopter logging in and opening "My Adoption Requests"
+     */
+    private Outcome viewMyRequests(SplittableRandom random) {
+        Account account = adopters.get(random.nextInt(adopters.size()));
+        if (userCRUD.authenticateUser(account.username, account.password) == null) {
+            return Outcome.FAILED;
+        }
+        Adopter adopter = adopterCRUD.getAdopterByUsername(account.username);
+        if (adopter == null) {
+            return Outcome.FAILED;
+        }
+        requestCRUD.getRequestListingsByAdopter(adopter.getAdopterId());
+        return Outcome.OK;
+    }
+
+    /**
+     * Adopter logging in, looking through available pets and asking to adopt one
+     * The pet list is read a page at a time, as the paged screens do.
+     */
+    private Outcome submitRequest(SplittableRandom random) {
+        Account account = adopters.get(random.nextInt(adopters.size()));
+        if (userCRUD.authenticateUser(account.username, account.password) == null) {
+            return Outcome.FAILED;
+        }
+        Adopter adopter = adopterCRUD.getAdopterByUsername(account.username);
+        if (adopter == null) {
+            return Outcome.FAILED;
+        }
+        petCRUD.getPetsByAdoptionStatusPage("Available", PageCursor.FIRST, PAGE_SIZE);
+        Pet pet = petCRUD.getPetById(availablePetIds[random.nextInt(availablePetIds.length)]);
+        if (pet == null || !"Available".equals(pet.getAdoptionStatus())) {
+            return Outcome.SKIPPED;
+        }
+
+        AdoptionRequest request = new AdoptionRequest();
+        request.setAdopterId(adopter.getAdopterId());
+        request.setPetId(pet.getPetId());
+        request.setStatus("Pending");
+        request.setRequestDate(new Date(System.currentTimeMillis()));
+        return requestCRUD.createAdoptionRequest(request) ? Outcome.OK : Outcome.FAILED;
+    }
+
+    /**
+     * Pet owner logging in, listing their pets and approving or rejecting a pending request
+     */
+    private Outcome reviewRequest(SplittableRandom random) {
+        Review review = pendingReviews.poll();
+        if (review == null) {
+            return Outcome.SKIPPED;
+        }
+        if (userCRUD.authenticateUser(review.owner.username, review.owner.password) == null) {
+            return Outcome.FAILED;
+        }
+        petCRUD.getPetsByOwner(review.owner.id);
+        AdoptionRequest request = requestCRUD.getAdoptionRequestById(review.requestId);
+        if (request == null || !"Pending".equals(request.getStatus())) {
+            return Outcome.SKIPPED;
+        }
+
+        if (random.nextDouble() < APPROVAL_SHARE) {
+            if (!requestCRUD.approveAdoptionRequestSafely(review.requestId, new Date(System.currentTimeMillis()), "Approved in workload run")) {
+                return Outcome.FAILED;
+            }
+            adoptedPetIds.add(request.getPetId());
+            return Outcome.OK;
+        }
+        return requestCRUD.rejectAdoptionRequest(review.requestId, "Rejected in workload run") ? Outcome.OK : Outcome.FAILED;
+    }
+
+    /**
+     * Admin logging in and archiving an adopted pet
+     */
+    private Outcome archiveAdoptedPet(SplittableRandom random) {
+        if (admins.isEmpty()) {
+            return Outcome.SKIPPED;
+        }
+        Integer petId = adoptedPetIds.poll();
+        if (petId == null) {
+            return Outcome.SKIPPED;
+        }
+        Account admin = admins.get(random.nextInt(admins.size()));
+        if (userCRUD.authenticateUser(admin.username, admin.password) == null) {
+            return Outcome.FAILED;
+        }
+        return petCRUD.archivePet(petId, admin.id, "Workload run: adopted pet archived") ? Outcome.OK : Outcome.FAILED;
+    }
+
+    /**
+     * Prints throughput and latency per flow, then the slowest CRUD operations behind them
+     */
+    private void report(int threads, int durationSeconds, int rate) {
+        System.out.println("\n" + "=".repeat(118));
+        System.out.printf("%-12s %10s %10s %8s %9s %10s %10s %10s %10s %10s%n",
+                "Flow", "Completed", "Flows/s", "Err%", "Skipped", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "Max ms");
+        System.out.println("-".repeat(118));
+        for (Flow flow : Flow.values()) {
+            if (weights.getOrDefault(flow, 0) > 0) {
+                printRow(flow.key, stats.get(flow), durationSeconds);
+            }
+        }
+        System.out.println("-".repeat(118));
+        printRow("Total", total, durationSeconds);
+        System.out.println("=".repeat(118));
+
+        double throughput = total.completed.sum() / (double) durationSeconds;
+        // Little's law: flows in progress on average, to compare with the thread count
+        double inFlight = throughput * total.latency.getMean() / 1_000_000.0;
+        System.out.printf("%.1f flows/s with %d thread(s)%s; %.1f flows in progress on average%n", throughput, threads,
+                rate > 0 ? " at a target of " + rate + "/s" : "", inFlight);
+
+        OperationMetrics metrics = OperationMetrics.getInstance();
+        if (!OperationMetrics.isEnabled()) {
+            return;
+        }
+        System.out.printf("Connection wait: p99 %.2f ms, max %.2f ms, %d failed borrow(s)%n",
+                metrics.getConnectionWaitP99Micros() / 1000.0, metrics.getConnectionWaitMaxMicros() / 1000.0,
+                metrics.getBorrowFailures());
+        System.out.println("\nSlowest CRUD operations by total time:");
+        List<OperationMetrics.OperationStats> operations = metrics.getOperations();
+        for (OperationMetrics.OperationStats operation : operations.subList(0, Math.min(REPORTED_OPERATIONS, operations.size()))) {
+            System.out.printf("  %-50s %9d calls  avg %8.2f ms  p99 %8.2f ms%n", operation.getLabel(50), operation.getCount(),
+                    operation.getAverageMicros() / 1000.0, operation.getPercentileMicros(99) / 1000.0);
+        }
+    }
+
+    private static void printRow(String name, FlowStats flowStats, int durationSeconds) {
+        LatencyHistogram latency = flowStats.latency;
+        long completed = flowStats.completed.sum();
+        System.out.printf("%-12s %10d %10.1f %7.2f%% %9d %10.2f %10.2f %10.2f %10.2f %10.2f%n",
+                name, completed, completed / (double) durationSeconds,
+                completed == 0 ? 0.0 : flowStats.failed.sum() * 100.0 / completed, flowStats.skipped.sum(),
+                latency.getPercentile(50) / 1000.0, latency.getPercentile(90) / 1000.0, latency.getPercentile(99) / 1000.0,
+                latency.getPercentile(99.9) / 1000.0, latency.getMax() / 1000.0);
+    }
+
+    private void save(String file, int durationSeconds) {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
+            writer.println("flow,completed,flows_per_second,failed,skipped,p50_ms,p90_ms,p99_ms,p999_ms,max_ms");
+            for (Flow flow : Flow.values()) {
+                saveRow(writer, flow.key, stats.get(flow), durationSeconds);
+            }
+            saveRow(writer, "total", total, durationSeconds);
+            System.out.println("Results saved to " + file);
+        } catch (IOException e) {
+            System.err.println("Error saving workload results: " + e.getMessage());
+        }
+    }
+
+    private static void saveRow(PrintWriter writer, String name, FlowStats flowStats, int durationSeconds) {
+        LatencyHistogram latency = flowStats.latency;
+        writer.printf(Locale.ROOT, "%s,%d,%.3f,%d,%d,%.3f,%.3f,%.3f,%.3f,%.3f%n", name, flowStats.completed.sum(),
+                flowStats.completed.sum() / (double) durationSeconds, flowStats.failed.sum(), flowStats.skipped.sum(),
+                latency.getPercentile(50) / 1000.0, latency.getPercentile(90) / 1000.0, latency.getPercentile(99) / 1000.0,
+                latency.getPercentile(99.9) / 1000.0, latency.getMax() / 1000.0);
+    }
+
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(Math.max(0, millis));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static int intArg(String[] args, String name, int defaultValue) {
+        String value = stringArg(args, name, null);
+        try {
+            return value != null ? Integer.parseInt(value) : defaultValue;
+        } catch (NumberFormatException e) {
+            System.err.println("Ignoring invalid value for " + name + ": " + value);
+            return defaultValue;
+        }
+    }
+
+    private static String stringArg(String[] args, String name, String defaultValue) {
+        for (String arg : args) {
+            if (arg.startsWith(name + "=")) {
+                return arg.substring(name.length() + 1);
+            }
+        }
+        return defaultValue;
+    }
+
+    @FunctionalInterface
+    private interface RowHandler {
+        void handle(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Login of a sampled user
+     */
+    private static final class Account {
+        private final String username;
+        private final String password;
+        private final int id;
+
+        Account(String username, String password, int id) {
+            this.username = username;
+            this.password = password;
+            this.id = id;
+        }
+    }
+
+    /**
+     * Pending request together with the owner of the pet it is for
+     */
+    private static final class Review {
+        private final int requestId;
+        private final Account owner;
+
+        Review(int requestId, Account owner) {
+            this.requestId = requestId;
+            this.owner = owner;
+        }
+    }
+
+    /**
+     * Completed, failed and skipped counts and latency of one flow
+     * Skipped flows did no real work and are left out of the latency.
+     */
+    private static final class FlowStats {
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder skipped = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        void record(Outcome outcome, long micros) {
+            if (outcome == Outcome.SKIPPED) {
+                skipped.increment();
+                return;
+            }
+            completed.increment();
+            if (outcome == Outcome.FAILED) {
+                failed.increment();
+            }
+            latency.record(micros);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.furever.utils;
+
+/**
+ *
+ * @author jerimiahtongco
+ */
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Bounded read-through cache with a per-entry time to live
+ * Entries are evicted least-recently-used once the cache is full.
+ * Values are copied on the way in and out so callers can never modify a cached object.
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class EntityCache<K, V> {
+
+    private static final List<EntityCache<?, ?>> REGISTRY = new CopyOnWriteArrayList<>();
+
+    private final String name;
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final UnaryOperator<V> copier;
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    // Bumped on every invalidation so a load that raced a write is not stored
+    private long generation = 0;
+
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    /**
+     * Creates a cache and registers it for cache statistics
+     * @param <K> key type
+     * @param <V> value type
+     * @param name Name shown in cache statistics
+     * @param maxEntries Maximum number of entries kept
+     * @param ttlMillis Time to live of an entry in milliseconds
+     * @param copier Makes a defensive copy of a value
+     * @return registered cache
+     */
+    public static <K, V> EntityCache<K, V> create(String name, int maxEntries, long ttlMillis, UnaryOperator<V> copier) {
+        EntityCache<K, V> cache = new EntityCache<>(name, maxEntries, ttlMillis, copier);
+        REGISTRY.add(cache);
+        return cache;
+    }
+
+    private EntityCache(String name, int maxEntries, long ttlMillis, UnaryOperator<V> copier) {
+        this.name = name;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.copier = copier;
+        this.entries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > EntityCache.this.maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Gets every cache created so far
+     * @return Registered caches in creation order
+     */
+    public static List<EntityCache<?, ?>> getRegisteredCaches() {
+        return Collections.unmodifiableList(REGISTRY);
+    }
+
+    /**
+     * Gets a value, loading it on a miss
+     * The loader runs outside the cache lock; null results are not cached
+     * @param key Cache key
+     * @param loader Reads the value from the database
+     * @return copy of the cached or loaded value, or null if the loader found nothing
+     */
+    public V get(K key, Function<K, V> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expiresAt > System.currentTimeMillis()) {
+                    hits++;
+                    return copier.apply(entry.value);
+                }
+                entries.remove(key);
+            }
+            misses++;
+            loadGeneration = generation;
+        }
+
+        V loaded = loader.apply(key);
+        if (loaded == null) {
+            return null;
+        }
+
+        synchronized (this) {
+            if (generation == loadGeneration) {
+                entries.put(key, new Entry<>(copier.apply(loaded), System.currentTimeMillis() + ttlMillis));
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Gets a cached value without loading it
+     * @param key Cache key
+     * @return copy of the cached value, or null if absent or expired
+     */
+    public synchronized V peek(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null || entry.expiresAt <= System.currentTimeMillis()) {
+            return null;
+        }
+        return copier.apply(entry.value);
+    }
+
+    /**
+     * Stores a value that was just read or written
+     * @param key Cache key
+     * @param value Value to cache; null removes the key
+     */
+    public synchronized void put(K key, V value) {
+        if (value == null) {
+            entries.remove(key);
+            return;
+        }
+        entries.put(key, new Entry<>(copier.apply(value), System.currentTimeMillis() + ttlMillis));
+    }
+
+    /**
+     * Removes one key
+     * @param key Cache key
+     */
+    public synchronized void invalidate(K key) {
+        generation++;
+        entries.remove(key);
+    }
+
+    /**
+     * Removes every entry whose value matches a condition
+     * @param condition Condition on the cached value
+     */
+    public synchronized void invalidateIf(Predicate<V> condition) {
+        generation++;
+        Iterator<Entry<V>> it = entries.values().iterator();
+        while (it.hasNext()) {
+            if (condition.test(it.next().value)) {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Removes every entry
+     */
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+    }
+
+    /**
+     * Resets the hit, miss and eviction counters
+     */
+    public synchronized void resetStatistics() {
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+
+    public String getName() { return name; }
+    public synchronized int size() { return entries.size(); }
+    public synchronized long getHits() { return hits; }
+    public synchronized long getMisses() { return misses; }
+    public synchronized long getEvictions() { return evictions; }
+
+    /**
+     * Gets the share of lookups served from the cache
+     * @return hit rate between 0 and 1, or 0 before the first lookup
+     */
+    public synchronized double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+
+    /**
+     * Copies the statistics of every registered cache into printable lines
+     * @return One line per cache
+     */
+    public static List<String> describeRegisteredCaches() {
+        List<String> lines = new ArrayList<>();
+        for (EntityCache<?, ?> cache : REGISTRY) {
+            lines.add(String.format("%-22s size %4d  hits %6d  misses %6d  evictions %4d  hit rate %5.1f%%",
+                    cache.getName(), cache.size(), cache.getHits(), cache.getMisses(),
+                    cache.getEvictions(), cache.getHitRate() * 100));
+        }
+        return lines;
+    }
+
+    /**
+     * A cached value with its expiry time
+     */
+    private static class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -26,6 +26,53 @@ public class InputValidator {
     // Phone pattern for validation (Philippine mobile numbers)
     private static final Pattern PHONE_PATTERN = Pattern.compile("^09\\d{9}$");
     
+    /**
+     * Checks an email address against the rule used by getEmailInput
+     * @param value Email address
+     * @return true if the value is a valid email address
+     */
+    public static boolean isValidEmail(String value) {
+        return value != null && EMAIL_PATTERN.matcher(value).matches();
+    }
+    
+    /**
+     * Checks a phone number against the rule used by getPhoneInput
+     * @param value Phone number
+     * @return true if the value is a Philippine mobile number (09xxxxxxxxx)
+     */
+    public static boolean isValidPhone(String value) {
+        return value != null && PHONE_PATTERN.matcher(value).matches();
+    }
+    
+    /**
+     * Checks a date against the rule used by getDateInput
+     * @param value Date text
+     * @return true if the value is a valid date in YYYY-MM-DD format
+     */
+    public static boolean isValidDate(String value) {
+        if (value == null || !value.matches("\\d{4}-\\d{2}-\\d{2}")) {
+            return false;
+        }
+        try {
+            java.sql.Date.valueOf(value); // This will throw exception if invalid date
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+    
+    /**
+     * Checks a string length against the rule used by getStringInput
+     * @param value String to check, trimmed by the caller
+     * @param minLength Minimum length required
+     * @param maxLength Maximum length allowed
+     * @return true if the length is within the bounds
+     */
+    public static boolean isLengthBetween(String value, int minLength, int maxLength) {
+        int length = value != null ? value.length() : 0;
+        return length >= minLength && length <= maxLength;
+    }
+    
     /**
      * Gets integer input with validation
      * @param prompt Message to display to user
@@ -102,7 +149,7 @@ public class InputValidator {
             System.out.print(prompt);
             input = scanner.nextLine().trim();
             
-            if (input.length() >= minLength && input.length() <= maxLength) {
+            if (isLengthBetween(input, minLength, maxLength)) {
                 return input;
             } else {
                 System.out.println("Input must be between " + minLength + " and " + maxLength + " characters.");
@@ -121,7 +168,7 @@ public class InputValidator {
             System.out.print(prompt);
             input = scanner.nextLine().trim();
             
-            if (EMAIL_PATTERN.matcher(input).matches()) {
+            if (isValidEmail(input)) {
                 return input;
             } else {
                 System.out.println("Invalid email format. Please enter a valid email address.");
@@ -140,7 +187,7 @@ public class InputValidator {
             System.out.print(prompt);
             input = scanner.nextLine().trim();
             
-            if (PHONE_PATTERN.matcher(input).matches()) {
+            if (isValidPhone(input)) {
                 return input;
             } else {
                 System.out.println("Invalid phone format. Please enter a valid Philippine mobile number (09xxxxxxxxx).");
@@ -202,14 +249,10 @@ public class InputValidator {
             System.out.print(prompt + " (YYYY-MM-DD): ");
             input = scanner.nextLine().trim();
             
-            // Basic date format validation
-            if (input.matches("\\d{4}-\\d{2}-\\d{2}")) {
-                try {
-                    java.sql.Date.valueOf(input); // This will throw exception if invalid date
-                    return input;
-                } catch (IllegalArgumentException e) {
-                    System.out.println("Invalid date. Please enter a valid date in YYYY-MM-DD format.");
-                }
+            if (isValidDate(input)) {
+                return input;
+            } else if (input.matches("\\d{4}-\\d{2}-\\d{2}")) {
+                System.out.println("Invalid date. Please enter a valid date in YYYY-MM-DD format.");
             } else {
                 System.out.println("Invalid date format. Please use YYYY-MM-DD format.");
             }
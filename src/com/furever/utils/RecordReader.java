@@ -0,0 +1,226 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.furever.utils;
+
+/**
+ *
+ * @author jerimiahtongco
+ */
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.furever.api.Json;
+
+/**
+ * Streaming reader of flat records from CSV or JSON, one record in memory at a time
+ * CSV: the first row holds the column names; fields follow RFC 4180 quoting, so quoted
+ * fields may contain commas, doubled quotes and line breaks.
+ * JSON: either an array of flat objects or one object per line (JSON Lines).
+ * Every value is returned as a string, or null for an empty CSV field or a JSON null.
+ */
+public final class RecordReader implements Closeable {
+
+    public enum Format {
+        CSV, JSON;
+
+        /**
+         * Picks the format from a file name extension
+         * @param fileName File name
+         * @return JSON for .json and .jsonl files, CSV otherwise
+         */
+        public static Format fromFileName(String fileName) {
+            String lower = fileName.toLowerCase();
+            return lower.endsWith(".json") || lower.endsWith(".jsonl") ? JSON : CSV;
+        }
+    }
+
+    private final BufferedReader in;
+    private final Format format;
+    private List<String> header;
+    private int recordNumber = 0;
+
+    /**
+     * Creates a reader
+     * @param in Source text; closed by close()
+     * @param format Record format
+     */
+    public RecordReader(Reader in, Format format) {
+        this.in = in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader(in, 64 * 1024);
+        this.format = format;
+    }
+
+    /**
+     * Reads the next record
+     * @return column values by column name, or null at the end of the input
+     * @throws IOException if the input cannot be read
+     * @throws IllegalArgumentException if the input is malformed
+     */
+    public Map<String, String> next() throws IOException {
+        Map<String, String> record = format == Format.CSV ? nextCsv() : nextJson();
+        if (record != null) {
+            recordNumber++;
+        }
+        return record;
+    }
+
+    /**
+     * Gets the position of the record last returned by next()
+     * @return 1-based record number, not counting the CSV header
+     */
+    public int getRecordNumber() {
+        return recordNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private Map<String, String> nextCsv() throws IOException {
+        if (header == null) {
+            header = readCsvRow();
+            if (header == null) {
+                return null;
+            }
+            // Spreadsheet exports often start with a UTF-8 byte order mark
+            if (header.get(0).startsWith("\uFEFF")) {
+                header.set(0, header.get(0).substring(1));
+            }
+            for (int i = 0; i < header.size(); i++) {
+                header.set(i, header.get(i).trim().toLowerCase());
+            }
+        }
+
+        List<String> row;
+        do {
+            row = readCsvRow();
+            if (row == null) {
+                return null;
+            }
+        } while (row.size() == 1 && row.get(0).isEmpty()); // blank line
+
+        if (row.size() > header.size()) {
+            throw new IllegalArgumentException("Record " + (recordNumber + 1) + " has " + row.size()
+                    + " fields but the header has " + header.size());
+        }
+        Map<String, String> record = new LinkedHashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String value = i < row.size() ? row.get(i) : "";
+            record.put(header.get(i), value.isEmpty() ? null : value);
+        }
+        return record;
+    }
+
+    /**
+     * Reads one CSV row, which may span several lines inside quotes
+     * @return fields, or null at the end of the input
+     */
+    private List<String> readCsvRow() throws IOException {
+        int c = in.read();
+        if (c == -1) {
+            return null;
+        }
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IllegalArgumentException("Unterminated quoted field in record " + (recordNumber + 1));
+                }
+                if (c == '"') {
+                    in.mark(1);
+                    int next = in.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        in.reset();
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = in.read();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * Reads the next flat object, skipping the array brackets and separating commas
+     */
+    private Map<String, String> nextJson() throws IOException {
+        int c;
+        do {
+            c = in.read();
+        } while (c != -1 && (Character.isWhitespace(c) || c == '[' || c == ',' || c == ']'));
+        if (c == -1) {
+            return null;
+        }
+        if (c != '{') {
+            throw new IllegalArgumentException("Expected a JSON object at record " + (recordNumber + 1));
+        }
+
+        // Collect the object text; flat objects only, so the first unquoted '}' ends it
+        StringBuilder text = new StringBuilder(256).append('{');
+        boolean inString = false;
+        while (true) {
+            c = in.read();
+            if (c == -1) {
+                throw new IllegalArgumentException("Unterminated JSON object at record " + (recordNumber + 1));
+            }
+            text.append((char) c);
+            if (inString) {
+                if (c == '\\') {
+                    int escaped = in.read();
+                    if (escaped == -1) {
+                        throw new IllegalArgumentException("Unterminated JSON string at record " + (recordNumber + 1));
+                    }
+                    text.append((char) escaped);
+                } else if (c == '"') {
+                    inString = false;
+                }
+            } else if (c == '"') {
+                inString = true;
+            } else if (c == '}') {
+                break;
+            }
+        }
+
+        Map<String, String> record = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> field : Json.parseObject(text.toString()).entrySet()) {
+            record.put(field.getKey().toLowerCase(), jsonValue(field.getValue()));
+        }
+        return record;
+    }
+
+    private static String jsonValue(Object value) {
+        if (value instanceof Double) {
+            double number = (Double) value;
+            // Whole numbers are IDs and ages; keep them parseable as integers
+            if (number == Math.rint(number) && Math.abs(number) < 1e15) {
+                return Long.toString((long) number);
+            }
+        }
+        return value != null ? value.toString() : null;
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.furever.utils;
+
+/**
+ *
+ * @author jerimiahtongco
+ */
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+import com.furever.api.Json;
+
+/**
+ * Streaming writer of flat records as CSV or JSON, the counterpart of RecordReader
+ * CSV starts with a header row; JSON is an array with one object per line.
+ */
+public final class RecordWriter implements Closeable {
+
+    private final BufferedWriter out;
+    private final RecordReader.Format format;
+    private final List<String> columns;
+    private int recordCount = 0;
+
+    /**
+     * Creates a writer and writes the CSV header or opening bracket
+     * @param out Target; closed by close()
+     * @param format Record format
+     * @param columns Column names, in output order
+     * @throws IOException if the target cannot be written
+     */
+    public RecordWriter(Writer out, RecordReader.Format format, List<String> columns) throws IOException {
+        this.out = out instanceof BufferedWriter ? (BufferedWriter) out : new BufferedWriter(out, 64 * 1024);
+        this.format = format;
+        this.columns = List.copyOf(columns);
+
+        if (format == RecordReader.Format.CSV) {
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    this.out.write(',');
+                }
+                this.out.write(csvField(columns.get(i)));
+            }
+            this.out.write("\r\n");
+        } else {
+            this.out.write('[');
+        }
+    }
+
+    /**
+     * Writes one record
+     * @param values Values in column order; null is written as an empty CSV field or a JSON null
+     * @throws IOException if the target cannot be written
+     */
+    public void write(List<String> values) throws IOException {
+        if (values.size() != columns.size()) {
+            throw new IllegalArgumentException("Expected " + columns.size() + " values but got " + values.size());
+        }
+
+        if (format == RecordReader.Format.CSV) {
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                if (values.get(i) != null) {
+                    out.write(csvField(values.get(i)));
+                }
+            }
+            out.write("\r\n");
+        } else {
+            Json.ObjectBuilder object = Json.object();
+            for (int i = 0; i < values.size(); i++) {
+                object.put(columns.get(i), values.get(i));
+            }
+            out.write(recordCount == 0 ? "\n" : ",\n");
+            out.write(object.toString());
+        }
+        recordCount++;
+    }
+
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Finishes the output and closes the target
+     */
+    @Override
+    public void close() throws IOException {
+        if (format == RecordReader.Format.JSON) {
+            out.write("\n]\n");
+        }
+        out.close();
+    }
+
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.furever.utils;
+
+/**
+ *
+ * @author jerimiahtongco
+ */
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index from record IDs to a searchable text value
+ * Supports substring, prefix and typo-tolerant matching with ranked results
+ */
+public class TrigramIndex {
+
+    // Minimum Dice similarity for a match that is not a substring
+    private static final double MIN_FUZZY_SIMILARITY = 0.4;
+
+    private final Map<Integer, String> terms = new HashMap<>();
+    private final Map<String, Set<Integer>> postings = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Adds or replaces the text indexed for a record
+     * @param id Record ID
+     * @param text Text to index; null or blank removes the record
+     */
+    public void put(int id, String text) {
+        String term = normalize(text);
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            if (term.isEmpty()) {
+                return;
+            }
+            terms.put(id, term);
+            for (String gram : trigrams(term)) {
+                postings.computeIfAbsent(gram, g -> new HashSet<>()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a record from the index
+     * @param id Record ID
+     */
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every record from the index
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            terms.clear();
+            postings.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of indexed records
+     * @return number of records
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return terms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Searches the index
+     * Results are ranked exact match first, then prefix, substring and finally
+     * fuzzy matches, each group ordered by trigram similarity
+     * @param query Search text
+     * @param limit Maximum number of IDs to return
+     * @return Matching record IDs, best match first
+     */
+    public List<Integer> search(String query, int limit) {
+        String q = normalize(query);
+        List<Integer> ids = new ArrayList<>();
+        if (q.isEmpty() || limit <= 0) {
+            return ids;
+        }
+
+        Set<String> queryGrams = trigrams(q);
+        List<Match> matches = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            if (q.length() < 3) {
+                // Too short for inner trigrams; a scan is cheap for one or two characters
+                for (Map.Entry<Integer, String> entry : terms.entrySet()) {
+                    String term = entry.getValue();
+                    if (term.contains(q)) {
+                        matches.add(new Match(entry.getKey(), term, kind(term, q), dice(queryGrams, term)));
+                    }
+                }
+            } else {
+                Map<Integer, Integer> shared = new HashMap<>();
+                for (String gram : queryGrams) {
+                    Set<Integer> posting = postings.get(gram);
+                    if (posting != null) {
+                        for (Integer id : posting) {
+                            shared.merge(id, 1, Integer::sum);
+                        }
+                    }
+                }
+
+                for (Map.Entry<Integer, Integer> entry : shared.entrySet()) {
+                    String term = terms.get(entry.getKey());
+                    int kind = kind(term, q);
+                    // A padded term of length n has n + 1 trigram positions; close enough to its distinct count
+                    double similarity = 2.0 * entry.getValue() / (queryGrams.size() + term.length() + 1);
+                    if (kind > 0 || similarity >= MIN_FUZZY_SIMILARITY) {
+                        matches.add(new Match(entry.getKey(), term, kind, similarity));
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        matches.sort((a, b) -> {
+            if (a.kind != b.kind) {
+                return Integer.compare(b.kind, a.kind);
+            }
+            if (a.similarity != b.similarity) {
+                return Double.compare(b.similarity, a.similarity);
+            }
+            if (a.term.length() != b.term.length()) {
+                return Integer.compare(a.term.length(), b.term.length());
+            }
+            return Integer.compare(a.id, b.id);
+        });
+
+        for (int i = 0; i < matches.size() && i < limit; i++) {
+            ids.add(matches.get(i).id);
+        }
+        return ids;
+    }
+
+    /**
+     * Removes a record while the write lock is held
+     * @param id Record ID
+     */
+    private void removeLocked(int id) {
+        String old = terms.remove(id);
+        if (old == null) {
+            return;
+        }
+        for (String gram : trigrams(old)) {
+            Set<Integer> posting = postings.get(gram);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Classifies how a term contains the query
+     * @param term Normalized term
+     * @param q Normalized query
+     * @return 3 for exact, 2 for prefix, 1 for substring, 0 otherwise
+     */
+    private static int kind(String term, String q) {
+        if (term.equals(q)) {
+            return 3;
+        }
+        if (term.startsWith(q)) {
+            return 2;
+        }
+        return term.contains(q) ? 1 : 0;
+    }
+
+    /**
+     * Dice similarity between query trigrams and a term
+     * @param queryGrams Trigrams of the query
+     * @param term Normalized term
+     * @return similarity between 0 and 1
+     */
+    private static double dice(Set<String> queryGrams, String term) {
+        Set<String> termGrams = trigrams(term);
+        int shared = 0;
+        for (String gram : queryGrams) {
+            if (termGrams.contains(gram)) {
+                shared++;
+            }
+        }
+        return 2.0 * shared / (queryGrams.size() + termGrams.size());
+    }
+
+    /**
+     * Lower-cases, trims and collapses whitespace
+     * @param text Raw text
+     * @return normalized text, never null
+     */
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Splits a normalized term into trigrams, padded so that the first
+     * characters and the end of the term form their own trigrams
+     * @param term Normalized term
+     * @return distinct trigrams
+     */
+    private static Set<String> trigrams(String term) {
+        String padded = "  " + term + " ";
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    /**
+     * A candidate record with its ranking data
+     */
+    private static class Match {
+        private final int id;
+        private final String term;
+        private final int kind;
+        private final double similarity;
+
+        Match(int id, String term, int kind, double similarity) {
+            this.id = id;
+            this.term = term;
+            this.kind = kind;
+            this.similarity = similarity;
+        }
+    }
+}